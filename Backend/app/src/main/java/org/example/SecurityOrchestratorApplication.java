@@ -19,7 +19,14 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 })
 public class SecurityOrchestratorApplication {
 
+    private static final String HTTP_CLIENT_KEEP_ALIVE = "jdk.httpclient.keepalive.timeout";
+
     public static void main(String[] args) {
+        // The JDK HTTP client reads its idle keep-alive timeout once, JVM-wide, and defaults to 30 s,
+        // shorter than the pause between steps of an interactive session. An explicit -D setting wins.
+        if (System.getProperty(HTTP_CLIENT_KEEP_ALIVE) == null) {
+            System.setProperty(HTTP_CLIENT_KEEP_ALIVE, "300");
+        }
         SpringApplication.run(SecurityOrchestratorApplication.class, args);
     }
 
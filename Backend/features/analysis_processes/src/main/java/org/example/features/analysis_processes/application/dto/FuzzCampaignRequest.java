@@ -0,0 +1,36 @@
+package org.example.features.analysis_processes.application.dto;
+
+import org.example.features.analysis_processes.application.services.FuzzPayloadCorpus;
+
+import java.util.List;
+
+/**
+ * Fuzz campaign options. Every field is optional: by default all built-in payload
+ * categories are applied to every injection point the step exposes.
+ */
+public record FuzzCampaignRequest(
+    List<String> categories,
+    List<String> payloads,
+    List<String> targets,
+    Integer maxInFlight,
+    Long maxVariants
+) {
+
+    public static FuzzCampaignRequest defaults() {
+        return new FuzzCampaignRequest(null, null, null, null, null);
+    }
+
+    public List<FuzzPayloadCorpus.Category> resolvedCategories() {
+        return categories == null
+            ? List.of()
+            : categories.stream().map(FuzzPayloadCorpus.Category::fromJson).toList();
+    }
+
+    public FuzzPayloadCorpus corpus() {
+        return FuzzPayloadCorpus.of(resolvedCategories(), payloads);
+    }
+
+    public long variantLimit() {
+        return maxVariants == null ? 0 : maxVariants;
+    }
+}
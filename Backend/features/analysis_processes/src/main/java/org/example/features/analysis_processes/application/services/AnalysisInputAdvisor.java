@@ -1,5 +1,6 @@
 package org.example.features.analysis_processes.application.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
@@ -25,37 +26,49 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Component
 public class AnalysisInputAdvisor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AnalysisInputAdvisor.class);
+    private static final int MAX_COMPLETION_TOKENS = 400;
+    private static final int OPERATION_COMPLETION_TOKENS = 200;
+    private static final int MAX_ADVISED_OPERATIONS = 400;
+    private static final int RAW_SPEC_CHARS = 3000;
+    private static final String SYSTEM_PROMPT = "You help an automation engine ask users for the minimum necessary inputs. "
+        + "Answer with a JSON array of objects with fields: name (snake_case), label (short title), description, "
+        + "required (true/false). Respond with JSON only, no markdown or prose. "
+        + "If nothing is required, return an empty JSON array. "
+        + "When tokens or credentials are needed, describe them precisely.";
 
     private final ObjectProvider<LLMService> llmServiceProvider;
+    private final PromptContextPacker contextPacker;
     private final ObjectMapper yamlMapper;
     private final ObjectMapper jsonMapper;
 
-    public AnalysisInputAdvisor(ObjectProvider<LLMService> llmServiceProvider) {
+    public AnalysisInputAdvisor(ObjectProvider<LLMService> llmServiceProvider, PromptContextPacker contextPacker) {
         this.llmServiceProvider = llmServiceProvider;
+        this.contextPacker = contextPacker;
         this.yamlMapper = new ObjectMapper(new YAMLFactory());
         this.yamlMapper.findAndRegisterModules();
         this.jsonMapper = new ObjectMapper();
     }
 
-    public List<InputRequirement> determineInputs(AnalysisProcess process) {
+    /**
+     * Spec-derived inputs, extended with the LLM's suggestions once they arrive. Never completes
+     * exceptionally: an unavailable or failing LLM leaves the spec-derived list as is.
+     */
+    public CompletableFuture<List<InputRequirement>> determineInputs(AnalysisProcess process) {
         List<InputRequirement> inferred = inferFromSpecification(process.getOpenapiSpecPath());
         List<InputRequirement> defaults = defaultInputs();
         List<InputRequirement> merged = merge(defaults, inferred);
 
         LLMService llmService = llmServiceProvider.getIfAvailable();
         if (llmService == null || !llmService.isAvailable()) {
-            return merged;
+            return CompletableFuture.completedFuture(merged);
         }
-        List<InputRequirement> llmSuggestions = askLlmForInputs(process, llmService);
-        if (llmSuggestions.isEmpty()) {
-            return merged;
-        }
-        return merge(merged, llmSuggestions);
+        return askLlmForInputs(process, llmService).thenApply(llmSuggestions -> merge(merged, llmSuggestions));
     }
 
     private List<InputRequirement> merge(List<InputRequirement> base, List<InputRequirement> additions) {
@@ -77,52 +90,135 @@ public class AnalysisInputAdvisor {
         return new ArrayList<>(combined.values());
     }
 
-    private List<InputRequirement> askLlmForInputs(AnalysisProcess process, LLMService llmService) {
+    /**
+     * One question per operation, sent as a batch: the questions share the system prompt, so
+     * the LLM service packs several of them into each provider call, and every operation of a
+     * large spec is looked at instead of the excerpt that fits one prompt.
+     */
+    private CompletableFuture<List<InputRequirement>> askLlmForInputs(AnalysisProcess process, LLMService llmService) {
         if (!StringUtils.hasText(process.getOpenapiSpecPath())) {
-            return Collections.emptyList();
+            return CompletableFuture.completedFuture(Collections.emptyList());
         }
+        CompletableFuture<List<InputRequirement>> suggestions;
         try {
-            String snippet = readSnippet(process.getOpenapiSpecPath());
-            if (!StringUtils.hasText(snippet)) {
-                return Collections.emptyList();
+            List<ChatCompletionRequest> requests = adviceRequests(process);
+            if (requests.isEmpty()) {
+                return CompletableFuture.completedFuture(Collections.emptyList());
             }
+            suggestions = llmService.chatCompletionBatch(requests).thenApply(responses -> {
+                List<InputRequirement> combined = new ArrayList<>();
+                for (ChatCompletionResponse response : responses) {
+                    try {
+                        combined.addAll(parseSuggestions(response));
+                    } catch (IllegalStateException ex) {
+                        LOGGER.debug("Skipping unreadable input advice: {}", ex.getMessage());
+                    }
+                }
+                return combined;
+            });
+        } catch (Exception ex) {
+            suggestions = CompletableFuture.failedFuture(ex);
+        }
+        return suggestions.exceptionally(error -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            LOGGER.warn("Failed to get input suggestions from LLM: {}", cause.getMessage());
+            return Collections.emptyList();
+        });
+    }
 
-            ChatCompletionRequest request = new ChatCompletionRequest();
-            request.setModel("analysis-inputs");
-            request.setTemperature(0.2d);
-            request.setMaxTokens(400);
-
-            String prompt = """
-                We are preparing to run automated security tests for process "%s".
-                Review the following OpenAPI excerpt and decide which user-provided credentials, tokens or environment parameters are required before the LLM can analyse or execute tests.
-                Return JSON array of objects with fields: name (snake_case), label (short title), description, required (true/false).
-                Respond with JSON only, no markdown or prose.
+    /** Per-operation questions; a spec that cannot be parsed is asked about as raw text instead. */
+    private List<ChatCompletionRequest> adviceRequests(AnalysisProcess process) {
+        String path = process.getOpenapiSpecPath();
+        String content;
+        try {
+            content = Files.readString(Paths.get(path), StandardCharsets.UTF_8);
+        } catch (Exception ex) {
+            LOGGER.warn("Failed to read OpenAPI snippet {}: {}", path, ex.getMessage());
+            return List.of();
+        }
+        Map<String, Object> document;
+        try {
+            document = yamlMapper.readValue(content, new TypeReference<Map<String, Object>>() {});
+        } catch (Exception ex) {
+            document = null;
+        }
+        List<String> operations = document == null ? List.of() : contextPacker.operationLines(document);
+        if (operations.isEmpty()) {
+            String excerpt = content.length() <= RAW_SPEC_CHARS ? content : content.substring(0, RAW_SPEC_CHARS);
+            return StringUtils.hasText(excerpt)
+                ? List.of(adviceRequest(SYSTEM_PROMPT, """
+                    We are preparing to run automated security tests for process "%s".
+                    Review the following OpenAPI excerpt and decide which user-provided credentials, tokens or environment parameters are required before the LLM can analyse or execute tests.
 
-                OpenAPI excerpt:
-                %s
-                """.formatted(process.getName(), snippet);
+                    OpenAPI excerpt:
+                    %s
+                    """.formatted(process.getName(), excerpt), MAX_COMPLETION_TOKENS))
+                : List.of();
+        }
+        if (operations.size() > MAX_ADVISED_OPERATIONS) {
+            LOGGER.info("Asking for input advice on the first {} of {} operations of {}",
+                MAX_ADVISED_OPERATIONS, operations.size(), process.getId());
+            operations = operations.subList(0, MAX_ADVISED_OPERATIONS);
+        }
+        String system = SYSTEM_PROMPT + securitySchemes(document);
+        List<ChatCompletionRequest> requests = new ArrayList<>(operations.size());
+        for (String operation : operations) {
+            requests.add(adviceRequest(system, """
+                Process "%s" will be security tested through this API operation. Which user-provided credentials, \
+                tokens or environment parameters does calling it require?
+                %s""".formatted(process.getName(), operation), OPERATION_COMPLETION_TOKENS));
+        }
+        return requests;
+    }
 
-            request.setMessages(List.of(
-                new ChatCompletionRequest.Message("system",
-                    "You help an automation engine ask users for the minimum necessary inputs. " +
-                        "If nothing is required, return an empty JSON array. " +
-                        "When tokens or credentials are needed, describe them precisely."),
-                new ChatCompletionRequest.Message("user", prompt)
-            ));
+    private ChatCompletionRequest adviceRequest(String system, String question, int maxTokens) {
+        ChatCompletionRequest request = new ChatCompletionRequest();
+        request.setModel("analysis-inputs");
+        request.setTemperature(0.2d);
+        request.setMaxTokens(maxTokens);
+        request.setMessages(List.of(
+            new ChatCompletionRequest.Message("system", system),
+            new ChatCompletionRequest.Message("user", question)
+        ));
+        return request;
+    }
 
-            CompletableFuture<ChatCompletionResponse> future = llmService.chatCompletion(request);
-            ChatCompletionResponse response = future.join();
-            if (response.getChoices() == null || response.getChoices().isEmpty()) {
-                return Collections.emptyList();
+    /** The declared security schemes, shared by every operation's question. */
+    private String securitySchemes(Map<String, Object> document) {
+        Map<String, Object> components = safeMap(document.get("components"));
+        Map<String, Object> schemes = components == null ? null : safeMap(components.get("securitySchemes"));
+        if (schemes == null || schemes.isEmpty()) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder("\n\nSecurity schemes of the API:");
+        schemes.forEach((name, value) -> {
+            Map<String, Object> scheme = safeMap(value);
+            text.append("\n- ").append(name);
+            if (scheme != null) {
+                text.append(": ").append(asText(scheme.get("type")));
+                if (StringUtils.hasText(asText(scheme.get("scheme")))) {
+                    text.append(' ').append(asText(scheme.get("scheme")));
+                }
+                if (StringUtils.hasText(asText(scheme.get("name")))) {
+                    text.append(" (").append(asText(scheme.get("in"))).append(' ').append(asText(scheme.get("name"))).append(')');
+                }
             }
-            String content = response.getChoices().getFirst().getMessage().getContent();
+        });
+        return text.toString();
+    }
+
+    private List<InputRequirement> parseSuggestions(ChatCompletionResponse response) {
+        if (response.getChoices() == null || response.getChoices().isEmpty()) {
+            return Collections.emptyList();
+        }
+        String content = response.getChoices().getFirst().getMessage().getContent();
+        try {
             return jsonMapper.readValue(
                 content,
                 new TypeReference<List<InputRequirement>>() {}
             );
-        } catch (Exception ex) {
-            LOGGER.warn("Failed to get input suggestions from LLM: {}", ex.getMessage());
-            return Collections.emptyList();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("LLM input suggestions are not a JSON array: " + ex.getOriginalMessage(), ex);
         }
     }
 
@@ -263,14 +359,4 @@ public class AnalysisInputAdvisor {
         String normalized = value.replace('_', ' ').replace('-', ' ');
         return Character.toUpperCase(normalized.charAt(0)) + normalized.substring(1);
     }
-
-    private String readSnippet(String path) {
-        try {
-            String content = Files.readString(Paths.get(path), StandardCharsets.UTF_8);
-            return content.length() <= 3000 ? content : content.substring(0, 3000);
-        } catch (Exception ex) {
-            LOGGER.warn("Failed to read OpenAPI snippet {}: {}", path, ex.getMessage());
-            return "";
-        }
-    }
 }
@@ -2,6 +2,7 @@ package org.example.features.analysis_processes.application.services;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.features.analysis_processes.application.dto.FuzzCampaignRequest;
 import org.example.features.analysis_processes.domain.entities.AnalysisProcess;
 import org.example.features.analysis_processes.domain.entities.AnalysisSession;
 import org.example.features.analysis_processes.domain.entities.AnalysisStep;
@@ -12,6 +13,8 @@ import org.example.features.analysis_processes.domain.valueobjects.AnalysisStepS
 import org.example.features.analysis_processes.domain.valueobjects.AnalysisStepType;
 import org.example.features.analysis_processes.domain.valueobjects.HttpRequestStep;
 import org.example.features.analysis_processes.domain.valueobjects.InputRequirement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
@@ -25,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Component
@@ -34,18 +38,43 @@ public class AnalysisSessionOrchestrator {
     private final AnalysisProcessService processService;
     private final ProcessAnalysisPlanner planner;
     private final HttpRequestExecutor requestExecutor;
+    private final RequestTemplateEngine templateEngine;
+    private final FuzzCampaignRunner fuzzRunner;
+    private final PlanningProgressTracker progressTracker;
+    private final boolean earlyDispatch;
     private final ObjectMapper objectMapper;
 
     public AnalysisSessionOrchestrator(
         AnalysisSessionService sessionService,
         AnalysisProcessService processService,
         ProcessAnalysisPlanner planner,
-        HttpRequestExecutor requestExecutor
+        HttpRequestExecutor requestExecutor,
+        RequestTemplateEngine templateEngine,
+        FuzzCampaignRunner fuzzRunner,
+        PlanningProgressTracker progressTracker
+    ) {
+        this(sessionService, processService, planner, requestExecutor, templateEngine, fuzzRunner, progressTracker, false);
+    }
+
+    @Autowired
+    public AnalysisSessionOrchestrator(
+        AnalysisSessionService sessionService,
+        AnalysisProcessService processService,
+        ProcessAnalysisPlanner planner,
+        HttpRequestExecutor requestExecutor,
+        RequestTemplateEngine templateEngine,
+        FuzzCampaignRunner fuzzRunner,
+        PlanningProgressTracker progressTracker,
+        @Value("${analysis.sessions.early-dispatch:false}") boolean earlyDispatch
     ) {
         this.sessionService = sessionService;
         this.processService = processService;
         this.planner = planner;
         this.requestExecutor = requestExecutor;
+        this.templateEngine = templateEngine;
+        this.fuzzRunner = fuzzRunner;
+        this.progressTracker = progressTracker;
+        this.earlyDispatch = earlyDispatch;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -56,6 +85,7 @@ public class AnalysisSessionOrchestrator {
                 return session;
             }
             session.getContext().put("userInputs", inputs);
+            requestExecutor.warmUp(valueOrDefault(extractUserInputs(session.getContext()).get("baseUrl"), null));
             markStepCompleted(current);
             activateNextStep(session, AnalysisStepType.LLM_ANALYSIS);
             session.setStatus(AnalysisSessionStatus.RUNNING);
@@ -63,18 +93,40 @@ public class AnalysisSessionOrchestrator {
         });
     }
 
-    public Optional<AnalysisSession> generatePlan(String sessionId) {
-        return sessionService.getSession(sessionId).map(session -> {
-            AnalysisStep current = getCurrentStep(session);
-            if (current.getType() != AnalysisStepType.LLM_ANALYSIS) {
-                return session;
-            }
-
-            AnalysisProcess process = processService.getProcessById(session.getProcessId())
-                .orElseThrow(() -> new IllegalStateException("Process not found for session"));
+    /**
+     * Runs the LLM analysis step of the session. The returned future completes when the plan
+     * is stored; the calling thread is released as soon as the request is handed to the planner.
+     */
+    public CompletableFuture<Optional<AnalysisSession>> generatePlan(String sessionId) {
+        Optional<AnalysisSession> found = sessionService.getSession(sessionId);
+        if (found.isEmpty()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        AnalysisSession session = found.get();
+        AnalysisStep current = getCurrentStep(session);
+        if (current.getType() != AnalysisStepType.LLM_ANALYSIS) {
+            return CompletableFuture.completedFuture(found);
+        }
+        Optional<AnalysisProcess> process = processService.getProcessById(session.getProcessId());
+        if (process.isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Process not found for session"));
+        }
 
-            current.setStatus(AnalysisStepStatus.RUNNING);
-            ProcessAnalysisPlanner.PlanResult planResult = planner.generatePlan(process, session.getContext());
+        current.setStatus(AnalysisStepStatus.RUNNING);
+        String baseUrl = valueOrDefault(extractUserInputs(session.getContext()).get("baseUrl"), "http://localhost:8080");
+        PlanningProgressListener listener = progressTracker.listenerFor(sessionId);
+        EarlyHttpStepDispatcher dispatcher = null;
+        if (earlyDispatch) {
+            dispatcher = new EarlyHttpStepDispatcher(listener, templateEngine, requestExecutor,
+                collectTemplateVariables(session, Map.of()), baseUrl);
+            listener = dispatcher;
+        }
+        EarlyHttpStepDispatcher earlySteps = dispatcher;
+        return planner.generatePlan(
+            process.get(),
+            session.getContext(),
+            listener
+        ).thenApply(planResult -> {
             session.getContext().put("llmPlan", planResult.plan());
             session.getContext().put("llmSummary", planResult.summary());
             session.getContext().put("llmPlanActions", planResult.actions());
@@ -82,18 +134,85 @@ public class AnalysisSessionOrchestrator {
             session.getContext().put("httpRequests", planResult.httpRequests());
             session.getContext().put("llmPrompt", planResult.prompt());
             session.getContext().put("llmRawResponse", planResult.rawResponse());
+            if (planResult.contextStats() != null) {
+                session.getContext().put("llmContextStats", planResult.contextStats());
+            }
             session.getContext().put("requiresAdditionalInput", planResult.requiresAdditionalInput());
             session.getContext().put("requiredInputFields", planResult.additionalInputs());
-            String baseUrl = valueOrDefault(extractUserInputs(session.getContext()).get("baseUrl"), "http://localhost:8080");
             session.getContext().put("baseUrl", baseUrl);
+            requestExecutor.warmUp(baseUrl);
 
             markStepCompleted(current);
             insertHttpSteps(session, planResult);
             session.setStatus(AnalysisSessionStatus.RUNNING);
-            return sessionService.updateSession(session);
+            if (earlySteps != null) {
+                adoptEarlyResults(session, earlySteps);
+            }
+            return Optional.of(sessionService.updateSession(session));
         });
     }
 
+    /**
+     * Stores the responses of steps that were sent while the plan was streaming, so executing
+     * those steps completes them without a second request. Responses still in flight are
+     * stored through the repository when they arrive.
+     */
+    private void adoptEarlyResults(AnalysisSession session, EarlyHttpStepDispatcher dispatcher) {
+        if (dispatcher.dispatchedCount() == 0) {
+            return;
+        }
+        Map<String, String> variables = collectTemplateVariables(session, Map.of());
+        List<AnalysisStep> httpSteps = session.getSteps().stream()
+            .filter(step -> step.getType() == AnalysisStepType.HTTP_REQUEST)
+            .collect(Collectors.toList());
+        for (int index = 0; index < httpSteps.size(); index++) {
+            AnalysisStep step = httpSteps.get(index);
+            HttpRequestStep request = extractHttpRequest(step);
+            if (request == null) {
+                continue;
+            }
+            RequestTemplateEngine.CompiledRequest template = templateEngine.forStep(step.getId(), request);
+            HttpRequestStep rendered = template.render(variables::get);
+            dispatcher.matching(index, rendered).ifPresent(dispatch -> {
+                CompletableFuture<Map<String, Object>> result = dispatch.result();
+                String requestKey = EarlyHttpStepDispatcher.requestKey(dispatch.request());
+                if (result.isDone() && !result.isCompletedExceptionally()) {
+                    storeEarlyResult(session, step.getId(), template, requestKey, result.join());
+                } else {
+                    result.thenAccept(response -> sessionService.updateSession(session.getId(), latest -> {
+                        AnalysisStep current = findStepById(latest, step.getId());
+                        if (current != null && current.getStatus() != AnalysisStepStatus.COMPLETED
+                            && !hasResultForStep(latest, step.getId())) {
+                            storeEarlyResult(latest, step.getId(), template, requestKey, response);
+                        }
+                    }));
+                }
+            });
+        }
+    }
+
+    private void storeEarlyResult(
+        AnalysisSession session,
+        String stepId,
+        RequestTemplateEngine.CompiledRequest template,
+        String requestKey,
+        Map<String, Object> response
+    ) {
+        if (response == null || response.isEmpty()) {
+            return;
+        }
+        Map<String, Object> result = new HashMap<>(response);
+        result.put("stepId", stepId);
+        result.put("dispatchedEarly", true);
+        result.put("requestKey", requestKey);
+        Map<String, String> extracted = templateEngine.extract(template, valueOrDefault(result.get("body"), ""));
+        if (!extracted.isEmpty()) {
+            result.put("extracted", extracted);
+            storeHttpVariables(session, extracted);
+        }
+        persistHttpResult(session, result);
+    }
+
     public Optional<AnalysisSession> completeTestStep(String sessionId, Map<String, Object> testResult) {
         return sessionService.getSession(sessionId).map(session -> {
             AnalysisStep current = getCurrentStep(session);
@@ -134,6 +253,62 @@ public class AnalysisSessionOrchestrator {
         });
     }
 
+    /**
+     * Expands the step into fuzz variants and runs them without touching the regular step
+     * flow. Only the aggregated summary is stored, under {@code fuzzResults:<stepId>}.
+     * Cancelling the returned future stops the campaign.
+     */
+    public CompletableFuture<Optional<AnalysisSession>> fuzzHttpStep(
+        String sessionId,
+        String stepId,
+        FuzzCampaignRequest campaign
+    ) {
+        Optional<AnalysisSession> found = sessionService.getSession(sessionId);
+        if (found.isEmpty()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        AnalysisSession session = found.get();
+        AnalysisStep step = findStepById(session, stepId);
+        if (step == null || step.getType() != AnalysisStepType.HTTP_REQUEST) {
+            return CompletableFuture.completedFuture(found);
+        }
+        HttpRequestStep request = extractHttpRequest(step);
+        if (request == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("HTTP request is missing for step " + stepId));
+        }
+        request.setStepId(stepId);
+        FuzzCampaignRequest options = campaign == null ? FuzzCampaignRequest.defaults() : campaign;
+        FuzzVariantGenerator generator;
+        try {
+            generator = new FuzzVariantGenerator(
+                templateEngine.forStep(stepId, request),
+                collectTemplateVariables(session, loadHttpStepInputs(session, stepId)),
+                options.corpus(),
+                options.targets(),
+                options.variantLimit()
+            );
+        } catch (IllegalArgumentException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        String baseUrl = valueOrDefault(extractUserInputs(session.getContext()).get("baseUrl"), "http://localhost:8080");
+        CompletableFuture<FuzzSummary> run = fuzzRunner.run(stepId, generator, baseUrl, options.maxInFlight());
+        CompletableFuture<Optional<AnalysisSession>> stored = run
+            .thenApply(summary -> sessionService.getSession(sessionId).map(latest -> {
+                latest.getContext().put("fuzzResults:" + stepId, summary);
+                return sessionService.updateSession(latest);
+            }));
+        stored.whenComplete((result, error) -> {
+            if (stored.isCancelled()) {
+                run.cancel(true);
+            }
+        });
+        return stored;
+    }
+
+    public Optional<List<Map<String, Object>>> getHttpResults(String sessionId) {
+        return sessionService.getSession(sessionId).map(this::loadHttpResults);
+    }
+
     private AnalysisSession executeHttpStepInternal(
         AnalysisSession session,
         AnalysisStep step,
@@ -156,11 +331,19 @@ public class AnalysisSessionOrchestrator {
         } else {
             session.getContext().put("httpStepInputs:" + step.getId(), normalizedInputs);
         }
-        request = applyInputsToRequest(request, normalizedInputs);
-        if (hasResultForStep(session, step.getId())) {
-            step.setStatus(AnalysisStepStatus.COMPLETED);
-            advanceAfterHttpStep(session, step);
-            return sessionService.updateSession(session);
+        RequestTemplateEngine.CompiledRequest template = templateEngine.forStep(step.getId(), request);
+        request = applyInputsToRequest(template, normalizedInputs, collectTemplateVariables(session, normalizedInputs));
+        request.setStepId(step.getId());
+        Map<String, Object> earlier = resultForStep(session, step.getId());
+        if (earlier != null) {
+            if (!Boolean.TRUE.equals(earlier.get("dispatchedEarly"))
+                || EarlyHttpStepDispatcher.requestKey(request).equals(earlier.get("requestKey"))) {
+                step.setStatus(AnalysisStepStatus.COMPLETED);
+                advanceAfterHttpStep(session, step);
+                return sessionService.updateSession(session);
+            }
+            // sent early with inputs that have changed since; its response answers another request
+            removeHttpResult(session, step.getId());
         }
         String baseUrl = valueOrDefault(extractUserInputs(session.getContext()).get("baseUrl"), "http://localhost:8080");
         List<Map<String, Object>> results = requestExecutor.execute(List.of(request), baseUrl);
@@ -170,6 +353,11 @@ public class AnalysisSessionOrchestrator {
         }
         Map<String, Object> result = new HashMap<>(results.get(0));
         result.put("stepId", step.getId());
+        Map<String, String> extracted = templateEngine.extract(template, valueOrDefault(result.get("body"), ""));
+        if (!extracted.isEmpty()) {
+            result.put("extracted", extracted);
+            storeHttpVariables(session, extracted);
+        }
         persistHttpResult(session, result);
         step.setStatus(AnalysisStepStatus.COMPLETED);
         advanceAfterHttpStep(session, step);
@@ -189,8 +377,20 @@ public class AnalysisSessionOrchestrator {
     }
 
     private boolean hasResultForStep(AnalysisSession session, String stepId) {
+        return resultForStep(session, stepId) != null;
+    }
+
+    private Map<String, Object> resultForStep(AnalysisSession session, String stepId) {
         return loadHttpResults(session).stream()
-            .anyMatch(result -> stepId.equals(result.get("stepId")));
+            .filter(result -> stepId.equals(result.get("stepId")))
+            .findFirst()
+            .orElse(null);
+    }
+
+    private void removeHttpResult(AnalysisSession session, String stepId) {
+        List<Map<String, Object>> results = new ArrayList<>(loadHttpResults(session));
+        results.removeIf(result -> stepId.equals(result.get("stepId")));
+        session.getContext().put("httpResults", results);
     }
 
     private void persistHttpResult(AnalysisSession session, Map<String, Object> result) {
@@ -222,6 +422,7 @@ public class AnalysisSessionOrchestrator {
             return;
         }
         List<AnalysisStep> httpSteps = new ArrayList<>();
+        Map<String, HttpRequestStep> templates = new LinkedHashMap<>();
         for (int index = 0; index < httpRequests.size(); index++) {
             HttpRequestStep request = httpRequests.get(index);
             List<InputRequirement> inputs =
@@ -243,7 +444,9 @@ public class AnalysisSessionOrchestrator {
                 .metadata(metadata)
                 .build();
             httpSteps.add(step);
+            templates.put(step.getId(), request);
         }
+        templateEngine.compilePlan(templates);
         session.getSteps().addAll(insertIndex, httpSteps);
         session.setCurrentStepId(httpSteps.get(0).getId());
         if (testStep != null) {
@@ -355,13 +558,59 @@ public class AnalysisSessionOrchestrator {
         return text.isBlank() ? fallback : text;
     }
 
-    private HttpRequestStep applyInputsToRequest(HttpRequestStep request, Map<String, String> inputs) {
-        if (request == null || inputs == null || inputs.isEmpty()) {
-            return request;
+    /**
+     * Renders {@code {{variable}}} placeholders; step inputs that no placeholder consumes
+     * are still appended as query parameters.
+     */
+    private HttpRequestStep applyInputsToRequest(
+        RequestTemplateEngine.CompiledRequest template,
+        Map<String, String> inputs,
+        Map<String, String> variables
+    ) {
+        HttpRequestStep rendered = template.render(variables::get);
+        if (inputs == null || inputs.isEmpty()) {
+            return rendered;
+        }
+        Map<String, String> unbound = new LinkedHashMap<>();
+        inputs.forEach((key, value) -> {
+            if (!template.references(key)) {
+                unbound.put(key, value);
+            }
+        });
+        rendered.setUrl(appendQueryParameters(rendered.getUrl(), unbound));
+        return rendered;
+    }
+
+    private Map<String, String> collectTemplateVariables(AnalysisSession session, Map<String, String> stepInputs) {
+        Map<String, String> variables = new HashMap<>();
+        extractUserInputs(session.getContext()).forEach((key, value) -> {
+            if (value != null) {
+                variables.put(key, value.toString());
+            }
+        });
+        variables.putAll(loadHttpVariables(session));
+        variables.putAll(stepInputs);
+        return variables;
+    }
+
+    private Map<String, String> loadHttpVariables(AnalysisSession session) {
+        Object raw = session.getContext().get("httpVariables");
+        if (raw instanceof Map<?, ?> rawMap) {
+            Map<String, String> variables = new LinkedHashMap<>();
+            rawMap.forEach((key, value) -> {
+                if (key != null && value != null) {
+                    variables.put(key.toString(), value.toString());
+                }
+            });
+            return variables;
         }
-        String updatedUrl = appendQueryParameters(request.getUrl(), inputs);
-        request.setUrl(updatedUrl);
-        return request;
+        return new LinkedHashMap<>();
+    }
+
+    private void storeHttpVariables(AnalysisSession session, Map<String, String> extracted) {
+        Map<String, String> variables = loadHttpVariables(session);
+        variables.putAll(extracted);
+        session.getContext().put("httpVariables", variables);
     }
 
     private Map<String, String> normalizeAdditionalInputs(Map<String, Object> source) {
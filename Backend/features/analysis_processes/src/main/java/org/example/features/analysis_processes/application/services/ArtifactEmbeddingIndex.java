@@ -0,0 +1,246 @@
+package org.example.features.analysis_processes.application.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Vector index over the BPMN tasks and OpenAPI operations of the bundled dataset and of every
+ * uploaded artifact, one entry per line {@link PromptContextPacker} would put into a prompt.
+ * The index is persisted and memory-mapped on the next start; it is rebuilt whenever an
+ * artifact is added, changed or removed, or the embedder changes.
+ * <p>
+ * Building happens on a background thread at startup and after every upload; searches read
+ * the last published snapshot and never touch the file system. Until the first snapshot is
+ * ready, searches find nothing and the planner packs by heuristics alone.
+ */
+@Component
+public class ArtifactEmbeddingIndex {
+
+    public static final String BPMN = "bpmn";
+    public static final String OPERATION = "operation";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArtifactEmbeddingIndex.class);
+
+    private final TextEmbedder embedder;
+    private final PromptContextPacker packer;
+    private final List<Path> bpmnRoots;
+    private final List<Path> openApiRoots;
+    private final Path indexFile;
+    private final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "artifact-embedding-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile FlatVectorIndex index;
+
+    @Autowired
+    public ArtifactEmbeddingIndex(
+        TextEmbedder embedder,
+        PromptContextPacker packer,
+        @Value("${bpmn.dataset-path:dataset/bpmn}") String bpmnDatasetPath,
+        @Value("${openapi.dataset-path:dataset/openapi}") String openApiDatasetPath,
+        @Value("${analysis.processes.bpmn-storage-path:data/analysis_processes/bpmn}") String bpmnStoragePath,
+        @Value("${analysis.processes.openapi-storage-path:data/analysis_processes/openapi}") String openApiStoragePath,
+        @Value("${analysis.embedding.index-path:data/embeddings/artifacts.vec}") String indexPath
+    ) {
+        this(embedder, packer,
+            List.of(Path.of(bpmnDatasetPath), Path.of(bpmnStoragePath)),
+            List.of(Path.of(openApiDatasetPath), Path.of(openApiStoragePath)),
+            Path.of(indexPath));
+    }
+
+    ArtifactEmbeddingIndex(
+        TextEmbedder embedder,
+        PromptContextPacker packer,
+        List<Path> bpmnRoots,
+        List<Path> openApiRoots,
+        Path indexFile
+    ) {
+        this.embedder = embedder;
+        this.packer = packer;
+        this.bpmnRoots = bpmnRoots.stream().map(ArtifactEmbeddingIndex::normalize).toList();
+        this.openApiRoots = openApiRoots.stream().map(ArtifactEmbeddingIndex::normalize).toList();
+        this.indexFile = normalize(indexFile);
+    }
+
+    /**
+     * The {@code k} lines of the given kind most similar to {@code query}, best first.
+     *
+     * @param sources artifact paths to search in, or {@code null} for the whole corpus
+     */
+    public List<FlatVectorIndex.Hit> search(String query, Collection<String> sources, String kind, int k) {
+        FlatVectorIndex snapshot = index;
+        if (snapshot == null) {
+            return List.of();
+        }
+        Set<String> allowed = sources == null ? null : sources.stream()
+            .map(source -> normalize(Path.of(source)).toString())
+            .collect(Collectors.toSet());
+        return snapshot.search(embedder.embed(query), k,
+            entry -> entry.kind().equals(kind) && (allowed == null || allowed.contains(entry.source())));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refreshAsync();
+    }
+
+    /**
+     * Brings the index up to date with the artifacts on disk, off the caller's thread. Calls
+     * made while a refresh is still queued are folded into it.
+     */
+    public void refreshAsync() {
+        if (refreshQueued.compareAndSet(false, true)) {
+            refresher.execute(() -> {
+                refreshQueued.set(false);
+                try {
+                    refresh();
+                } catch (RuntimeException ex) {
+                    LOGGER.warn("Artifact embedding index refresh failed: {}", ex.getMessage());
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /** Rebuilds (or maps) the index if the artifacts changed and publishes it to searches. */
+    synchronized FlatVectorIndex refresh() {
+        FlatVectorIndex index = this.index;
+        List<Path> bpmnFiles = files(bpmnRoots);
+        List<Path> openApiFiles = files(openApiRoots);
+        long fingerprint = fingerprint(Stream.concat(bpmnFiles.stream(), openApiFiles.stream()).toList());
+        if (index != null && index.fingerprint() == fingerprint) {
+            return index;
+        }
+        if (index == null && Files.isRegularFile(indexFile)) {
+            try {
+                FlatVectorIndex stored = FlatVectorIndex.load(indexFile);
+                if (stored.fingerprint() == fingerprint && stored.embedderId().equals(embedder.id())) {
+                    LOGGER.info("Mapped artifact embedding index {} ({} entries)", indexFile, stored.size());
+                    this.index = stored;
+                    return stored;
+                }
+            } catch (IOException ex) {
+                LOGGER.warn("Ignoring unreadable artifact embedding index {}: {}", indexFile, ex.getMessage());
+            }
+        }
+        FlatVectorIndex built = build(bpmnFiles, openApiFiles, fingerprint);
+        try {
+            built.write(indexFile);
+        } catch (IOException ex) {
+            LOGGER.warn("Could not persist artifact embedding index to {}: {}", indexFile, ex.getMessage());
+        }
+        this.index = built;
+        return built;
+    }
+
+    private FlatVectorIndex build(List<Path> bpmnFiles, List<Path> openApiFiles, long fingerprint) {
+        long started = System.nanoTime();
+        FlatVectorIndex.Builder builder = FlatVectorIndex.builder(embedder.id(), embedder.dimensions(), fingerprint);
+        for (Path file : bpmnFiles) {
+            read(file).ifPresent(content -> add(builder, file, BPMN, packer.bpmnLines(content)));
+        }
+        for (Path file : openApiFiles) {
+            read(file).ifPresent(content -> {
+                try {
+                    Map<String, Object> document = yamlMapper.readValue(content, new TypeReference<Map<String, Object>>() {});
+                    add(builder, file, OPERATION, packer.operationLines(document));
+                } catch (IOException | RuntimeException ex) {
+                    LOGGER.debug("Skipping unparsable OpenAPI spec {}: {}", file, ex.getMessage());
+                }
+            });
+        }
+        FlatVectorIndex built = builder.build();
+        LOGGER.info("Indexed {} BPMN and OpenAPI lines from {} artifacts in {} ms", built.size(),
+            bpmnFiles.size() + openApiFiles.size(), (System.nanoTime() - started) / 1_000_000);
+        return built;
+    }
+
+    private void add(FlatVectorIndex.Builder builder, Path file, String kind, List<String> lines) {
+        String source = file.toString();
+        lines.stream().distinct().forEach(line -> builder.add(new FlatVectorIndex.Entry(source, kind, line), embedder.embed(line)));
+    }
+
+    private Optional<String> read(Path file) {
+        try {
+            return Optional.of(Files.readString(file, StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            LOGGER.debug("Skipping unreadable artifact {}: {}", file, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static List<Path> files(List<Path> roots) {
+        List<Path> files = new ArrayList<>();
+        for (Path root : roots) {
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try (Stream<Path> listing = Files.list(root)) {
+                listing.filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().startsWith("."))
+                    .forEach(files::add);
+            } catch (IOException ex) {
+                LOGGER.debug("Cannot list artifact directory {}: {}", root, ex.getMessage());
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    /** Changes whenever an artifact is added, removed, resized or touched. */
+    private long fingerprint(List<Path> files) {
+        long hash = embedder.id().hashCode();
+        for (Path file : files) {
+            long size;
+            long modified;
+            try {
+                size = Files.size(file);
+                modified = Files.getLastModifiedTime(file).toMillis();
+            } catch (IOException ex) {
+                size = -1;
+                modified = -1;
+            }
+            hash = hash * 31 + file.toString().hashCode();
+            hash = hash * 31 + size;
+            hash = hash * 31 + modified;
+        }
+        return hash;
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.example.features.analysis_processes.domain.valueobjects.HttpRequestStep;
+import org.example.features.analysis_processes.domain.valueobjects.InputRequirement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Progress listener that starts HTTP steps while the plan is still streaming. Only steps that
+ * cannot change server state (GET, HEAD, OPTIONS), need no per-step input and resolve fully
+ * from the session inputs are sent; a step that reads a variable an earlier step extracts
+ * waits for its turn. The orchestrator adopts a result only if the final plan renders the
+ * step at the same position to the very same request, and executing the step later reuses it
+ * only while the step still renders to the request recorded by {@link #requestKey}.
+ */
+final class EarlyHttpStepDispatcher implements PlanningProgressListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EarlyHttpStepDispatcher.class);
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    record Dispatch(HttpRequestStep request, CompletableFuture<Map<String, Object>> result) {}
+
+    private final PlanningProgressListener delegate;
+    private final RequestTemplateEngine templateEngine;
+    private final HttpRequestExecutor requestExecutor;
+    private final Map<String, String> variables;
+    private final String baseUrl;
+    private final Set<String> extractedLater = new HashSet<>();
+    private final Map<Integer, Dispatch> dispatched = new ConcurrentHashMap<>();
+
+    EarlyHttpStepDispatcher(
+        PlanningProgressListener delegate,
+        RequestTemplateEngine templateEngine,
+        HttpRequestExecutor requestExecutor,
+        Map<String, String> variables,
+        String baseUrl
+    ) {
+        this.delegate = delegate;
+        this.templateEngine = templateEngine;
+        this.requestExecutor = requestExecutor;
+        this.variables = Map.copyOf(variables);
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public void onStarted(String provider) {
+        delegate.onStarted(provider);
+    }
+
+    @Override
+    public void onDelta(String delta) {
+        delegate.onDelta(delta);
+    }
+
+    @Override
+    public void onHttpStep(int index, HttpRequestStep step, List<InputRequirement> additionalInputs) {
+        delegate.onHttpStep(index, step, additionalInputs);
+        try {
+            RequestTemplateEngine.CompiledRequest template = templateEngine.compile(step);
+            boolean eligible = additionalInputs.isEmpty()
+                && SAFE_METHODS.contains(Objects.toString(step.getMethod(), "").toUpperCase(Locale.ROOT))
+                && variables.keySet().containsAll(template.variables())
+                && template.variables().stream().noneMatch(extractedLater::contains);
+            extractedLater.addAll(step.getExtract().keySet());
+            if (!eligible) {
+                return;
+            }
+            HttpRequestStep request = template.render(variables::get);
+            LOGGER.debug("Dispatching planned step {} ({} {}) before the plan is complete", index, request.getMethod(), request.getUrl());
+            dispatched.put(index, new Dispatch(request, requestExecutor.executeAsync(request, baseUrl)));
+        } catch (RuntimeException ex) {
+            LOGGER.debug("Planned step {} is not dispatched early: {}", index, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onCompleted(Integer completionTokens) {
+        delegate.onCompleted(completionTokens);
+    }
+
+    @Override
+    public void onFailed(String message) {
+        delegate.onFailed(message);
+    }
+
+    /**
+     * The early dispatch for the plan step at {@code index}, provided it sent exactly
+     * {@code rendered}.
+     */
+    Optional<Dispatch> matching(int index, HttpRequestStep rendered) {
+        Dispatch dispatch = dispatched.get(index);
+        if (dispatch == null || !sameRequest(dispatch.request(), rendered)) {
+            return Optional.empty();
+        }
+        return Optional.of(dispatch);
+    }
+
+    int dispatchedCount() {
+        return dispatched.size();
+    }
+
+    /**
+     * Digest of the method, URL, headers and body of {@code request}; two renderings of a step
+     * share a key exactly when they send the same request.
+     */
+    static String requestKey(HttpRequestStep request) {
+        String canonical = Objects.toString(request.getMethod(), "").toUpperCase(Locale.ROOT)
+            + '\n' + Objects.toString(request.getUrl(), "")
+            + '\n' + (request.getHeaders() == null ? Map.of() : new TreeMap<>(request.getHeaders()))
+            + '\n' + Objects.toString(request.getBody(), "");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static boolean sameRequest(HttpRequestStep left, HttpRequestStep right) {
+        return Objects.equals(left.getMethod(), right.getMethod())
+            && Objects.equals(left.getUrl(), right.getUrl())
+            && Objects.equals(left.getHeaders(), right.getHeaders())
+            && Objects.equals(left.getBody(), right.getBody());
+    }
+}
@@ -0,0 +1,223 @@
+package org.example.features.analysis_processes.application.services;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Exact nearest-neighbour index over unit vectors. All vectors live row by row in a single
+ * {@link FloatBuffer}: a heap array while the index is built, a read-only memory-mapped file
+ * region once it is loaded, so a loaded index costs no heap beyond the entry metadata.
+ * A linear scan is exact and, at the few thousand tasks and operations of the artifact
+ * corpus, faster than maintaining a graph index.
+ *
+ * <p>File layout (little endian): magic, version, dimensions, count (4 bytes each),
+ * fingerprint, metadata offset (8 bytes each), the vectors, then the embedder id and the
+ * entries as modified UTF-8.
+ */
+public final class FlatVectorIndex {
+
+    private static final int MAGIC = 0x56454331;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int MAX_TEXT_LENGTH = 4000;
+
+    public record Entry(String source, String kind, String text) {}
+
+    public record Hit(Entry entry, float score) {}
+
+    private final String embedderId;
+    private final long fingerprint;
+    private final int dimensions;
+    private final FloatBuffer vectors;
+    private final List<Entry> entries;
+
+    private FlatVectorIndex(String embedderId, long fingerprint, int dimensions, FloatBuffer vectors, List<Entry> entries) {
+        this.embedderId = embedderId;
+        this.fingerprint = fingerprint;
+        this.dimensions = dimensions;
+        this.vectors = vectors;
+        this.entries = List.copyOf(entries);
+    }
+
+    public static Builder builder(String embedderId, int dimensions, long fingerprint) {
+        return new Builder(embedderId, dimensions, fingerprint);
+    }
+
+    public String embedderId() {
+        return embedderId;
+    }
+
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** The {@code k} entries accepted by {@code filter} with the highest cosine similarity, best first. */
+    public List<Hit> search(float[] query, int k, Predicate<Entry> filter) {
+        if (query.length != dimensions) {
+            throw new IllegalArgumentException("Query has " + query.length + " dimensions, index has " + dimensions);
+        }
+        if (k <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Hit> best = new PriorityQueue<>(k + 1, Comparator.comparingDouble(Hit::score));
+        for (int row = 0; row < entries.size(); row++) {
+            Entry entry = entries.get(row);
+            if (filter != null && !filter.test(entry)) {
+                continue;
+            }
+            float score = dot(row, query);
+            if (best.size() < k) {
+                best.add(new Hit(entry, score));
+            } else if (score > best.peek().score()) {
+                best.poll();
+                best.add(new Hit(entry, score));
+            }
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+        return hits;
+    }
+
+    /** Writes to a sibling temporary file first, so a reader never maps a half-written index. */
+    public void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        long vectorBytes = (long) entries.size() * dimensions * Float.BYTES;
+        try (FileChannel channel = FileChannel.open(temporary,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC).putInt(VERSION).putInt(dimensions).putInt(entries.size())
+                .putLong(fingerprint).putLong(HEADER_BYTES + vectorBytes);
+            writeFully(channel, header.flip());
+
+            ByteBuffer block = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+            int total = entries.size() * dimensions;
+            for (int index = 0; index < total; index++) {
+                if (block.remaining() < Float.BYTES) {
+                    writeFully(channel, block.flip());
+                    block.clear();
+                }
+                block.putFloat(vectors.get(index));
+            }
+            writeFully(channel, block.flip());
+
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeUTF(embedderId);
+            for (Entry entry : entries) {
+                out.writeUTF(entry.source());
+                out.writeUTF(entry.kind());
+                out.writeUTF(entry.text());
+            }
+            out.flush();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Maps the vectors of a file written by {@link #write}; the mapping outlives the channel. */
+    public static FlatVectorIndex load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a vector index file: " + file);
+            }
+            int dimensions = header.getInt();
+            int count = header.getInt();
+            long fingerprint = header.getLong();
+            long metadataOffset = header.getLong();
+            long vectorBytes = (long) count * dimensions * Float.BYTES;
+            if (dimensions <= 0 || count < 0 || metadataOffset != HEADER_BYTES + vectorBytes || metadataOffset > channel.size()) {
+                throw new IOException("Corrupt vector index header: " + file);
+            }
+            FloatBuffer vectors = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, vectorBytes)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asFloatBuffer();
+
+            channel.position(metadataOffset);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            String embedderId = in.readUTF();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int index = 0; index < count; index++) {
+                entries.add(new Entry(in.readUTF(), in.readUTF(), in.readUTF()));
+            }
+            return new FlatVectorIndex(embedderId, fingerprint, dimensions, vectors, entries);
+        }
+    }
+
+    private float dot(int row, float[] query) {
+        int base = row * dimensions;
+        float sum = 0;
+        for (int index = 0; index < dimensions; index++) {
+            sum += vectors.get(base + index) * query[index];
+        }
+        return sum;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    public static final class Builder {
+        private final String embedderId;
+        private final int dimensions;
+        private final long fingerprint;
+        private final List<Entry> entries = new ArrayList<>();
+        private float[] data;
+
+        private Builder(String embedderId, int dimensions, long fingerprint) {
+            this.embedderId = embedderId;
+            this.dimensions = dimensions;
+            this.fingerprint = fingerprint;
+            this.data = new float[dimensions * 64];
+        }
+
+        public Builder add(Entry entry, float[] vector) {
+            if (vector.length != dimensions) {
+                throw new IllegalArgumentException("Vector has " + vector.length + " dimensions, index has " + dimensions);
+            }
+            int offset = entries.size() * dimensions;
+            if (offset + dimensions > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, offset + dimensions));
+            }
+            System.arraycopy(vector, 0, data, offset, dimensions);
+            String text = entry.text().length() > MAX_TEXT_LENGTH ? entry.text().substring(0, MAX_TEXT_LENGTH) : entry.text();
+            entries.add(new Entry(entry.source(), entry.kind(), text));
+            return this;
+        }
+
+        public FlatVectorIndex build() {
+            float[] exact = Arrays.copyOf(data, entries.size() * dimensions);
+            return new FlatVectorIndex(embedderId, fingerprint, dimensions, FloatBuffer.wrap(exact), entries);
+        }
+    }
+}
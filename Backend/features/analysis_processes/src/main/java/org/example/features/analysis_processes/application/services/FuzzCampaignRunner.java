@@ -0,0 +1,118 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Streams fuzz variants through the async executor. A semaphore bounds the number of
+ * requests in flight, so the generator never runs ahead of the network and memory use is
+ * proportional to the in-flight limit rather than the campaign size. Cancelling the returned
+ * future stops sending; requests already in flight are left to finish.
+ */
+@Component
+public class FuzzCampaignRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FuzzCampaignRunner.class);
+
+    private final HttpRequestExecutor requestExecutor;
+    private final int defaultMaxInFlight;
+    private final int maxInFlightLimit;
+    private final ExecutorService dispatcher =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fuzz-campaign-", 0).factory());
+
+    public FuzzCampaignRunner(
+        HttpRequestExecutor requestExecutor,
+        @Value("${analysis.fuzz.max-in-flight:16}") int defaultMaxInFlight,
+        @Value("${analysis.fuzz.max-in-flight-limit:256}") int maxInFlightLimit
+    ) {
+        this.requestExecutor = requestExecutor;
+        this.defaultMaxInFlight = Math.max(1, defaultMaxInFlight);
+        this.maxInFlightLimit = Math.max(this.defaultMaxInFlight, maxInFlightLimit);
+    }
+
+    public CompletableFuture<FuzzSummary> run(
+        String stepId,
+        FuzzVariantGenerator generator,
+        String baseUrl,
+        Integer maxInFlight
+    ) {
+        int limit = maxInFlight == null || maxInFlight <= 0
+            ? defaultMaxInFlight
+            : Math.min(maxInFlight, maxInFlightLimit);
+        FuzzResultAggregator aggregator =
+            new FuzzResultAggregator(stepId, generator.totalVariants(), generator.injectionPoints());
+        LOGGER.info("Starting fuzz campaign for step {}: {} variants, {} in flight",
+            stepId, generator.totalVariants(), limit);
+        CompletableFuture<FuzzSummary> campaign = new CompletableFuture<>();
+        Future<?> sending = dispatcher.submit(() -> {
+            try {
+                campaign.complete(send(stepId, generator, baseUrl, limit, aggregator));
+            } catch (Throwable ex) {
+                campaign.completeExceptionally(ex);
+            }
+        });
+        campaign.whenComplete((summary, error) -> {
+            if (campaign.isCancelled()) {
+                sending.cancel(true);
+            }
+        });
+        return campaign;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    private FuzzSummary send(
+        String stepId,
+        FuzzVariantGenerator generator,
+        String baseUrl,
+        int limit,
+        FuzzResultAggregator aggregator
+    ) {
+        Semaphore permits = new Semaphore(limit);
+        try {
+            while (generator.hasNext()) {
+                permits.acquire();
+                FuzzVariantGenerator.Variant variant;
+                try {
+                    variant = generator.next();
+                } catch (RuntimeException ex) {
+                    permits.release();
+                    throw ex;
+                }
+                requestExecutor.executeAsync(variant.request(), baseUrl)
+                    .whenComplete((result, error) -> {
+                        try {
+                            aggregator.record(variant, error == null
+                                ? result
+                                : Map.of("status", 0, "body", String.valueOf(error.getMessage())));
+                        } finally {
+                            permits.release();
+                        }
+                    });
+            }
+            permits.acquire(limit);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            LOGGER.info("Fuzz campaign for step {} cancelled", stepId);
+            throw new CompletionException(ex);
+        }
+        FuzzSummary summary = aggregator.summarize();
+        LOGGER.info("Fuzz campaign for step {} finished: {} executed, {} rejected by the client, anomalies {}",
+            stepId, summary.executed(), summary.clientRejected(), summary.anomalies());
+        return summary;
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.features.analysis_processes.application.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Indexed payload corpus for fuzz campaigns. Oversized strings are materialised only when
+ * their index is requested, so the corpus itself stays small regardless of payload sizes.
+ */
+public final class FuzzPayloadCorpus {
+
+    public enum Category {
+        SQLI,
+        XSS,
+        BOUNDARY_NUMBERS,
+        OVERSIZED_STRINGS,
+        CUSTOM;
+
+        public static Category fromJson(String value) {
+            String normalized = value.trim().replace('-', '_').toUpperCase(Locale.ROOT);
+            return Arrays.stream(values())
+                .filter(category -> category.name().equals(normalized))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported fuzz category: " + value));
+        }
+    }
+
+    public record Payload(Category category, String value) {}
+
+    private static final List<String> SQLI = List.of(
+        "' OR '1'='1",
+        "' OR 1=1--",
+        "\" OR \"\"=\"",
+        "1; DROP TABLE users--",
+        "' UNION SELECT NULL--",
+        "' UNION SELECT NULL,NULL,NULL--",
+        "1' AND SLEEP(5)--",
+        "'; WAITFOR DELAY '0:0:5'--",
+        "'||(SELECT pg_sleep(5))||'",
+        "1 AND 1=2",
+        "admin'--",
+        "1) OR (1=1",
+        "' AND extractvalue(1,concat(0x7e,version()))--"
+    );
+
+    private static final List<String> XSS = List.of(
+        "<script>alert(1)</script>",
+        "\"><script>alert(1)</script>",
+        "<img src=x onerror=alert(1)>",
+        "<svg/onload=alert(1)>",
+        "javascript:alert(1)",
+        "'><iframe src=javascript:alert(1)>",
+        "<details open ontoggle=alert(1)>",
+        "{{7*7}}",
+        "${7*7}"
+    );
+
+    private static final List<String> BOUNDARY_NUMBERS = List.of(
+        "0",
+        "-1",
+        "2147483647",
+        "2147483648",
+        "-2147483648",
+        "-2147483649",
+        "9223372036854775807",
+        "9223372036854775808",
+        "-9223372036854775809",
+        "1e308",
+        "-1e309",
+        "NaN",
+        "Infinity",
+        "0.0000001",
+        "007",
+        ""
+    );
+
+    private static final int[] OVERSIZED_LENGTHS = {1_024, 8_192, 65_536, 1_048_576};
+
+    private final List<Category> segments;
+    private final int[] segmentOffsets;
+    private final List<String> custom;
+    private final int size;
+
+    private FuzzPayloadCorpus(Set<Category> categories, List<String> custom) {
+        this.custom = custom;
+        this.segments = new ArrayList<>();
+        List<Integer> offsets = new ArrayList<>();
+        int total = 0;
+        for (Category category : Category.values()) {
+            if (!categories.contains(category)) {
+                continue;
+            }
+            int count = segmentSize(category);
+            if (count == 0) {
+                continue;
+            }
+            segments.add(category);
+            offsets.add(total);
+            total += count;
+        }
+        this.segmentOffsets = offsets.stream().mapToInt(Integer::intValue).toArray();
+        this.size = total;
+    }
+
+    public static FuzzPayloadCorpus of(Collection<Category> categories, List<String> customPayloads) {
+        Set<Category> selected = categories == null || categories.isEmpty()
+            ? EnumSet.of(Category.SQLI, Category.XSS, Category.BOUNDARY_NUMBERS, Category.OVERSIZED_STRINGS)
+            : EnumSet.copyOf(categories);
+        List<String> custom = customPayloads == null ? List.of() : List.copyOf(customPayloads);
+        if (!custom.isEmpty()) {
+            selected.add(Category.CUSTOM);
+        }
+        return new FuzzPayloadCorpus(selected, custom);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Payload payload(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Payload index " + index + " out of range " + size);
+        }
+        int segment = segments.size() - 1;
+        while (segmentOffsets[segment] > index) {
+            segment--;
+        }
+        Category category = segments.get(segment);
+        int local = index - segmentOffsets[segment];
+        return new Payload(category, switch (category) {
+            case SQLI -> SQLI.get(local);
+            case XSS -> XSS.get(local);
+            case BOUNDARY_NUMBERS -> BOUNDARY_NUMBERS.get(local);
+            case OVERSIZED_STRINGS -> "A".repeat(OVERSIZED_LENGTHS[local]);
+            case CUSTOM -> custom.get(local);
+        });
+    }
+
+    private int segmentSize(Category category) {
+        return switch (category) {
+            case SQLI -> SQLI.size();
+            case XSS -> XSS.size();
+            case BOUNDARY_NUMBERS -> BOUNDARY_NUMBERS.size();
+            case OVERSIZED_STRINGS -> OVERSIZED_LENGTHS.length;
+            case CUSTOM -> custom.size();
+        };
+    }
+}
@@ -0,0 +1,262 @@
+package org.example.features.analysis_processes.application.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Thread-safe, constant-memory aggregation of fuzz variant results. Responses are reduced
+ * to counters, a log-linear latency histogram and a bounded list of notable findings as
+ * they arrive; nothing is retained per variant.
+ */
+public final class FuzzResultAggregator {
+
+    public enum Anomaly {
+        SERVER_ERROR,
+        TRANSPORT_ERROR,
+        SQL_ERROR_SIGNATURE,
+        PAYLOAD_REFLECTED,
+        LATENCY_OUTLIER
+    }
+
+    private static final Pattern SQL_ERROR = Pattern.compile(
+        "SQL syntax|SQLSTATE|ORA-\\d{5}|syntax error at or near|unclosed quotation mark|PSQLException|SQLiteException",
+        Pattern.CASE_INSENSITIVE
+    );
+    private static final int MAX_SCANNED_BODY = 64 * 1024;
+    private static final int MAX_FINDINGS = 50;
+    private static final int MAX_SLOWEST = 10;
+    private static final int PREVIEW_LENGTH = 80;
+    private static final int OUTLIER_MIN_SAMPLES = 30;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HISTOGRAM_SIZE = SUB_BUCKETS + (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String stepId;
+    private final long plannedVariants;
+    private final List<String> injectionPoints;
+    private final Instant startedAt = Instant.now();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder clientRejected = new LongAdder();
+    private final AtomicLongArray statusClasses = new AtomicLongArray(6);
+    private final Map<Anomaly, LongAdder> anomalies = new EnumMap<>(Anomaly.class);
+    private final Map<FuzzPayloadCorpus.Category, LongAdder> anomaliesByCategory = new EnumMap<>(FuzzPayloadCorpus.Category.class);
+    private final AtomicLongArray latencyHistogram = new AtomicLongArray(HISTOGRAM_SIZE);
+    private final AtomicLong minLatency = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxLatency = new AtomicLong();
+    private final List<FuzzSummary.Finding> findings = new ArrayList<>();
+    private final PriorityQueue<FuzzSummary.Finding> slowest =
+        new PriorityQueue<>(Comparator.comparingLong(FuzzSummary.Finding::latencyMs));
+    private long latencySamples;
+    private double latencyMean;
+    private double latencyM2;
+
+    public FuzzResultAggregator(String stepId, long plannedVariants, List<FuzzVariantGenerator.InjectionPoint> injectionPoints) {
+        this.stepId = stepId;
+        this.plannedVariants = plannedVariants;
+        this.injectionPoints = injectionPoints.stream().map(FuzzVariantGenerator.InjectionPoint::label).toList();
+        for (Anomaly anomaly : Anomaly.values()) {
+            anomalies.put(anomaly, new LongAdder());
+        }
+        for (FuzzPayloadCorpus.Category category : FuzzPayloadCorpus.Category.values()) {
+            anomaliesByCategory.put(category, new LongAdder());
+        }
+    }
+
+    public void record(FuzzVariantGenerator.Variant variant, Map<String, Object> result) {
+        if (Boolean.TRUE.equals(result.get(HttpRequestExecutor.CLIENT_REJECTED))) {
+            // never left this process: no status, no latency and nothing to say about the target
+            clientRejected.increment();
+            return;
+        }
+        int status = result.get("status") instanceof Number number ? number.intValue() : 0;
+        long latency = result.get("durationMs") instanceof Number number ? Math.max(0, number.longValue()) : 0;
+        String body = result.get("body") instanceof String text ? text : null;
+
+        executed.increment();
+        statusClasses.incrementAndGet(Math.min(Math.max(status / 100, 0), 5));
+        latencyHistogram.incrementAndGet(bucketFor(latency));
+        minLatency.accumulateAndGet(latency, Math::min);
+        maxLatency.accumulateAndGet(latency, Math::max);
+
+        Anomaly anomaly = classify(variant, status, body);
+        boolean outlier = updateLatencyStats(latency);
+        if (anomaly == null && outlier) {
+            anomaly = Anomaly.LATENCY_OUTLIER;
+        }
+        FuzzSummary.Finding finding = null;
+        if (anomaly != null) {
+            anomalies.get(anomaly).increment();
+            anomaliesByCategory.get(variant.payload().category()).increment();
+            finding = toFinding(variant, status, latency, anomaly);
+        }
+        synchronized (this) {
+            if (finding != null && findings.size() < MAX_FINDINGS) {
+                findings.add(finding);
+            }
+            if (slowest.size() < MAX_SLOWEST || slowest.peek().latencyMs() < latency) {
+                slowest.add(finding != null ? finding : toFinding(variant, status, latency, null));
+                if (slowest.size() > MAX_SLOWEST) {
+                    slowest.poll();
+                }
+            }
+        }
+    }
+
+    public FuzzSummary summarize() {
+        long count = executed.sum();
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        for (int index = 0; index < statusClasses.length(); index++) {
+            long value = statusClasses.get(index);
+            if (value > 0) {
+                statuses.put(index == 0 ? "error" : index + "xx", value);
+            }
+        }
+        Map<String, Long> anomalyCounts = new LinkedHashMap<>();
+        anomalies.forEach((anomaly, adder) -> {
+            if (adder.sum() > 0) {
+                anomalyCounts.put(anomaly.name(), adder.sum());
+            }
+        });
+        Map<String, Long> categoryCounts = new LinkedHashMap<>();
+        anomaliesByCategory.forEach((category, adder) -> {
+            if (adder.sum() > 0) {
+                categoryCounts.put(category.name().toLowerCase(Locale.ROOT), adder.sum());
+            }
+        });
+        List<FuzzSummary.Finding> notable;
+        List<FuzzSummary.Finding> slowestFindings;
+        double mean;
+        synchronized (this) {
+            notable = List.copyOf(findings);
+            slowestFindings = slowest.stream()
+                .sorted(Comparator.comparingLong(FuzzSummary.Finding::latencyMs).reversed())
+                .toList();
+            mean = latencyMean;
+        }
+        long max = maxLatency.get();
+        FuzzSummary.LatencyStats latency = new FuzzSummary.LatencyStats(
+            count == 0 ? 0 : minLatency.get(),
+            mean,
+            Math.min(percentile(0.50, count), max),
+            Math.min(percentile(0.95, count), max),
+            Math.min(percentile(0.99, count), max),
+            max
+        );
+        return new FuzzSummary(
+            stepId,
+            plannedVariants,
+            count,
+            clientRejected.sum(),
+            injectionPoints,
+            statuses,
+            anomalyCounts,
+            categoryCounts,
+            latency,
+            notable,
+            slowestFindings,
+            startedAt,
+            Instant.now()
+        );
+    }
+
+    private Anomaly classify(FuzzVariantGenerator.Variant variant, int status, String body) {
+        if (status == 0) {
+            return Anomaly.TRANSPORT_ERROR;
+        }
+        if (body != null && !body.isEmpty()) {
+            String scanned = body.length() > MAX_SCANNED_BODY ? body.substring(0, MAX_SCANNED_BODY) : body;
+            if (SQL_ERROR.matcher(scanned).find()) {
+                return Anomaly.SQL_ERROR_SIGNATURE;
+            }
+            if (variant.payload().category() == FuzzPayloadCorpus.Category.XSS
+                && scanned.contains(variant.payload().value())) {
+                return Anomaly.PAYLOAD_REFLECTED;
+            }
+        }
+        return status >= 500 ? Anomaly.SERVER_ERROR : null;
+    }
+
+    /**
+     * Welford update of the running latency mean/variance; reports whether the sample is far
+     * outside the distribution observed so far.
+     */
+    private synchronized boolean updateLatencyStats(long latency) {
+        boolean outlier = false;
+        if (latencySamples >= OUTLIER_MIN_SAMPLES) {
+            double deviation = Math.sqrt(latencyM2 / (latencySamples - 1));
+            outlier = latency > latencyMean + 4 * deviation && latency > 2 * latencyMean;
+        }
+        latencySamples++;
+        double delta = latency - latencyMean;
+        latencyMean += delta / latencySamples;
+        latencyM2 += delta * (latency - latencyMean);
+        return outlier;
+    }
+
+    private long percentile(double quantile, long count) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long cumulative = 0;
+        for (int index = 0; index < latencyHistogram.length(); index++) {
+            cumulative += latencyHistogram.get(index);
+            if (cumulative >= rank) {
+                return bucketUpperBound(index);
+            }
+        }
+        return maxLatency.get();
+    }
+
+    static int bucketFor(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    private static FuzzSummary.Finding toFinding(
+        FuzzVariantGenerator.Variant variant,
+        int status,
+        long latency,
+        Anomaly anomaly
+    ) {
+        String payload = variant.payload().value();
+        String preview = payload.length() > PREVIEW_LENGTH
+            ? payload.substring(0, PREVIEW_LENGTH) + "... (" + payload.length() + " chars)"
+            : payload;
+        return new FuzzSummary.Finding(
+            variant.index(),
+            variant.point().label(),
+            variant.payload().category().name().toLowerCase(Locale.ROOT),
+            preview,
+            status,
+            latency,
+            anomaly == null ? null : anomaly.name()
+        );
+    }
+}
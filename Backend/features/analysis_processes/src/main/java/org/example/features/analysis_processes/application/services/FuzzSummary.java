@@ -0,0 +1,41 @@
+package org.example.features.analysis_processes.application.services;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated outcome of a fuzz campaign against one HTTP step.
+ *
+ * @param executed       variants sent to the target
+ * @param clientRejected variants the HTTP client refused to send (e.g. CR/LF in a header);
+ *                       they say nothing about the target, so they are not anomalies
+ */
+public record FuzzSummary(
+    String stepId,
+    long plannedVariants,
+    long executed,
+    long clientRejected,
+    List<String> injectionPoints,
+    Map<String, Long> statusClasses,
+    Map<String, Long> anomalies,
+    Map<String, Long> anomaliesByCategory,
+    LatencyStats latency,
+    List<Finding> findings,
+    List<Finding> slowest,
+    Instant startedAt,
+    Instant completedAt
+) {
+
+    public record LatencyStats(long minMs, double meanMs, long p50Ms, long p95Ms, long p99Ms, long maxMs) {}
+
+    public record Finding(
+        long variant,
+        String injectionPoint,
+        String category,
+        String payloadPreview,
+        int status,
+        long latencyMs,
+        String anomaly
+    ) {}
+}
@@ -0,0 +1,192 @@
+package org.example.features.analysis_processes.application.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.example.features.analysis_processes.domain.valueobjects.HttpRequestStep;
+import org.springframework.util.StringUtils;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily expands one HTTP step into fuzz variants: every injection point crossed with every
+ * corpus payload. Only the variant being returned is materialised, so memory use does not
+ * depend on how many variants the campaign produces.
+ */
+public final class FuzzVariantGenerator implements Iterator<FuzzVariantGenerator.Variant> {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public enum InjectionKind {
+        VARIABLE,
+        QUERY_PARAMETER,
+        JSON_FIELD
+    }
+
+    public record InjectionPoint(InjectionKind kind, String name) {
+        public String label() {
+            return kind.name().toLowerCase(Locale.ROOT) + ":" + name;
+        }
+    }
+
+    public record Variant(long index, InjectionPoint point, FuzzPayloadCorpus.Payload payload, HttpRequestStep request) {}
+
+    private final RequestTemplateEngine.CompiledRequest template;
+    private final Map<String, String> variables;
+    private final FuzzPayloadCorpus corpus;
+    private final HttpRequestStep baseline;
+    private final ObjectNode jsonBody;
+    private final List<InjectionPoint> points;
+    private final long total;
+    private long cursor;
+
+    public FuzzVariantGenerator(
+        RequestTemplateEngine.CompiledRequest template,
+        Map<String, String> variables,
+        FuzzPayloadCorpus corpus,
+        Collection<String> targets,
+        long maxVariants
+    ) {
+        this.template = template;
+        this.variables = variables;
+        this.corpus = corpus;
+        this.baseline = template.render(variables::get);
+        this.jsonBody = parseJsonObject(baseline.getBody());
+        this.points = discoverPoints(targets);
+        if (points.isEmpty()) {
+            throw new IllegalArgumentException(
+                "Step has no injection points: add {{variable}} placeholders, query parameters or a JSON object body");
+        }
+        long combinations = (long) points.size() * corpus.size();
+        this.total = maxVariants > 0 ? Math.min(maxVariants, combinations) : combinations;
+    }
+
+    public List<InjectionPoint> injectionPoints() {
+        return points;
+    }
+
+    public long totalVariants() {
+        return total;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return cursor < total;
+    }
+
+    @Override
+    public Variant next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        InjectionPoint point = points.get((int) (cursor % points.size()));
+        FuzzPayloadCorpus.Payload payload = corpus.payload((int) (cursor / points.size()));
+        HttpRequestStep request = inject(point, payload.value());
+        request.setStepId(baseline.getStepId());
+        return new Variant(cursor++, point, payload, request);
+    }
+
+    private HttpRequestStep inject(InjectionPoint point, String value) {
+        return switch (point.kind()) {
+            case VARIABLE -> template.render(name -> name.equals(point.name()) ? value : variables.get(name));
+            case QUERY_PARAMETER -> copyOf(baseline, replaceQueryParameter(baseline.getUrl(), point.name(), encode(value)), baseline.getBody());
+            case JSON_FIELD -> {
+                ObjectNode body = jsonBody.deepCopy();
+                body.put(point.name(), value);
+                yield copyOf(baseline, baseline.getUrl(), body.toString());
+            }
+        };
+    }
+
+    private List<InjectionPoint> discoverPoints(Collection<String> targets) {
+        List<InjectionPoint> discovered = new ArrayList<>();
+        template.variables().forEach(name -> discovered.add(new InjectionPoint(InjectionKind.VARIABLE, name)));
+        for (String name : queryParameterNames(baseline.getUrl())) {
+            discovered.add(new InjectionPoint(InjectionKind.QUERY_PARAMETER, name));
+        }
+        if (jsonBody != null) {
+            jsonBody.fields().forEachRemaining(field -> {
+                if (field.getValue().isValueNode()) {
+                    discovered.add(new InjectionPoint(InjectionKind.JSON_FIELD, field.getKey()));
+                }
+            });
+        }
+        if (targets == null || targets.isEmpty()) {
+            return List.copyOf(discovered);
+        }
+        return discovered.stream()
+            .filter(point -> targets.contains(point.name()) || targets.contains(point.label()))
+            .toList();
+    }
+
+    private static List<String> queryParameterNames(String url) {
+        if (url == null || url.indexOf('?') < 0) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>();
+        for (String pair : url.substring(url.indexOf('?') + 1).split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator >= 0 ? pair.substring(0, separator) : pair;
+            if (!name.isEmpty() && !names.contains(name)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private static String replaceQueryParameter(String url, String name, String encodedValue) {
+        int queryStart = url.indexOf('?');
+        StringBuilder builder = new StringBuilder(url.length() + encodedValue.length());
+        builder.append(url, 0, queryStart + 1);
+        String[] pairs = url.substring(queryStart + 1).split("&", -1);
+        for (int index = 0; index < pairs.length; index++) {
+            if (index > 0) {
+                builder.append('&');
+            }
+            String pair = pairs[index];
+            int separator = pair.indexOf('=');
+            String key = separator >= 0 ? pair.substring(0, separator) : pair;
+            if (key.equals(name)) {
+                builder.append(key).append('=').append(encodedValue);
+            } else {
+                builder.append(pair);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static HttpRequestStep copyOf(HttpRequestStep source, String url, String body) {
+        return new HttpRequestStep(
+            source.getName(),
+            source.getMethod(),
+            url,
+            source.getHeaders(),
+            body,
+            source.getDescription()
+        );
+    }
+
+    private static ObjectNode parseJsonObject(String body) {
+        if (!StringUtils.hasText(body)) {
+            return null;
+        }
+        try {
+            JsonNode node = JSON.readTree(body);
+            return node instanceof ObjectNode objectNode ? objectNode : null;
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    private static String encode(String value) {
+        return value == null ? null : URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
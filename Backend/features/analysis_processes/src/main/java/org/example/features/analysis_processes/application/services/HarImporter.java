@@ -0,0 +1,173 @@
+package org.example.features.analysis_processes.application.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.features.analysis_processes.domain.valueobjects.HttpRequestStep;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Turns a HAR 1.2 document into a {@link HarReplayPlan}. The document is read with the
+ * streaming parser and only one entry is materialised as a tree at a time.
+ */
+@Component
+public class HarImporter {
+
+    /**
+     * Headers the JDK client sets itself or refuses, plus HTTP/2 pseudo headers.
+     */
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+        "connection", "content-length", "expect", "host", "upgrade", "keep-alive",
+        "transfer-encoding", "te", "accept-encoding", "cookie"
+    );
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public HarReplayPlan importHar(InputStream input) throws IOException {
+        List<ParsedEntry> parsed = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (!seekEntries(parser)) {
+                throw new IllegalArgumentException("Not a HAR document: log.entries is missing");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonNode entry = objectMapper.readTree(parser);
+                ParsedEntry converted = convert(entry, parsed.size());
+                if (converted != null) {
+                    parsed.add(converted);
+                }
+            }
+        }
+        fillMissingStartTimes(parsed);
+        parsed.sort(Comparator.comparing(ParsedEntry::startedAt));
+        Instant first = parsed.isEmpty() ? Instant.EPOCH : parsed.get(0).startedAt();
+        List<HarReplayPlan.Entry> entries = new ArrayList<>(parsed.size());
+        long span = 0;
+        for (int index = 0; index < parsed.size(); index++) {
+            ParsedEntry entry = parsed.get(index);
+            long offset = Math.max(0, entry.startedAt().toEpochMilli() - first.toEpochMilli());
+            span = Math.max(span, offset);
+            entry.request().setStepId("har-" + index);
+            entries.add(new HarReplayPlan.Entry(index, entry.request(), offset, entry.status(), entry.time()));
+        }
+        return new HarReplayPlan(List.copyOf(entries), span);
+    }
+
+    private boolean seekEntries(JsonParser parser) throws IOException {
+        int depth = 0;
+        boolean inLog = false;
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                depth++;
+            } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+                depth--;
+            } else if (token == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                if (depth == 1 && "log".equals(name)) {
+                    inLog = true;
+                } else if (depth == 2 && inLog && "entries".equals(name)) {
+                    return parser.nextToken() == JsonToken.START_ARRAY;
+                } else if (depth == 1 || (depth == 2 && inLog)) {
+                    parser.nextToken();
+                    parser.skipChildren();
+                }
+            }
+        }
+        return false;
+    }
+
+    private ParsedEntry convert(JsonNode entry, int position) {
+        JsonNode request = entry.path("request");
+        String url = request.path("url").asText(null);
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        String method = request.path("method").asText("GET").toUpperCase(Locale.ROOT);
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (JsonNode header : request.path("headers")) {
+            String name = header.path("name").asText("");
+            String value = header.path("value").asText("");
+            // exported credentials are placeholders; replay supplies the real ones as overrides
+            if (name.isEmpty() || name.startsWith(":") || SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))
+                || HttpRequestExecutorImpl.REDACTED.equals(value)) {
+                continue;
+            }
+            headers.merge(name, value, (left, right) -> left + ", " + right);
+        }
+        JsonNode postData = request.path("postData");
+        String body = postData.hasNonNull("text") ? postData.get("text").asText() : null;
+        HttpRequestStep step = new HttpRequestStep(
+            method + " " + pathOf(url),
+            method,
+            url,
+            headers,
+            body,
+            "Imported from HAR entry " + position
+        );
+        return new ParsedEntry(
+            parseInstant(entry.path("startedDateTime").asText(null)),
+            step,
+            entry.path("response").path("status").asInt(0),
+            entry.path("time").asDouble(0)
+        );
+    }
+
+    private String pathOf(String url) {
+        try {
+            String path = URI.create(url).getRawPath();
+            return path == null || path.isEmpty() ? "/" : path;
+        } catch (IllegalArgumentException ex) {
+            return url;
+        }
+    }
+
+    private Instant parseInstant(String value) {
+        if (value != null) {
+            try {
+                return OffsetDateTime.parse(value).toInstant();
+            } catch (DateTimeParseException ignored) {
+                // filled in from the neighbouring entries
+            }
+        }
+        return null;
+    }
+
+    /**
+     * An entry without a readable start time starts when the entry before it in the document
+     * ended, so offsets stay within the recorded span and PRESERVE_TIMING never waits for a gap
+     * the trace does not contain. Leading ones start with the first timed entry.
+     */
+    private static void fillMissingStartTimes(List<ParsedEntry> parsed) {
+        Instant previousEnd = parsed.stream()
+            .map(ParsedEntry::startedAt)
+            .filter(Objects::nonNull)
+            .findFirst()
+            .orElse(Instant.EPOCH);
+        for (int index = 0; index < parsed.size(); index++) {
+            ParsedEntry entry = parsed.get(index);
+            if (entry.startedAt() == null) {
+                entry = new ParsedEntry(previousEnd, entry.request(), entry.status(), entry.time());
+                parsed.set(index, entry);
+            }
+            previousEnd = entry.startedAt().plusMillis((long) Math.max(0, entry.time()));
+        }
+    }
+
+    private record ParsedEntry(Instant startedAt, HttpRequestStep request, int status, double time) {}
+}
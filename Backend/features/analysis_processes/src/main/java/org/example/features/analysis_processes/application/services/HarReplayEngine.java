@@ -0,0 +1,250 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.example.features.analysis_processes.domain.valueobjects.HttpRequestStep;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Replays a {@link HarReplayPlan} through the HTTP executor, optionally against another
+ * base URL (e.g. production traces against staging).
+ */
+@Component
+public class HarReplayEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HarReplayEngine.class);
+    private static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+    public enum Mode {
+        /** Send as fast as the in-flight limit allows. */
+        MAX_SPEED,
+        /** Keep the original inter-arrival times, scaled by {@code speed}. */
+        PRESERVE_TIMING;
+
+        public static Mode fromJson(String value) {
+            if (!StringUtils.hasText(value)) {
+                return MAX_SPEED;
+            }
+            try {
+                return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unsupported replay mode: " + value);
+            }
+        }
+    }
+
+    /**
+     * {@code headers} are set on every replayed request, replacing a recorded header of the same
+     * name; credentials redacted on export are supplied this way.
+     */
+    public record Options(Mode mode, String targetBaseUrl, Integer maxInFlight, Double speed, Map<String, String> headers) {}
+
+    public record EntryResult(
+        int index,
+        String method,
+        String url,
+        int originalStatus,
+        int status,
+        double originalTimeMs,
+        long durationMs,
+        long scheduledOffsetMs,
+        long actualOffsetMs
+    ) {}
+
+    public record Report(
+        Mode mode,
+        String targetBaseUrl,
+        int entries,
+        long statusMatches,
+        long statusMismatches,
+        long transportErrors,
+        long originalSpanMs,
+        long replaySpanMs,
+        Instant startedAt,
+        Instant completedAt,
+        List<EntryResult> results
+    ) {}
+
+    private final HttpRequestExecutor requestExecutor;
+    private final ExecutorService dispatcher =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("har-replay-", 0).factory());
+
+    public HarReplayEngine(HttpRequestExecutor requestExecutor) {
+        this.requestExecutor = requestExecutor;
+    }
+
+    public CompletableFuture<Report> replay(HarReplayPlan plan, Options options) {
+        Mode mode = options.mode() == null ? Mode.MAX_SPEED : options.mode();
+        double speed = options.speed() == null || options.speed() <= 0 ? 1.0 : options.speed();
+        int maxInFlight = options.maxInFlight() == null || options.maxInFlight() <= 0
+            ? DEFAULT_MAX_IN_FLIGHT
+            : options.maxInFlight();
+        String target = StringUtils.hasText(options.targetBaseUrl()) ? trimTrailingSlash(options.targetBaseUrl().trim()) : null;
+        Map<String, String> headerOverrides = options.headers() == null ? Map.of() : options.headers();
+        LOGGER.info("Replaying {} HAR entries in {} mode against {}", plan.size(), mode, target != null ? target : "original hosts");
+
+        return CompletableFuture.supplyAsync(() -> {
+            Instant startedAt = Instant.now();
+            long startNanos = System.nanoTime();
+            AtomicReferenceArray<EntryResult> results = new AtomicReferenceArray<>(plan.size());
+            Semaphore permits = new Semaphore(maxInFlight);
+            List<CompletableFuture<?>> pending = mode == Mode.PRESERVE_TIMING ? new ArrayList<>() : null;
+            try {
+                for (HarReplayPlan.Entry entry : plan.entries()) {
+                    long scheduledOffset = (long) (entry.offsetMillis() / speed);
+                    if (mode == Mode.PRESERVE_TIMING) {
+                        sleepUntil(startNanos + TimeUnit.MILLISECONDS.toNanos(scheduledOffset));
+                    } else {
+                        permits.acquire();
+                    }
+                    long actualOffset = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                    HttpRequestStep request = rebase(entry.request(), target, headerOverrides);
+                    CompletableFuture<Map<String, Object>> sent = requestExecutor
+                        .executeAsync(request, target != null ? target : originOf(request.getUrl()))
+                        .whenComplete((result, error) -> {
+                            int status = error == null && result.get("status") instanceof Number number ? number.intValue() : 0;
+                            long duration = error == null && result.get("durationMs") instanceof Number number ? number.longValue() : 0;
+                            results.set(entry.index(), new EntryResult(
+                                entry.index(),
+                                request.getMethod(),
+                                request.getUrl(),
+                                entry.originalStatus(),
+                                status,
+                                entry.originalTimeMillis(),
+                                duration,
+                                mode == Mode.PRESERVE_TIMING ? scheduledOffset : 0,
+                                actualOffset
+                            ));
+                            if (mode == Mode.MAX_SPEED) {
+                                permits.release();
+                            }
+                        });
+                    if (pending != null) {
+                        pending.add(sent);
+                    }
+                }
+                if (pending != null) {
+                    CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+                } else {
+                    permits.acquire(maxInFlight);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(ex);
+            }
+            return buildReport(plan, mode, target, startedAt, startNanos, results);
+        }, dispatcher);
+    }
+
+    private Report buildReport(
+        HarReplayPlan plan,
+        Mode mode,
+        String target,
+        Instant startedAt,
+        long startNanos,
+        AtomicReferenceArray<EntryResult> results
+    ) {
+        List<EntryResult> ordered = new ArrayList<>(results.length());
+        long matches = 0;
+        long mismatches = 0;
+        long errors = 0;
+        for (int index = 0; index < results.length(); index++) {
+            EntryResult result = results.get(index);
+            if (result == null) {
+                continue;
+            }
+            ordered.add(result);
+            if (result.status() == 0) {
+                errors++;
+            } else if (result.status() == result.originalStatus()) {
+                matches++;
+            } else {
+                mismatches++;
+            }
+        }
+        return new Report(
+            mode,
+            target,
+            plan.size(),
+            matches,
+            mismatches,
+            errors,
+            plan.originalSpanMillis(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+            startedAt,
+            Instant.now(),
+            ordered
+        );
+    }
+
+    private HttpRequestStep rebase(HttpRequestStep source, String target, Map<String, String> headerOverrides) {
+        if (target == null && headerOverrides.isEmpty()) {
+            return source;
+        }
+        String url = source.getUrl();
+        try {
+            URI uri = URI.create(url);
+            if (target != null && uri.getScheme() != null) {
+                String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+                url = target + path + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+            }
+        } catch (IllegalArgumentException ex) {
+            LOGGER.debug("Replaying unparsable URL {} unchanged", url);
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (source.getHeaders() != null) {
+            source.getHeaders().forEach((name, value) -> {
+                if (headerOverrides.keySet().stream().noneMatch(name::equalsIgnoreCase)) {
+                    headers.put(name, value);
+                }
+            });
+        }
+        headers.putAll(headerOverrides);
+        HttpRequestStep rebased = new HttpRequestStep(
+            source.getName(),
+            source.getMethod(),
+            url,
+            headers,
+            source.getBody(),
+            source.getDescription()
+        );
+        rebased.setStepId(source.getStepId());
+        return rebased;
+    }
+
+    private String originOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getScheme() + "://" + uri.getRawAuthority();
+        } catch (IllegalArgumentException ex) {
+            return url;
+        }
+    }
+
+    private static String trimTrailingSlash(String value) {
+        return value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+    }
+
+    private static void sleepUntil(long deadlineNanos) throws InterruptedException {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.example.features.analysis_processes.domain.valueobjects.HttpRequestStep;
+
+import java.util.List;
+
+/**
+ * Requests recovered from a HAR file, ordered by start time. {@code offsetMillis} is the
+ * original start of the entry relative to the first one and drives timing-preserving replay.
+ */
+public record HarReplayPlan(List<Entry> entries, long originalSpanMillis) {
+
+    public record Entry(
+        int index,
+        HttpRequestStep request,
+        long offsetMillis,
+        int originalStatus,
+        double originalTimeMillis
+    ) {}
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,204 @@
+package org.example.features.analysis_processes.application.services;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes executed HTTP step results as a HAR 1.2 document. The results themselves come
+ * from the session, which is already in memory; the HAR JSON is generated entry by entry
+ * straight to the output stream, with no document tree or buffer in between.
+ */
+@Component
+public class HarWriter {
+
+    private static final String CREATOR = "SecurityOrchestrator";
+    private static final int FLUSH_EVERY_ENTRIES = 64;
+
+    private final JsonFactory jsonFactory = new ObjectMapper().getFactory();
+
+    public void write(Iterable<Map<String, Object>> results, Instant fallbackStart, OutputStream output) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(output, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("log");
+            generator.writeStringField("version", "1.2");
+            generator.writeObjectFieldStart("creator");
+            generator.writeStringField("name", CREATOR);
+            generator.writeStringField("version", "1.0");
+            generator.writeEndObject();
+            generator.writeArrayFieldStart("entries");
+            int written = 0;
+            for (Map<String, Object> result : results) {
+                writeEntry(generator, result, fallbackStart);
+                if (++written % FLUSH_EVERY_ENTRIES == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeEntry(JsonGenerator generator, Map<String, Object> result, Instant fallbackStart) throws IOException {
+        int status = result.get("status") instanceof Number number ? number.intValue() : 0;
+        String url = text(result.get("resolvedUrl"), text(result.get("url"), ""));
+        String httpVersion = text(result.get("httpVersion"), "HTTP/1.1");
+        Map<String, Object> timings = map(result.get("timings"));
+        double total = result.get("durationMs") instanceof Number number ? number.doubleValue() : 0;
+
+        generator.writeStartObject();
+        generator.writeStringField("startedDateTime", text(result.get("startedAt"), fallbackStart.toString()));
+        generator.writeNumberField("time", total);
+
+        generator.writeObjectFieldStart("request");
+        generator.writeStringField("method", text(result.get("method"), "GET").toUpperCase());
+        generator.writeStringField("url", url);
+        generator.writeStringField("httpVersion", httpVersion);
+        generator.writeArrayFieldStart("cookies");
+        generator.writeEndArray();
+        writeHeaders(generator, map(result.get("requestHeaders")));
+        writeQueryString(generator, url);
+        String requestBody = text(result.get("requestBody"), null);
+        if (requestBody != null && !requestBody.isEmpty()) {
+            generator.writeObjectFieldStart("postData");
+            generator.writeStringField("mimeType", headerValue(map(result.get("requestHeaders")), "Content-Type", "application/json"));
+            generator.writeStringField("text", requestBody);
+            generator.writeEndObject();
+        }
+        generator.writeNumberField("headersSize", -1);
+        generator.writeNumberField("bodySize", requestBody == null ? 0 : requestBody.getBytes(StandardCharsets.UTF_8).length);
+        generator.writeEndObject();
+
+        String body = status == 0 ? "" : text(result.get("body"), "");
+        Map<String, Object> responseHeaders = map(result.get("responseHeaders"));
+        generator.writeObjectFieldStart("response");
+        generator.writeNumberField("status", status);
+        generator.writeStringField("statusText", "");
+        generator.writeStringField("httpVersion", httpVersion);
+        generator.writeArrayFieldStart("cookies");
+        generator.writeEndArray();
+        writeHeaders(generator, responseHeaders);
+        generator.writeObjectFieldStart("content");
+        int bodySize = body.getBytes(StandardCharsets.UTF_8).length;
+        generator.writeNumberField("size", bodySize);
+        generator.writeStringField("mimeType", headerValue(responseHeaders, "Content-Type", "text/plain"));
+        generator.writeStringField("text", body);
+        generator.writeEndObject();
+        generator.writeStringField("redirectURL", headerValue(responseHeaders, "Location", ""));
+        generator.writeNumberField("headersSize", -1);
+        generator.writeNumberField("bodySize", bodySize);
+        generator.writeEndObject();
+
+        generator.writeObjectFieldStart("cache");
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("timings");
+        generator.writeNumberField("blocked", number(timings.get("blocked"), -1));
+        generator.writeNumberField("dns", -1);
+        generator.writeNumberField("connect", -1);
+        generator.writeNumberField("send", 0);
+        generator.writeNumberField("wait", number(timings.get("wait"), total));
+        generator.writeNumberField("receive", number(timings.get("receive"), 0));
+        generator.writeNumberField("ssl", -1);
+        generator.writeEndObject();
+
+        if (result.get("stepId") != null) {
+            generator.writeStringField("_stepId", result.get("stepId").toString());
+        }
+        if (result.get("name") != null) {
+            generator.writeStringField("_stepName", result.get("name").toString());
+        }
+        if (status == 0) {
+            generator.writeStringField("_error", text(result.get("body"), "request failed"));
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeHeaders(JsonGenerator generator, Map<String, Object> headers) throws IOException {
+        generator.writeArrayFieldStart("headers");
+        for (Map.Entry<String, Object> header : headers.entrySet()) {
+            if (header.getValue() instanceof List<?> values) {
+                for (Object value : values) {
+                    writeNameValue(generator, header.getKey(), String.valueOf(value));
+                }
+            } else if (header.getValue() != null) {
+                writeNameValue(generator, header.getKey(), header.getValue().toString());
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeQueryString(JsonGenerator generator, String url) throws IOException {
+        generator.writeArrayFieldStart("queryString");
+        String query = null;
+        try {
+            query = URI.create(url).getRawQuery();
+        } catch (IllegalArgumentException ignored) {
+            // leave queryString empty for URLs the JDK cannot parse
+        }
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                if (pair.isEmpty()) {
+                    continue;
+                }
+                int separator = pair.indexOf('=');
+                String name = separator >= 0 ? pair.substring(0, separator) : pair;
+                String value = separator >= 0 ? pair.substring(separator + 1) : "";
+                writeNameValue(generator, decode(name), decode(value));
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeNameValue(JsonGenerator generator, String name, String value) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("name", name);
+        generator.writeStringField("value", value);
+        generator.writeEndObject();
+    }
+
+    private String headerValue(Map<String, Object> headers, String name, String fallback) {
+        for (Map.Entry<String, Object> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                Object value = header.getValue();
+                if (value instanceof List<?> values) {
+                    return values.isEmpty() ? fallback : String.valueOf(values.get(0));
+                }
+                return value == null ? fallback : value.toString();
+            }
+        }
+        return fallback;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> map(Object value) {
+        return value instanceof Map<?, ?> map ? (Map<String, Object>) map : Map.of();
+    }
+
+    private String text(Object value, String fallback) {
+        return value == null ? fallback : value.toString();
+    }
+
+    private double number(Object value, double fallback) {
+        return value instanceof Number number ? number.doubleValue() : fallback;
+    }
+
+    private String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Local stand-in for a learned embedding model: words, word pairs and character trigrams are
+ * hashed into a fixed number of signed buckets (the hashing trick). Trigrams make
+ * {@code payments} and {@code payment}, or {@code getCardDetails} and {@code card details},
+ * land close to each other without any vocabulary or network access.
+ */
+@Component
+public class HashedNgramEmbedder implements TextEmbedder {
+
+    private static final float WORD_WEIGHT = 1.0f;
+    private static final float PAIR_WEIGHT = 0.7f;
+    private static final float TRIGRAM_WEIGHT = 0.4f;
+
+    private final int dimensions;
+
+    public HashedNgramEmbedder(@Value("${analysis.embedding.dimensions:512}") int dimensions) {
+        this.dimensions = Math.max(16, dimensions);
+    }
+
+    @Override
+    public String id() {
+        return "hashed-ngram-v1/" + dimensions;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        if (text == null || text.isBlank()) {
+            return vector;
+        }
+        String split = text.replaceAll("(\\p{Ll})(\\p{Lu})", "$1 $2").toLowerCase(Locale.ROOT);
+        String previous = null;
+        for (String word : split.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            add(vector, "w:" + word, WORD_WEIGHT);
+            if (previous != null) {
+                add(vector, "p:" + previous + ' ' + word, PAIR_WEIGHT);
+            }
+            String padded = '<' + word + '>';
+            for (int start = 0; start + 3 <= padded.length(); start++) {
+                add(vector, padded.substring(start, start + 3), TRIGRAM_WEIGHT);
+            }
+            previous = word;
+        }
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int index = 0; index < vector.length; index++) {
+                vector[index] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    private void add(float[] vector, String feature, float weight) {
+        int hash = feature.hashCode() * 0x9E3779B1;
+        hash ^= hash >>> 15;
+        // a second hash bit picks the sign, so collisions cancel out instead of piling up
+        vector[Math.floorMod(hash, dimensions)] += (hash & 0x40000000) == 0 ? weight : -weight;
+    }
+}
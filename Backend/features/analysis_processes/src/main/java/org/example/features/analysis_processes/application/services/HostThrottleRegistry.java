@@ -0,0 +1,513 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Per-host admission control for outgoing HTTP steps.
+ * <ul>
+ *     <li>AIMD concurrency limit: +1 per window of successful responses, halved on 429/503/timeouts.</li>
+ *     <li>{@code Retry-After} pauses admission for the host until the advertised time.</li>
+ *     <li>Circuit breaker: after consecutive failures the host is rejected immediately for a cool-down,
+ *     then a single probe decides whether it closes again.</li>
+ * </ul>
+ * Hosts with nothing in flight or queued are forgotten after an idle period, and the least
+ * recently used idle hosts go first once more than the configured number are tracked.
+ */
+@Component
+public class HostThrottleRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HostThrottleRegistry.class);
+
+    public enum CircuitState {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    public record HostStatus(
+        String host,
+        CircuitState circuit,
+        int concurrencyLimit,
+        int inFlight,
+        int queued,
+        int consecutiveFailures,
+        long successes,
+        long throttled,
+        long failures,
+        long rejected,
+        double ewmaLatencyMs,
+        Integer lastStatus,
+        Instant retryAfterUntil,
+        Instant openUntil
+    ) {}
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Duration maxQueueWait;
+    private final Duration maxRetryAfter;
+    private final Duration idleEviction;
+    private final int maxHosts;
+    private final Map<String, HostThrottle> hosts = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "http-host-throttle");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public HostThrottleRegistry(
+        int initialLimit,
+        int minLimit,
+        int maxLimit,
+        int failureThreshold,
+        long openSeconds,
+        long maxQueueWaitSeconds,
+        long maxRetryAfterSeconds
+    ) {
+        this(initialLimit, minLimit, maxLimit, failureThreshold, openSeconds, maxQueueWaitSeconds,
+            maxRetryAfterSeconds, 600, 1024);
+    }
+
+    @Autowired
+    public HostThrottleRegistry(
+        @Value("${analysis.http.host.initial-concurrency:8}") int initialLimit,
+        @Value("${analysis.http.host.min-concurrency:1}") int minLimit,
+        @Value("${analysis.http.host.max-concurrency:64}") int maxLimit,
+        @Value("${analysis.http.host.breaker.failure-threshold:5}") int failureThreshold,
+        @Value("${analysis.http.host.breaker.open-seconds:30}") long openSeconds,
+        @Value("${analysis.http.host.max-queue-wait-seconds:20}") long maxQueueWaitSeconds,
+        @Value("${analysis.http.host.max-retry-after-seconds:120}") long maxRetryAfterSeconds,
+        @Value("${analysis.http.host.idle-eviction-seconds:600}") long idleEvictionSeconds,
+        @Value("${analysis.http.host.max-tracked:1024}") int maxHosts
+    ) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.initialLimit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = Duration.ofSeconds(Math.max(1, openSeconds));
+        this.maxQueueWait = Duration.ofSeconds(Math.max(1, maxQueueWaitSeconds));
+        this.maxRetryAfter = Duration.ofSeconds(Math.max(1, maxRetryAfterSeconds));
+        this.idleEviction = Duration.ofSeconds(Math.max(1, idleEvictionSeconds));
+        this.maxHosts = Math.max(1, maxHosts);
+        long sweepMillis = Math.min(idleEviction.toMillis(), Duration.ofMinutes(1).toMillis());
+        scheduler.scheduleWithFixedDelay(() -> evictIdle(Instant.now()), sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Completes with a permit once the host admits another request, or exceptionally with
+     * {@link HostUnavailableException} when the circuit is open or the host is throttled
+     * for longer than the queue wait budget.
+     */
+    public CompletableFuture<Permit> acquire(URI uri) {
+        Instant now = Instant.now();
+        // Reserved inside compute so no sweep, idle or over the cap, drops a host between here and
+        // throttle.acquire(), which turns the reservation into a permit or a queued waiter.
+        HostThrottle throttle = hosts.compute(hostKey(uri), (host, existing) -> {
+            HostThrottle current = existing != null ? existing : new HostThrottle(host);
+            current.reserve(now);
+            return current;
+        });
+        if (hosts.size() > maxHosts) {
+            scheduler.execute(() -> evictIdle(Instant.now()));
+        }
+        return throttle.acquire();
+    }
+
+    public List<HostStatus> snapshot() {
+        return hosts.values().stream()
+            .map(HostThrottle::status)
+            .sorted(Comparator.comparing(HostStatus::host))
+            .toList();
+    }
+
+    /**
+     * Drops hosts idle for longer than the eviction period, then the least recently used idle
+     * hosts while more than the cap are tracked. Hosts with a request being admitted, in flight
+     * or queued, an open circuit or a pending {@code Retry-After} are kept so their state is not
+     * lost.
+     */
+    synchronized void evictIdle(Instant now) {
+        Instant idleCutoff = now.minus(idleEviction);
+        hosts.keySet().forEach(host -> hosts.computeIfPresent(host,
+            (key, throttle) -> throttle.isEvictable(now, idleCutoff) ? null : throttle));
+        int excess = hosts.size() - maxHosts;
+        if (excess <= 0) {
+            return;
+        }
+        List<String> leastRecentlyUsed = hosts.values().stream()
+            .filter(throttle -> throttle.isEvictable(now, Instant.MAX))
+            .sorted(Comparator.comparing(HostThrottle::lastUsed))
+            .limit(excess)
+            .map(throttle -> throttle.host)
+            .toList();
+        leastRecentlyUsed.forEach(host -> hosts.computeIfPresent(host,
+            (key, throttle) -> throttle.isEvictable(now, Instant.MAX) ? null : throttle));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    static String hostKey(URI uri) {
+        String scheme = uri.getScheme() == null ? "http" : uri.getScheme().toLowerCase(Locale.ROOT);
+        int port = uri.getPort() != -1 ? uri.getPort() : ("https".equals(scheme) ? 443 : 80);
+        String host = uri.getHost() == null ? "unknown" : uri.getHost().toLowerCase(Locale.ROOT);
+        return scheme + "://" + host + ":" + port;
+    }
+
+    static Optional<Duration> parseRetryAfter(String header, Instant now) {
+        if (header == null || header.isBlank()) {
+            return Optional.empty();
+        }
+        String value = header.trim();
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value))));
+        } catch (NumberFormatException ignored) {
+            // fall through to HTTP-date
+        }
+        try {
+            Instant until = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return Optional.of(until.isAfter(now) ? Duration.between(now, until) : Duration.ZERO);
+        } catch (DateTimeParseException ex) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Admission granted for one request; exactly one of the completion methods must be called.
+     */
+    public final class Permit {
+
+        private final HostThrottle throttle;
+        private final boolean probe;
+        private boolean released;
+
+        private Permit(HostThrottle throttle, boolean probe) {
+            this.throttle = throttle;
+            this.probe = probe;
+        }
+
+        public void onResponse(int status, String retryAfterHeader, long latencyMs) {
+            if (markReleased()) {
+                throttle.complete(this, status, retryAfterHeader, latencyMs, null);
+            }
+        }
+
+        public void onError(Throwable error, long latencyMs) {
+            if (markReleased()) {
+                throttle.complete(this, 0, null, latencyMs, unwrap(error));
+            }
+        }
+
+        /**
+         * Returns the slot without recording an outcome, e.g. when the request was never sent.
+         */
+        public void cancel() {
+            if (markReleased()) {
+                throttle.release(this);
+            }
+        }
+
+        private synchronized boolean markReleased() {
+            if (released) {
+                return false;
+            }
+            released = true;
+            return true;
+        }
+    }
+
+    public static final class HostUnavailableException extends RuntimeException {
+        public HostUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    private final class HostThrottle {
+
+        private final String host;
+        private final ArrayDeque<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+        private double limit = initialLimit;
+        private int inFlight;
+        private int consecutiveFailures;
+        private CircuitState circuit = CircuitState.CLOSED;
+        private boolean probeInFlight;
+        private Instant openUntil;
+        private Instant retryAfterUntil;
+        private Instant lastDecrease;
+        private boolean wakeUpScheduled;
+        private long successes;
+        private long throttled;
+        private long failures;
+        private long rejected;
+        private double ewmaLatencyMs;
+        private Integer lastStatus;
+        private Instant lastUsed;
+        /** Callers between {@link HostThrottleRegistry#acquire(URI)} and {@link #acquire()}. */
+        private int reserved;
+
+        private HostThrottle(String host) {
+            this.host = host;
+        }
+
+        synchronized void reserve(Instant now) {
+            lastUsed = now;
+            reserved++;
+        }
+
+        synchronized Instant lastUsed() {
+            return lastUsed;
+        }
+
+        synchronized boolean isEvictable(Instant now, Instant idleCutoff) {
+            return inFlight == 0
+                && reserved == 0
+                && waiters.isEmpty()
+                && !(circuit == CircuitState.OPEN && now.isBefore(openUntil))
+                && (retryAfterUntil == null || !now.isBefore(retryAfterUntil))
+                && lastUsed.isBefore(idleCutoff);
+        }
+
+        CompletableFuture<Permit> acquire() {
+            CompletableFuture<Permit> waiter;
+            synchronized (this) {
+                reserved--;
+                Instant now = Instant.now();
+                if (circuit == CircuitState.OPEN && now.isBefore(openUntil)) {
+                    rejected++;
+                    return CompletableFuture.failedFuture(new HostUnavailableException(
+                        "Circuit open for " + host + " until " + openUntil));
+                }
+                if (circuit == CircuitState.OPEN) {
+                    circuit = CircuitState.HALF_OPEN;
+                }
+                if (retryAfterUntil != null && Duration.between(now, retryAfterUntil).compareTo(maxQueueWait) > 0) {
+                    rejected++;
+                    return CompletableFuture.failedFuture(new HostUnavailableException(
+                        "Host " + host + " asked to retry after " + retryAfterUntil));
+                }
+                Permit permit = tryGrant(now);
+                if (permit != null) {
+                    return CompletableFuture.completedFuture(permit);
+                }
+                waiter = new CompletableFuture<>();
+                waiters.addLast(waiter);
+                scheduleWakeUp(now);
+            }
+            return waiter
+                .orTimeout(maxQueueWait.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(error -> {
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof TimeoutException) {
+                        synchronized (this) {
+                            waiters.remove(waiter);
+                            rejected++;
+                        }
+                        return CompletableFuture.failedFuture(new HostUnavailableException(
+                            "Timed out waiting for a free slot on " + host));
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+        }
+
+        private Permit tryGrant(Instant now) {
+            if (retryAfterUntil != null) {
+                if (now.isBefore(retryAfterUntil)) {
+                    return null;
+                }
+                retryAfterUntil = null;
+            }
+            if (circuit == CircuitState.HALF_OPEN) {
+                if (probeInFlight) {
+                    return null;
+                }
+                probeInFlight = true;
+                inFlight++;
+                return new Permit(this, true);
+            }
+            if (inFlight >= (int) limit) {
+                return null;
+            }
+            inFlight++;
+            return new Permit(this, false);
+        }
+
+        void complete(Permit permit, int status, String retryAfterHeader, long latencyMs, Throwable error) {
+            synchronized (this) {
+                inFlight--;
+                if (permit.probe) {
+                    probeInFlight = false;
+                }
+                Instant now = Instant.now();
+                lastUsed = now;
+                ewmaLatencyMs = ewmaLatencyMs == 0 ? latencyMs : ewmaLatencyMs * 0.8 + latencyMs * 0.2;
+                if (error == null) {
+                    lastStatus = status;
+                }
+                if (status == 429 || status == 503) {
+                    throttled++;
+                    parseRetryAfter(retryAfterHeader, now).ifPresent(delay -> {
+                        Duration capped = delay.compareTo(maxRetryAfter) > 0 ? maxRetryAfter : delay;
+                        Instant until = now.plus(capped);
+                        if (retryAfterUntil == null || until.isAfter(retryAfterUntil)) {
+                            retryAfterUntil = until;
+                        }
+                    });
+                    onFailure(now, permit.probe, "HTTP " + status);
+                } else if ((error != null && isHostFailure(error)) || status == 502 || status == 504) {
+                    failures++;
+                    onFailure(now, permit.probe, error != null ? error.getClass().getSimpleName() : "HTTP " + status);
+                } else if (error == null) {
+                    successes++;
+                    consecutiveFailures = 0;
+                    if (permit.probe || circuit == CircuitState.HALF_OPEN) {
+                        LOGGER.info("Circuit for {} closed after successful probe", host);
+                        circuit = CircuitState.CLOSED;
+                    }
+                    limit = Math.min(maxLimit, limit + 1.0 / Math.max(1.0, limit));
+                }
+            }
+            drain();
+        }
+
+        void release(Permit permit) {
+            synchronized (this) {
+                inFlight--;
+                if (permit.probe) {
+                    probeInFlight = false;
+                }
+            }
+            drain();
+        }
+
+        private void onFailure(Instant now, boolean probe, String reason) {
+            consecutiveFailures++;
+            // Decrease at most once per observed round trip so one burst of rejections halves once.
+            if (lastDecrease == null || Duration.between(lastDecrease, now).toMillis() >= Math.max(1, (long) ewmaLatencyMs)) {
+                limit = Math.max(minLimit, limit / 2);
+                lastDecrease = now;
+            }
+            if (probe || consecutiveFailures >= failureThreshold) {
+                if (circuit != CircuitState.OPEN) {
+                    LOGGER.warn("Opening circuit for {} for {}s after {} consecutive failures (last: {})",
+                        host, openDuration.toSeconds(), consecutiveFailures, reason);
+                }
+                circuit = CircuitState.OPEN;
+                openUntil = now.plus(openDuration);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                CompletableFuture<Permit> waiter;
+                Permit permit;
+                synchronized (this) {
+                    waiter = waiters.peekFirst();
+                    if (waiter == null) {
+                        return;
+                    }
+                    Instant now = Instant.now();
+                    if (circuit == CircuitState.OPEN) {
+                        if (now.isBefore(openUntil)) {
+                            waiters.pollFirst();
+                            rejected++;
+                            waiter.completeExceptionally(new HostUnavailableException(
+                                "Circuit open for " + host + " until " + openUntil));
+                            continue;
+                        }
+                        circuit = CircuitState.HALF_OPEN;
+                    }
+                    permit = tryGrant(now);
+                    if (permit == null) {
+                        scheduleWakeUp(now);
+                        return;
+                    }
+                    waiters.pollFirst();
+                }
+                if (!waiter.complete(permit)) {
+                    // The waiter timed out meanwhile; hand the slot back.
+                    permit.cancel();
+                }
+            }
+        }
+
+        private void scheduleWakeUp(Instant now) {
+            Instant wakeAt = retryAfterUntil != null && retryAfterUntil.isAfter(now) ? retryAfterUntil : null;
+            if (wakeAt == null || wakeUpScheduled) {
+                return;
+            }
+            wakeUpScheduled = true;
+            scheduler.schedule(() -> {
+                synchronized (this) {
+                    wakeUpScheduled = false;
+                }
+                drain();
+            }, Duration.between(now, wakeAt).toMillis() + 1, TimeUnit.MILLISECONDS);
+        }
+
+        synchronized HostStatus status() {
+            CircuitState reported = circuit == CircuitState.OPEN && openUntil != null && !Instant.now().isBefore(openUntil)
+                ? CircuitState.HALF_OPEN
+                : circuit;
+            return new HostStatus(
+                host,
+                reported,
+                (int) limit,
+                inFlight,
+                waiters.size(),
+                consecutiveFailures,
+                successes,
+                throttled,
+                failures,
+                rejected,
+                ewmaLatencyMs,
+                lastStatus,
+                retryAfterUntil,
+                circuit == CircuitState.OPEN ? openUntil : null
+            );
+        }
+    }
+
+    private static boolean isHostFailure(Throwable error) {
+        return error instanceof IOException;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+            && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+}
@@ -4,7 +4,32 @@ import org.example.features.analysis_processes.domain.valueobjects.HttpRequestSt
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface HttpRequestExecutor {
+
+    /**
+     * Result key set to {@code true} when the HTTP client refused to build or send the step,
+     * e.g. a header value containing CR/LF. The target never saw such a request.
+     */
+    String CLIENT_REJECTED = "clientRejected";
+
     List<Map<String, Object>> execute(List<HttpRequestStep> steps, String baseUrl);
+
+    /**
+     * Executes a single step without blocking the caller. The returned result map has
+     * the same shape as the entries produced by {@link #execute(List, String)}.
+     */
+    default CompletableFuture<Map<String, Object>> executeAsync(HttpRequestStep step, String baseUrl) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Map<String, Object>> results = execute(List.of(step), baseUrl);
+            return results.isEmpty() ? Map.of() : results.get(0);
+        });
+    }
+
+    /**
+     * Prepares connections to the base URL ahead of the first step. Never blocks.
+     */
+    default void warmUp(String baseUrl) {
+    }
 }
@@ -14,55 +14,158 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class HttpRequestExecutorImpl implements HttpRequestExecutor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpRequestExecutorImpl.class);
-    private final HttpClient httpClient;
+    /** Stored results and HAR exports keep these header names but never their values. */
+    private static final Set<String> CREDENTIAL_HEADERS = Set.of(
+        "authorization", "proxy-authorization", "cookie", "set-cookie", "x-api-key", "x-auth-token"
+    );
+    static final String REDACTED = "[REDACTED]";
+    private final HttpTransportRegistry transports;
+    private final HostThrottleRegistry hostThrottle;
 
-    public HttpRequestExecutorImpl() {
-        this.httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(5))
-            .build();
+    public HttpRequestExecutorImpl(HttpTransportRegistry transports, HostThrottleRegistry hostThrottle) {
+        this.transports = transports;
+        this.hostThrottle = hostThrottle;
     }
 
     @Override
     public List<Map<String, Object>> execute(List<HttpRequestStep> steps, String baseUrl) {
         List<Map<String, Object>> results = new ArrayList<>();
         for (HttpRequestStep step : steps) {
-            String url = resolveUrl(baseUrl, step.getUrl());
-            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
-                .timeout(Duration.ofSeconds(20))
-                .method(step.getMethod().toUpperCase(), buildBody(step.getBody()));
-            step.getHeaders().forEach(builder::header);
-
-            Instant start = Instant.now();
-            try {
-                HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
-                results.add(createResult(
-                    step,
-                    step.getStepId() != null ? step.getStepId() : step.getName(),
-                    response.statusCode(),
-                    response.body(),
-                    Duration.between(start, Instant.now()).toMillis()
-                ));
-            } catch (Exception ex) {
-                LOGGER.warn("HTTP request step {} failed: {}", step.getName(), ex.getMessage());
-                results.add(createResult(
-                    step,
-                    step.getStepId() != null ? step.getStepId() : step.getName(),
-                    0,
-                    ex.getMessage(),
-                    Duration.between(start, Instant.now()).toMillis()
-                ));
-            }
+            results.add(executeAsync(step, baseUrl).join());
         }
         return results;
     }
 
+    /**
+     * Sends the step once the target host admits it. Hosts that are throttling or whose
+     * circuit is open fail fast with status 0 instead of waiting out the request timeout.
+     */
+    @Override
+    public CompletableFuture<Map<String, Object>> executeAsync(HttpRequestStep step, String baseUrl) {
+        Instant start = Instant.now();
+        HttpRequest request;
+        try {
+            request = buildRequest(step, baseUrl);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.completedFuture(rejectedResult(step, ex, start));
+        }
+        return hostThrottle.acquire(request.uri())
+            .thenCompose(permit -> send(permit, step, request, start))
+            .exceptionally(error -> {
+                String message = rootMessage(error);
+                LOGGER.warn("HTTP request step {} rejected: {}", step.getName(), message);
+                return createResult(step, 0, message, elapsedMillis(start));
+            });
+    }
+
+    @Override
+    public void warmUp(String baseUrl) {
+        transports.warmUp(baseUrl);
+    }
+
+    private CompletableFuture<Map<String, Object>> send(
+        HostThrottleRegistry.Permit permit,
+        HttpRequestStep step,
+        HttpRequest request,
+        Instant start
+    ) {
+        long sentNanos = System.nanoTime();
+        AtomicLong headersNanos = new AtomicLong();
+        HttpResponse.BodyHandler<String> bodyHandler = HttpResponse.BodyHandlers.ofString();
+        CompletableFuture<HttpResponse<String>> response;
+        try {
+            response = transports.sendAsync(request, responseInfo -> {
+                headersNanos.set(System.nanoTime());
+                return bodyHandler.apply(responseInfo);
+            });
+        } catch (IllegalArgumentException ex) {
+            permit.cancel();
+            return CompletableFuture.completedFuture(rejectedResult(step, ex, start));
+        } catch (RuntimeException ex) {
+            permit.cancel();
+            throw ex;
+        }
+        return response.handle((result, error) -> {
+            long completedNanos = System.nanoTime();
+            if (error != null) {
+                permit.onError(error, elapsedMillis(sentNanos, completedNanos));
+                String message = rootMessage(error);
+                LOGGER.warn("HTTP request step {} failed: {}", step.getName(), message);
+                return createResult(step, 0, message, elapsedMillis(start));
+            }
+            String retryAfter = result.headers().firstValue("Retry-After").orElse(null);
+            permit.onResponse(result.statusCode(), retryAfter, elapsedMillis(sentNanos, completedNanos));
+            Map<String, Object> mapped = createResult(step, result.statusCode(), result.body(), elapsedMillis(start));
+            if (retryAfter != null) {
+                mapped.put("retryAfter", retryAfter);
+            }
+            long firstByteNanos = headersNanos.get() == 0 ? completedNanos : headersNanos.get();
+            Map<String, Object> timings = new LinkedHashMap<>();
+            timings.put("blocked", millis(Duration.between(start, Instant.now()).toNanos() - (completedNanos - sentNanos)));
+            timings.put("wait", millis(firstByteNanos - sentNanos));
+            timings.put("receive", millis(completedNanos - firstByteNanos));
+            mapped.put("startedAt", start.toString());
+            mapped.put("resolvedUrl", request.uri().toString());
+            mapped.put("httpVersion", result.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1");
+            mapped.put("requestHeaders", redact(step.getHeaders(), REDACTED));
+            mapped.put("requestBody", step.getBody());
+            mapped.put("responseHeaders", redact(result.headers().map(), List.of(REDACTED)));
+            mapped.put("timings", timings);
+            return mapped;
+        });
+    }
+
+    private HttpRequest buildRequest(HttpRequestStep step, String baseUrl) {
+        String url = resolveUrl(baseUrl, step.getUrl());
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofSeconds(20))
+            .method(step.getMethod().toUpperCase(), buildBody(step.getBody()));
+        step.getHeaders().forEach(builder::header);
+        return builder.build();
+    }
+
+    static <V> Map<String, V> redact(Map<String, V> headers, V replacement) {
+        Map<String, V> redacted = new LinkedHashMap<>();
+        headers.forEach((name, value) ->
+            redacted.put(name, CREDENTIAL_HEADERS.contains(name.toLowerCase(Locale.ROOT)) ? replacement : value));
+        return redacted;
+    }
+
+    private long elapsedMillis(Instant start) {
+        return Duration.between(start, Instant.now()).toMillis();
+    }
+
+    private long elapsedMillis(long fromNanos, long toNanos) {
+        return (toNanos - fromNanos) / 1_000_000;
+    }
+
+    private double millis(long nanos) {
+        return Math.max(0, nanos) / 10_000 / 100.0;
+    }
+
+    private String rootMessage(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+            && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current.getMessage() != null ? current.getMessage() : current.getClass().getSimpleName();
+    }
+
     private HttpRequest.BodyPublisher buildBody(String body) {
         if (body == null || body.isBlank()) {
             return HttpRequest.BodyPublishers.noBody();
@@ -86,7 +189,14 @@ public class HttpRequestExecutorImpl implements HttpRequestExecutor {
         return baseUrl + candidate;
     }
 
-    private Map<String, Object> createResult(HttpRequestStep step, String stepId, int status, String body, long durationMs) {
+    private Map<String, Object> rejectedResult(HttpRequestStep step, RuntimeException error, Instant start) {
+        LOGGER.debug("HTTP request step {} rejected by the client: {}", step.getName(), error.getMessage());
+        Map<String, Object> result = createResult(step, 0, error.getMessage(), elapsedMillis(start));
+        result.put(CLIENT_REJECTED, true);
+        return result;
+    }
+
+    private Map<String, Object> createResult(HttpRequestStep step, int status, String body, long durationMs) {
         Map<String, Object> result = new HashMap<>();
         result.put("name", step.getName());
         result.put("status", status);
@@ -94,7 +204,7 @@ public class HttpRequestExecutorImpl implements HttpRequestExecutor {
         result.put("durationMs", durationMs);
         result.put("method", step.getMethod());
         result.put("url", step.getUrl());
-        result.put("stepId", stepId);
+        result.put("stepId", step.getStepId() != null ? step.getStepId() : step.getName());
         return result;
     }
 }
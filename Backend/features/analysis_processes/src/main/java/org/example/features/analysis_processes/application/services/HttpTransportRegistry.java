@@ -0,0 +1,272 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import javax.net.ssl.SSLContext;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared HTTP transports keyed by target origin ({@code scheme://host:port}). All sessions
+ * talking to the same base URL reuse one client and therefore its keep-alive connection pool;
+ * all clients share one {@link SSLContext} so TLS sessions can be resumed even when a new
+ * connection has to be opened. Every exchange leases its transport, so a transport evicted to
+ * make room is only shut down once its last exchange has completed.
+ */
+@Component
+public class HttpTransportRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpTransportRegistry.class);
+    private static final int MAX_TRANSPORTS = 64;
+
+    public record TransportStatus(
+        String origin,
+        HttpClient.Version version,
+        long requests,
+        long warmUps,
+        Long lastWarmUpMs,
+        Instant createdAt,
+        Instant lastUsedAt
+    ) {}
+
+    private final SSLContext sslContext;
+    private final HostThrottleRegistry hostThrottle;
+    private final Duration connectTimeout;
+    private final int warmUpConnections;
+    private final Map<String, Transport> transports = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Autowired
+    public HttpTransportRegistry(
+        HostThrottleRegistry hostThrottle,
+        @Value("${analysis.http.connect-timeout-seconds:5}") long connectTimeoutSeconds,
+        @Value("${analysis.http.tls.session-cache-size:1024}") int sessionCacheSize,
+        @Value("${analysis.http.tls.session-timeout-seconds:3600}") int sessionTimeoutSeconds,
+        @Value("${analysis.http.warm-up-connections:2}") int warmUpConnections
+    ) {
+        this(defaultSslContext(), hostThrottle, connectTimeoutSeconds, sessionCacheSize, sessionTimeoutSeconds, warmUpConnections);
+    }
+
+    public HttpTransportRegistry(
+        SSLContext sslContext,
+        HostThrottleRegistry hostThrottle,
+        long connectTimeoutSeconds,
+        int sessionCacheSize,
+        int sessionTimeoutSeconds,
+        int warmUpConnections
+    ) {
+        this.sslContext = sslContext;
+        this.hostThrottle = hostThrottle;
+        this.sslContext.getClientSessionContext().setSessionCacheSize(Math.max(0, sessionCacheSize));
+        this.sslContext.getClientSessionContext().setSessionTimeout(Math.max(0, sessionTimeoutSeconds));
+        this.connectTimeout = Duration.ofSeconds(Math.max(1, connectTimeoutSeconds));
+        this.warmUpConnections = Math.max(0, warmUpConnections);
+    }
+
+    /**
+     * Sends through the shared client for the request's origin. The returned future is the
+     * client's own, so cancelling it aborts the exchange.
+     */
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        Transport transport = lease(request.uri());
+        transport.requests.incrementAndGet();
+        transport.lastUsedAt = Instant.now();
+        CompletableFuture<HttpResponse<T>> response;
+        try {
+            response = transport.client.sendAsync(request, handler);
+        } catch (RuntimeException ex) {
+            release(transport);
+            throw ex;
+        }
+        response.whenComplete((result, error) -> release(transport));
+        return response;
+    }
+
+    /**
+     * Opens connections (and completes TLS handshakes) to the base URL ahead of the first real
+     * request. Every probe is admitted by {@link HostThrottleRegistry} like a real request and
+     * reports its outcome there; a host that is throttled or whose circuit is open is not
+     * probed. Failures are otherwise ignored: warm-up is an optimisation, not a health check.
+     */
+    public CompletableFuture<Duration> warmUp(String baseUrl) {
+        if (warmUpConnections == 0 || baseUrl == null || baseUrl.isBlank()) {
+            return CompletableFuture.completedFuture(Duration.ZERO);
+        }
+        URI target;
+        try {
+            target = URI.create(baseUrl.trim());
+            if (target.getHost() == null) {
+                return CompletableFuture.completedFuture(Duration.ZERO);
+            }
+        } catch (IllegalArgumentException ex) {
+            LOGGER.debug("Skipping warm-up for invalid base URL {}", baseUrl);
+            return CompletableFuture.completedFuture(Duration.ZERO);
+        }
+        Transport transport = transportFor(target);
+        HttpRequest probe = HttpRequest.newBuilder(target)
+            .method("HEAD", HttpRequest.BodyPublishers.noBody())
+            .timeout(connectTimeout.multipliedBy(2))
+            .build();
+        Instant start = Instant.now();
+        List<CompletableFuture<?>> attempts = new ArrayList<>();
+        for (int index = 0; index < warmUpConnections; index++) {
+            attempts.add(hostThrottle.acquire(target)
+                .thenCompose(permit -> probe(probe, permit))
+                .exceptionally(error -> null));
+        }
+        return CompletableFuture.allOf(attempts.toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> {
+                Duration elapsed = Duration.between(start, Instant.now());
+                transport.warmUps.incrementAndGet();
+                transport.lastWarmUpMs = elapsed.toMillis();
+                LOGGER.debug("Warmed up {} connection(s) to {} in {} ms", warmUpConnections, transport.origin, elapsed.toMillis());
+                return elapsed;
+            });
+    }
+
+    private CompletableFuture<Void> probe(HttpRequest probe, HostThrottleRegistry.Permit permit) {
+        long sent = System.nanoTime();
+        CompletableFuture<HttpResponse<Void>> response;
+        try {
+            response = sendAsync(probe, HttpResponse.BodyHandlers.discarding());
+        } catch (RuntimeException ex) {
+            permit.cancel();
+            throw ex;
+        }
+        return response.handle((result, error) -> {
+            long latencyMs = (System.nanoTime() - sent) / 1_000_000;
+            if (error != null) {
+                permit.onError(error, latencyMs);
+            } else {
+                permit.onResponse(result.statusCode(), result.headers().firstValue("Retry-After").orElse(null), latencyMs);
+            }
+            return null;
+        });
+    }
+
+    public List<TransportStatus> snapshot() {
+        List<Transport> current;
+        synchronized (transports) {
+            current = new ArrayList<>(transports.values());
+        }
+        return current.stream()
+            .map(transport -> new TransportStatus(
+                transport.origin,
+                transport.client.version(),
+                transport.requests.get(),
+                transport.warmUps.get(),
+                transport.lastWarmUpMs,
+                transport.createdAt,
+                transport.lastUsedAt
+            ))
+            .sorted(Comparator.comparing(TransportStatus::origin))
+            .toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        synchronized (transports) {
+            transports.values().forEach(transport -> transport.client.shutdownNow());
+            transports.clear();
+        }
+    }
+
+    private Transport transportFor(URI uri) {
+        String origin = HostThrottleRegistry.hostKey(uri);
+        synchronized (transports) {
+            Transport transport = transports.get(origin);
+            if (transport == null) {
+                transport = new Transport(origin, newClient(uri));
+                transports.put(origin, transport);
+                evictIfNeeded();
+            }
+            return transport;
+        }
+    }
+
+    private Transport lease(URI uri) {
+        synchronized (transports) {
+            Transport transport = transportFor(uri);
+            transport.leases++;
+            return transport;
+        }
+    }
+
+    private void release(Transport transport) {
+        boolean idleAndEvicted;
+        synchronized (transports) {
+            idleAndEvicted = --transport.leases == 0 && transport.evicted;
+        }
+        if (idleAndEvicted) {
+            transport.client.shutdown();
+        }
+    }
+
+    private void evictIfNeeded() {
+        var iterator = transports.values().iterator();
+        while (transports.size() > MAX_TRANSPORTS && iterator.hasNext()) {
+            Transport eldest = iterator.next();
+            iterator.remove();
+            eldest.evicted = true;
+            if (eldest.leases == 0) {
+                eldest.client.shutdown();
+            }
+        }
+    }
+
+    private HttpClient newClient(URI uri) {
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        return HttpClient.newBuilder()
+            .connectTimeout(connectTimeout)
+            .sslContext(sslContext)
+            // h2c upgrade attempts on plain HTTP cost a round trip and rarely succeed.
+            .version(secure ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    }
+
+    private static SSLContext defaultSslContext() {
+        try {
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, null, null);
+            return context;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Failed to initialise TLS context", ex);
+        }
+    }
+
+    private static final class Transport {
+        private final String origin;
+        private final HttpClient client;
+        private final Instant createdAt = Instant.now();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong warmUps = new AtomicLong();
+        private volatile Instant lastUsedAt = createdAt;
+        private volatile Long lastWarmUpMs;
+        // guarded by the transports map
+        private int leases;
+        private boolean evicted;
+
+        private Transport(String origin, HttpClient client) {
+            this.origin = origin.toLowerCase(Locale.ROOT);
+            this.client = client;
+        }
+    }
+}
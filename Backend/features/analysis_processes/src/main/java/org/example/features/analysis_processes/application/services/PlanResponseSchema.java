@@ -0,0 +1,134 @@
+package org.example.features.analysis_processes.application.services;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.example.features.analysis_processes.domain.valueobjects.InputRequirement;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JSON schema of the answer the planner asks the model for, generated from
+ * {@link ProcessAnalysisPlanner.PlanResult}. Components the planner fills in itself (prompt,
+ * raw response, context statistics, step ids) are left out; each HTTP step additionally
+ * carries the inputs it needs, which {@code PlanResult} keeps in a parallel list.
+ */
+public final class PlanResponseSchema {
+
+    public static final String NAME = "analysis_plan";
+
+    private static final Set<String> PLANNER_OWNED = Set.of(
+        "prompt", "rawResponse", "httpAdditionalInputs", "contextStats", "stepId");
+
+    private static final Map<String, Object> SCHEMA = build();
+
+    private PlanResponseSchema() {
+    }
+
+    public static Map<String, Object> schema() {
+        return SCHEMA;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> build() {
+        Map<String, Object> schema = schemaFor(ProcessAnalysisPlanner.PlanResult.class);
+        Map<String, Object> properties = (Map<String, Object>) schema.get("properties");
+        Map<String, Object> step = (Map<String, Object>) ((Map<String, Object>) properties.get("httpRequests")).get("items");
+        Map<String, Object> stepProperties = new LinkedHashMap<>((Map<String, Object>) step.get("properties"));
+        stepProperties.put("additionalInputs", array(schemaFor(InputRequirement.class)));
+        step.put("properties", stepProperties);
+        // the model may answer without action items or assertions; the planner derives defaults
+        schema.put("required", List.of("plan", "summary", "httpRequests"));
+        return deepCopy(schema);
+    }
+
+    private static Map<String, Object> schemaFor(Type type) {
+        if (type instanceof ParameterizedType parameterized) {
+            Class<?> raw = (Class<?>) parameterized.getRawType();
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (Collection.class.isAssignableFrom(raw)) {
+                return array(schemaFor(arguments[0]));
+            }
+            if (Map.class.isAssignableFrom(raw)) {
+                Map<String, Object> map = new LinkedHashMap<>();
+                map.put("type", "object");
+                map.put("additionalProperties", schemaFor(arguments[1]));
+                return map;
+            }
+            return schemaFor(raw);
+        }
+        Class<?> clazz = (Class<?>) type;
+        if (clazz == String.class) {
+            return primitive("string");
+        }
+        if (clazz == boolean.class || clazz == Boolean.class) {
+            return primitive("boolean");
+        }
+        if (clazz == int.class || clazz == long.class || clazz == Integer.class || clazz == Long.class) {
+            return primitive("integer");
+        }
+        if (clazz == double.class || clazz == Double.class) {
+            return primitive("number");
+        }
+        if (clazz.isEnum()) {
+            Map<String, Object> enumeration = primitive("string");
+            enumeration.put("enum", Arrays.stream(clazz.getEnumConstants()).map(Object::toString).toList());
+            return enumeration;
+        }
+        Map<String, Object> properties = new LinkedHashMap<>();
+        List<String> required = new ArrayList<>();
+        if (clazz.isRecord()) {
+            for (RecordComponent component : clazz.getRecordComponents()) {
+                if (!PLANNER_OWNED.contains(component.getName())) {
+                    properties.put(component.getName(), schemaFor(component.getGenericType()));
+                    required.add(component.getName());
+                }
+            }
+        } else {
+            for (Field field : clazz.getDeclaredFields()) {
+                JsonProperty property = field.getAnnotation(JsonProperty.class);
+                if (property != null && !Modifier.isStatic(field.getModifiers()) && !PLANNER_OWNED.contains(property.value())) {
+                    properties.put(property.value(), schemaFor(field.getGenericType()));
+                }
+            }
+            // a name is the one field every HTTP step and input requirement needs
+            required.add("name");
+        }
+        Map<String, Object> object = new LinkedHashMap<>();
+        object.put("type", "object");
+        object.put("properties", properties);
+        object.put("required", required);
+        return object;
+    }
+
+    private static Map<String, Object> primitive(String type) {
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("type", type);
+        return schema;
+    }
+
+    private static Map<String, Object> array(Map<String, Object> items) {
+        Map<String, Object> schema = primitive("array");
+        schema.put("items", items);
+        return schema;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> deepCopy(Map<String, Object> source) {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        source.forEach((key, value) -> copy.put(key, value instanceof Map<?, ?> nested
+            ? deepCopy((Map<String, Object>) nested)
+            : value instanceof List<?> list ? List.copyOf(list) : value));
+        return Collections.unmodifiableMap(copy);
+    }
+}
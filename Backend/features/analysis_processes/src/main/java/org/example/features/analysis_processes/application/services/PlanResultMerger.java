@@ -0,0 +1,121 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.example.features.analysis_processes.domain.valueobjects.HttpRequestStep;
+import org.example.features.analysis_processes.domain.valueobjects.InputRequirement;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+/**
+ * Reduces the partial plans produced for the chunks of a large spec into one plan. HTTP
+ * steps, actions, assertions and input requirements that several chunks produced are kept
+ * once, in the order of first appearance.
+ */
+public final class PlanResultMerger {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{[^}]*}}|\\{[^}/]*}");
+
+    private PlanResultMerger() {
+    }
+
+    /**
+     * @param parts partial plans keyed by chunk label, in chunk order
+     */
+    public static ProcessAnalysisPlanner.PlanResult merge(Map<String, ProcessAnalysisPlanner.PlanResult> parts) {
+        StringJoiner plan = new StringJoiner("\n\n");
+        StringJoiner summary = new StringJoiner(" ");
+        StringJoiner prompt = new StringJoiner("\n\n---\n\n");
+        StringJoiner rawResponse = new StringJoiner("\n\n---\n\n");
+        Map<String, ProcessAnalysisPlanner.ActionItem> actions = new LinkedHashMap<>();
+        Map<String, ProcessAnalysisPlanner.TestAssertion> assertions = new LinkedHashMap<>();
+        Map<String, InputRequirement> additionalInputs = new LinkedHashMap<>();
+        List<HttpRequestStep> steps = new ArrayList<>();
+        List<List<InputRequirement>> stepInputs = new ArrayList<>();
+        Set<String> stepKeys = new HashSet<>();
+        boolean requiresAdditionalInput = false;
+        List<PromptContextPacker.ContextStats> stats = new ArrayList<>();
+
+        for (Map.Entry<String, ProcessAnalysisPlanner.PlanResult> entry : parts.entrySet()) {
+            ProcessAnalysisPlanner.PlanResult part = entry.getValue();
+            plan.add("### " + entry.getKey() + "\n" + part.plan());
+            if (part.summary() != null && !part.summary().isBlank()) {
+                summary.add(part.summary().strip());
+            }
+            prompt.add(part.prompt());
+            rawResponse.add(part.rawResponse());
+            part.actions().forEach(action -> actions.putIfAbsent(key(action.title(), action.relatedArtifact()), action));
+            part.assertions().forEach(assertion -> assertions.putIfAbsent(key(assertion.check(), assertion.expected()), assertion));
+            if (part.additionalInputs() != null) {
+                part.additionalInputs().forEach(input -> additionalInputs.putIfAbsent(key(input.getName()), input));
+            }
+            for (int index = 0; index < part.httpRequests().size(); index++) {
+                HttpRequestStep step = part.httpRequests().get(index);
+                if (stepKeys.add(stepKey(step))) {
+                    steps.add(step);
+                    List<List<InputRequirement>> inputs = part.httpAdditionalInputs();
+                    stepInputs.add(inputs != null && index < inputs.size() ? inputs.get(index) : List.of());
+                }
+            }
+            requiresAdditionalInput |= part.requiresAdditionalInput();
+            if (part.contextStats() != null) {
+                stats.add(part.contextStats());
+            }
+        }
+
+        return new ProcessAnalysisPlanner.PlanResult(
+            plan.toString(),
+            summary.toString(),
+            new ArrayList<>(actions.values()),
+            new ArrayList<>(assertions.values()),
+            steps,
+            prompt.toString(),
+            rawResponse.toString(),
+            requiresAdditionalInput,
+            new ArrayList<>(additionalInputs.values()),
+            stepInputs,
+            mergeStats(stats)
+        );
+    }
+
+    /** Chunks share the same raw sources, so the raw size is counted once. */
+    private static PromptContextPacker.ContextStats mergeStats(List<PromptContextPacker.ContextStats> stats) {
+        if (stats.isEmpty()) {
+            return null;
+        }
+        int raw = stats.stream().mapToInt(PromptContextPacker.ContextStats::rawTokens).max().orElse(0);
+        int packed = stats.stream().mapToInt(PromptContextPacker.ContextStats::packedTokens).sum();
+        return new PromptContextPacker.ContextStats(
+            stats.getFirst().estimator(),
+            stats.stream().mapToInt(PromptContextPacker.ContextStats::budgetTokens).sum(),
+            raw,
+            packed,
+            Math.max(0, raw - packed),
+            stats.stream().mapToInt(PromptContextPacker.ContextStats::bpmnElements).max().orElse(0),
+            stats.stream().mapToInt(PromptContextPacker.ContextStats::bpmnElementsIncluded).max().orElse(0),
+            stats.stream().mapToInt(PromptContextPacker.ContextStats::operations).sum(),
+            stats.stream().mapToInt(PromptContextPacker.ContextStats::operationsIncluded).sum()
+        );
+    }
+
+    /** Same method, same URL modulo placeholder names, same body. */
+    private static String stepKey(HttpRequestStep step) {
+        String url = Objects.toString(step.getUrl(), "");
+        return key(step.getMethod(), PLACEHOLDER.matcher(url).replaceAll("{}"), step.getBody());
+    }
+
+    private static String key(String... parts) {
+        StringJoiner key = new StringJoiner("\u0000");
+        for (String part : parts) {
+            key.add(part == null ? "" : part.strip().toLowerCase(Locale.ROOT));
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.example.features.analysis_processes.domain.valueobjects.HttpRequestStep;
+import org.example.features.analysis_processes.domain.valueobjects.InputRequirement;
+
+import java.util.List;
+
+/**
+ * Receives planner progress while an LLM plan is being streamed.
+ */
+public interface PlanningProgressListener {
+
+    PlanningProgressListener NONE = new PlanningProgressListener() {};
+
+    default void onStarted(String provider) {
+    }
+
+    default void onDelta(String delta) {
+    }
+
+    /**
+     * An entry of the plan's {@code httpRequests} array was closed in the token stream. The
+     * index matches the step's position in the final plan as long as the model's output is
+     * well-formed; the final plan is authoritative.
+     */
+    default void onHttpStep(int index, HttpRequestStep step, List<InputRequirement> additionalInputs) {
+    }
+
+    default void onCompleted(Integer completionTokens) {
+    }
+
+    default void onFailed(String message) {
+    }
+}
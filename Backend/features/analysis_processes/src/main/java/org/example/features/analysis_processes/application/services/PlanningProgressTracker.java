@@ -0,0 +1,182 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+/**
+ * Per-session view of an in-flight plan generation. Clients poll or subscribe to it so the
+ * user sees the first tokens instead of waiting for the complete plan.
+ */
+@Component
+public class PlanningProgressTracker {
+
+    private static final int PREVIEW_CHARS = 600;
+    private static final int MAX_TRACKED_SESSIONS = 256;
+
+    public enum State { WAITING_FOR_FIRST_TOKEN, STREAMING, COMPLETED, FAILED }
+
+    public record PlanningProgress(
+        String sessionId,
+        State state,
+        String provider,
+        Instant startedAt,
+        Instant firstTokenAt,
+        Long timeToFirstTokenMs,
+        long elapsedMs,
+        long chunks,
+        long characters,
+        Integer completionTokens,
+        String preview,
+        String error
+    ) {
+        public boolean finished() {
+            return state == State.COMPLETED || state == State.FAILED;
+        }
+    }
+
+    private final Map<String, Progress> progressBySession = new ConcurrentHashMap<>();
+    private final Map<String, Set<Consumer<PlanningProgress>>> subscribers = new ConcurrentHashMap<>();
+
+    public PlanningProgressListener listenerFor(String sessionId) {
+        return new PlanningProgressListener() {
+            @Override
+            public void onStarted(String provider) {
+                if (progressBySession.size() >= MAX_TRACKED_SESSIONS) {
+                    progressBySession.values().removeIf(progress -> progress.state == State.COMPLETED || progress.state == State.FAILED);
+                }
+                progressBySession.put(sessionId, new Progress(sessionId, provider));
+                publish(sessionId);
+            }
+
+            @Override
+            public void onDelta(String delta) {
+                Progress progress = progressBySession.get(sessionId);
+                if (progress != null) {
+                    progress.append(delta);
+                    publish(sessionId);
+                }
+            }
+
+            @Override
+            public void onCompleted(Integer completionTokens) {
+                finish(sessionId, State.COMPLETED, completionTokens, null);
+            }
+
+            @Override
+            public void onFailed(String message) {
+                finish(sessionId, State.FAILED, null, message);
+            }
+        };
+    }
+
+    public Optional<PlanningProgress> get(String sessionId) {
+        return Optional.ofNullable(progressBySession.get(sessionId)).map(Progress::snapshot);
+    }
+
+    /**
+     * Registers a callback for every progress change of the session.
+     * @return a handle that removes the callback again
+     */
+    public Runnable subscribe(String sessionId, Consumer<PlanningProgress> consumer) {
+        subscribers.computeIfAbsent(sessionId, ignored -> new CopyOnWriteArraySet<>()).add(consumer);
+        return () -> subscribers.computeIfPresent(sessionId, (ignored, current) -> {
+            current.remove(consumer);
+            return current.isEmpty() ? null : current;
+        });
+    }
+
+    private void finish(String sessionId, State state, Integer completionTokens, String error) {
+        Progress progress = progressBySession.get(sessionId);
+        if (progress != null) {
+            progress.finish(state, completionTokens, error);
+            publish(sessionId);
+        }
+    }
+
+    private void publish(String sessionId) {
+        Set<Consumer<PlanningProgress>> listeners = subscribers.get(sessionId);
+        Progress progress = progressBySession.get(sessionId);
+        if (listeners == null || progress == null) {
+            return;
+        }
+        PlanningProgress snapshot = progress.snapshot();
+        for (Consumer<PlanningProgress> listener : listeners) {
+            try {
+                listener.accept(snapshot);
+            } catch (RuntimeException ex) {
+                listeners.remove(listener);
+            }
+        }
+    }
+
+    private static final class Progress {
+        private final String sessionId;
+        private final String provider;
+        private final Instant startedAt = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private final StringBuilder tail = new StringBuilder();
+        private State state = State.WAITING_FOR_FIRST_TOKEN;
+        private Instant firstTokenAt;
+        private Long timeToFirstTokenMs;
+        private Long elapsedMs;
+        private long chunks;
+        private long characters;
+        private Integer completionTokens;
+        private String error;
+
+        private Progress(String sessionId, String provider) {
+            this.sessionId = sessionId;
+            this.provider = provider;
+        }
+
+        synchronized void append(String delta) {
+            if (delta == null || delta.isEmpty()) {
+                return;
+            }
+            if (firstTokenAt == null) {
+                firstTokenAt = Instant.now();
+                timeToFirstTokenMs = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+                state = State.STREAMING;
+            }
+            chunks++;
+            characters += delta.length();
+            tail.append(delta);
+            if (tail.length() > PREVIEW_CHARS * 2) {
+                tail.delete(0, tail.length() - PREVIEW_CHARS);
+            }
+        }
+
+        synchronized void finish(State finalState, Integer tokens, String message) {
+            state = finalState;
+            completionTokens = tokens;
+            error = message;
+            elapsedMs = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+        }
+
+        synchronized PlanningProgress snapshot() {
+            String preview = tail.length() > PREVIEW_CHARS ? tail.substring(tail.length() - PREVIEW_CHARS) : tail.toString();
+            return new PlanningProgress(
+                sessionId,
+                state,
+                provider,
+                startedAt,
+                firstTokenAt,
+                timeToFirstTokenMs,
+                elapsedMs != null ? elapsedMs : Duration.ofNanos(System.nanoTime() - startNanos).toMillis(),
+                chunks,
+                characters,
+                completionTokens,
+                preview,
+                error
+            );
+        }
+    }
+}
@@ -6,12 +6,16 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import org.example.features.analysis_processes.domain.entities.AnalysisProcess;
 import org.example.features.llm.domain.dto.ChatCompletionRequest;
 import org.example.features.llm.domain.dto.ChatCompletionResponse;
+import org.example.features.llm.domain.dto.LlmRequestPriority;
+import org.example.features.llm.domain.services.ChatCompletionStreams;
 import org.example.features.llm.domain.services.LLMService;
+import org.example.features.llm.domain.services.TokenEstimator;
 import org.example.features.analysis_processes.domain.valueobjects.HttpRequestStep;
 import org.example.features.analysis_processes.domain.valueobjects.InputRequirement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -25,97 +29,288 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
 
 @Component
 public class ProcessAnalysisPlanner {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProcessAnalysisPlanner.class);
+    private static final int MAX_COMPLETION_TOKENS = 600;
+    private static final int MIN_CONTEXT_TOKENS = 256;
+    private static final String SYSTEM_PROMPT = "You are a security automation expert. "
+        + "Return JSON with fields plan (markdown), httpRequests (array of HTTP steps), summary (short text).";
 
     private final ObjectProvider<LLMService> llmServiceProvider;
+    private final PromptContextPacker contextPacker;
     private final ObjectMapper yamlMapper;
     private final ObjectMapper jsonMapper;
     private final boolean allowFallback;
+    private final int contextBudgetTokens;
+    private final int chunkMaxOperations;
+    private final ArtifactEmbeddingIndex artifactIndex;
+    private final int retrievalTopK;
 
+    public ProcessAnalysisPlanner(ObjectProvider<LLMService> llmServiceProvider, boolean allowFallback) {
+        this(llmServiceProvider, new PromptContextPacker(), allowFallback, 3000, 40);
+    }
+
+    public ProcessAnalysisPlanner(
+        ObjectProvider<LLMService> llmServiceProvider,
+        PromptContextPacker contextPacker,
+        boolean allowFallback,
+        int contextBudgetTokens,
+        int chunkMaxOperations
+    ) {
+        this(llmServiceProvider, contextPacker, allowFallback, contextBudgetTokens, chunkMaxOperations, null, 0);
+    }
+
+    /**
+     * @param artifactIndex  retrieval over the artifacts, or {@code null} to pack by heuristics only
+     * @param retrievalTopK  BPMN elements and operations (each) retrieved per single-prompt plan
+     */
+    @Autowired
     public ProcessAnalysisPlanner(
         ObjectProvider<LLMService> llmServiceProvider,
-        @Value("${analysis.planner.allow-fallback:true}") boolean allowFallback
+        PromptContextPacker contextPacker,
+        @Value("${analysis.planner.allow-fallback:true}") boolean allowFallback,
+        @Value("${analysis.planner.context-budget-tokens:3000}") int contextBudgetTokens,
+        @Value("${analysis.planner.chunk-max-operations:40}") int chunkMaxOperations,
+        ArtifactEmbeddingIndex artifactIndex,
+        @Value("${analysis.planner.retrieval-top-k:40}") int retrievalTopK
     ) {
         this.llmServiceProvider = llmServiceProvider;
+        this.contextPacker = contextPacker;
+        this.artifactIndex = artifactIndex;
+        this.retrievalTopK = retrievalTopK;
         this.allowFallback = allowFallback;
+        this.contextBudgetTokens = contextBudgetTokens;
+        this.chunkMaxOperations = chunkMaxOperations;
         this.yamlMapper = new ObjectMapper(new YAMLFactory());
         this.yamlMapper.findAndRegisterModules();
         this.jsonMapper = new ObjectMapper();
     }
 
-    public PlanResult generatePlan(AnalysisProcess process, Map<String, Object> sessionContext) {
+    public CompletableFuture<PlanResult> generatePlan(AnalysisProcess process, Map<String, Object> sessionContext) {
+        return generatePlan(process, sessionContext, PlanningProgressListener.NONE);
+    }
+
+    /**
+     * Completes once the LLM plan (or the heuristic fallback) is ready; no thread is held while
+     * the provider generates. Completes exceptionally with {@link IllegalStateException} when no
+     * LLM plan could be produced and the fallback is disabled.
+     */
+    public CompletableFuture<PlanResult> generatePlan(
+        AnalysisProcess process,
+        Map<String, Object> sessionContext,
+        PlanningProgressListener progressListener
+    ) {
         Map<String, Object> userInputs = extractUserInputs(sessionContext);
         String baseUrl = valueOrDefault(userInputs.get("baseUrl"), "http://localhost:8080");
         String authToken = valueOrDefault(userInputs.get("authToken"), "token-placeholder");
 
         String bpmnSnippet = readSnippet(process.getBpmnDiagramPath());
-        OpenApiSummary openApiSummary = summarizeOpenApi(process.getOpenapiSpecPath());
+        OpenApiSource openApi = readOpenApi(process.getOpenapiSpecPath());
+        OpenApiSummary openApiSummary = summarizeOpenApi(openApi);
         String primaryEndpoint = openApiSummary.endpoints().isEmpty()
             ? "/actuator/health"
             : openApiSummary.endpoints().getFirst();
 
-        Optional<PlanResult> llmPlan = tryGenerateWithLlm(
+        return tryGenerateWithLlm(
             process,
             userInputs,
             bpmnSnippet,
+            openApi,
             openApiSummary,
-            primaryEndpoint
-        );
-        if (llmPlan.isPresent()) {
-            return llmPlan.get();
-        }
-        if (!allowFallback) {
-            throw new IllegalStateException(
-                "LLM planner is unavailable. Configure an active provider or enable analysis.planner.allow-fallback.");
-        }
-        LOGGER.warn("Falling back to heuristic plan because LLM provider was unavailable");
-        return fallbackPlan(process, baseUrl, authToken, bpmnSnippet, openApiSummary, primaryEndpoint);
+            primaryEndpoint,
+            progressListener
+        ).thenApply(llmPlan -> {
+            if (llmPlan.isPresent()) {
+                return llmPlan.get();
+            }
+            if (!allowFallback) {
+                throw new IllegalStateException(
+                    "LLM planner is unavailable. Configure an active provider or enable analysis.planner.allow-fallback.");
+            }
+            LOGGER.warn("Falling back to heuristic plan because LLM provider was unavailable");
+            return fallbackPlan(process, baseUrl, authToken, bpmnSnippet, openApiSummary, primaryEndpoint);
+        });
     }
 
-    private Optional<PlanResult> tryGenerateWithLlm(
+    private CompletableFuture<Optional<PlanResult>> tryGenerateWithLlm(
         AnalysisProcess process,
         Map<String, Object> userInputs,
         String bpmnSnippet,
+        OpenApiSource openApi,
         OpenApiSummary summary,
-        String defaultEndpoint
+        String defaultEndpoint,
+        PlanningProgressListener progressListener
     ) {
         LLMService llmService = llmServiceProvider.getIfAvailable();
         if (llmService == null || !llmService.isAvailable()) {
-            return Optional.empty();
+            return CompletableFuture.completedFuture(Optional.empty());
         }
 
+        CompletableFuture<Optional<PlanResult>> plan;
         try {
-            ChatCompletionRequest request = new ChatCompletionRequest();
-            request.setModel("analysis-planner");
-            request.setTemperature(0.2d);
-            request.setMaxTokens(600);
-
-            String prompt = buildPrompt(process, userInputs, bpmnSnippet, summary);
-            request.setMessages(List.of(
-                new ChatCompletionRequest.Message("system",
-                    "You are a security automation expert. "
-                        + "Return JSON with fields plan (markdown), httpRequests (array of HTTP steps), summary (short text)."),
-                new ChatCompletionRequest.Message("user", prompt)
-            ));
+            List<PromptContextPacker.OpenApiChunk> chunks = contextPacker.partition(openApi.document(), chunkMaxOperations);
+            if (chunks.size() > 1) {
+                return generateChunked(process, userInputs, bpmnSnippet, openApi, summary, defaultEndpoint,
+                    progressListener, llmService, chunks);
+            }
+
+            PromptContextPacker.PackedContext context =
+                packContext(process, userInputs, bpmnSnippet, openApi.document(), openApi.raw(), llmService, true);
+            PlannerPrompt prompt = buildPrompt(process, userInputs, context.bpmn(), openApiHeader(summary) + context.openApi(), "");
+            ChatCompletionRequest request = planRequest(process, prompt);
+
+            progressListener.onStarted(llmService.getProviderName());
+            // racing providers cannot share one token stream, so a hedged plan reports no deltas
+            CompletableFuture<ChatCompletionResponse> completion;
+            if (llmService.isHedged(request)) {
+                completion = llmService.hedgedChatCompletion(request, this::isPlan);
+            } else {
+                StreamingPlanParser steps = new StreamingPlanParser(jsonMapper, (index, fields) -> {
+                    ParsedHttpStep parsed = parseHttpStep(fields, index, defaultEndpoint);
+                    progressListener.onHttpStep(index, parsed.step(), parsed.additionalInputs());
+                });
+                completion = ChatCompletionStreams.collect(llmService.streamChatCompletion(request), chunk -> {
+                    progressListener.onDelta(chunk.delta());
+                    steps.feed(chunk.delta());
+                });
+            }
+            plan = completion
+                .thenApply(response -> {
+                    PlanResult result = toPlanResult(response, prompt.text(), defaultEndpoint, context.stats());
+                    progressListener.onCompleted(response.getUsage() != null ? response.getUsage().getCompletionTokens() : null);
+                    return Optional.of(result);
+                });
+        } catch (Exception e) {
+            plan = CompletableFuture.failedFuture(e);
+        }
+        return plan.exceptionally(error -> {
+            Throwable cause = unwrap(error);
+            LOGGER.warn("LLM plan generation failed, falling back to heuristics: {}", cause.getMessage());
+            progressListener.onFailed(cause.getMessage());
+            return Optional.empty();
+        });
+    }
 
-            ChatCompletionResponse response = llmService.chatCompletion(request).join();
-            if (response.getChoices() == null || response.getChoices().isEmpty()) {
+    /**
+     * Map-reduce over a large spec: every chunk gets its own prompt with the BPMN context and
+     * that chunk's operations, all chunks are sent at once (the scheduler and router spread
+     * them over providers) and the partial plans are merged. Failed chunks are skipped.
+     */
+    private CompletableFuture<Optional<PlanResult>> generateChunked(
+        AnalysisProcess process,
+        Map<String, Object> userInputs,
+        String bpmnSnippet,
+        OpenApiSource openApi,
+        OpenApiSummary summary,
+        String defaultEndpoint,
+        PlanningProgressListener progressListener,
+        LLMService llmService,
+        List<PromptContextPacker.OpenApiChunk> chunks
+    ) {
+        progressListener.onStarted(llmService.getProviderName());
+        LOGGER.info("Planning {} in {} chunks of at most {} operations", process.getId(), chunks.size(), chunkMaxOperations);
+        Map<String, CompletableFuture<PlanResult>> parts = new LinkedHashMap<>();
+        for (int index = 0; index < chunks.size(); index++) {
+            PromptContextPacker.OpenApiChunk chunk = chunks.get(index);
+            PromptContextPacker.PackedContext context =
+                packContext(process, userInputs, bpmnSnippet, chunk.document(), openApi.raw(), llmService, false);
+            String scope = "API part " + (index + 1) + " of " + chunks.size() + " (" + chunk.label() + "). "
+                + "Plan tests for these operations only; the other parts are planned separately.\n";
+            PlannerPrompt prompt = buildPrompt(process, userInputs, context.bpmn(), openApiHeader(summary) + context.openApi(), scope);
+            String label = "Part " + (index + 1) + ": " + chunk.label();
+            ChatCompletionRequest request = planRequest(process, prompt);
+            request.setSpreadAcrossProviders(true);
+            parts.put(label, llmService.chatCompletion(request)
+                .thenApply(response -> {
+                    PlanResult part = toPlanResult(response, prompt.text(), defaultEndpoint, context.stats());
+                    progressListener.onDelta(label + " planned\n");
+                    return part;
+                })
+                .exceptionally(error -> {
+                    LOGGER.warn("Planning chunk '{}' failed: {}", label, unwrap(error).getMessage());
+                    return null;
+                }));
+        }
+        return CompletableFuture.allOf(parts.values().toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            Map<String, PlanResult> planned = new LinkedHashMap<>();
+            // every part is complete here, so getNow never blocks
+            parts.forEach((label, future) -> {
+                PlanResult part = future.getNow(null);
+                if (part != null) {
+                    planned.put(label, part);
+                }
+            });
+            if (planned.isEmpty()) {
+                progressListener.onFailed("All " + chunks.size() + " planning chunks failed");
                 return Optional.empty();
             }
-            String content = response.getChoices().get(0).getMessage().getContent();
-            Map<String, Object> parsed = parseJsonContent(content)
-                .orElseGet(() -> Map.of("plan", content));
-            String planText = asText(parsed.getOrDefault("plan", content));
-            String summaryText = asText(parsed.getOrDefault("summary", ""));
+            progressListener.onCompleted(null);
+            return Optional.of(PlanResultMerger.merge(planned));
+        });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * The system prompt and the stable prompt prefix are the same for every session of a
+     * process with unchanged artifacts, so the cache key is derived from them alone.
+     */
+    private ChatCompletionRequest planRequest(AnalysisProcess process, PlannerPrompt prompt) {
+        ChatCompletionRequest request = new ChatCompletionRequest();
+        request.setModel("analysis-planner");
+        request.setPriority(LlmRequestPriority.INTERACTIVE);
+        request.setTemperature(0.2d);
+        request.setMaxTokens(MAX_COMPLETION_TOKENS);
+        request.setMessages(List.of(
+            new ChatCompletionRequest.Message("system", SYSTEM_PROMPT),
+            new ChatCompletionRequest.Message("user", prompt.text())
+        ));
+        request.setResponseSchemaName(PlanResponseSchema.NAME);
+        request.setResponseSchema(PlanResponseSchema.schema());
+        request.setPromptCacheKey("planner-" + process.getId() + "-" + Integer.toHexString((SYSTEM_PROMPT + prompt.prefix()).hashCode()));
+        return request;
+    }
+
+    /** A hedged response only wins if it parses into a plan; prose answers keep the race open. */
+    private boolean isPlan(ChatCompletionResponse response) {
+        if (response.getChoices() == null || response.getChoices().isEmpty()) {
+            return false;
+        }
+        return parseJsonContent(response.getChoices().get(0).getMessage().getContent())
+            .filter(parsed -> parsed.containsKey("plan") || parsed.containsKey("httpRequests"))
+            .isPresent();
+    }
+
+    private PlanResult toPlanResult(
+        ChatCompletionResponse response,
+        String prompt,
+        String defaultEndpoint,
+        PromptContextPacker.ContextStats contextStats
+    ) {
+        if (response.getChoices() == null || response.getChoices().isEmpty()) {
+            throw new IllegalStateException("LLM returned no choices");
+        }
+        String content = response.getChoices().get(0).getMessage().getContent();
+        Map<String, Object> parsed = parseJsonContent(content)
+            .orElseGet(() -> Map.of("plan", content));
+        String planText = asText(parsed.getOrDefault("plan", content));
+        String summaryText = asText(parsed.getOrDefault("summary", ""));
         List<ActionItem> actions = parseActionItems(parsed.get("actions"));
         if (actions.isEmpty()) {
             actions = deriveActionItems(planText, defaultEndpoint);
@@ -130,23 +325,19 @@ public class ProcessAnalysisPlanner {
         if (rootAdditionalInputs.isEmpty()) {
             rootAdditionalInputs = parseInputRequirements(parsed.get("inputFields"));
         }
-        List<HttpRequestStep> httpRequests = httpPlan.steps();
-        return Optional.of(new PlanResult(
+        return new PlanResult(
             planText,
             summaryText,
             actions,
             assertions,
-            httpRequests,
+            httpPlan.steps(),
             prompt,
             content,
             requiresAdditionalInput,
             rootAdditionalInputs,
-            httpPlan.additionalInputs()
-        ));
-        } catch (Exception e) {
-            LOGGER.warn("LLM plan generation failed, falling back to heuristics: {}", e.getMessage());
-            return Optional.empty();
-        }
+            httpPlan.additionalInputs(),
+            contextStats
+        );
     }
 
     private PlanResult fallbackPlan(
@@ -203,34 +394,110 @@ public class ProcessAnalysisPlanner {
             "",
             false,
             List.of(),
-            inputLists
+            inputLists,
+            null
         );
     }
 
-    private String buildPrompt(
+    /**
+     * Fits the BPMN elements and OpenAPI operations into whatever the active model's context
+     * window leaves after the fixed prompt and the completion, capped by the configured budget.
+     *
+     * @param retrieve narrow the candidates down to the top-k retrieved ones first; chunked
+     *                 plans must cover every operation of their chunk and skip this
+     */
+    private PromptContextPacker.PackedContext packContext(
         AnalysisProcess process,
         Map<String, Object> userInputs,
         String bpmnSnippet,
-        OpenApiSummary summary
+        Map<String, Object> openApiDocument,
+        String rawSpec,
+        LLMService llmService,
+        boolean retrieve
     ) {
-        StringBuilder builder = new StringBuilder();
-        builder.append("Process name: ").append(process.getName()).append("\n");
-        builder.append("Description: ").append(process.getDescription()).append("\n");
-        builder.append("Created at: ").append(process.getCreatedAt() != null
-            ? process.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-            : "n/a").append("\n\n");
+        TokenEstimator estimator = llmService.getTokenEstimator();
+        int fixedTokens = estimator.estimate(SYSTEM_PROMPT) + estimator.estimate(buildPrompt(process, userInputs, "", "", "").text());
+        int available = (int) ((estimator.contextWindowTokens() - MAX_COMPLETION_TOKENS - fixedTokens) * 0.9);
+        int budget = Math.max(MIN_CONTEXT_TOKENS, Math.min(contextBudgetTokens, available));
+
+        List<String> hints = new ArrayList<>();
+        hints.add(process.getName());
+        hints.add(process.getDescription());
+        hints.addAll(userInputs.keySet());
+        List<String> usableHints = hints.stream().filter(Objects::nonNull).toList();
+        PromptContextPacker.PackedContext context = contextPacker.pack(
+            bpmnSnippet,
+            openApiDocument,
+            List.of(bpmnSnippet, rawSpec),
+            usableHints,
+            budget,
+            estimator,
+            retrieve ? retrieveRelevant(process, usableHints) : Set.of()
+        );
+        PromptContextPacker.ContextStats stats = context.stats();
+        LOGGER.info("Planner context for {}: {} of {} tokens ({} saved, budget {}, {} estimate); {}/{} BPMN elements, {}/{} operations",
+            process.getId(), stats.packedTokens(), stats.rawTokens(), stats.tokensSaved(), stats.budgetTokens(),
+            stats.estimator(), stats.bpmnElementsIncluded(), stats.bpmnElements(),
+            stats.operationsIncluded(), stats.operations());
+        return context;
+    }
 
-        builder.append("User inputs:\n");
-        userInputs.forEach((k, v) -> builder.append("- ").append(k).append(": ").append(v).append("\n"));
+    private Set<String> retrieveRelevant(AnalysisProcess process, List<String> hints) {
+        List<String> sources = Stream.of(process.getBpmnDiagramPath(), process.getOpenapiSpecPath())
+            .filter(StringUtils::hasText)
+            .toList();
+        if (artifactIndex == null || retrievalTopK <= 0 || sources.isEmpty()) {
+            return Set.of();
+        }
+        try {
+            String query = String.join(" ", hints);
+            Set<String> lines = new HashSet<>();
+            for (String kind : List.of(ArtifactEmbeddingIndex.BPMN, ArtifactEmbeddingIndex.OPERATION)) {
+                artifactIndex.search(query, sources, kind, retrievalTopK).forEach(hit -> lines.add(hit.entry().text()));
+            }
+            return lines;
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Artifact retrieval failed for {}, packing without it: {}", process.getId(), ex.getMessage());
+            return Set.of();
+        }
+    }
 
-        builder.append("\nBPMN excerpt:\n").append(truncate(bpmnSnippet, 1500)).append("\n\n");
-        builder.append("OpenAPI endpoints:\n");
-        summary.endpoints().forEach(path -> builder.append("- ").append(path).append("\n"));
+    private String openApiHeader(OpenApiSummary summary) {
+        return "n/a".equals(summary.title()) ? "" : summary.title() + " (version " + summary.version() + ")\n";
+    }
 
-        builder.append("\nRequired output: JSON with keys plan (markdown list of actions), httpRequests "
-            + "(array of HTTP steps containing name, method, url, headers, body, description), summary (short text). "
-            + "Use user inputs to populate headers or payloads as needed.\n");
-        return builder.toString();
+    /**
+     * Static instructions and the large artifacts come first and the per-session values last,
+     * so consecutive sessions of a process share the longest possible prompt prefix and the
+     * provider can reuse its cached evaluation of it.
+     */
+    private PlannerPrompt buildPrompt(
+        AnalysisProcess process,
+        Map<String, Object> userInputs,
+        String bpmnContext,
+        String openApiContext,
+        String scope
+    ) {
+        StringBuilder prefix = new StringBuilder();
+        prefix.append("Required output: JSON with keys plan (markdown list of actions), httpRequests "
+            + "(array of HTTP steps containing name, method, url, headers, body, description, extract), summary (short text). "
+            + "Use user inputs to populate headers or payloads as needed. "
+            + "Reference values with {{variable}} placeholders in url, headers or body; a step can capture values "
+            + "for later steps via extract, e.g. {\"token\": \"$.access_token\"} or {\"id\": \"regex:id=(\\\\d+)\"}.\n\n");
+        prefix.append("BPMN elements:\n").append(bpmnContext).append("\n");
+        prefix.append("OpenAPI operations:\n").append(openApiContext).append("\n");
+
+        StringBuilder suffix = new StringBuilder();
+        suffix.append(scope);
+        suffix.append("Process name: ").append(process.getName()).append("\n");
+        suffix.append("Description: ").append(process.getDescription()).append("\n");
+        suffix.append("Created at: ").append(process.getCreatedAt() != null
+            ? process.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+            : "n/a").append("\n\n");
+
+        suffix.append("User inputs:\n");
+        userInputs.forEach((k, v) -> suffix.append("- ").append(k).append(": ").append(v).append("\n"));
+        return new PlannerPrompt(prefix.toString(), suffix.toString());
     }
 
     private Map<String, Object> extractUserInputs(Map<String, Object> context) {
@@ -262,21 +529,35 @@ public class ProcessAnalysisPlanner {
         }
     }
 
-    private OpenApiSummary summarizeOpenApi(String path) {
+    private OpenApiSource readOpenApi(String path) {
         if (!StringUtils.hasText(path)) {
-            return new OpenApiSummary(List.of(), "n/a", "n/a");
+            return new OpenApiSource("", null);
         }
-
         try {
             Path specPath = Paths.get(path);
             if (Files.notExists(specPath)) {
-                return new OpenApiSummary(List.of(), "n/a", "n/a");
+                return new OpenApiSource("", null);
             }
             String content = Files.readString(specPath, StandardCharsets.UTF_8);
-            Map<String, Object> document = yamlMapper.readValue(
-                content,
-                new TypeReference<Map<String, Object>>() {}
-            );
+            try {
+                return new OpenApiSource(content, yamlMapper.readValue(content, new TypeReference<Map<String, Object>>() {}));
+            } catch (IOException e) {
+                LOGGER.warn("Failed to parse OpenAPI spec {}: {}", path, e.getMessage());
+                return new OpenApiSource(content, null);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read OpenAPI spec {}: {}", path, e.getMessage());
+            return new OpenApiSource("", null);
+        }
+    }
+
+    private OpenApiSummary summarizeOpenApi(OpenApiSource source) {
+        Map<String, Object> document = source.document();
+        if (document == null) {
+            return new OpenApiSummary(List.of(), "n/a", "n/a");
+        }
+
+        try {
             Map<String, Object> paths = safeCast(document.get("paths"));
 
             List<String> endpoints = new ArrayList<>();
@@ -296,7 +577,7 @@ public class ProcessAnalysisPlanner {
             return new OpenApiSummary(endpoints, version, title);
 
         } catch (Exception e) {
-            LOGGER.warn("Failed to parse OpenAPI spec {}: {}", path, e.getMessage());
+            LOGGER.warn("Failed to summarize OpenAPI spec: {}", e.getMessage());
             return new OpenApiSummary(List.of(), "n/a", "n/a");
         }
     }
@@ -332,7 +613,8 @@ public class ProcessAnalysisPlanner {
         String rawResponse,
         boolean requiresAdditionalInput,
         List<InputRequirement> additionalInputs,
-        List<List<InputRequirement>> httpAdditionalInputs
+        List<List<InputRequirement>> httpAdditionalInputs,
+        PromptContextPacker.ContextStats contextStats
     ) {}
 
     private record HttpPlan(
@@ -340,12 +622,22 @@ public class ProcessAnalysisPlanner {
         List<List<InputRequirement>> additionalInputs
     ) {}
 
+    private record PlannerPrompt(String prefix, String suffix) {
+        String text() {
+            return prefix + suffix;
+        }
+    }
+
+    private record ParsedHttpStep(HttpRequestStep step, List<InputRequirement> additionalInputs) {}
+
     public record ActionItem(String title, String detail, String relatedArtifact) {}
 
     public record TestAssertion(String check, String expected) {}
 
     private record OpenApiSummary(List<String> endpoints, String version, String title) {}
 
+    private record OpenApiSource(String raw, Map<String, Object> document) {}
+
     private String asText(Object value) {
         return value == null ? "" : value.toString();
     }
@@ -401,7 +693,6 @@ public class ProcessAnalysisPlanner {
         return requirements;
     }
 
-    @SuppressWarnings("unchecked")
     private HttpPlan parseHttpRequests(Object source, String defaultEndpoint) {
         if (!(source instanceof List<?> list)) {
             List<HttpRequestStep> defaultSteps = defaultHttpRequests(defaultEndpoint);
@@ -411,40 +702,9 @@ public class ProcessAnalysisPlanner {
         List<List<InputRequirement>> additionalInputs = new ArrayList<>();
         for (Object entry : list) {
             if (entry instanceof Map<?, ?> map) {
-                Map<String, Object> normalized = normalizeRecord(map);
-                String name = asText(normalized.getOrDefault("name", normalized.get("title")));
-                if (!StringUtils.hasText(name)) {
-                    name = "HTTP step " + (steps.size() + 1);
-                }
-                String method = asText(normalized.getOrDefault("method", "get")).toUpperCase();
-                String url = asText(normalized.getOrDefault("url", normalized.get("endpoint")));
-                if (!StringUtils.hasText(url)) {
-                    url = defaultEndpoint;
-                }
-                Map<String, Object> headersRaw = safeCast(normalized.get("headers"));
-                Map<String, String> headers = new java.util.HashMap<>();
-                if (headersRaw != null) {
-                    headersRaw.forEach((k, v) -> {
-                        if (k != null && v != null) {
-                            headers.put(k.toString(), v.toString());
-                        }
-                    });
-                }
-                String body = asText(normalized.get("body"));
-                String description = asText(normalized.get("description"));
-                steps.add(new HttpRequestStep(
-                    name,
-                    method,
-                    url,
-                    headers,
-                    StringUtils.hasText(body) ? body : null,
-                    description
-                ));
-                List<InputRequirement> inputs = parseInputRequirements(normalized.get("additionalInputs"));
-                if (inputs.isEmpty()) {
-                    inputs = parseInputRequirements(normalized.get("inputFields"));
-                }
-                additionalInputs.add(inputs);
+                ParsedHttpStep parsed = parseHttpStep(normalizeRecord(map), steps.size(), defaultEndpoint);
+                steps.add(parsed.step());
+                additionalInputs.add(parsed.additionalInputs());
             }
         }
         if (steps.isEmpty()) {
@@ -457,6 +717,53 @@ public class ProcessAnalysisPlanner {
         return new HttpPlan(steps, additionalInputs);
     }
 
+    @SuppressWarnings("unchecked")
+    private ParsedHttpStep parseHttpStep(Map<String, Object> normalized, int position, String defaultEndpoint) {
+        String name = asText(normalized.getOrDefault("name", normalized.get("title")));
+        if (!StringUtils.hasText(name)) {
+            name = "HTTP step " + (position + 1);
+        }
+        String method = asText(normalized.getOrDefault("method", "get")).toUpperCase();
+        String url = asText(normalized.getOrDefault("url", normalized.get("endpoint")));
+        if (!StringUtils.hasText(url)) {
+            url = defaultEndpoint;
+        }
+        Map<String, Object> headersRaw = safeCast(normalized.get("headers"));
+        Map<String, String> headers = new java.util.HashMap<>();
+        if (headersRaw != null) {
+            headersRaw.forEach((k, v) -> {
+                if (k != null && v != null) {
+                    headers.put(k.toString(), v.toString());
+                }
+            });
+        }
+        String body = asText(normalized.get("body"));
+        String description = asText(normalized.get("description"));
+        HttpRequestStep step = new HttpRequestStep(
+            name,
+            method,
+            url,
+            headers,
+            StringUtils.hasText(body) ? body : null,
+            description
+        );
+        Map<String, Object> extractRaw = safeCast(normalized.get("extract"));
+        if (extractRaw != null) {
+            Map<String, String> extract = new java.util.LinkedHashMap<>();
+            extractRaw.forEach((k, v) -> {
+                if (v != null && StringUtils.hasText(v.toString())) {
+                    extract.put(k, v.toString());
+                }
+            });
+            step.setExtract(extract);
+        }
+        List<InputRequirement> inputs = parseInputRequirements(normalized.get("additionalInputs"));
+        if (inputs.isEmpty()) {
+            inputs = parseInputRequirements(normalized.get("inputFields"));
+        }
+        return new ParsedHttpStep(step, inputs);
+    }
+
     private List<HttpRequestStep> defaultHttpRequests(String defaultEndpoint) {
         if (!StringUtils.hasText(defaultEndpoint)) {
             return List.of();
@@ -519,7 +826,7 @@ public class ProcessAnalysisPlanner {
                 Map<String, Object> normalized = normalizeRecord(map);
                 String title = asText(normalized.getOrDefault("title", normalized.get("name"))).trim();
                 String detail = asText(normalized.getOrDefault("detail", normalized.get("description"))).trim();
-                String artifact = asText(normalized.getOrDefault("artifact", normalized.get("context"))).trim();
+                String artifact = asText(normalized.getOrDefault("artifact", normalized.getOrDefault("relatedArtifact", normalized.get("context")))).trim();
                 if (!title.isEmpty() || !detail.isEmpty()) {
                     actions.add(new ActionItem(
                         title.isEmpty() ? detail : title,
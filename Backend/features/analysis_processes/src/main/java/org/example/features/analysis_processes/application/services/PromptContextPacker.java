@@ -0,0 +1,457 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.example.features.llm.domain.services.TokenEstimator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fits BPMN elements and OpenAPI operations into a token budget. Each element becomes one
+ * compact line; lines are ranked by security relevance and by overlap with the process
+ * description, the most relevant ones are kept and emitted in their original order.
+ */
+@Component
+public class PromptContextPacker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PromptContextPacker.class);
+    private static final double BPMN_SHARE = 0.4;
+    /** Lifts retrieved lines and BPMN-named operations above the rest; their own scores still rank them. */
+    private static final double RETRIEVED_BOOST = 1_000;
+    private static final double BPMN_LINK_SCORE = 6;
+    private static final List<String> HTTP_METHODS = List.of("get", "post", "put", "patch", "delete", "head", "options");
+    private static final Set<String> WRITE_METHODS = Set.of("post", "put", "patch", "delete");
+    private static final Set<String> SENSITIVE_WORDS = Set.of(
+        "auth", "login", "logout", "token", "oauth", "password", "pin", "otp", "secret", "key", "session",
+        "admin", "role", "permission", "user", "account", "card", "payment", "pay", "transfer", "balance",
+        "consent", "credit", "refund", "upload", "export"
+    );
+
+    public record PackedContext(String bpmn, String openApi, ContextStats stats) {}
+
+    public record ContextStats(
+        String estimator,
+        int budgetTokens,
+        int rawTokens,
+        int packedTokens,
+        int tokensSaved,
+        int bpmnElements,
+        int bpmnElementsIncluded,
+        int operations,
+        int operationsIncluded
+    ) {}
+
+    /** A self-contained slice of a spec: shared top-level keys plus a subset of its operations. */
+    public record OpenApiChunk(String label, Map<String, Object> document, int operations) {}
+
+    /** @param linked an operation the BPMN names by method and path */
+    private record Candidate(int order, String line, double score, int tokens, boolean linked) {}
+
+    private record Selection(String text, int tokens, int included) {}
+
+    /**
+     * @param openApiDocument parsed spec, or {@code null}
+     * @param rawSources      the unpacked BPMN and spec text, used to report the tokens saved
+     * @param hints           free text (process name, description, input names) to rank by
+     */
+    public PackedContext pack(
+        String bpmnXml,
+        Map<String, Object> openApiDocument,
+        Collection<String> rawSources,
+        Collection<String> hints,
+        int budgetTokens,
+        TokenEstimator estimator
+    ) {
+        return pack(bpmnXml, openApiDocument, rawSources, hints, budgetTokens, estimator, Set.of());
+    }
+
+    /**
+     * @param retrieved lines found relevant by {@link ArtifactEmbeddingIndex}. They only matter
+     *                  when the lines of a kind do not all fit its share of the budget: then the
+     *                  retrieved lines, and the operations the BPMN names, are packed first and
+     *                  the rest fill what remains. Lines retrieved from an outdated index match
+     *                  nothing and leave the packing as it is.
+     */
+    public PackedContext pack(
+        String bpmnXml,
+        Map<String, Object> openApiDocument,
+        Collection<String> rawSources,
+        Collection<String> hints,
+        int budgetTokens,
+        TokenEstimator estimator,
+        Set<String> retrieved
+    ) {
+        Set<String> hintWords = words(String.join(" ", hints));
+        List<String> bpmnLines = bpmnLines(bpmnXml);
+        Set<String> bpmnWords = words(String.join(" ", bpmnLines));
+        String bpmnText = String.join("\n", bpmnLines).toLowerCase(Locale.ROOT);
+
+        List<Candidate> bpmnCandidates = new ArrayList<>(bpmnLines.size());
+        for (int index = 0; index < bpmnLines.size(); index++) {
+            String line = bpmnLines.get(index);
+            bpmnCandidates.add(new Candidate(index, line, scoreBpmn(line, hintWords), estimator.estimate(line) + 1, false));
+        }
+        List<Candidate> operationCandidates = operationCandidates(openApiDocument, hintWords, bpmnWords, bpmnText, estimator);
+        int budget = Math.max(0, budgetTokens);
+        int bpmnBudget = operationCandidates.isEmpty() ? budget : (int) (budget * BPMN_SHARE);
+        List<Candidate> bpmnPool = prioritize(bpmnCandidates, retrieved, bpmnBudget);
+        List<Candidate> operationPool = prioritize(operationCandidates, retrieved,
+            budget - Math.min(bpmnBudget, tokens(bpmnCandidates)));
+
+        Selection bpmn = select(bpmnPool, bpmnBudget);
+        Selection operations = select(operationPool, budget - bpmn.tokens());
+        if (operations.tokens() < budget - bpmn.tokens()) {
+            // hand the operations' unused share back to the BPMN side
+            bpmn = select(bpmnPool, budget - operations.tokens());
+        }
+
+        int rawTokens = rawSources.stream().mapToInt(estimator::estimate).sum();
+        int packedTokens = bpmn.tokens() + operations.tokens();
+        ContextStats stats = new ContextStats(
+            estimator.family(),
+            budget,
+            rawTokens,
+            packedTokens,
+            Math.max(0, rawTokens - packedTokens),
+            bpmnCandidates.size(),
+            bpmn.included(),
+            operationCandidates.size(),
+            operations.included()
+        );
+        return new PackedContext(bpmn.text(), operations.text(), stats);
+    }
+
+    /**
+     * Splits the spec's operations by their first tag, or by first path segment for untagged
+     * operations. Groups are kept whole where possible, small groups share a chunk and
+     * authentication groups come first so the steps they produce can feed the others.
+     * A spec with at most {@code maxOperationsPerChunk} operations yields a single chunk.
+     */
+    public List<OpenApiChunk> partition(Map<String, Object> document, int maxOperationsPerChunk) {
+        if (document == null || !(document.get("paths") instanceof Map<?, ?> paths)) {
+            return List.of();
+        }
+        int limit = Math.max(1, maxOperationsPerChunk);
+        Map<String, List<Map.Entry<String, Map<String, Object>>>> groups = new LinkedHashMap<>();
+        int total = 0;
+        for (Map.Entry<?, ?> pathEntry : paths.entrySet()) {
+            if (!(pathEntry.getValue() instanceof Map<?, ?> pathItem)) {
+                continue;
+            }
+            String path = String.valueOf(pathEntry.getKey());
+            for (String method : HTTP_METHODS) {
+                if (pathItem.get(method) instanceof Map<?, ?> operation) {
+                    Map<String, Object> single = new LinkedHashMap<>();
+                    pathItem.forEach((key, value) -> {
+                        if (!HTTP_METHODS.contains(String.valueOf(key))) {
+                            single.put(String.valueOf(key), value);
+                        }
+                    });
+                    single.put(method, operation);
+                    groups.computeIfAbsent(groupOf(path, operation), ignored -> new ArrayList<>())
+                        .add(Map.entry(path, single));
+                    total++;
+                }
+            }
+        }
+        if (total <= limit) {
+            return List.of(new OpenApiChunk("all operations", document, total));
+        }
+
+        List<String> order = new ArrayList<>(groups.keySet());
+        order.sort(Comparator.comparing(group -> !isAuthGroup(group, groups.get(group))));
+        List<OpenApiChunk> chunks = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        List<Map.Entry<String, Map<String, Object>>> current = new ArrayList<>();
+        for (String group : order) {
+            List<Map.Entry<String, Map<String, Object>>> operations = groups.get(group);
+            if (!current.isEmpty() && current.size() + operations.size() > limit) {
+                chunks.add(chunk(document, labels, current));
+                labels = new ArrayList<>();
+                current = new ArrayList<>();
+            }
+            for (int start = 0; start < operations.size(); start += limit) {
+                List<Map.Entry<String, Map<String, Object>>> slice =
+                    operations.subList(start, Math.min(operations.size(), start + limit));
+                if (!current.isEmpty() && current.size() + slice.size() > limit) {
+                    chunks.add(chunk(document, labels, current));
+                    labels = new ArrayList<>();
+                    current = new ArrayList<>();
+                }
+                labels.add(group);
+                current.addAll(slice);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(chunk(document, labels, current));
+        }
+        return chunks;
+    }
+
+    private OpenApiChunk chunk(
+        Map<String, Object> document,
+        List<String> labels,
+        List<Map.Entry<String, Map<String, Object>>> operations
+    ) {
+        Map<String, Object> paths = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Object>> operation : operations) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> merged = (Map<String, Object>) paths.computeIfAbsent(operation.getKey(), ignored -> new LinkedHashMap<>());
+            merged.putAll(operation.getValue());
+        }
+        Map<String, Object> slice = new LinkedHashMap<>(document);
+        slice.put("paths", paths);
+        return new OpenApiChunk(String.join(", ", new LinkedHashSet<>(labels)), slice, operations.size());
+    }
+
+    private static String groupOf(String path, Map<?, ?> operation) {
+        if (operation.get("tags") instanceof List<?> tags && !tags.isEmpty() && tags.get(0) != null) {
+            return tags.get(0).toString();
+        }
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty() && !segment.startsWith("{")) {
+                return "/" + segment;
+            }
+        }
+        return "/";
+    }
+
+    private static boolean isAuthGroup(String group, List<Map.Entry<String, Map<String, Object>>> operations) {
+        String lower = group.toLowerCase(Locale.ROOT);
+        if (lower.contains("auth") || lower.contains("login") || lower.contains("token")) {
+            return true;
+        }
+        return operations.stream().anyMatch(operation -> {
+            String path = operation.getKey().toLowerCase(Locale.ROOT);
+            return path.contains("/auth") || path.contains("/login") || path.contains("/token");
+        });
+    }
+
+    /** One summary line per operation, as indexed by {@link ArtifactEmbeddingIndex} and advised on by {@link AnalysisInputAdvisor}. */
+    List<String> operationLines(Map<String, Object> document) {
+        return operationCandidates(document, Set.of(), Set.of(), "", null).stream().map(Candidate::line).toList();
+    }
+
+    private static List<Candidate> prioritize(List<Candidate> candidates, Set<String> retrieved, int budget) {
+        if (retrieved == null || retrieved.isEmpty() || tokens(candidates) <= budget
+            || candidates.stream().noneMatch(candidate -> retrieved.contains(candidate.line()))) {
+            return candidates;
+        }
+        return candidates.stream()
+            .map(candidate -> candidate.linked() || retrieved.contains(candidate.line())
+                ? new Candidate(candidate.order(), candidate.line(), candidate.score() + RETRIEVED_BOOST,
+                    candidate.tokens(), candidate.linked())
+                : candidate)
+            .toList();
+    }
+
+    private static int tokens(List<Candidate> candidates) {
+        return candidates.stream().mapToInt(Candidate::tokens).sum();
+    }
+
+    private Selection select(List<Candidate> candidates, int budget) {
+        List<Candidate> ranked = new ArrayList<>(candidates);
+        ranked.sort(Comparator.comparingDouble(Candidate::score).reversed().thenComparingInt(Candidate::order));
+        List<Candidate> chosen = new ArrayList<>();
+        int used = 0;
+        for (Candidate candidate : ranked) {
+            if (used + candidate.tokens() <= budget) {
+                chosen.add(candidate);
+                used += candidate.tokens();
+            }
+        }
+        chosen.sort(Comparator.comparingInt(Candidate::order));
+        StringBuilder text = new StringBuilder();
+        chosen.forEach(candidate -> text.append(candidate.line()).append('\n'));
+        if (chosen.size() < candidates.size()) {
+            text.append("(").append(candidates.size() - chosen.size()).append(" less relevant item(s) omitted)\n");
+        }
+        return new Selection(text.toString(), used, chosen.size());
+    }
+
+    List<String> bpmnLines(String bpmnXml) {
+        if (!StringUtils.hasText(bpmnXml)) {
+            return List.of();
+        }
+        List<String> lines = new ArrayList<>();
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        try {
+            XMLStreamReader reader = factory.createXMLStreamReader(new StringReader(bpmnXml));
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    String type = reader.getLocalName();
+                    String name = reader.getAttributeValue(null, "name");
+                    String id = reader.getAttributeValue(null, "id");
+                    if ("sequenceFlow".equals(type)) {
+                        if (StringUtils.hasText(name)) {
+                            lines.add("- flow " + reader.getAttributeValue(null, "sourceRef") + " -> "
+                                + reader.getAttributeValue(null, "targetRef") + ": " + collapse(name));
+                        }
+                    } else if (isFlowNode(type)) {
+                        lines.add("- " + type + (StringUtils.hasText(name) ? " \"" + collapse(name) + "\"" : "")
+                            + (id != null ? " [" + id + "]" : ""));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ex) {
+            LOGGER.debug("BPMN is not well-formed XML, packing it line by line: {}", ex.getMessage());
+            lines.clear();
+            bpmnXml.lines().map(String::strip).filter(StringUtils::hasText).forEach(lines::add);
+        }
+        return lines;
+    }
+
+    private static boolean isFlowNode(String type) {
+        return type.endsWith("Task") || type.equals("task") || type.endsWith("Event") || type.endsWith("Gateway")
+            || type.equals("subProcess") || type.equals("callActivity") || type.equals("lane");
+    }
+
+    private double scoreBpmn(String line, Set<String> hintWords) {
+        String lower = line.toLowerCase(Locale.ROOT);
+        double score = overlap(words(line), hintWords) * 2 + sensitive(lower) * 3;
+        if (lower.contains("task") || lower.contains("gateway")) {
+            score += 2;
+        } else if (lower.contains("event")) {
+            score += 1;
+        }
+        if (lower.contains(" /")) {
+            // element names that reference an API call tie the process to the spec
+            score += 3;
+        }
+        return score;
+    }
+
+    private List<Candidate> operationCandidates(
+        Map<String, Object> document,
+        Set<String> hintWords,
+        Set<String> bpmnWords,
+        String bpmnText,
+        TokenEstimator estimator
+    ) {
+        List<Candidate> candidates = new ArrayList<>();
+        if (document == null || !(document.get("paths") instanceof Map<?, ?> paths)) {
+            return candidates;
+        }
+        boolean globalSecurity = document.get("security") instanceof List<?> security && !security.isEmpty();
+        for (Map.Entry<?, ?> pathEntry : paths.entrySet()) {
+            String path = String.valueOf(pathEntry.getKey());
+            if (!(pathEntry.getValue() instanceof Map<?, ?> pathItem)) {
+                continue;
+            }
+            for (String method : HTTP_METHODS) {
+                if (!(pathItem.get(method) instanceof Map<?, ?> operation)) {
+                    continue;
+                }
+                boolean secured = operation.containsKey("security")
+                    ? operation.get("security") instanceof List<?> list && !list.isEmpty()
+                    : globalSecurity;
+                String line = operationLine(method, path, operation, pathItem, secured);
+                String lower = line.toLowerCase(Locale.ROOT);
+                double score = overlap(words(line), hintWords) * 2
+                    + overlap(words(path), bpmnWords)
+                    + sensitive(lower) * 3
+                    + (WRITE_METHODS.contains(method) ? 2 : 0)
+                    + (path.contains("{") ? 2 : 0)
+                    + (secured ? 1 : 0);
+                boolean linked = bpmnText.contains(method + " " + path.toLowerCase(Locale.ROOT));
+                if (linked) {
+                    score += BPMN_LINK_SCORE;
+                }
+                candidates.add(new Candidate(candidates.size(), line, score,
+                    estimator != null ? estimator.estimate(line) + 1 : 0, linked));
+            }
+        }
+        return candidates;
+    }
+
+    private String operationLine(String method, String path, Map<?, ?> operation, Map<?, ?> pathItem, boolean secured) {
+        StringBuilder line = new StringBuilder("- ").append(method.toUpperCase(Locale.ROOT)).append(' ').append(path);
+        Object summary = operation.get("summary") != null ? operation.get("summary") : operation.get("operationId");
+        if (summary != null) {
+            line.append(" - ").append(collapse(summary.toString()));
+        }
+        Set<String> parameters = new LinkedHashSet<>();
+        collectParameters(pathItem.get("parameters"), parameters);
+        collectParameters(operation.get("parameters"), parameters);
+        if (!parameters.isEmpty()) {
+            line.append(" (params: ").append(String.join(", ", parameters)).append(')');
+        }
+        if (operation.get("requestBody") != null) {
+            line.append(" [body]");
+        }
+        if (secured) {
+            line.append(" [auth]");
+        }
+        return line.toString();
+    }
+
+    private void collectParameters(Object source, Set<String> target) {
+        if (!(source instanceof List<?> parameters)) {
+            return;
+        }
+        for (Object parameter : parameters) {
+            if (parameter instanceof Map<?, ?> map && map.get("name") != null) {
+                target.add(map.get("in") != null ? map.get("in") + ":" + map.get("name") : map.get("name").toString());
+            }
+        }
+    }
+
+    private static int sensitive(String lower) {
+        int hits = 0;
+        for (String word : SENSITIVE_WORDS) {
+            if (lower.contains(word)) {
+                hits++;
+            }
+        }
+        return Math.min(hits, 3);
+    }
+
+    private static int overlap(Set<String> words, Set<String> hints) {
+        int hits = 0;
+        for (String word : words) {
+            if (hints.contains(word)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= 3) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String collapse(String text) {
+        return text.replaceAll("\\s+", " ").strip();
+    }
+}
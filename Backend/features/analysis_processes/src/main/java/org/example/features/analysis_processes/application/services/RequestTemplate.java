@@ -0,0 +1,194 @@
+package org.example.features.analysis_processes.application.services;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Pre-parsed {@code {{variable}}} template for HTTP step URLs, headers and bodies.
+ * Parsing happens once; rendering only concatenates literal and resolved segments.
+ * Placeholders whose variable cannot be resolved are rendered verbatim.
+ * <p>
+ * Resolved values are escaped for where their placeholder sits, decided at compile time:
+ * percent-encoded in a URL path or query, JSON-escaped inside a JSON string, quoted unless
+ * already a JSON scalar elsewhere in a JSON body, form-encoded in a form body. Placeholders
+ * that open a URL (the base URL) or name its host are inserted as they are.
+ */
+public final class RequestTemplate {
+
+    /** What kind of text the template produces. */
+    public enum Syntax {
+        TEXT, URL, JSON, FORM
+    }
+
+    private enum Escape {
+        NONE, URL_PATH, URL_QUERY, JSON_STRING, JSON_VALUE, FORM
+    }
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final Pattern JSON_SCALAR = Pattern.compile("-?(0|[1-9]\\d*)(\\.\\d+)?([eE][+-]?\\d+)?|true|false|null");
+    private static final RequestTemplate EMPTY =
+        new RequestTemplate(null, new String[] {null}, new String[0], new Escape[0], 0);
+
+    private final String source;
+    private final String[] literals;
+    private final String[] variables;
+    private final Escape[] escapes;
+    private final int literalLength;
+
+    private RequestTemplate(String source, String[] literals, String[] variables, Escape[] escapes, int literalLength) {
+        this.source = source;
+        this.literals = literals;
+        this.variables = variables;
+        this.escapes = escapes;
+        this.literalLength = literalLength;
+    }
+
+    public static RequestTemplate compile(String source) {
+        return compile(source, Syntax.TEXT);
+    }
+
+    public static RequestTemplate compile(String source, Syntax syntax) {
+        if (source == null) {
+            return EMPTY;
+        }
+        List<String> literalParts = new ArrayList<>();
+        List<String> variableNames = new ArrayList<>();
+        int cursor = 0;
+        int searchFrom = 0;
+        int literalLength = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, searchFrom);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                break;
+            }
+            String name = source.substring(open + OPEN.length(), close).trim();
+            searchFrom = close + CLOSE.length();
+            if (name.isEmpty()) {
+                continue;
+            }
+            String literal = source.substring(cursor, open);
+            literalParts.add(literal);
+            literalLength += literal.length();
+            variableNames.add(name);
+            cursor = searchFrom;
+        }
+        if (variableNames.isEmpty()) {
+            return new RequestTemplate(source, new String[] {source}, new String[0], new Escape[0], source.length());
+        }
+        String tail = source.substring(cursor);
+        literalParts.add(tail);
+        literalLength += tail.length();
+        return new RequestTemplate(
+            source,
+            literalParts.toArray(String[]::new),
+            variableNames.toArray(String[]::new),
+            escapes(literalParts, syntax),
+            literalLength
+        );
+    }
+
+    /** The escaping of each placeholder follows from the literal text in front of it. */
+    private static Escape[] escapes(List<String> literalParts, Syntax syntax) {
+        Escape[] escapes = new Escape[literalParts.size() - 1];
+        StringBuilder before = new StringBuilder();
+        boolean inJsonString = false;
+        for (int index = 0; index < escapes.length; index++) {
+            String literal = literalParts.get(index);
+            before.append(literal);
+            if (syntax == Syntax.JSON) {
+                for (int position = 0; position < literal.length(); position++) {
+                    char current = literal.charAt(position);
+                    if (current == '\\' && inJsonString) {
+                        position++;
+                    } else if (current == '"') {
+                        inJsonString = !inJsonString;
+                    }
+                }
+            }
+            escapes[index] = switch (syntax) {
+                case TEXT -> Escape.NONE;
+                case URL -> urlEscape(before);
+                case JSON -> inJsonString ? Escape.JSON_STRING : Escape.JSON_VALUE;
+                case FORM -> Escape.FORM;
+            };
+        }
+        return escapes;
+    }
+
+    private static Escape urlEscape(CharSequence before) {
+        String prefix = before.toString();
+        if (prefix.isEmpty()) {
+            return Escape.NONE;
+        }
+        if (prefix.indexOf('?') >= 0 || prefix.indexOf('#') >= 0) {
+            return Escape.URL_QUERY;
+        }
+        int scheme = prefix.indexOf("://");
+        if (scheme >= 0 && prefix.indexOf('/', scheme + 3) < 0) {
+            return Escape.NONE;
+        }
+        return Escape.URL_PATH;
+    }
+
+    private static String escape(Escape escape, String value) {
+        return switch (escape) {
+            case NONE -> value;
+            case URL_PATH -> URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+            case URL_QUERY, FORM -> URLEncoder.encode(value, StandardCharsets.UTF_8);
+            case JSON_STRING -> new String(JsonStringEncoder.getInstance().quoteAsString(value));
+            case JSON_VALUE -> JSON_SCALAR.matcher(value).matches()
+                ? value
+                : '"' + new String(JsonStringEncoder.getInstance().quoteAsString(value)) + '"';
+        };
+    }
+
+    public String source() {
+        return source;
+    }
+
+    public boolean isStatic() {
+        return variables.length == 0;
+    }
+
+    public List<String> variables() {
+        return List.of(variables);
+    }
+
+    public boolean references(String variable) {
+        for (String name : variables) {
+            if (name.equals(variable)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String render(Function<String, String> resolver) {
+        if (variables.length == 0) {
+            return source;
+        }
+        StringBuilder builder = new StringBuilder(literalLength + variables.length * 16);
+        for (int index = 0; index < variables.length; index++) {
+            builder.append(literals[index]);
+            String value = resolver.apply(variables[index]);
+            if (value == null) {
+                builder.append(OPEN).append(variables[index]).append(CLOSE);
+            } else {
+                builder.append(escape(escapes[index], value));
+            }
+        }
+        builder.append(literals[variables.length]);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.features.analysis_processes.application.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.features.analysis_processes.domain.valueobjects.HttpRequestStep;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Compiles HTTP step templates once per plan and renders them per execution.
+ */
+@Component
+public class RequestTemplateEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestTemplateEngine.class);
+    private static final int MAX_CACHED_STEPS = 4096;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, CompiledRequest> compiledSteps = Collections.synchronizedMap(
+        new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledRequest> eldest) {
+                return size() > MAX_CACHED_STEPS;
+            }
+        }
+    );
+
+    public void compilePlan(Map<String, HttpRequestStep> stepsById) {
+        stepsById.forEach((stepId, request) -> compiledSteps.put(stepId, compile(request)));
+    }
+
+    public CompiledRequest forStep(String stepId, HttpRequestStep request) {
+        if (stepId == null) {
+            return compile(request);
+        }
+        CompiledRequest cached = compiledSteps.get(stepId);
+        if (cached != null && cached.matches(request)) {
+            return cached;
+        }
+        CompiledRequest compiled = compile(request);
+        compiledSteps.put(stepId, compiled);
+        return compiled;
+    }
+
+    public CompiledRequest compile(HttpRequestStep request) {
+        Map<String, RequestTemplate> headers = new LinkedHashMap<>();
+        request.getHeaders().forEach((name, value) -> headers.put(name, RequestTemplate.compile(value)));
+        Map<String, ResponseExtractor> extractors = new LinkedHashMap<>();
+        request.getExtract().forEach((variable, expression) -> {
+            try {
+                extractors.put(variable, ResponseExtractor.compile(expression));
+            } catch (IllegalArgumentException ex) {
+                LOGGER.warn("Ignoring extractor {} for step {}: {}", variable, request.getName(), ex.getMessage());
+            }
+        });
+        return new CompiledRequest(
+            request,
+            RequestTemplate.compile(request.getUrl(), RequestTemplate.Syntax.URL),
+            headers,
+            RequestTemplate.compile(request.getBody(), bodySyntax(request)),
+            extractors
+        );
+    }
+
+    /**
+     * JSON or form bodies by their Content-Type; without one, a body that opens like JSON is JSON.
+     */
+    private static RequestTemplate.Syntax bodySyntax(HttpRequestStep request) {
+        String contentType = request.getHeaders().entrySet().stream()
+            .filter(header -> "content-type".equalsIgnoreCase(header.getKey()))
+            .map(header -> Objects.toString(header.getValue(), "").toLowerCase(Locale.ROOT))
+            .findFirst()
+            .orElse(null);
+        if (contentType == null) {
+            String body = request.getBody() == null ? "" : request.getBody().stripLeading();
+            return body.startsWith("{") || body.startsWith("[") ? RequestTemplate.Syntax.JSON : RequestTemplate.Syntax.TEXT;
+        }
+        if (contentType.contains("json")) {
+            return RequestTemplate.Syntax.JSON;
+        }
+        return contentType.startsWith("application/x-www-form-urlencoded")
+            ? RequestTemplate.Syntax.FORM
+            : RequestTemplate.Syntax.TEXT;
+    }
+
+    /**
+     * Runs the step's extractors against a response body. The body is parsed at most once.
+     */
+    public Map<String, String> extract(CompiledRequest compiled, String body) {
+        if (compiled.extractors().isEmpty() || body == null || body.isEmpty()) {
+            return Map.of();
+        }
+        JsonNode json = null;
+        if (compiled.requiresJson()) {
+            try {
+                json = objectMapper.readTree(body);
+            } catch (Exception ex) {
+                LOGGER.debug("Response body for step {} is not JSON: {}", compiled.source().getName(), ex.getMessage());
+            }
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Map.Entry<String, ResponseExtractor> entry : compiled.extractors().entrySet()) {
+            entry.getValue().extract(json, body).ifPresent(value -> values.put(entry.getKey(), value));
+        }
+        return values;
+    }
+
+    public static final class CompiledRequest {
+
+        private final HttpRequestStep source;
+        private final RequestTemplate url;
+        private final Map<String, RequestTemplate> headers;
+        private final RequestTemplate body;
+        private final Map<String, ResponseExtractor> extractors;
+        private final Set<String> variables;
+        private final boolean requiresJson;
+
+        private CompiledRequest(
+            HttpRequestStep source,
+            RequestTemplate url,
+            Map<String, RequestTemplate> headers,
+            RequestTemplate body,
+            Map<String, ResponseExtractor> extractors
+        ) {
+            this.source = source;
+            this.url = url;
+            this.headers = headers;
+            this.body = body;
+            this.extractors = extractors;
+            Set<String> names = new LinkedHashSet<>(url.variables());
+            headers.values().forEach(template -> names.addAll(template.variables()));
+            names.addAll(body.variables());
+            this.variables = Collections.unmodifiableSet(names);
+            this.requiresJson = extractors.values().stream().anyMatch(ResponseExtractor::requiresJson);
+        }
+
+        public HttpRequestStep source() {
+            return source;
+        }
+
+        public Set<String> variables() {
+            return variables;
+        }
+
+        public boolean references(String variable) {
+            return variables.contains(variable);
+        }
+
+        public Map<String, ResponseExtractor> extractors() {
+            return extractors;
+        }
+
+        boolean requiresJson() {
+            return requiresJson;
+        }
+
+        /**
+         * Resolved values are escaped for their position, see {@link RequestTemplate}.
+         */
+        public HttpRequestStep render(Function<String, String> resolver) {
+            Map<String, String> renderedHeaders = new LinkedHashMap<>(headers.size() + 2);
+            headers.forEach((name, template) -> renderedHeaders.put(name, template.render(resolver)));
+            HttpRequestStep rendered = new HttpRequestStep(
+                source.getName(),
+                source.getMethod(),
+                url.render(resolver),
+                renderedHeaders,
+                body.render(resolver),
+                source.getDescription()
+            );
+            rendered.setStepId(source.getStepId());
+            rendered.setExtract(source.getExtract());
+            return rendered;
+        }
+
+        boolean matches(HttpRequestStep other) {
+            return other != null
+                && Objects.equals(source.getMethod(), other.getMethod())
+                && Objects.equals(url.source(), other.getUrl())
+                && Objects.equals(body.source(), other.getBody())
+                && Objects.equals(source.getHeaders(), other.getHeaders())
+                && Objects.equals(source.getExtract(), other.getExtract());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.features.analysis_processes.application.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled expression that pulls a value out of an HTTP step response body.
+ * Supports a JSONPath subset ({@code $.data.items[0].token}, {@code $['access_token']})
+ * and regular expressions prefixed with {@code regex:} (first capture group wins).
+ */
+public final class ResponseExtractor {
+
+    private static final String REGEX_PREFIX = "regex:";
+
+    private final String expression;
+    private final List<Object> path;
+    private final Pattern pattern;
+
+    private ResponseExtractor(String expression, List<Object> path, Pattern pattern) {
+        this.expression = expression;
+        this.path = path;
+        this.pattern = pattern;
+    }
+
+    public static ResponseExtractor compile(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Extractor expression must not be blank");
+        }
+        String trimmed = expression.trim();
+        if (trimmed.startsWith(REGEX_PREFIX)) {
+            return new ResponseExtractor(trimmed, null, Pattern.compile(trimmed.substring(REGEX_PREFIX.length())));
+        }
+        if (trimmed.startsWith("$")) {
+            return new ResponseExtractor(trimmed, parsePath(trimmed), null);
+        }
+        throw new IllegalArgumentException("Unsupported extractor expression: " + expression);
+    }
+
+    public String expression() {
+        return expression;
+    }
+
+    public boolean requiresJson() {
+        return path != null;
+    }
+
+    /**
+     * @param json parsed body, or {@code null} when the body is not JSON
+     * @param body raw response body
+     */
+    public Optional<String> extract(JsonNode json, String body) {
+        if (pattern != null) {
+            if (body == null) {
+                return Optional.empty();
+            }
+            Matcher matcher = pattern.matcher(body);
+            if (!matcher.find()) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(matcher.groupCount() > 0 ? matcher.group(1) : matcher.group());
+        }
+        if (json == null) {
+            return Optional.empty();
+        }
+        JsonNode current = json;
+        for (Object segment : path) {
+            current = segment instanceof Integer index ? current.path(index) : current.path((String) segment);
+            if (current.isMissingNode() || current.isNull()) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(current.isValueNode() ? current.asText() : current.toString());
+    }
+
+    private static List<Object> parsePath(String expression) {
+        List<Object> segments = new ArrayList<>();
+        int index = 1;
+        int length = expression.length();
+        while (index < length) {
+            char current = expression.charAt(index);
+            if (current == '.') {
+                int end = index + 1;
+                while (end < length && expression.charAt(end) != '.' && expression.charAt(end) != '[') {
+                    end++;
+                }
+                if (end == index + 1) {
+                    throw new IllegalArgumentException("Empty path segment in " + expression);
+                }
+                segments.add(expression.substring(index + 1, end));
+                index = end;
+            } else if (current == '[') {
+                int end = expression.indexOf(']', index);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated bracket in " + expression);
+                }
+                String inner = expression.substring(index + 1, end).trim();
+                if (inner.length() >= 2 && (inner.startsWith("'") || inner.startsWith("\""))) {
+                    segments.add(inner.substring(1, inner.length() - 1));
+                } else {
+                    try {
+                        segments.add(Integer.parseInt(inner));
+                    } catch (NumberFormatException ex) {
+                        throw new IllegalArgumentException("Unsupported bracket segment [" + inner + "] in " + expression);
+                    }
+                }
+                index = end + 1;
+            } else {
+                throw new IllegalArgumentException("Unexpected character '" + current + "' in " + expression);
+            }
+        }
+        return List.copyOf(segments);
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.features.analysis_processes.application.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Picks the entries of the top-level {@code httpRequests} array out of a plan while it is
+ * still being streamed. Deltas are pushed into Jackson's non-blocking parser and every entry
+ * is handed over as soon as its closing brace arrives, long before the rest of the plan.
+ *
+ * <p>Anything before the first {@code &#123;} (prose, a code fence) is skipped. The parser gives
+ * up silently on malformed input; the complete response is parsed again at the end anyway.
+ * Not thread-safe: feed deltas in order from one thread at a time.
+ */
+public final class StreamingPlanParser {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingPlanParser.class);
+    private static final String STEPS_FIELD = "httpRequests";
+    private static final TypeReference<Map<String, Object>> ENTRY_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper mapper;
+    private final JsonParser parser;
+    private final BiConsumer<Integer, Map<String, Object>> onEntry;
+    private boolean started;
+    private boolean failed;
+    private int depth;
+    private boolean stepsFieldPending;
+    private int stepsDepth = -1;
+    private TokenBuffer entry;
+    private int emitted;
+
+    /**
+     * @param onEntry receives the position of the entry in the array and its fields
+     */
+    public StreamingPlanParser(ObjectMapper mapper, BiConsumer<Integer, Map<String, Object>> onEntry) {
+        this.mapper = mapper;
+        this.onEntry = onEntry;
+        try {
+            this.parser = mapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Non-blocking JSON parsing is unavailable", ex);
+        }
+    }
+
+    public void feed(String delta) {
+        if (failed || delta == null || delta.isEmpty()) {
+            return;
+        }
+        String text = delta;
+        if (!started) {
+            int start = text.indexOf('{');
+            if (start < 0) {
+                return;
+            }
+            text = text.substring(start);
+            started = true;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        try {
+            ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, 0, bytes.length);
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                handle(token);
+            }
+        } catch (IOException | RuntimeException ex) {
+            // typically trailing prose after the plan object; entries seen so far stand
+            LOGGER.debug("Stopped incremental plan parsing after {} entries: {}", emitted, ex.getMessage());
+            failed = true;
+        }
+    }
+
+    /** Entries handed over so far. */
+    public int emitted() {
+        return emitted;
+    }
+
+    private void handle(JsonToken token) throws IOException {
+        if (entry != null) {
+            entry.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd() && --depth == stepsDepth) {
+                emit();
+            }
+            return;
+        }
+        boolean stepsField = false;
+        if (token.isStructStart()) {
+            depth++;
+            if (token == JsonToken.START_ARRAY && stepsFieldPending) {
+                stepsDepth = depth;
+            } else if (token == JsonToken.START_OBJECT && depth == stepsDepth + 1) {
+                entry = new TokenBuffer(parser);
+                entry.copyCurrentEvent(parser);
+            }
+        } else if (token.isStructEnd()) {
+            if (depth == stepsDepth) {
+                stepsDepth = -1;
+            }
+            depth--;
+        } else if (token == JsonToken.FIELD_NAME) {
+            stepsField = depth == 1 && STEPS_FIELD.equals(parser.currentName());
+        }
+        stepsFieldPending = stepsField;
+    }
+
+    private void emit() throws IOException {
+        TokenBuffer completed = entry;
+        entry = null;
+        Map<String, Object> fields;
+        try (JsonParser replay = completed.asParser(mapper)) {
+            fields = mapper.readValue(replay, ENTRY_TYPE);
+        }
+        onEntry.accept(emitted++, fields);
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.features.analysis_processes.application.services;
+
+/**
+ * Turns a line of artifact text into a fixed-size vector for similarity search. Vectors are
+ * L2-normalised, so their dot product is the cosine similarity.
+ */
+public interface TextEmbedder {
+
+    /** Identifies the model and its settings; an index built by another embedder is rebuilt. */
+    String id();
+
+    int dimensions();
+
+    float[] embed(String text);
+}
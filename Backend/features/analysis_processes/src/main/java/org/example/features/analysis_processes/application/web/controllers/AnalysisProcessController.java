@@ -1,5 +1,6 @@
 package org.example.features.analysis_processes.application.web.controllers;
 
+import org.example.features.analysis_processes.application.services.ArtifactEmbeddingIndex;
 import org.example.features.analysis_processes.domain.entities.AnalysisProcess;
 import org.example.features.analysis_processes.domain.services.AnalysisProcessService;
 import org.example.features.bpmn.application.dto.BpmnAnalysisResponse;
@@ -50,6 +51,7 @@ public class AnalysisProcessController {
     private final Path bpmnStoragePath;
     private final Path openapiStoragePath;
     private final OpenApiAnalysisService openApiAnalysisService;
+    private final ArtifactEmbeddingIndex artifactIndex;
     private final long maxUploadSizeBytes;
 
     public AnalysisProcessController(
@@ -57,6 +59,7 @@ public class AnalysisProcessController {
         ProcessParser processParser,
         AnalyzeBpmnProcessUseCase analyzeBpmnProcessUseCase,
         OpenApiAnalysisService openApiAnalysisService,
+        ArtifactEmbeddingIndex artifactIndex,
         @Value("${analysis.processes.bpmn-storage-path:data/analysis_processes/bpmn}") String bpmnStoragePath,
         @Value("${analysis.processes.openapi-storage-path:data/analysis_processes/openapi}") String openapiStoragePath,
         @Value("${analysis.processes.max-upload-size-bytes:5242880}") long maxUploadSizeBytes
@@ -67,6 +70,7 @@ public class AnalysisProcessController {
         this.bpmnStoragePath = Paths.get(bpmnStoragePath).toAbsolutePath().normalize();
         this.openapiStoragePath = Paths.get(openapiStoragePath).toAbsolutePath().normalize();
         this.openApiAnalysisService = openApiAnalysisService;
+        this.artifactIndex = artifactIndex;
         this.maxUploadSizeBytes = maxUploadSizeBytes;
         try {
             Files.createDirectories(this.bpmnStoragePath);
@@ -148,6 +152,7 @@ public class AnalysisProcessController {
         Path storedPath = bpmnStoragePath.resolve(id + ".bpmn");
         Files.createDirectories(storedPath.getParent());
         Files.writeString(storedPath, content);
+        artifactIndex.refreshAsync();
 
         AnalysisProcess updatedProcess = process.toBuilder()
             .bpmnDiagramPath(storedPath.toString())
@@ -226,6 +231,7 @@ public class AnalysisProcessController {
         }
 
         Path storedPath = storeOpenApiFile(id, file.getOriginalFilename(), content, process.getOpenapiSpecPath());
+        artifactIndex.refreshAsync();
 
         AnalysisProcess updatedProcess = process.toBuilder()
             .openapiSpecPath(storedPath.toString())
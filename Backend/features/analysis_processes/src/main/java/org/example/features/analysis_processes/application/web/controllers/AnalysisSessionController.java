@@ -1,14 +1,17 @@
 package org.example.features.analysis_processes.application.web.controllers;
 
 import org.example.features.analysis_processes.application.dto.AnalysisSessionResponse;
+import org.example.features.analysis_processes.application.dto.FuzzCampaignRequest;
 import org.example.features.analysis_processes.application.services.AnalysisInputAdvisor;
 import org.example.features.analysis_processes.application.services.AnalysisSessionOrchestrator;
+import org.example.features.analysis_processes.application.services.PlanningProgressTracker;
 import org.example.features.analysis_processes.domain.entities.AnalysisProcess;
 import org.example.features.analysis_processes.domain.entities.AnalysisSession;
 import org.example.features.analysis_processes.domain.services.AnalysisProcessService;
 import org.example.features.analysis_processes.domain.services.AnalysisSessionService;
-import org.example.features.analysis_processes.domain.valueobjects.InputRequirement;
 import org.example.shared.common.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,9 +19,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.io.IOException;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api")
@@ -28,33 +36,37 @@ public class AnalysisSessionController {
     private final AnalysisSessionService sessionService;
     private final AnalysisSessionOrchestrator orchestrator;
     private final AnalysisInputAdvisor inputAdvisor;
+    private final PlanningProgressTracker progressTracker;
 
     public AnalysisSessionController(
         AnalysisProcessService processService,
         AnalysisSessionService sessionService,
         AnalysisSessionOrchestrator orchestrator,
-        AnalysisInputAdvisor inputAdvisor
+        AnalysisInputAdvisor inputAdvisor,
+        PlanningProgressTracker progressTracker
     ) {
         this.processService = processService;
         this.sessionService = sessionService;
         this.orchestrator = orchestrator;
         this.inputAdvisor = inputAdvisor;
+        this.progressTracker = progressTracker;
     }
 
     @PostMapping("/analysis-processes/{processId}/analysis-sessions")
-    public ResponseEntity<ApiResponse<AnalysisSessionResponse>> startSession(
+    public CompletableFuture<ResponseEntity<ApiResponse<AnalysisSessionResponse>>> startSession(
         @PathVariable("processId") String processId
     ) {
         AnalysisProcess process = processService.getProcessById(processId)
             .orElseThrow(() -> new IllegalArgumentException("Process not found"));
         if (process.getBpmnDiagramPath() == null || process.getOpenapiSpecPath() == null) {
-            return ResponseEntity.badRequest()
-                .body(ApiResponse.error("Для запуска анализа необходимо загрузить BPMN и OpenAPI артефакты"));
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                .body(ApiResponse.error("Для запуска анализа необходимо загрузить BPMN и OpenAPI артефакты")));
         }
 
-        List<InputRequirement> requirements = inputAdvisor.determineInputs(process);
-        AnalysisSession session = sessionService.startSession(processId, requirements);
-        return ResponseEntity.ok(ApiResponse.success(AnalysisSessionResponse.from(session)));
+        return inputAdvisor.determineInputs(process).thenApply(requirements -> {
+            AnalysisSession session = sessionService.startSession(processId, requirements);
+            return ResponseEntity.ok(ApiResponse.success(AnalysisSessionResponse.from(session)));
+        });
     }
 
     @PostMapping("/analysis-sessions/{sessionId}/inputs")
@@ -68,19 +80,65 @@ public class AnalysisSessionController {
     }
 
     @PostMapping("/analysis-sessions/{sessionId}/llm")
-    public ResponseEntity<ApiResponse<AnalysisSessionResponse>> generatePlan(
+    public CompletableFuture<ResponseEntity<ApiResponse<AnalysisSessionResponse>>> generatePlan(
         @PathVariable("sessionId") String sessionId
     ) {
         // Add diagnostic logging
         System.out.println("DEBUG: Received request to /analysis-sessions/" + sessionId + "/llm");
         System.out.println("DEBUG: Request method: POST (confirmed by @PostMapping annotation)");
-        try {
-            return orchestrator.generatePlan(sessionId)
+        return orchestrator.generatePlan(sessionId)
+            .thenApply(result -> result
                 .map(session -> ResponseEntity.ok(ApiResponse.success(AnalysisSessionResponse.from(session))))
-                .orElseGet(() -> ResponseEntity.notFound().build());
-        } catch (IllegalStateException ex) {
-            return ResponseEntity.badRequest().body(ApiResponse.error(ex.getMessage()));
-        }
+                .orElseGet(() -> ResponseEntity.notFound().build()))
+            .exceptionally(error -> {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof IllegalStateException) {
+                    return ResponseEntity.badRequest().body(ApiResponse.error(cause.getMessage()));
+                }
+                throw error instanceof CompletionException completion ? completion : new CompletionException(cause);
+            });
+    }
+
+    @GetMapping("/analysis-sessions/{sessionId}/llm/progress")
+    public ResponseEntity<ApiResponse<PlanningProgressTracker.PlanningProgress>> getPlanProgress(
+        @PathVariable("sessionId") String sessionId
+    ) {
+        return progressTracker.get(sessionId)
+            .map(progress -> ResponseEntity.ok(ApiResponse.success(progress)))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Server-sent progress events for a plan generation; the stream ends once the plan is
+     * complete or has failed.
+     */
+    @GetMapping(value = "/analysis-sessions/{sessionId}/llm/progress/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPlanProgress(@PathVariable("sessionId") String sessionId) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Runnable unsubscribe = progressTracker.subscribe(sessionId, progress -> {
+            try {
+                emitter.send(SseEmitter.event().name(progress.state().name().toLowerCase()).data(progress));
+            } catch (IOException ex) {
+                throw new IllegalStateException("Progress subscriber disconnected", ex);
+            }
+            if (progress.finished()) {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        progressTracker.get(sessionId).ifPresent(progress -> {
+            try {
+                emitter.send(SseEmitter.event().name(progress.state().name().toLowerCase()).data(progress));
+                if (progress.finished()) {
+                    emitter.complete();
+                }
+            } catch (IOException ex) {
+                emitter.completeWithError(ex);
+            }
+        });
+        return emitter;
     }
 
     @PostMapping("/analysis-sessions/{sessionId}/tests")
@@ -113,6 +171,36 @@ public class AnalysisSessionController {
             .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * The async request timeout or a disconnected client cancels the campaign, so it does not
+     * keep sending for a caller that is gone. Invalid campaign options are a 400.
+     */
+    @PostMapping("/analysis-sessions/{sessionId}/steps/{stepId}/fuzz")
+    public DeferredResult<ResponseEntity<ApiResponse<AnalysisSessionResponse>>> fuzzHttpStep(
+        @PathVariable("sessionId") String sessionId,
+        @PathVariable("stepId") String stepId,
+        @RequestBody(required = false) FuzzCampaignRequest payload
+    ) {
+        DeferredResult<ResponseEntity<ApiResponse<AnalysisSessionResponse>>> response = new DeferredResult<>();
+        CompletableFuture<Optional<AnalysisSession>> campaign = orchestrator.fuzzHttpStep(sessionId, stepId, payload);
+        response.onTimeout(() -> campaign.cancel(true));
+        response.onError(error -> campaign.cancel(true));
+        campaign.whenComplete((result, error) -> {
+            if (error == null) {
+                response.setResult(result
+                    .map(session -> ResponseEntity.ok(ApiResponse.success(AnalysisSessionResponse.from(session))))
+                    .orElseGet(() -> ResponseEntity.notFound().build()));
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            response.setResult(cause instanceof IllegalArgumentException
+                ? ResponseEntity.badRequest().body(ApiResponse.error(cause.getMessage()))
+                : ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Fuzz campaign failed: " + cause.getMessage())));
+        });
+        return response;
+    }
+
     @GetMapping("/analysis-sessions/{sessionId}")
     public ResponseEntity<ApiResponse<AnalysisSessionResponse>> getSession(@PathVariable String sessionId) {
         return sessionService.getSession(sessionId)
@@ -0,0 +1,132 @@
+package org.example.features.analysis_processes.application.web.controllers;
+
+import org.example.features.analysis_processes.application.services.AnalysisSessionOrchestrator;
+import org.example.features.analysis_processes.application.services.HarImporter;
+import org.example.features.analysis_processes.application.services.HarReplayEngine;
+import org.example.features.analysis_processes.application.services.HarReplayPlan;
+import org.example.features.analysis_processes.application.services.HarWriter;
+import org.example.features.analysis_processes.domain.entities.AnalysisSession;
+import org.example.features.analysis_processes.domain.services.AnalysisSessionService;
+import org.example.shared.common.ApiResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * HAR export of executed HTTP steps, HAR import into a replay plan and replay.
+ */
+@RestController
+@RequestMapping("/api")
+public class HarController {
+
+    private final AnalysisSessionService sessionService;
+    private final AnalysisSessionOrchestrator orchestrator;
+    private final HarWriter harWriter;
+    private final HarImporter harImporter;
+    private final HarReplayEngine replayEngine;
+
+    public HarController(
+        AnalysisSessionService sessionService,
+        AnalysisSessionOrchestrator orchestrator,
+        HarWriter harWriter,
+        HarImporter harImporter,
+        HarReplayEngine replayEngine
+    ) {
+        this.sessionService = sessionService;
+        this.orchestrator = orchestrator;
+        this.harWriter = harWriter;
+        this.harImporter = harImporter;
+        this.replayEngine = replayEngine;
+    }
+
+    @GetMapping("/analysis-sessions/{sessionId}/har")
+    public ResponseEntity<StreamingResponseBody> exportHar(@PathVariable("sessionId") String sessionId) {
+        AnalysisSession session = sessionService.getSession(sessionId).orElse(null);
+        List<Map<String, Object>> results = orchestrator.getHttpResults(sessionId).orElse(null);
+        if (session == null || results == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Instant fallbackStart = session.getCreatedAt() == null
+            ? Instant.now()
+            : session.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant();
+        StreamingResponseBody body = output -> harWriter.write(results, fallbackStart, output);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"session-" + sessionId + ".har\"")
+            .body(body);
+    }
+
+    @PostMapping(value = "/har/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<HarReplayPlan>> importHar(@RequestParam("file") MultipartFile file) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(readPlan(file)));
+        } catch (IllegalArgumentException | IOException ex) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Invalid HAR file: " + ex.getMessage()));
+        }
+    }
+
+    @PostMapping(value = "/har/replay", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public CompletableFuture<ResponseEntity<ApiResponse<HarReplayEngine.Report>>> replayHar(
+        @RequestParam("file") MultipartFile file,
+        @RequestParam(name = "mode", required = false) String mode,
+        @RequestParam(name = "baseUrl", required = false) String baseUrl,
+        @RequestParam(name = "maxInFlight", required = false) Integer maxInFlight,
+        @RequestParam(name = "speed", required = false) Double speed,
+        @RequestParam(name = "header", required = false) List<String> headers
+    ) {
+        HarReplayPlan plan;
+        HarReplayEngine.Options options;
+        try {
+            plan = readPlan(file);
+            options = new HarReplayEngine.Options(
+                HarReplayEngine.Mode.fromJson(mode), baseUrl, maxInFlight, speed, parseHeaders(headers));
+        } catch (IllegalArgumentException | IOException ex) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(ApiResponse.error("Invalid HAR replay request: " + ex.getMessage())));
+        }
+        return replayEngine.replay(plan, options)
+            .thenApply(report -> ResponseEntity.ok(ApiResponse.success(report)));
+    }
+
+    /** Repeated {@code header} parameters in {@code Name: value} form, as curl's {@code -H}. */
+    private Map<String, String> parseHeaders(List<String> headers) {
+        Map<String, String> parsed = new LinkedHashMap<>();
+        if (headers == null) {
+            return parsed;
+        }
+        for (String header : headers) {
+            int colon = header.indexOf(':');
+            if (colon <= 0 || header.substring(0, colon).isBlank()) {
+                throw new IllegalArgumentException("header must be 'Name: value', got '" + header + "'");
+            }
+            parsed.put(header.substring(0, colon).trim(), header.substring(colon + 1).trim());
+        }
+        return parsed;
+    }
+
+    private HarReplayPlan readPlan(MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("uploaded file is empty");
+        }
+        try (InputStream input = file.getInputStream()) {
+            return harImporter.importHar(input);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.example.features.analysis_processes.domain.entities.AnalysisSession;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface AnalysisSessionRepository {
 
@@ -14,4 +15,10 @@ public interface AnalysisSessionRepository {
     Optional<AnalysisSession> findById(String sessionId);
 
     AnalysisSession save(AnalysisSession session);
+
+    /**
+     * Applies {@code mutation} to the stored session and saves it as one step, so changes made
+     * off the request thread cannot interleave with another save of the same session.
+     */
+    Optional<AnalysisSession> update(String sessionId, Consumer<AnalysisSession> mutation);
 }
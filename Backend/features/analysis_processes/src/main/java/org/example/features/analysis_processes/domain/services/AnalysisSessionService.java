@@ -14,6 +14,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 public class AnalysisSessionService {
@@ -75,6 +76,10 @@ public class AnalysisSessionService {
         return repository.save(session);
     }
 
+    public Optional<AnalysisSession> updateSession(String sessionId, Consumer<AnalysisSession> mutation) {
+        return repository.update(sessionId, mutation);
+    }
+
     public Optional<AnalysisSession> getLatestForProcess(String processId) {
         return repository.findByProcessId(processId).stream()
             .max(java.util.Comparator.comparing(AnalysisSession::getUpdatedAt));
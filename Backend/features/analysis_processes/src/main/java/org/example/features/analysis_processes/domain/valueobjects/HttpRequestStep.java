@@ -30,6 +30,9 @@ public class HttpRequestStep {
     @JsonProperty("description")
     private String description;
 
+    @JsonProperty("extract")
+    private Map<String, String> extract = Collections.emptyMap();
+
     public HttpRequestStep() {
         // Jackson
     }
@@ -98,4 +101,16 @@ public class HttpRequestStep {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    /**
+     * Variables to capture from the response, keyed by variable name. Values are
+     * JSONPath ({@code $.token}) or {@code regex:} expressions.
+     */
+    public Map<String, String> getExtract() {
+        return extract;
+    }
+
+    public void setExtract(Map<String, String> extract) {
+        this.extract = extract == null ? Collections.emptyMap() : extract;
+    }
 }
@@ -23,6 +23,7 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 @Repository
 public class FileAnalysisSessionRepository implements AnalysisSessionRepository {
@@ -109,6 +110,21 @@ public class FileAnalysisSessionRepository implements AnalysisSessionRepository
         }
     }
 
+    @Override
+    public Optional<AnalysisSession> update(String sessionId, Consumer<AnalysisSession> mutation) {
+        lock.writeLock().lock();
+        try {
+            AnalysisSession session = cache.get(sessionId);
+            if (session == null) {
+                return Optional.empty();
+            }
+            mutation.accept(session);
+            return Optional.of(save(session));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     private void loadFromDisk() throws IOException {
         lock.writeLock().lock();
         try {
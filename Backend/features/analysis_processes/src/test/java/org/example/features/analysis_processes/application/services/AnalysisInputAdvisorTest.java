@@ -0,0 +1,149 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.example.features.analysis_processes.domain.entities.AnalysisProcess;
+import org.example.features.analysis_processes.domain.valueobjects.InputRequirement;
+import org.example.features.llm.domain.dto.ChatCompletionRequest;
+import org.example.features.llm.domain.dto.ChatCompletionResponse;
+import org.example.features.llm.domain.services.LLMService;
+import org.example.features.llm.infrastructure.services.BatchingLlmService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisInputAdvisorTest {
+
+    @Test
+    void asksAboutEveryOperationInOnePackedCall(@TempDir Path tempDir) throws Exception {
+        Path spec = tempDir.resolve("spec.yml");
+        Files.writeString(spec, """
+            openapi: 3.0.0
+            info:
+              title: Orders
+              version: 1.0.0
+            components:
+              securitySchemes:
+                partnerKey:
+                  type: apiKey
+                  in: header
+                  name: X-Partner-Key
+            paths:
+              /orders:
+                get:
+                  summary: List orders
+                post:
+                  summary: Create order
+              /orders/{id}:
+                get:
+                  summary: Get order
+            """);
+        AnalysisProcess process = AnalysisProcess.builder()
+            .id("process-1")
+            .name("Orders")
+            .createdAt(LocalDateTime.now())
+            .openapiSpecPath(spec.toString())
+            .build();
+        PackedAnswerLlmService backend = new PackedAnswerLlmService();
+        AnalysisInputAdvisor advisor = new AnalysisInputAdvisor(
+            new StaticProvider(new BatchingLlmService(backend, 8, 6000)), new PromptContextPacker());
+
+        List<InputRequirement> inputs = advisor.determineInputs(process).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, backend.requests.size(), "Three operations share one provider call");
+        String questions = backend.requests.get(0).getMessages().getLast().getContent();
+        assertTrue(questions.contains("GET /orders/{id}"));
+        assertTrue(backend.requests.get(0).getMessages().getFirst().getContent().contains("X-Partner-Key"));
+        List<String> names = inputs.stream().map(InputRequirement::getName).toList();
+        assertTrue(names.containsAll(List.of("base_url", "X-Partner-Key", "order_id")), names.toString());
+    }
+
+    /** Answers every packed question; only the operation with a path parameter needs an extra input. */
+    private static final class PackedAnswerLlmService implements LLMService {
+
+        private final List<ChatCompletionRequest> requests = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<ChatCompletionResponse> chatCompletion(ChatCompletionRequest request) {
+            requests.add(request);
+            String[] questions = request.getMessages().getLast().getContent().split("### Question ");
+            StringBuilder answers = new StringBuilder("{\"answers\": [");
+            for (int index = 1; index < questions.length; index++) {
+                String id = questions[index].substring(0, questions[index].indexOf('\n'));
+                String content = questions[index].contains("{id}")
+                    ? "[{\"name\": \"order_id\", \"label\": \"Order id\", \"description\": \"Existing order\", \"required\": true}]"
+                    : "[]";
+                answers.append(index > 1 ? "," : "").append("{\"id\": \"").append(id).append("\", \"content\": ").append(content).append('}');
+            }
+            answers.append("]}");
+            ChatCompletionResponse response = new ChatCompletionResponse();
+            response.setChoices(List.of(new ChatCompletionResponse.Choice(0,
+                new ChatCompletionResponse.Message("assistant", answers.toString()), "stop")));
+            return CompletableFuture.completedFuture(response);
+        }
+
+        @Override
+        public String getProviderName() {
+            return "stub";
+        }
+
+        @Override
+        public String getStatus() {
+            return "ready";
+        }
+
+        @Override
+        public String[] getSupportedModels() {
+            return new String[] {"stub"};
+        }
+    }
+
+    private record StaticProvider(LLMService value) implements ObjectProvider<LLMService> {
+        @Override
+        public LLMService getObject(Object... args) {
+            return value;
+        }
+
+        @Override
+        public LLMService getObject() {
+            return value;
+        }
+
+        @Override
+        public LLMService getIfAvailable() {
+            return value;
+        }
+
+        @Override
+        public LLMService getIfUnique() {
+            return value;
+        }
+
+        @Override
+        public void forEach(Consumer<? super LLMService> action) {
+            if (value != null) {
+                action.accept(value);
+            }
+        }
+
+        @Override
+        public Stream<LLMService> stream() {
+            return value == null ? Stream.empty() : Stream.of(value);
+        }
+    }
+}
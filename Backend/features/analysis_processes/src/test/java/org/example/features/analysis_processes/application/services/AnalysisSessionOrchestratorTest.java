@@ -2,6 +2,7 @@ package org.example.features.analysis_processes.application.services;
 
 import org.example.features.analysis_processes.domain.entities.AnalysisProcess;
 import org.example.features.analysis_processes.domain.entities.AnalysisSession;
+import org.example.features.analysis_processes.domain.entities.AnalysisStep;
 import org.example.features.analysis_processes.domain.repositories.AnalysisProcessRepository;
 import org.example.features.analysis_processes.domain.repositories.AnalysisSessionRepository;
 import org.example.features.analysis_processes.application.services.HttpRequestExecutor;
@@ -9,6 +10,8 @@ import org.example.features.analysis_processes.application.services.HttpRequestE
 import org.example.features.analysis_processes.domain.services.AnalysisProcessService;
 import org.example.features.analysis_processes.domain.services.AnalysisSessionService;
 import org.example.features.analysis_processes.domain.valueobjects.AnalysisSessionStatus;
+import org.example.features.analysis_processes.domain.valueobjects.AnalysisStepStatus;
+import org.example.features.analysis_processes.domain.valueobjects.AnalysisStepType;
 import org.example.features.analysis_processes.domain.valueobjects.HttpRequestStep;
 import org.example.features.analysis_processes.domain.valueobjects.InputRequirement;
 import org.example.features.llm.domain.dto.ChatCompletionResponse;
@@ -29,6 +32,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -51,11 +55,15 @@ class AnalysisSessionOrchestratorTest {
             }
             """);
         ProcessAnalysisPlanner planner = new ProcessAnalysisPlanner(new StaticProvider(llmService), false);
+        HttpRequestExecutor executor = new StubHttpRequestExecutor();
         AnalysisSessionOrchestrator orchestrator = new AnalysisSessionOrchestrator(
             sessionService,
             processService,
             planner,
-            new StubHttpRequestExecutor()
+            executor,
+            new RequestTemplateEngine(),
+            new FuzzCampaignRunner(executor, 16, 256),
+            new PlanningProgressTracker()
         );
 
         List<InputRequirement> requirements = List.of(
@@ -66,7 +74,7 @@ class AnalysisSessionOrchestratorTest {
         String sessionId = session.getId();
 
         orchestrator.provideInputs(sessionId, Map.of("baseUrl", "https://sandbox", "authToken", "demo"));
-        AnalysisSession updated = orchestrator.generatePlan(sessionId).orElseThrow();
+        AnalysisSession updated = orchestrator.generatePlan(sessionId).join().orElseThrow();
 
         assertEquals(AnalysisSessionStatus.WAITING_FOR_TEST, updated.getStatus());
         assertTrue(updated.getContext().containsKey("llmPlan"));
@@ -75,6 +83,48 @@ class AnalysisSessionOrchestratorTest {
         assertTrue(updated.getContext().containsKey("httpRequests"));
     }
 
+    @Test
+    void earlyResultArrivingAfterThePlanCompletesTheStepWithoutASecondRequest(@TempDir Path tempDir) throws IOException {
+        RecordingHttpRequestExecutor executor = new RecordingHttpRequestExecutor();
+        executor.pending = new CompletableFuture<>();
+        EarlyDispatchFixture fixture = new EarlyDispatchFixture(tempDir, executor);
+
+        AnalysisSession planned = fixture.plan();
+        assertEquals(1, executor.sent.size(), "The GET step is sent while the plan streams");
+        assertTrue(fixture.httpResults(planned).isEmpty(), "The response has not arrived yet");
+
+        executor.pending.complete(Map.of("status", 200, "body", "early"));
+        Map<String, Object> stored = fixture.httpResults(planned).get(0);
+        assertEquals(true, stored.get("dispatchedEarly"));
+
+        AnalysisSession executed = fixture.orchestrator.executeHttpRequests(planned.getId()).orElseThrow();
+        assertEquals(AnalysisStepStatus.COMPLETED, fixture.healthStep(executed).getStatus());
+        assertEquals(1, executor.sent.size(), "The early response is adopted");
+    }
+
+    @Test
+    void earlyResultIsDroppedWhenTheStepIsExecutedWithDifferentInputs(@TempDir Path tempDir) throws IOException {
+        RecordingHttpRequestExecutor executor = new RecordingHttpRequestExecutor();
+        executor.pending = CompletableFuture.completedFuture(Map.of("status", 200, "body", "early"));
+        EarlyDispatchFixture fixture = new EarlyDispatchFixture(tempDir, executor);
+
+        AnalysisSession planned = fixture.plan();
+        assertEquals(1, executor.sent.size());
+        assertEquals(1, fixture.httpResults(planned).size());
+
+        String stepId = fixture.healthStep(planned).getId();
+        AnalysisSession executed = fixture.orchestrator
+            .executeHttpStep(planned.getId(), stepId, Map.of("verbose", "true"))
+            .orElseThrow();
+
+        assertEquals(2, executor.sent.size(), "The step is sent again with the new inputs");
+        assertTrue(executor.sent.get(1).getUrl().contains("verbose=true"));
+        List<Map<String, Object>> results = fixture.httpResults(executed);
+        assertEquals(1, results.size());
+        assertNull(results.get(0).get("dispatchedEarly"));
+        assertEquals("sent", results.get(0).get("body"));
+    }
+
     private AnalysisProcess sampleProcess(Path tempDir) throws IOException {
         Path bpmn = Files.createTempFile(tempDir, "process", ".bpmn");
         Files.writeString(bpmn, "<xml>demo</xml>");
@@ -98,6 +148,52 @@ class AnalysisSessionOrchestratorTest {
             .build();
     }
 
+    private final class EarlyDispatchFixture {
+        private final AnalysisSessionService sessionService =
+            new AnalysisSessionService(new InMemoryAnalysisSessionRepository());
+        private final AnalysisSessionOrchestrator orchestrator;
+        private final String processId;
+
+        private EarlyDispatchFixture(Path tempDir, HttpRequestExecutor executor) throws IOException {
+            InMemoryAnalysisProcessRepository processRepository = new InMemoryAnalysisProcessRepository();
+            processId = processRepository.save(sampleProcess(tempDir)).getId();
+            LLMService llmService = new StubLlmService("""
+                {
+                  "plan": "1. Execute /health",
+                  "summary": "Generated by tests",
+                  "httpRequests": [{"name": "Health", "method": "GET", "url": "{{baseUrl}}/health"}]
+                }
+                """);
+            orchestrator = new AnalysisSessionOrchestrator(
+                sessionService,
+                new AnalysisProcessService(processRepository),
+                new ProcessAnalysisPlanner(new StaticProvider(llmService), false),
+                executor,
+                new RequestTemplateEngine(),
+                new FuzzCampaignRunner(executor, 16, 256),
+                new PlanningProgressTracker(),
+                true
+            );
+        }
+
+        private AnalysisSession plan() {
+            String sessionId = sessionService.startSession(processId, List.of()).getId();
+            orchestrator.provideInputs(sessionId, Map.of("baseUrl", "https://sandbox"));
+            return orchestrator.generatePlan(sessionId).join().orElseThrow();
+        }
+
+        private AnalysisStep healthStep(AnalysisSession session) {
+            return session.getSteps().stream()
+                .filter(step -> step.getType() == AnalysisStepType.HTTP_REQUEST)
+                .findFirst()
+                .orElseThrow();
+        }
+
+        private List<Map<String, Object>> httpResults(AnalysisSession session) {
+            return orchestrator.getHttpResults(session.getId()).orElseThrow();
+        }
+    }
+
     private static final class InMemoryAnalysisProcessRepository implements AnalysisProcessRepository {
 
         private final Map<String, AnalysisProcess> storage = new LinkedHashMap<>();
@@ -163,6 +259,14 @@ class AnalysisSessionOrchestratorTest {
             storage.put(session.getId(), session);
             return session;
         }
+
+        @Override
+        public synchronized Optional<AnalysisSession> update(String sessionId, Consumer<AnalysisSession> mutation) {
+            return findById(sessionId).map(session -> {
+                mutation.accept(session);
+                return save(session);
+            });
+        }
     }
 
     private record StaticProvider(LLMService value) implements ObjectProvider<LLMService> {
@@ -242,4 +346,21 @@ class AnalysisSessionOrchestratorTest {
             return List.of();
         }
     }
+
+    private static final class RecordingHttpRequestExecutor implements HttpRequestExecutor {
+        private final List<HttpRequestStep> sent = new CopyOnWriteArrayList<>();
+        private CompletableFuture<Map<String, Object>> pending;
+
+        @Override
+        public List<Map<String, Object>> execute(List<HttpRequestStep> steps, String baseUrl) {
+            sent.addAll(steps);
+            return List.of(Map.of("status", 200, "body", "sent"));
+        }
+
+        @Override
+        public CompletableFuture<Map<String, Object>> executeAsync(HttpRequestStep step, String baseUrl) {
+            sent.add(step);
+            return pending;
+        }
+    }
 }
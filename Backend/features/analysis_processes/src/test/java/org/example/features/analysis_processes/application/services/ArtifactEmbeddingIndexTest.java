@@ -0,0 +1,138 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.example.features.llm.domain.services.TokenEstimator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArtifactEmbeddingIndexTest {
+
+    private static final String BPMN = """
+        <bpmn:definitions xmlns:bpmn="http://www.omg.org/spec/BPMN/20100524/MODEL" id="d">
+          <bpmn:process id="p">
+            <bpmn:task id="login" name="Log in with phone number"/>
+            <bpmn:task id="block" name="Block the lost card"/>
+            <bpmn:task id="notify" name="Send push notification"/>
+          </bpmn:process>
+        </bpmn:definitions>
+        """;
+
+    private static final String SPEC = """
+        {"openapi": "3.0.0", "paths": {
+          "/cards/{cardId}/block": {"post": {"operationId": "blockCard", "summary": "Block a card"}},
+          "/cards/{cardId}/pin": {"put": {"summary": "Change card PIN"}},
+          "/products": {"get": {"summary": "List bank products"}},
+          "/leads": {"post": {"summary": "Create a sales lead"}},
+          "/providers/search": {"get": {"summary": "Search utility providers"}}
+        }}
+        """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void retrievesTheClosestLinesFromAPersistedIndexAndRebuildsWhenArtifactsChange() throws Exception {
+        Path bpmnDir = Files.createDirectories(tempDir.resolve("bpmn"));
+        Path specDir = Files.createDirectories(tempDir.resolve("openapi"));
+        Path uploads = Files.createDirectories(tempDir.resolve("uploads"));
+        Path bpmn = Files.writeString(bpmnDir.resolve("block.bpmn"), BPMN);
+        Path spec = Files.writeString(specDir.resolve("cards.json"), SPEC);
+        Path indexFile = tempDir.resolve("index/artifacts.vec");
+        ArtifactEmbeddingIndex index = index(bpmnDir, specDir, uploads, indexFile);
+        assertTrue(index.search("block my card", null, ArtifactEmbeddingIndex.OPERATION, 2).isEmpty(),
+            "Nothing is searchable before the first refresh");
+        index.refresh();
+
+        List<FlatVectorIndex.Hit> operations = index.search("block my card", List.of(spec.toString()), ArtifactEmbeddingIndex.OPERATION, 2);
+        assertEquals(2, operations.size());
+        assertTrue(operations.get(0).entry().text().startsWith("- POST /cards/{cardId}/block"), operations.toString());
+        assertTrue(operations.get(0).score() > operations.get(1).score());
+        List<FlatVectorIndex.Hit> tasks = index.search("card blocking", null, ArtifactEmbeddingIndex.BPMN, 1);
+        assertEquals("- task \"Block the lost card\" [block]", tasks.get(0).entry().text());
+        assertEquals(bpmn.toAbsolutePath().normalize().toString(), tasks.get(0).entry().source());
+        assertTrue(index.search("card", List.of(tempDir.resolve("other.json").toString()), ArtifactEmbeddingIndex.OPERATION, 3).isEmpty());
+
+        FileTime written = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(indexFile, written);
+        ArtifactEmbeddingIndex restarted = index(bpmnDir, specDir, uploads, indexFile);
+        assertEquals(8, restarted.refresh().size(), "3 tasks and 5 operations");
+        assertEquals(written, Files.getLastModifiedTime(indexFile), "An up-to-date index is mapped, not rebuilt");
+        assertEquals(operations, restarted.search("block my card", List.of(spec.toString()), ArtifactEmbeddingIndex.OPERATION, 2));
+
+        Files.writeString(uploads.resolve("p1.json"), """
+            {"openapi": "3.0.0", "paths": {"/bonuses/redeem": {"post": {"summary": "Pay with bonus points"}}}}
+            """);
+        restarted.refreshAsync();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (restarted.search("bonus payment", null, ArtifactEmbeddingIndex.OPERATION, 1).stream()
+            .noneMatch(hit -> hit.entry().text().contains("/bonuses/redeem")) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(restarted.search("bonus payment", null, ArtifactEmbeddingIndex.OPERATION, 1).get(0).entry().text()
+            .contains("/bonuses/redeem"), "A new upload is picked up by the background refresh");
+        assertEquals(9, restarted.refresh().size());
+        restarted.shutdown();
+    }
+
+    @Test
+    void retrievedLinesOnlyDecideWhatIsPackedWhenNotEverythingFits() {
+        PromptContextPacker packer = new PromptContextPacker();
+        Map<String, Object> document = cardsAndProducts();
+        TokenEstimator estimator = TokenEstimator.forModel("llama3", true, null);
+        List<String> lines = packer.operationLines(document);
+        Set<String> products = Set.of(lines.get(1));
+
+        PromptContextPacker.PackedContext roomy =
+            packer.pack(null, document, List.of(), List.of("Block card"), 1000, estimator, products);
+        assertTrue(roomy.openApi().contains("/cards/{cardId}/block"), "Within budget nothing is left out");
+        assertTrue(roomy.openApi().contains("/products"));
+
+        PromptContextPacker.PackedContext tight =
+            packer.pack(null, document, List.of(), List.of("Block card"), oneLine(lines, estimator), estimator, products);
+        assertTrue(tight.openApi().contains("/products"), "The retrieved operation beats the heuristic favourite");
+        assertFalse(tight.openApi().contains("/cards/{cardId}/block"));
+        assertTrue(tight.openApi().contains("(1 less relevant item(s) omitted)"));
+    }
+
+    @Test
+    void operationsTheBpmnNamesStayAheadOfRetrievedOnes() {
+        PromptContextPacker packer = new PromptContextPacker();
+        Map<String, Object> document = cardsAndProducts();
+        TokenEstimator estimator = TokenEstimator.forModel("llama3", true, null);
+        List<String> lines = packer.operationLines(document);
+        String bpmn = BPMN.replace("Block the lost card", "POST /cards/{cardId}/block");
+
+        PromptContextPacker.PackedContext packed = packer.pack(bpmn, document, List.of(), List.of(),
+            oneLine(lines, estimator), estimator, Set.of(lines.get(1)));
+
+        assertTrue(packed.openApi().contains("/cards/{cardId}/block"), packed.openApi());
+        assertFalse(packed.openApi().contains("/products"));
+    }
+
+    private static Map<String, Object> cardsAndProducts() {
+        Map<String, Object> paths = new LinkedHashMap<>();
+        paths.put("/cards/{cardId}/block", Map.of("post", Map.of("summary", "Block a card")));
+        paths.put("/products", Map.of("get", Map.of("summary", "List bank products")));
+        return Map.of("openapi", "3.0.0", "paths", paths);
+    }
+
+    /** A budget that fits either operation line, but not both. */
+    private static int oneLine(List<String> lines, TokenEstimator estimator) {
+        return lines.stream().mapToInt(line -> estimator.estimate(line) + 1).max().orElseThrow();
+    }
+
+    private static ArtifactEmbeddingIndex index(Path bpmnDir, Path specDir, Path uploads, Path indexFile) {
+        return new ArtifactEmbeddingIndex(new HashedNgramEmbedder(256), new PromptContextPacker(),
+            List.of(bpmnDir), List.of(specDir, uploads), indexFile);
+    }
+}
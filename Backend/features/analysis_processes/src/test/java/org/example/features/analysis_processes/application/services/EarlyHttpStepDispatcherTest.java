@@ -0,0 +1,75 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.example.features.analysis_processes.domain.valueobjects.HttpRequestStep;
+import org.example.features.analysis_processes.domain.valueobjects.InputRequirement;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EarlyHttpStepDispatcherTest {
+
+    private final List<HttpRequestStep> sent = new CopyOnWriteArrayList<>();
+    private final HttpRequestExecutor executor = new HttpRequestExecutor() {
+        @Override
+        public List<Map<String, Object>> execute(List<HttpRequestStep> steps, String baseUrl) {
+            return List.of();
+        }
+
+        @Override
+        public CompletableFuture<Map<String, Object>> executeAsync(HttpRequestStep step, String baseUrl) {
+            sent.add(step);
+            return CompletableFuture.completedFuture(Map.of("status", 200));
+        }
+    };
+
+    @Test
+    void onlySafeStepsThatResolveFromTheSessionInputsAreSent() {
+        EarlyHttpStepDispatcher dispatcher = dispatcher();
+
+        dispatcher.onHttpStep(0, step("GET", "{{baseUrl}}/health"), List.of());
+        dispatcher.onHttpStep(1, step("POST", "{{baseUrl}}/orders"), List.of());
+        dispatcher.onHttpStep(2, step("GET", "{{baseUrl}}/orders/{{orderId}}"), List.of());
+        dispatcher.onHttpStep(3, step("GET", "{{baseUrl}}/search"),
+            List.of(new InputRequirement("query", "Query", "Search term", true)));
+
+        assertEquals(1, dispatcher.dispatchedCount());
+        assertEquals("https://sandbox/health", sent.get(0).getUrl());
+    }
+
+    @Test
+    void aDispatchIsOnlyAdoptedForTheSameRequest() {
+        EarlyHttpStepDispatcher dispatcher = dispatcher();
+        dispatcher.onHttpStep(0, step("GET", "{{baseUrl}}/health"), List.of());
+
+        assertTrue(dispatcher.matching(0, step("GET", "https://sandbox/health")).isPresent());
+        assertTrue(dispatcher.matching(0, step("GET", "https://sandbox/health?verbose=true")).isEmpty());
+        assertTrue(dispatcher.matching(1, step("GET", "https://sandbox/health")).isEmpty());
+    }
+
+    @Test
+    void requestKeyChangesWithAnyPartOfTheRequest() {
+        HttpRequestStep request = new HttpRequestStep("Health", "GET", "https://sandbox/health",
+            Map.of("Accept", "application/json", "X-Trace", "1"), null, null);
+        HttpRequestStep reordered = new HttpRequestStep("Health", "get", "https://sandbox/health",
+            Map.of("X-Trace", "1", "Accept", "application/json"), null, null);
+        HttpRequestStep otherHeader = new HttpRequestStep("Health", "GET", "https://sandbox/health",
+            Map.of("Accept", "text/plain", "X-Trace", "1"), null, null);
+
+        assertEquals(EarlyHttpStepDispatcher.requestKey(request), EarlyHttpStepDispatcher.requestKey(reordered));
+        assertNotEquals(EarlyHttpStepDispatcher.requestKey(request), EarlyHttpStepDispatcher.requestKey(otherHeader));
+    }
+
+    private EarlyHttpStepDispatcher dispatcher() {
+        return new EarlyHttpStepDispatcher(new PlanningProgressListener() {}, new RequestTemplateEngine(), executor,
+            Map.of("baseUrl", "https://sandbox"), "https://sandbox");
+    }
+
+    private static HttpRequestStep step(String method, String url) {
+        return new HttpRequestStep("Step", method, url, Map.of(), null, null);
+    }
+}
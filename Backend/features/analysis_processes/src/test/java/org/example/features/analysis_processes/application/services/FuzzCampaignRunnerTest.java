@@ -0,0 +1,151 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.example.features.analysis_processes.domain.valueobjects.HttpRequestStep;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzCampaignRunnerTest {
+
+    private final RequestTemplateEngine engine = new RequestTemplateEngine();
+
+    @Test
+    void generatesVariantsForEveryInjectionPoint() {
+        HttpRequestStep step = new HttpRequestStep(
+            "Search",
+            "POST",
+            "/users/{{userId}}?q=test",
+            Map.of(),
+            "{\"name\": \"alice\", \"tags\": []}",
+            null
+        );
+        FuzzPayloadCorpus corpus = FuzzPayloadCorpus.of(List.of(FuzzPayloadCorpus.Category.CUSTOM), List.of("' OR 1=1--"));
+
+        FuzzVariantGenerator generator = new FuzzVariantGenerator(engine.compile(step), Map.of("userId", "7"), corpus, null, 0);
+
+        assertEquals(3, generator.totalVariants());
+        List<FuzzVariantGenerator.Variant> variants = List.of(generator.next(), generator.next(), generator.next());
+        assertFalse(generator.hasNext());
+        assertEquals("/users/%27%20OR%201%3D1--?q=test", variants.get(0).request().getUrl());
+        assertEquals("/users/7?q=%27+OR+1%3D1--", variants.get(1).request().getUrl());
+        assertEquals("{\"name\":\"' OR 1=1--\",\"tags\":[]}", variants.get(2).request().getBody());
+        assertEquals("{\"name\": \"alice\", \"tags\": []}", step.getBody(), "Source step must not be mutated");
+    }
+
+    @Test
+    void boundsInFlightRequestsAndAggregatesAnomalies() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        HttpRequestExecutor executor = new HttpRequestExecutor() {
+            @Override
+            public List<Map<String, Object>> execute(List<HttpRequestStep> steps, String baseUrl) {
+                return List.of();
+            }
+
+            @Override
+            public CompletableFuture<Map<String, Object>> executeAsync(HttpRequestStep step, String baseUrl) {
+                peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return CompletableFuture.supplyAsync(() -> {
+                    inFlight.decrementAndGet();
+                    boolean sqlError = step.getUrl().contains("%27");
+                    return Map.<String, Object>of(
+                        "status", sqlError ? 500 : 200,
+                        "body", sqlError ? "You have an error in your SQL syntax" : "ok",
+                        "durationMs", 5L
+                    );
+                });
+            }
+        };
+        HttpRequestStep step = new HttpRequestStep("Lookup", "GET", "/items?id=1", Map.of(), null, null);
+        FuzzVariantGenerator generator = new FuzzVariantGenerator(
+            engine.compile(step),
+            Map.of(),
+            FuzzPayloadCorpus.of(null, null),
+            null,
+            0
+        );
+        long planned = generator.totalVariants();
+
+        FuzzSummary summary = new FuzzCampaignRunner(executor, 4, 8)
+            .run("step-1", generator, "http://localhost", 4)
+            .get(30, TimeUnit.SECONDS);
+
+        assertEquals(planned, summary.executed());
+        assertTrue(peak.get() <= 4, "In-flight requests must be bounded");
+        assertTrue(summary.anomalies().get("SQL_ERROR_SIGNATURE") > 0);
+        assertTrue(summary.findings().size() <= 50);
+        Set<String> categories = new HashSet<>(summary.anomaliesByCategory().keySet());
+        assertTrue(categories.contains("sqli"));
+        assertEquals(5, summary.latency().p99Ms());
+    }
+
+    @Test
+    void clientRejectionsAreCountedApartFromTargetAnomalies() throws Exception {
+        HostThrottleRegistry throttle = new HostThrottleRegistry(8, 1, 64, 5, 30, 5, 120);
+        HttpRequestExecutor executor =
+            new HttpRequestExecutorImpl(new HttpTransportRegistry(throttle, 5, 1024, 3600, 0), throttle);
+        HttpRequestStep step = new HttpRequestStep("Lookup", "GET", "/items", Map.of("X-Trace", "{{trace}}"), null, null);
+        FuzzVariantGenerator generator = new FuzzVariantGenerator(
+            engine.compile(step),
+            Map.of("trace", "1"),
+            FuzzPayloadCorpus.of(List.of(FuzzPayloadCorpus.Category.CUSTOM), List.of("1\r\nX-Injected: yes")),
+            null,
+            0
+        );
+
+        FuzzSummary summary = new FuzzCampaignRunner(executor, 4, 8)
+            .run("step-1", generator, "http://127.0.0.1:9", 4)
+            .get(30, TimeUnit.SECONDS);
+
+        assertEquals(1, summary.clientRejected());
+        assertEquals(0, summary.executed());
+        assertTrue(summary.anomalies().isEmpty(), "A request the client refused says nothing about the target");
+        assertTrue(summary.statusClasses().isEmpty());
+        throttle.shutdown();
+    }
+
+    @Test
+    void cancellingTheCampaignStopsSending() throws Exception {
+        List<CompletableFuture<Map<String, Object>>> sent = new CopyOnWriteArrayList<>();
+        HttpRequestExecutor executor = new HttpRequestExecutor() {
+            @Override
+            public List<Map<String, Object>> execute(List<HttpRequestStep> steps, String baseUrl) {
+                return List.of();
+            }
+
+            @Override
+            public CompletableFuture<Map<String, Object>> executeAsync(HttpRequestStep step, String baseUrl) {
+                CompletableFuture<Map<String, Object>> response = new CompletableFuture<>();
+                sent.add(response);
+                return response;
+            }
+        };
+        HttpRequestStep step = new HttpRequestStep("Lookup", "GET", "/items?id=1", Map.of(), null, null);
+        FuzzVariantGenerator generator =
+            new FuzzVariantGenerator(engine.compile(step), Map.of(), FuzzPayloadCorpus.of(null, null), null, 0);
+        FuzzCampaignRunner runner = new FuzzCampaignRunner(executor, 2, 2);
+
+        CompletableFuture<FuzzSummary> campaign = runner.run("step-1", generator, "http://localhost", 2);
+        while (sent.size() < 2) {
+            Thread.sleep(5);
+        }
+        assertTrue(campaign.cancel(true));
+        // give the send loop the chance to exit before its permits come back
+        Thread.sleep(100);
+        sent.forEach(response -> response.complete(Map.of("status", 200, "body", "ok")));
+        Thread.sleep(100);
+
+        assertEquals(2, sent.size(), "No variant is sent once the campaign is cancelled");
+        assertTrue(generator.hasNext());
+        runner.shutdown();
+    }
+}
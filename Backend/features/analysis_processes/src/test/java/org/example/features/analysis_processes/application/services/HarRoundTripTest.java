@@ -0,0 +1,145 @@
+package org.example.features.analysis_processes.application.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.features.analysis_processes.domain.valueobjects.HttpRequestStep;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HarRoundTripTest {
+
+    @Test
+    void exportedHarImportsAsReplayPlanWithOriginalTiming() throws Exception {
+        List<Map<String, Object>> results = List.of(
+            Map.ofEntries(
+                Map.entry("stepId", "step-1"),
+                Map.entry("name", "Login"),
+                Map.entry("method", "POST"),
+                Map.entry("url", "/auth/login"),
+                Map.entry("resolvedUrl", "https://prod.example.test/auth/login?tenant=a%20b"),
+                Map.entry("status", 200),
+                Map.entry("durationMs", 120L),
+                Map.entry("body", "{\"token\":\"t\"}"),
+                Map.entry("startedAt", "2025-01-01T10:00:00Z"),
+                Map.entry("requestHeaders", Map.of("Content-Type", "application/json", "Host", "prod.example.test")),
+                Map.entry("requestBody", "{\"user\":\"alice\"}"),
+                Map.entry("responseHeaders", Map.of("content-type", List.of("application/json"))),
+                Map.entry("timings", Map.of("blocked", 1.5, "wait", 100.0, "receive", 18.5))
+            ),
+            Map.of(
+                "stepId", "step-2",
+                "name", "Orders",
+                "method", "GET",
+                "url", "https://prod.example.test/orders",
+                "status", 0,
+                "durationMs", 20L,
+                "body", "Connection refused",
+                "startedAt", "2025-01-01T10:00:02.500Z"
+            )
+        );
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        new HarWriter().write(results, Instant.EPOCH, output);
+
+        JsonNode har = new ObjectMapper().readTree(output.toByteArray());
+        assertEquals("1.2", har.path("log").path("version").asText());
+        JsonNode login = har.path("log").path("entries").get(0);
+        assertEquals("a b", login.path("request").path("queryString").get(0).path("value").asText());
+        assertEquals(100.0, login.path("timings").path("wait").asDouble());
+        assertEquals("Connection refused", har.path("log").path("entries").get(1).path("_error").asText());
+
+        HarReplayPlan plan = new HarImporter().importHar(new ByteArrayInputStream(output.toByteArray()));
+
+        assertEquals(2, plan.size());
+        assertEquals(2_500, plan.originalSpanMillis());
+        HarReplayPlan.Entry first = plan.entries().get(0);
+        assertEquals("POST", first.request().getMethod());
+        assertEquals("{\"user\":\"alice\"}", first.request().getBody());
+        assertFalse(first.request().getHeaders().containsKey("Host"), "Restricted headers are dropped");
+        assertEquals(200, first.originalStatus());
+        assertEquals(2_500, plan.entries().get(1).offsetMillis());
+    }
+
+    @Test
+    void credentialHeadersNeverReachTheHar() throws Exception {
+        Map<String, String> requestHeaders = HttpRequestExecutorImpl.redact(
+            Map.of("Authorization", "Bearer secret-token", "Accept", "application/json"), HttpRequestExecutorImpl.REDACTED);
+        Map<String, List<String>> responseHeaders = HttpRequestExecutorImpl.redact(
+            Map.of("Set-Cookie", List.of("session=secret-cookie")), List.of(HttpRequestExecutorImpl.REDACTED));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        new HarWriter().write(List.of(Map.of(
+            "method", "GET",
+            "resolvedUrl", "https://prod.example.test/me",
+            "status", 200,
+            "requestHeaders", requestHeaders,
+            "responseHeaders", responseHeaders
+        )), Instant.EPOCH, output);
+
+        String har = output.toString(StandardCharsets.UTF_8);
+        assertFalse(har.contains("secret-token"));
+        assertFalse(har.contains("secret-cookie"));
+        assertTrue(har.contains("Authorization"), "The header name is kept");
+        assertEquals("application/json", requestHeaders.get("Accept"));
+    }
+
+    @Test
+    void redactedHeadersAreDroppedOnImportAndSuppliedAgainOnReplay() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new HarWriter().write(List.of(Map.of(
+            "method", "GET",
+            "resolvedUrl", "https://prod.example.test/me",
+            "status", 200,
+            "requestHeaders", HttpRequestExecutorImpl.redact(
+                Map.of("Authorization", "Bearer secret-token", "Accept", "application/json"), HttpRequestExecutorImpl.REDACTED)
+        )), Instant.EPOCH, output);
+
+        HarReplayPlan plan = new HarImporter().importHar(new ByteArrayInputStream(output.toByteArray()));
+        Map<String, String> imported = plan.entries().get(0).request().getHeaders();
+        assertFalse(imported.containsKey("Authorization"), "A placeholder is never sent as a credential");
+        assertEquals("application/json", imported.get("Accept"));
+
+        List<HttpRequestStep> sent = new CopyOnWriteArrayList<>();
+        HttpRequestExecutor executor = (steps, baseUrl) -> {
+            sent.addAll(steps);
+            return List.of(Map.of("status", 200, "durationMs", 1L));
+        };
+        HarReplayEngine.Report report = new HarReplayEngine(executor).replay(plan, new HarReplayEngine.Options(
+            HarReplayEngine.Mode.MAX_SPEED, "https://staging.example.test", 1, null,
+            Map.of("authorization", "Bearer staging-token"))).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, report.statusMatches());
+        assertEquals("https://staging.example.test/me", sent.get(0).getUrl());
+        assertEquals(Map.of("Accept", "application/json", "authorization", "Bearer staging-token"), sent.get(0).getHeaders());
+    }
+
+    @Test
+    void entriesWithoutReadableStartTimeFollowThePreviousEntry() throws Exception {
+        String har = """
+            {"log": {"version": "1.2", "entries": [
+              {"startedDateTime": "2025-01-01T10:00:00Z", "time": 150,
+               "request": {"method": "GET", "url": "https://prod.example.test/a"}, "response": {"status": 200}},
+              {"time": 40,
+               "request": {"method": "GET", "url": "https://prod.example.test/b"}, "response": {"status": 200}},
+              {"startedDateTime": "not a date", "time": 10,
+               "request": {"method": "GET", "url": "https://prod.example.test/c"}, "response": {"status": 200}}
+            ]}}
+            """;
+
+        HarReplayPlan plan = new HarImporter().importHar(new ByteArrayInputStream(har.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of(0L, 150L, 190L), plan.entries().stream().map(HarReplayPlan.Entry::offsetMillis).toList());
+        assertEquals(190, plan.originalSpanMillis());
+        assertEquals("https://prod.example.test/c", plan.entries().get(2).request().getUrl());
+    }
+}
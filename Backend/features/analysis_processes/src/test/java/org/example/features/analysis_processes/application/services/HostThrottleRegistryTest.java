@@ -0,0 +1,72 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HostThrottleRegistryTest {
+
+    private static final URI TARGET = URI.create("http://api.example.test/orders");
+
+    @Test
+    void halvesConcurrencyAndHonorsRetryAfterOnThrottling() throws Exception {
+        HostThrottleRegistry registry = new HostThrottleRegistry(8, 1, 64, 5, 30, 5, 120);
+
+        registry.acquire(TARGET).get().onResponse(429, "60", 10);
+
+        HostThrottleRegistry.HostStatus status = registry.snapshot().get(0);
+        assertEquals("http://api.example.test:80", status.host());
+        assertEquals(4, status.concurrencyLimit());
+        assertNotNull(status.retryAfterUntil());
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> registry.acquire(TARGET).get());
+        assertInstanceOf(HostThrottleRegistry.HostUnavailableException.class, rejected.getCause());
+    }
+
+    @Test
+    void opensCircuitAfterConsecutiveFailuresAndFailsFast() throws Exception {
+        HostThrottleRegistry registry = new HostThrottleRegistry(8, 1, 64, 3, 30, 5, 120);
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            registry.acquire(TARGET).get().onError(new java.net.http.HttpTimeoutException("timed out"), 20_000);
+        }
+
+        assertEquals(HostThrottleRegistry.CircuitState.OPEN, registry.snapshot().get(0).circuit());
+        CompletableFuture<HostThrottleRegistry.Permit> attempt = registry.acquire(TARGET);
+        assertTrue(attempt.isCompletedExceptionally(), "Open circuit must reject without waiting");
+        assertEquals(1, registry.snapshot().get(0).rejected());
+    }
+
+    @Test
+    void evictsIdleHostsAndKeepsBusyOnes() throws Exception {
+        HostThrottleRegistry registry = new HostThrottleRegistry(8, 1, 64, 5, 30, 5, 120, 60, 1024);
+        registry.acquire(URI.create("http://idle.example.test/")).get().onResponse(200, null, 5);
+        HostThrottleRegistry.Permit busy = registry.acquire(TARGET).get();
+
+        registry.evictIdle(Instant.now().plus(Duration.ofMinutes(5)));
+
+        assertEquals(1, registry.snapshot().size());
+        assertEquals("http://api.example.test:80", registry.snapshot().get(0).host());
+        busy.onResponse(200, null, 5);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedIdleHostsOverTheCap() throws Exception {
+        HostThrottleRegistry registry = new HostThrottleRegistry(8, 1, 64, 5, 30, 5, 120, 600, 2);
+        for (String host : new String[] {"a", "b", "c"}) {
+            registry.acquire(URI.create("http://" + host + ".example.test/")).get().onResponse(200, null, 5);
+            Thread.sleep(2);
+        }
+
+        registry.evictIdle(Instant.now());
+
+        assertEquals(
+            java.util.List.of("http://b.example.test:80", "http://c.example.test:80"),
+            registry.snapshot().stream().map(HostThrottleRegistry.HostStatus::host).toList());
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.features.analysis_processes.application.services;
+
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cold vs warm request latency against a local HTTPS stand-in. Run with
+ * {@code RUN_BENCHMARKS=true gradle :features:analysis_processes:test --tests '*HttpTransportBenchmarkTest'}.
+ */
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class HttpTransportBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpTransportBenchmarkTest.class);
+    private static final char[] PASSWORD = "changeit".toCharArray();
+    private static final int ITERATIONS = 30;
+
+    @TempDir
+    static Path tempDir;
+
+    private static HttpsServer server;
+    private static ExecutorService serverExecutor;
+    private static KeyStore keyStore;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        Path keyStorePath = tempDir.resolve("standin.p12");
+        Process keytool = new ProcessBuilder(
+            Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+            "-genkeypair", "-alias", "standin", "-keyalg", "RSA", "-keysize", "2048",
+            "-dname", "CN=localhost", "-ext", "SAN=ip:127.0.0.1,dns:localhost", "-validity", "1",
+            "-storetype", "PKCS12", "-keystore", keyStorePath.toString(),
+            "-storepass", new String(PASSWORD), "-keypass", new String(PASSWORD)
+        ).redirectErrorStream(true).start();
+        assertEquals(0, keytool.waitFor(), () -> "keytool failed: " + readAll(keytool.getInputStream()));
+
+        keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream input = Files.newInputStream(keyStorePath)) {
+            keyStore.load(input, PASSWORD);
+        }
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(keyStore, PASSWORD);
+        SSLContext serverContext = SSLContext.getInstance("TLS");
+        serverContext.init(keyManagers.getKeyManagers(), null, null);
+
+        server = HttpsServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(serverContext));
+        server.createContext("/", exchange -> {
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, "HEAD".equals(exchange.getRequestMethod()) ? -1 : body.length);
+            if (!"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverExecutor);
+        server.start();
+        baseUrl = "https://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterAll
+    static void stopServer() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (serverExecutor != null) {
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void warmTransportAvoidsHandshakeLatency() throws Exception {
+        URI target = URI.create(baseUrl + "health");
+        HttpRequest request = HttpRequest.newBuilder(target).GET().build();
+
+        long[] cold = new long[ITERATIONS];
+        for (int index = 0; index < ITERATIONS; index++) {
+            HttpTransportRegistry fresh = new HttpTransportRegistry(trustingContext(), throttle(), 5, 1024, 3600, 0);
+            cold[index] = timed(fresh, request);
+            fresh.shutdown();
+        }
+
+        SSLContext sharedContext = trustingContext();
+        HttpTransportRegistry shared = new HttpTransportRegistry(sharedContext, throttle(), 5, 1024, 3600, 2);
+        long[] resumed = new long[ITERATIONS];
+        for (int index = 0; index < ITERATIONS; index++) {
+            try (HttpClient client = HttpClient.newBuilder().sslContext(sharedContext).build()) {
+                resumed[index] = timed(client, request);
+            }
+        }
+
+        shared.warmUp(baseUrl).join();
+        long[] warm = new long[ITERATIONS];
+        for (int index = 0; index < ITERATIONS; index++) {
+            warm[index] = timed(shared, request);
+        }
+        shared.shutdown();
+
+        LOGGER.info("HTTPS stand-in latency (median us): cold={}, tls-resumed={}, warm keep-alive={}",
+            median(cold) / 1_000, median(resumed) / 1_000, median(warm) / 1_000);
+        assertTrue(median(warm) < median(cold), "Warm transport should be faster than a cold handshake");
+    }
+
+    private static HostThrottleRegistry throttle() {
+        return new HostThrottleRegistry(8, 1, 64, 5, 30, 5, 120);
+    }
+
+    private static long timed(HttpTransportRegistry registry, HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse<String> response = registry.sendAsync(request, HttpResponse.BodyHandlers.ofString()).join();
+        long elapsed = System.nanoTime() - start;
+        assertEquals(200, response.statusCode());
+        return elapsed;
+    }
+
+    private static long timed(HttpClient client, HttpRequest request) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        long elapsed = System.nanoTime() - start;
+        assertEquals(200, response.statusCode());
+        return elapsed;
+    }
+
+    private static SSLContext trustingContext() throws Exception {
+        TrustManagerFactory trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagers.init(keyStore);
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, trustManagers.getTrustManagers(), null);
+        return context;
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static String readAll(InputStream input) {
+        try {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (Exception ex) {
+            return ex.getMessage();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanResponseSchemaTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void describesWhatTheModelFillsInAndLeavesPlannerFieldsOut() {
+        Map<String, Object> schema = PlanResponseSchema.schema();
+        Map<String, Object> properties = (Map<String, Object>) schema.get("properties");
+
+        assertEquals("object", schema.get("type"));
+        assertEquals(List.of("plan", "summary", "httpRequests"), schema.get("required"));
+        assertEquals(Map.of("type", "string"), properties.get("plan"));
+        assertEquals(Map.of("type", "boolean"), properties.get("requiresAdditionalInput"));
+        assertFalse(properties.containsKey("prompt"));
+        assertFalse(properties.containsKey("contextStats"));
+
+        Map<String, Object> step = (Map<String, Object>) ((Map<String, Object>) properties.get("httpRequests")).get("items");
+        Map<String, Object> stepProperties = (Map<String, Object>) step.get("properties");
+        assertEquals(List.of("name", "method", "url", "headers", "body", "description", "extract", "additionalInputs"),
+            List.copyOf(stepProperties.keySet()));
+        assertEquals(Map.of("type", "object", "additionalProperties", Map.of("type", "string")), stepProperties.get("headers"));
+
+        Map<String, Object> action = (Map<String, Object>) ((Map<String, Object>) properties.get("actions")).get("items");
+        assertEquals(List.of("title", "detail", "relatedArtifact"), action.get("required"));
+        assertThrows(UnsupportedOperationException.class, () -> schema.put("extra", true));
+    }
+}
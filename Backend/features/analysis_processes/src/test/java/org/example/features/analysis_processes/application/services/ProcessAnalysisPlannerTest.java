@@ -15,6 +15,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -30,7 +32,7 @@ class ProcessAnalysisPlannerTest {
         ProcessAnalysisPlanner.PlanResult result = planner.generatePlan(
             process,
             Map.of("userInputs", Map.of("baseUrl", "https://api.example.local", "authToken", "token"))
-        );
+        ).join();
 
         assertFalse(result.actions().isEmpty(), "Fallback plan should create action items");
         assertFalse(result.assertions().isEmpty(), "Fallback plan should create assertions");
@@ -59,7 +61,7 @@ class ProcessAnalysisPlannerTest {
         ProcessAnalysisPlanner.PlanResult result = planner.generatePlan(
             process,
             Map.of("userInputs", Collections.emptyMap())
-        );
+        ).join();
 
         assertEquals("LLM produced plan", result.summary());
         assertEquals(1, result.actions().size());
@@ -69,6 +71,31 @@ class ProcessAnalysisPlannerTest {
         assertEquals(1, result.httpRequests().size());
     }
 
+    @Test
+    void largeSpecsArePlannedInConcurrentChunksAndMerged(@TempDir Path tempDir) throws IOException {
+        StringBuilder spec = new StringBuilder("openapi: 3.0.0\ninfo:\n  title: Big API\n  version: 1.0.0\npaths:\n");
+        for (String tag : List.of("auth", "orders", "users")) {
+            for (int index = 0; index < 30; index++) {
+                spec.append("  /").append(tag).append("/op").append(index).append(":\n")
+                    .append("    get:\n      tags: [").append(tag).append("]\n      summary: op ").append(index).append('\n');
+            }
+        }
+        AnalysisProcess process = sampleProcess(tempDir);
+        Files.writeString(Path.of(process.getOpenapiSpecPath()), spec);
+        ChunkEchoLlmService service = new ChunkEchoLlmService();
+        ProcessAnalysisPlanner planner = new ProcessAnalysisPlanner(
+            new StaticProvider(service), new PromptContextPacker(), false, 3000, 40);
+
+        ProcessAnalysisPlanner.PlanResult result = planner.generatePlan(process, Map.of()).join();
+
+        assertEquals(3, service.calls.get(), "90 operations in 3 tags of 30 give 3 chunks");
+        assertEquals(3, service.maxInFlight.get(), "Chunks are sent concurrently");
+        assertEquals(4, result.httpRequests().size(), "The health check every chunk proposed is kept once");
+        assertEquals(result.httpRequests().size(), result.httpAdditionalInputs().size());
+        assertTrue(result.plan().contains("### Part 1: auth"));
+        assertEquals(90, result.contextStats().operations());
+    }
+
     private AnalysisProcess sampleProcess(Path tempDir) throws IOException {
         Path bpmn = Files.createTempFile(tempDir, "process", ".bpmn");
         Files.writeString(bpmn, "<xml>demo</xml>");
@@ -126,6 +153,52 @@ class ProcessAnalysisPlannerTest {
         }
     }
 
+    private static final class ChunkEchoLlmService implements LLMService {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<ChatCompletionResponse> chatCompletion(org.example.features.llm.domain.dto.ChatCompletionRequest request) {
+            int part = calls.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            String payload = """
+                {"plan": "part %d", "summary": "s%d", "httpRequests": [
+                  {"name": "Health", "method": "GET", "url": "{{baseUrl}}/health"},
+                  {"name": "Op", "method": "GET", "url": "{{baseUrl}}/part%d"}
+                ]}
+                """.formatted(part, part, part);
+            ChatCompletionResponse response = new ChatCompletionResponse();
+            response.setChoices(List.of(new ChatCompletionResponse.Choice(
+                0, new ChatCompletionResponse.Message("assistant", payload), "stop")));
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return response;
+            }, CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public String getProviderName() {
+            return "echo";
+        }
+
+        @Override
+        public String getStatus() {
+            return "ready";
+        }
+
+        @Override
+        public String[] getSupportedModels() {
+            return new String[] {"echo"};
+        }
+    }
+
     private static final class StubLlmService implements LLMService {
 
         private final String payload;
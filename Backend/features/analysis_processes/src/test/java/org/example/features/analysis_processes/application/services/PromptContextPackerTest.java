@@ -0,0 +1,54 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.example.features.llm.domain.services.TokenEstimator;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptContextPackerTest {
+
+    private static final String BPMN = """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <bpmn:definitions xmlns:bpmn="http://www.omg.org/spec/BPMN/20100524/MODEL" id="d">
+          <bpmn:process id="p">
+            <bpmn:startEvent id="start" name="Client opens the app"/>
+            <bpmn:task id="auth" name="Authenticate: POST /auth/token"/>
+            <bpmn:task id="pay" name="Initiate payment: POST /payments"/>
+            <bpmn:sequenceFlow id="f1" sourceRef="start" targetRef="auth"/>
+            <bpmn:endEvent id="end"/>
+          </bpmn:process>
+        </bpmn:definitions>
+        """;
+
+    @Test
+    void keepsOperationsReferencedByTheProcessWithinBudget() {
+        Map<String, Object> paths = new LinkedHashMap<>();
+        for (int index = 0; index < 200; index++) {
+            paths.put("/catalog/items" + index, Map.of("get", Map.of("summary", "List catalog page " + index)));
+        }
+        paths.put("/payments", Map.of("post", Map.of("summary", "Create payment", "requestBody", Map.of())));
+        paths.put("/auth/token", Map.of("post", Map.of("summary", "Issue token")));
+        Map<String, Object> document = Map.of("openapi", "3.0.0", "paths", paths);
+        String rawSpec = paths.toString();
+        TokenEstimator estimator = TokenEstimator.forModel("llama3", true, null);
+
+        PromptContextPacker.PackedContext packed = new PromptContextPacker().pack(
+            BPMN, document, List.of(BPMN, rawSpec), List.of("Bonus payment"), 200, estimator);
+
+        assertTrue(packed.openApi().contains("- POST /payments - Create payment [body]"));
+        assertTrue(packed.openApi().contains("- POST /auth/token"));
+        assertTrue(packed.openApi().contains("less relevant item(s) omitted"));
+        assertTrue(packed.bpmn().contains("task \"Initiate payment: POST /payments\" [pay]"));
+        assertFalse(packed.bpmn().contains("sequenceFlow"), "Unnamed flows carry no information");
+
+        PromptContextPacker.ContextStats stats = packed.stats();
+        assertEquals(202, stats.operations());
+        assertEquals(4, stats.bpmnElements());
+        assertTrue(stats.packedTokens() <= 200);
+        assertTrue(stats.tokensSaved() > stats.rawTokens() / 2, "Most of the spec is left out");
+    }
+}
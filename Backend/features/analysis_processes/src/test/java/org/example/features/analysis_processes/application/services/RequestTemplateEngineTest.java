@@ -0,0 +1,114 @@
+package org.example.features.analysis_processes.application.services;
+
+import org.example.features.analysis_processes.domain.valueobjects.HttpRequestStep;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTemplateEngineTest {
+
+    private final RequestTemplateEngine engine = new RequestTemplateEngine();
+
+    @Test
+    void rendersPlaceholdersInUrlHeadersAndBody() {
+        HttpRequestStep step = new HttpRequestStep(
+            "Fetch account",
+            "POST",
+            "/accounts/{{accountId}}?expand={{ expand }}",
+            Map.of("Authorization", "Bearer {{token}}"),
+            "{\"owner\": \"{{owner}}\"}",
+            "Uses values captured by earlier steps"
+        );
+
+        RequestTemplateEngine.CompiledRequest compiled = engine.compile(step);
+        HttpRequestStep rendered = compiled.render(Map.of(
+            "accountId", "42",
+            "expand", "cards",
+            "token", "abc",
+            "owner", "alice"
+        )::get);
+
+        assertEquals("/accounts/42?expand=cards", rendered.getUrl());
+        assertEquals("Bearer abc", rendered.getHeaders().get("Authorization"));
+        assertEquals("{\"owner\": \"alice\"}", rendered.getBody());
+        assertEquals("/accounts/{{accountId}}?expand={{ expand }}", step.getUrl(), "Source step must not be mutated");
+    }
+
+    @Test
+    void leavesUnresolvedPlaceholdersAndStaticTextIntact() {
+        RequestTemplate template = RequestTemplate.compile("/static/{{}}/{{missing}}");
+
+        assertEquals(List.of("missing"), template.variables());
+        assertEquals("/static/{{}}/{{missing}}", template.render(name -> null));
+        assertTrue(RequestTemplate.compile("/plain").isStatic());
+    }
+
+    @Test
+    void percentEncodesValuesInUrlPathAndQueryButNotTheBaseUrl() {
+        HttpRequestStep step = new HttpRequestStep(
+            "Search", "GET", "{{baseUrl}}/users/{{userId}}/orders?q={{query}}", Map.of(), null, null);
+
+        HttpRequestStep rendered = engine.compile(step).render(Map.of(
+            "baseUrl", "https://sandbox:8443/api",
+            "userId", "../admin a",
+            "query", "a&b=c #1"
+        )::get);
+
+        assertEquals("https://sandbox:8443/api/users/..%2Fadmin%20a/orders?q=a%26b%3Dc+%231", rendered.getUrl());
+        assertEquals("https://sandbox:8443/x",
+            RequestTemplate.compile("https://{{host}}/x", RequestTemplate.Syntax.URL).render(Map.of("host", "sandbox:8443")::get));
+    }
+
+    @Test
+    void jsonEscapesValuesInJsonBodies() {
+        HttpRequestStep step = new HttpRequestStep(
+            "Create", "POST", "/orders", Map.of("Content-Type", "application/json"),
+            "{\"note\": \"{{note}}\", \"qty\": {{qty}}, \"owner\": {{owner}}}", null);
+
+        HttpRequestStep rendered = engine.compile(step).render(Map.of(
+            "note", "say \"hi\"\n",
+            "qty", "3",
+            "owner", "alice\", \"admin\": true"
+        )::get);
+
+        assertEquals(
+            "{\"note\": \"say \\\"hi\\\"\\n\", \"qty\": 3, \"owner\": \"alice\\\", \\\"admin\\\": true\"}",
+            rendered.getBody());
+        assertEquals("a=x%26y", engine.compile(new HttpRequestStep("Form", "POST", "/f",
+            Map.of("Content-Type", "application/x-www-form-urlencoded"), "a={{v}}", null)).render(Map.of("v", "x&y")::get).getBody());
+    }
+
+    @Test
+    void extractsValuesWithJsonPathAndRegex() {
+        HttpRequestStep step = new HttpRequestStep("Login", "POST", "/login", Map.of(), null, null);
+        step.setExtract(Map.of(
+            "token", "$.data.tokens[0]['access_token']",
+            "session", "regex:\"session\":\\s*\"(\\w+)\"",
+            "absent", "$.data.missing"
+        ));
+
+        Map<String, String> values = engine.extract(
+            engine.compile(step),
+            "{\"data\": {\"tokens\": [{\"access_token\": \"t-1\"}]}, \"session\": \"s42\"}"
+        );
+
+        assertEquals("t-1", values.get("token"));
+        assertEquals("s42", values.get("session"));
+        assertFalse(values.containsKey("absent"));
+    }
+
+    @Test
+    void reusesCompiledTemplateForUnchangedStep() {
+        HttpRequestStep step = new HttpRequestStep("Ping", "GET", "/ping/{{id}}", Map.of(), null, null);
+        engine.compilePlan(Map.of("step-1", step));
+
+        HttpRequestStep copy = new HttpRequestStep("Ping", "GET", "/ping/{{id}}", Map.of(), null, null);
+        assertSame(engine.forStep("step-1", step), engine.forStep("step-1", copy));
+
+        HttpRequestStep changed = new HttpRequestStep("Ping", "GET", "/pong/{{id}}", Map.of(), null, null);
+        assertEquals("/pong/7", engine.forStep("step-1", changed).render(Map.of("id", "7")::get).getUrl());
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.features.analysis_processes.application.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingPlanParserTest {
+
+    @Test
+    void emitsEachStepAsSoonAsItsObjectCloses() {
+        List<Map<String, Object>> steps = new ArrayList<>();
+        StreamingPlanParser parser = new StreamingPlanParser(new ObjectMapper(), (index, fields) -> {
+            assertEquals(steps.size(), index);
+            steps.add(fields);
+        });
+
+        parser.feed("Here is the plan:\n```json\n{\"plan\": \"1. {check} [list]\", \"meta\": {\"httpRequests\": [{\"url\": \"/nested\"}]},");
+        parser.feed(" \"httpRequests\": [{\"name\": \"List\", \"method\": \"GET\", \"url\": \"/pets\", \"headers\": {\"Accept\": \"app");
+        assertTrue(steps.isEmpty(), "Only closed entries are emitted, nested arrays of the same name are ignored");
+
+        parser.feed("lication/json\"}}, {\"name\": \"Дом\", \"method\": \"POST\", \"url\": \"/pets\", \"body\": \"{\\\"a\\\": [1]}\"}");
+        assertEquals(2, steps.size());
+        assertEquals("/pets", steps.get(0).get("url"));
+        assertEquals(Map.of("Accept", "application/json"), steps.get(0).get("headers"));
+        assertEquals("Дом", steps.get(1).get("name"));
+
+        parser.feed("], \"summary\": \"done\"}\n```\nTrailing prose {");
+        assertEquals(2, parser.emitted());
+    }
+}
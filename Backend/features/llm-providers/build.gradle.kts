@@ -21,7 +21,6 @@ dependencies {
     implementation(libs.jackson.databind)
     compileOnly(libs.lombok)
     annotationProcessor(libs.lombok)
-    implementation(libs.httpclient)
     implementation(libs.okhttp)
 
     testImplementation(libs.spring.boot.starter.test)
@@ -0,0 +1,38 @@
+package org.example.features.llmproviders;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Transport to one LLM provider. Implementations keep a connection pool per provider, so
+ * consecutive calls reuse warm (and, over TLS, HTTP/2 multiplexed) connections. Cancelling a
+ * returned future aborts the call.
+ */
+public interface LlmProviderClient extends AutoCloseable {
+
+    String providerId();
+
+    String baseUrl();
+
+    /** Completes with the status and body of any HTTP response; fails only on I/O errors. */
+    CompletableFuture<ProviderResponse> send(ProviderRequest request);
+
+    /**
+     * Hands a successful response body to {@code lines} line by line as it arrives, on the
+     * transport's thread. An unsuccessful response is read in full and returned instead.
+     */
+    CompletableFuture<ProviderResponse> stream(ProviderRequest request, Consumer<String> lines);
+
+    /**
+     * Opens a connection (DNS, TCP and TLS) to the base URL ahead of the first real call. Never
+     * fails: warm-up is an optimisation, not a health check.
+     */
+    CompletableFuture<Duration> warmUp();
+
+    /** Connections currently held by the pool, busy or idle. */
+    int openConnections();
+
+    @Override
+    void close();
+}
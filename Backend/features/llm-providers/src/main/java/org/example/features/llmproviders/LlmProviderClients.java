@@ -0,0 +1,87 @@
+package org.example.features.llmproviders;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link LlmProviderClient} per provider id, created on first use. A provider whose base
+ * URL changes (the provider file was edited) gets a fresh client and the old pool is closed.
+ */
+@Component
+@Slf4j
+public class LlmProviderClients {
+
+    private final ProviderClientSettings settings;
+    private final String openRouterReferer;
+    private final String openRouterTitle;
+    private final Map<String, LlmProviderClient> clients = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LlmProviderClients(
+        @Value("${llm.http.connect-timeout-seconds:5}") long connectTimeoutSeconds,
+        @Value("${llm.http.max-idle-connections:8}") int maxIdleConnections,
+        @Value("${llm.http.keep-alive-seconds:300}") long keepAliveSeconds,
+        @Value("${llm.http.max-concurrent-requests:64}") int maxConcurrentRequests,
+        @Value("${llm.openrouter.referer:}") String openRouterReferer,
+        @Value("${llm.openrouter.title:Security Orchestrator}") String openRouterTitle
+    ) {
+        this(new ProviderClientSettings(
+            Duration.ofSeconds(Math.max(1, connectTimeoutSeconds)),
+            maxIdleConnections,
+            Duration.ofSeconds(Math.max(1, keepAliveSeconds)),
+            maxConcurrentRequests
+        ), openRouterReferer, openRouterTitle);
+    }
+
+    public LlmProviderClients(ProviderClientSettings settings) {
+        this(settings, null, null);
+    }
+
+    public LlmProviderClients(ProviderClientSettings settings, String openRouterReferer, String openRouterTitle) {
+        this.settings = settings;
+        this.openRouterReferer = openRouterReferer;
+        this.openRouterTitle = openRouterTitle;
+    }
+
+    public LlmProviderClient clientFor(String providerId, String baseUrl) {
+        return clients.compute(providerId, (id, existing) -> {
+            if (existing != null && existing.baseUrl().equals(normalize(baseUrl))) {
+                return existing;
+            }
+            if (existing != null) {
+                log.info("Base URL of LLM provider {} changed, replacing its connection pool", id);
+                existing.close();
+            }
+            return create(id, baseUrl);
+        });
+    }
+
+    public CompletableFuture<Duration> warmUp(String providerId, String baseUrl) {
+        return clientFor(providerId, baseUrl).warmUp();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.values().forEach(LlmProviderClient::close);
+        clients.clear();
+    }
+
+    private LlmProviderClient create(String providerId, String baseUrl) {
+        return OpenRouterClient.handles(baseUrl)
+            ? new OpenRouterClient(providerId, baseUrl, settings, openRouterReferer, openRouterTitle)
+            : new OkHttpProviderClient(providerId, baseUrl, settings);
+    }
+
+    private static String normalize(String baseUrl) {
+        String trimmed = baseUrl != null ? baseUrl.trim() : "";
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.features.llmproviders;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * {@link LlmProviderClient} on OkHttp with a connection pool and dispatcher of its own, so a
+ * slow provider cannot exhaust another's connections. HTTPS connections negotiate HTTP/2 via
+ * ALPN and multiplex concurrent calls; plain HTTP (a local Ollama) stays on HTTP/1.1 keep-alive.
+ * Responses are requested gzip-compressed and inflated transparently.
+ */
+@Slf4j
+public class OkHttpProviderClient implements LlmProviderClient {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private final String providerId;
+    private final String baseUrl;
+    private final Map<String, String> defaultHeaders;
+    private final OkHttpClient client;
+
+    public OkHttpProviderClient(String providerId, String baseUrl, ProviderClientSettings settings) {
+        this(providerId, baseUrl, settings, Map.of());
+    }
+
+    protected OkHttpProviderClient(
+        String providerId,
+        String baseUrl,
+        ProviderClientSettings settings,
+        Map<String, String> defaultHeaders
+    ) {
+        this.providerId = providerId;
+        this.baseUrl = normalizeBase(baseUrl);
+        this.defaultHeaders = Map.copyOf(defaultHeaders);
+        Dispatcher dispatcher = new Dispatcher(executor(providerId));
+        dispatcher.setMaxRequests(Math.max(1, settings.maxConcurrentRequests()));
+        dispatcher.setMaxRequestsPerHost(Math.max(1, settings.maxConcurrentRequests()));
+        this.client = new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .connectionPool(new ConnectionPool(
+                Math.max(1, settings.maxIdleConnections()), settings.keepAlive().toMillis(), TimeUnit.MILLISECONDS))
+            .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .connectTimeout(settings.connectTimeout())
+            // per-call limits are set from ProviderRequest.timeout()
+            .readTimeout(Duration.ZERO)
+            .writeTimeout(settings.connectTimeout().multipliedBy(6))
+            .followRedirects(false)
+            .build();
+    }
+
+    @Override
+    public String providerId() {
+        return providerId;
+    }
+
+    @Override
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public CompletableFuture<ProviderResponse> send(ProviderRequest request) {
+        Call call = client.newCall(toOkHttp(request));
+        if (request.timeout() != null) {
+            call.timeout().timeout(request.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return execute(call, response -> new ProviderResponse(response.code(), bodyOf(response), protocolOf(response)));
+    }
+
+    @Override
+    public CompletableFuture<ProviderResponse> stream(ProviderRequest request, Consumer<String> lines) {
+        // a whole-call limit would cut long generations short; bound the silences instead
+        OkHttpClient streaming = request.timeout() != null
+            ? client.newBuilder().readTimeout(request.timeout()).build()
+            : client;
+        return execute(streaming.newCall(toOkHttp(request)), response -> {
+            if (!response.isSuccessful()) {
+                return new ProviderResponse(response.code(), bodyOf(response), protocolOf(response));
+            }
+            ResponseBody body = response.body();
+            if (body != null) {
+                BufferedSource source = body.source();
+                String line;
+                while ((line = source.readUtf8Line()) != null) {
+                    lines.accept(line);
+                }
+            }
+            return new ProviderResponse(response.code(), null, protocolOf(response));
+        });
+    }
+
+    @Override
+    public CompletableFuture<Duration> warmUp() {
+        long started = System.nanoTime();
+        Call call = client.newCall(new Request.Builder().url(baseUrl + "/").head().build());
+        call.timeout().timeout(client.connectTimeoutMillis() * 2L, TimeUnit.MILLISECONDS);
+        return execute(call, OkHttpProviderClient::protocolOf)
+            .handle((protocol, error) -> {
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+                if (error != null) {
+                    log.debug("Warm-up of {} failed after {} ms: {}", providerId, elapsed.toMillis(), error.getMessage());
+                } else {
+                    log.debug("Warmed up {} connection to {} in {} ms", protocol, providerId, elapsed.toMillis());
+                }
+                return elapsed;
+            });
+    }
+
+    @Override
+    public int openConnections() {
+        return client.connectionPool().connectionCount();
+    }
+
+    @Override
+    public void close() {
+        client.dispatcher().cancelAll();
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    private Request toOkHttp(ProviderRequest request) {
+        Request.Builder builder = new Request.Builder().url(baseUrl + request.path());
+        defaultHeaders.forEach(builder::header);
+        request.headers().forEach(builder::header);
+        return (request.body() != null ? builder.post(RequestBody.create(request.body(), JSON)) : builder.get())
+            .build();
+    }
+
+    private interface ResponseReader<T> {
+        T read(Response response) throws IOException;
+    }
+
+    /** Cancelling the returned future cancels the call, which aborts a read in progress. */
+    private static <T> CompletableFuture<T> execute(Call call, ResponseReader<T> reader) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.whenComplete((ignored, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call failed, IOException ex) {
+                future.completeExceptionally(ex);
+            }
+
+            @Override
+            public void onResponse(Call completed, Response response) {
+                try (response) {
+                    future.complete(reader.read(response));
+                } catch (IOException | RuntimeException ex) {
+                    future.completeExceptionally(ex);
+                }
+            }
+        });
+        return future;
+    }
+
+    private static String bodyOf(Response response) throws IOException {
+        ResponseBody body = response.body();
+        return body != null ? body.string() : "";
+    }
+
+    private static String protocolOf(Response response) {
+        return response.protocol().toString();
+    }
+
+    private static String normalizeBase(String baseUrl) {
+        if (baseUrl == null || baseUrl.isBlank()) {
+            throw new IllegalArgumentException("Provider base URL must not be empty");
+        }
+        String trimmed = baseUrl.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    private static ExecutorService executor(String providerId) {
+        AtomicInteger threads = new AtomicInteger();
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "llm-provider-" + providerId + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -1,17 +1,52 @@
 package org.example.features.llmproviders;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Service;
 
-@Service
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * OpenRouter's OpenAI-compatible API. Every call carries the app attribution headers
+ * ({@code HTTP-Referer}, {@code X-Title}) OpenRouter uses for rankings and per-app limits.
+ */
 @Slf4j
-@RequiredArgsConstructor
-public class OpenRouterClient {
+public class OpenRouterClient extends OkHttpProviderClient {
+
+    public OpenRouterClient(String providerId, String baseUrl, ProviderClientSettings settings, String referer, String title) {
+        super(providerId, baseUrl, settings, attribution(referer, title));
+    }
+
+    public static boolean handles(String baseUrl) {
+        if (baseUrl == null || baseUrl.isBlank()) {
+            return false;
+        }
+        try {
+            String host = URI.create(baseUrl.trim()).getHost();
+            return host != null && ("openrouter.ai".equals(host.toLowerCase(Locale.ROOT))
+                || host.toLowerCase(Locale.ROOT).endsWith(".openrouter.ai"));
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    /** Opens the HTTP/2 connection ahead of the first completion. */
+    public CompletableFuture<Duration> connect() {
+        log.info("Connecting to OpenRouter at {}", baseUrl());
+        return warmUp();
+    }
 
-    // Placeholder implementation
-    public void connect() {
-        log.info("Connecting to OpenRouter service");
-        // Implementation will be added as needed
+    private static Map<String, String> attribution(String referer, String title) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (referer != null && !referer.isBlank()) {
+            headers.put("HTTP-Referer", referer.trim());
+        }
+        if (title != null && !title.isBlank()) {
+            headers.put("X-Title", title.trim());
+        }
+        return headers;
     }
-}
\ No newline at end of file
+}
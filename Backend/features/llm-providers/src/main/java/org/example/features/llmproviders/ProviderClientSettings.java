@@ -0,0 +1,23 @@
+package org.example.features.llmproviders;
+
+import java.time.Duration;
+
+/**
+ * Connection settings shared by every provider client.
+ *
+ * @param maxIdleConnections    idle connections each provider's pool keeps open
+ * @param keepAlive             how long an idle connection is kept before it is closed
+ * @param maxConcurrentRequests in-flight calls per provider; admission is the scheduler's job,
+ *                              so this only has to stay above its concurrency limits
+ */
+public record ProviderClientSettings(
+    Duration connectTimeout,
+    int maxIdleConnections,
+    Duration keepAlive,
+    int maxConcurrentRequests
+) {
+
+    public static ProviderClientSettings defaults() {
+        return new ProviderClientSettings(Duration.ofSeconds(5), 8, Duration.ofMinutes(5), 64);
+    }
+}
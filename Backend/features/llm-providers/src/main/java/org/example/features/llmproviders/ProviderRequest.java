@@ -0,0 +1,27 @@
+package org.example.features.llmproviders;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * One JSON call to a provider. The path is relative to the provider's base URL, e.g.
+ * {@code /chat/completions}.
+ *
+ * @param body    JSON body to POST; {@code null} sends a GET instead
+ * @param timeout whole-call limit for {@link LlmProviderClient#send}; for
+ *                {@link LlmProviderClient#stream} the longest silence between two reads
+ */
+public record ProviderRequest(
+    String path,
+    Map<String, String> headers,
+    String body,
+    Duration timeout
+) {
+    public ProviderRequest {
+        headers = headers != null ? Map.copyOf(headers) : Map.of();
+    }
+
+    public static ProviderRequest get(String path, Map<String, String> headers, Duration timeout) {
+        return new ProviderRequest(path, headers, null, timeout);
+    }
+}
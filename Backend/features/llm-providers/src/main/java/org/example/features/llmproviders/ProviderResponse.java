@@ -0,0 +1,13 @@
+package org.example.features.llmproviders;
+
+/**
+ * @param body     the response body; {@code null} for a successful stream, whose lines went
+ *                 to the line consumer instead
+ * @param protocol negotiated protocol, e.g. {@code h2} or {@code http/1.1}
+ */
+public record ProviderResponse(int statusCode, String body, String protocol) {
+
+    public boolean isSuccess() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+}
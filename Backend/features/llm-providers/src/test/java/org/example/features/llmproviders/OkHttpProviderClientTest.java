@@ -0,0 +1,123 @@
+package org.example.features.llmproviders;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OkHttpProviderClientTest {
+
+    private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> lastHeaders = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private String base;
+    private LlmProviderClients clients;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            connections.add(exchange.getRemoteAddress());
+            exchange.getRequestHeaders().forEach((name, values) -> lastHeaders.put(name.toLowerCase(), values.get(0)));
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if (body.contains("\"stream\":true")) {
+                respond(exchange, 200, "data: {\"n\":1}\n\ndata: {\"n\":2}\n\ndata: [DONE]\n", false);
+            } else if (body.contains("overloaded")) {
+                respond(exchange, 503, "{\"error\":\"overloaded\"}", false);
+            } else {
+                respond(exchange, 200, "{\"echo\":" + body + "}", true);
+            }
+        });
+        server.createContext("/", exchange -> {
+            connections.add(exchange.getRemoteAddress());
+            respond(exchange, 404, "", false);
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/";
+        clients = new LlmProviderClients(ProviderClientSettings.defaults(), "https://example.org", "Orchestrator");
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void reusesOneInflatedKeepAliveConnectionAcrossCalls() {
+        LlmProviderClient client = clients.clientFor("local", base);
+
+        assertEquals(Duration.class, client.warmUp().join().getClass());
+        assertEquals(1, client.openConnections(), "Warm-up leaves a pooled connection behind");
+        for (int call = 0; call < 3; call++) {
+            ProviderResponse response = client.send(request("{\"q\":" + call + "}")).join();
+            assertEquals(200, response.statusCode());
+            assertEquals("{\"echo\":{\"q\":" + call + "}}", response.body(), "The gzip body is inflated transparently");
+            assertEquals("http/1.1", response.protocol(), "Plain HTTP stays on HTTP/1.1");
+        }
+        assertEquals(1, connections.size(), "Warm-up and all calls share one connection");
+        assertEquals("gzip", lastHeaders.get("accept-encoding"));
+        assertSame(client, clients.clientFor("local", base.substring(0, base.length() - 1)));
+        assertFalse(lastHeaders.containsKey("x-title"), "Attribution headers are OpenRouter only");
+
+        ProviderResponse failed = client.send(request("{\"q\":\"overloaded\"}")).join();
+        assertFalse(failed.isSuccess());
+        assertEquals("{\"error\":\"overloaded\"}", failed.body());
+    }
+
+    @Test
+    void streamsLinesAndAttributesOpenRouterCalls() {
+        OpenRouterClient client = new OpenRouterClient(
+            "openrouter", base, ProviderClientSettings.defaults(), "https://example.org", "Orchestrator");
+        List<String> lines = new CopyOnWriteArrayList<>();
+
+        ProviderResponse response = client.stream(request("{\"stream\":true}"), lines::add).join();
+
+        assertTrue(response.isSuccess());
+        assertNull(response.body());
+        assertEquals(List.of("data: {\"n\":1}", "", "data: {\"n\":2}", "", "data: [DONE]"), lines);
+        assertEquals("Orchestrator", lastHeaders.get("x-title"));
+        assertEquals("https://example.org", lastHeaders.get("http-referer"));
+        assertEquals("Bearer key", lastHeaders.get("authorization"));
+        assertTrue(OpenRouterClient.handles("https://openrouter.ai/api/v1"));
+        assertFalse(OpenRouterClient.handles(base));
+        client.close();
+    }
+
+    private static ProviderRequest request(String body) {
+        return new ProviderRequest("/chat/completions", Map.of("Authorization", "Bearer key"), body, Duration.ofSeconds(10));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body, boolean gzip) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (gzip && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.features.llm.domain.dto;
+
+/**
+ * One incremental piece of a streamed chat completion. {@code delta} carries only the text
+ * produced since the previous chunk; usage is normally present on the final chunk only.
+ */
+public record ChatCompletionChunk(
+    String id,
+    String model,
+    String delta,
+    String finishReason,
+    ChatCompletionResponse.Usage usage,
+    boolean done
+) {
+
+    public static ChatCompletionChunk of(ChatCompletionResponse response) {
+        String content = "";
+        String finishReason = "stop";
+        if (response.getChoices() != null && !response.getChoices().isEmpty()) {
+            ChatCompletionResponse.Choice choice = response.getChoices().get(0);
+            if (choice.getMessage() != null && choice.getMessage().getContent() != null) {
+                content = choice.getMessage().getContent();
+            }
+            if (choice.getFinishReason() != null) {
+                finishReason = choice.getFinishReason();
+            }
+        }
+        return new ChatCompletionChunk(response.getId(), response.getModel(), content, finishReason, response.getUsage(), true);
+    }
+
+    public boolean hasText() {
+        return delta != null && !delta.isEmpty();
+    }
+}
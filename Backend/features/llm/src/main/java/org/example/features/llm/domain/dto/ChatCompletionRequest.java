@@ -1,6 +1,8 @@
 package org.example.features.llm.domain.dto;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Request DTO for chat completions
@@ -16,6 +18,13 @@ public class ChatCompletionRequest {
     private Integer presencePenalty;
     private List<String> stop;
     private String user;
+    private boolean cacheBypass;
+    private LlmRequestPriority priority = LlmRequestPriority.NORMAL;
+    private Instant deadline;
+    private boolean spreadAcrossProviders;
+    private String promptCacheKey;
+    private String responseSchemaName;
+    private Map<String, Object> responseSchema;
 
     // Default constructor
     public ChatCompletionRequest() {}
@@ -99,6 +108,82 @@ public class ChatCompletionRequest {
         this.user = user;
     }
 
+    /**
+     * When set, the request is always sent to the provider and its response is not cached.
+     */
+    public boolean isCacheBypass() {
+        return cacheBypass;
+    }
+
+    public void setCacheBypass(boolean cacheBypass) {
+        this.cacheBypass = cacheBypass;
+    }
+
+    public LlmRequestPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(LlmRequestPriority priority) {
+        this.priority = priority != null ? priority : LlmRequestPriority.NORMAL;
+    }
+
+    /**
+     * Point in time after which the result is useless. Queued requests that cannot finish
+     * before it are dropped instead of being sent.
+     */
+    public Instant getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(Instant deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Part of a fan-out: pick the provider by weighted round robin instead of the configured
+     * strategy, so sibling requests sent together land on different providers.
+     */
+    public boolean isSpreadAcrossProviders() {
+        return spreadAcrossProviders;
+    }
+
+    public void setSpreadAcrossProviders(boolean spreadAcrossProviders) {
+        this.spreadAcrossProviders = spreadAcrossProviders;
+    }
+
+    /**
+     * Names the stable prompt prefix (system prompt plus the leading part of the first user
+     * message) shared by related requests, so the provider can route them to a warm prefix
+     * cache. Sent as {@code prompt_cache_key} to OpenAI-compatible providers.
+     */
+    public String getPromptCacheKey() {
+        return promptCacheKey;
+    }
+
+    public void setPromptCacheKey(String promptCacheKey) {
+        this.promptCacheKey = promptCacheKey;
+    }
+
+    /**
+     * JSON schema the answer must follow. Providers that support constrained decoding (Ollama
+     * {@code format}, OpenAI {@code response_format}) only generate matching JSON.
+     */
+    public Map<String, Object> getResponseSchema() {
+        return responseSchema;
+    }
+
+    public void setResponseSchema(Map<String, Object> responseSchema) {
+        this.responseSchema = responseSchema;
+    }
+
+    public String getResponseSchemaName() {
+        return responseSchemaName;
+    }
+
+    public void setResponseSchemaName(String responseSchemaName) {
+        this.responseSchemaName = responseSchemaName;
+    }
+
     /**
      * Inner class representing a message in the chat
      */
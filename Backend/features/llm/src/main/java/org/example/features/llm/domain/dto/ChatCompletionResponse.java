@@ -155,6 +155,8 @@ public class ChatCompletionResponse {
         private int promptTokens;
         private int completionTokens;
         private int totalTokens;
+        private Integer cachedPromptTokens;
+        private Long promptEvalMs;
 
         public Usage() {}
 
@@ -187,5 +189,23 @@ public class ChatCompletionResponse {
         public void setTotalTokens(int totalTokens) {
             this.totalTokens = totalTokens;
         }
+
+        /** Prompt tokens the provider served from its prefix cache, when it reports them. */
+        public Integer getCachedPromptTokens() {
+            return cachedPromptTokens;
+        }
+
+        public void setCachedPromptTokens(Integer cachedPromptTokens) {
+            this.cachedPromptTokens = cachedPromptTokens;
+        }
+
+        /** Time the provider spent evaluating the prompt, when it reports it (Ollama). */
+        public Long getPromptEvalMs() {
+            return promptEvalMs;
+        }
+
+        public void setPromptEvalMs(Long promptEvalMs) {
+            this.promptEvalMs = promptEvalMs;
+        }
     }
 }
\ No newline at end of file
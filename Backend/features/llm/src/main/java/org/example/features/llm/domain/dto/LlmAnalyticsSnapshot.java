@@ -10,9 +10,53 @@ public record LlmAnalyticsSnapshot(
     String activeProviderId,
     Map<String, ProviderSnapshot> providers,
     long switchCount,
-    Instant lastSwitchAt
+    Instant lastSwitchAt,
+    CacheSnapshot cache,
+    RoutingSnapshot routing,
+    SchedulerSnapshot scheduler,
+    TelemetrySnapshot telemetry,
+    ModelLifecycleSnapshot models,
+    BudgetSnapshot budgets,
+    BatchSnapshot batching
 ) {
 
+    public LlmAnalyticsSnapshot(
+        String activeProviderId,
+        Map<String, ProviderSnapshot> providers,
+        long switchCount,
+        Instant lastSwitchAt
+    ) {
+        this(activeProviderId, providers, switchCount, lastSwitchAt, null, null, null, null, null, null, null);
+    }
+
+    public LlmAnalyticsSnapshot withCache(CacheSnapshot cache) {
+        return new LlmAnalyticsSnapshot(activeProviderId, providers, switchCount, lastSwitchAt, cache, routing, scheduler, telemetry, models, budgets, batching);
+    }
+
+    public LlmAnalyticsSnapshot withRouting(RoutingSnapshot routing) {
+        return new LlmAnalyticsSnapshot(activeProviderId, providers, switchCount, lastSwitchAt, cache, routing, scheduler, telemetry, models, budgets, batching);
+    }
+
+    public LlmAnalyticsSnapshot withScheduler(SchedulerSnapshot scheduler) {
+        return new LlmAnalyticsSnapshot(activeProviderId, providers, switchCount, lastSwitchAt, cache, routing, scheduler, telemetry, models, budgets, batching);
+    }
+
+    public LlmAnalyticsSnapshot withTelemetry(TelemetrySnapshot telemetry) {
+        return new LlmAnalyticsSnapshot(activeProviderId, providers, switchCount, lastSwitchAt, cache, routing, scheduler, telemetry, models, budgets, batching);
+    }
+
+    public LlmAnalyticsSnapshot withModels(ModelLifecycleSnapshot models) {
+        return new LlmAnalyticsSnapshot(activeProviderId, providers, switchCount, lastSwitchAt, cache, routing, scheduler, telemetry, models, budgets, batching);
+    }
+
+    public LlmAnalyticsSnapshot withBudgets(BudgetSnapshot budgets) {
+        return new LlmAnalyticsSnapshot(activeProviderId, providers, switchCount, lastSwitchAt, cache, routing, scheduler, telemetry, models, budgets, batching);
+    }
+
+    public LlmAnalyticsSnapshot withBatching(BatchSnapshot batching) {
+        return new LlmAnalyticsSnapshot(activeProviderId, providers, switchCount, lastSwitchAt, cache, routing, scheduler, telemetry, models, budgets, batching);
+    }
+
     public record ProviderSnapshot(
         String id,
         String displayName,
@@ -22,4 +66,131 @@ public record LlmAnalyticsSnapshot(
         boolean requiresApiKey,
         String model
     ) {}
+
+    public record CacheSnapshot(
+        boolean enabled,
+        boolean diskEnabled,
+        int entries,
+        long weightBytes,
+        long maxWeightBytes,
+        long hits,
+        long diskHits,
+        long misses,
+        long bypasses,
+        long evictions,
+        double hitRatio,
+        long latencySavedMs
+    ) {}
+
+    public record RoutingSnapshot(
+        String strategy,
+        boolean failoverEnabled,
+        long failovers,
+        Map<String, ProviderRouteStats> providers
+    ) {}
+
+    public record ProviderRouteStats(
+        int weight,
+        int outstanding,
+        Double ewmaLatencyMs,
+        long successes,
+        long failures,
+        int consecutiveFailures,
+        Instant ejectedUntil,
+        Boolean healthy,
+        Long probeLatencyMs,
+        String probeMessage
+    ) {}
+
+    public record SchedulerSnapshot(Map<String, ProviderQueueStats> providers) {}
+
+    public record ProviderQueueStats(
+        int maxConcurrency,
+        int active,
+        int queueDepth,
+        Map<LlmRequestPriority, Integer> queuedByPriority,
+        long oldestWaitMs,
+        double avgWaitMs,
+        long maxWaitMs,
+        long dispatched,
+        long droppedPastDeadline,
+        long rejectedQueueFull
+    ) {}
+
+    /** Per-call statistics over the calls still held in the telemetry buffer and inside the window. */
+    public record TelemetrySnapshot(
+        long recordedCalls,
+        int windowCalls,
+        long windowSeconds,
+        Map<String, CallStats> providers,
+        Map<String, PromptPrefixStats> promptPrefixes
+    ) {}
+
+    public record CallStats(
+        int calls,
+        int failures,
+        double errorRate,
+        Percentiles latencyMs,
+        Percentiles timeToFirstTokenMs,
+        Percentiles queueWaitMs,
+        Double avgTokensPerSecond,
+        long promptTokens,
+        long completionTokens
+    ) {}
+
+    /**
+     * Calls sharing one prompt cache key. The first call in the window usually evaluates the
+     * whole prompt; {@code promptEvalReduction} is how much less time the later ones spent on it.
+     */
+    public record PromptPrefixStats(
+        int calls,
+        long promptTokens,
+        long cachedPromptTokens,
+        Long firstPromptEvalMs,
+        Double repeatPromptEvalMs,
+        Double promptEvalReduction
+    ) {}
+
+    public record Percentiles(long p50, long p90, long p95, long p99, long max) {}
+
+    /** Local models keyed by {@code providerId/model}. */
+    public record ModelLifecycleSnapshot(Map<String, ModelLoadStats> models) {}
+
+    public record ModelLoadStats(
+        String providerId,
+        String model,
+        String state,
+        long keepAliveSeconds,
+        Long residentForSeconds,
+        long calls,
+        long coldStarts,
+        long warmUps,
+        Long lastLoadMs
+    ) {}
+
+    /** Rate and spend budgets of the providers that have limits configured. */
+    public record BudgetSnapshot(Map<String, ProviderBudgetStats> providers) {}
+
+    public record ProviderBudgetStats(
+        Integer tokensPerMinute,
+        long tokensAvailable,
+        Integer requestsPerMinute,
+        long requestsAvailable,
+        Integer dailyTokenBudget,
+        long tokensUsedToday,
+        Long dailyTokensRemaining,
+        int deferred,
+        long deferredTotal,
+        long rejected
+    ) {}
+
+    /**
+     * Multi-question packing of {@code chatCompletionBatch} calls. {@code packedRequests} over
+     * {@code packedCalls} is how many requests one provider call answered on average.
+     */
+    public record BatchSnapshot(
+        long packedCalls,
+        long packedRequests,
+        long unpackedRetries
+    ) {}
 }
@@ -0,0 +1,14 @@
+package org.example.features.llm.domain.dto;
+
+/**
+ * Scheduling class of an LLM request; lower ordinals are dispatched first when a provider
+ * is saturated.
+ */
+public enum LlmRequestPriority {
+    /** A user is waiting on the result, e.g. plan generation. */
+    INTERACTIVE,
+    NORMAL,
+    /** Bulk analysis that can tolerate queueing. */
+    BATCH,
+    BACKGROUND
+}
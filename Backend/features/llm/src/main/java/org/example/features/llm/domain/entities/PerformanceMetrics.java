@@ -8,10 +8,19 @@ import java.time.LocalDateTime;
 public class PerformanceMetrics {
 
     private String id;
+    private String providerId;
     private String modelId;
     private String operation;
     private long responseTimeMs;
     private int tokensUsed;
+    private int promptTokens;
+    private int completionTokens;
+    private Double tokensPerSecond;
+    private Long timeToFirstTokenMs;
+    private long queueWaitMs;
+    private String promptCacheKey;
+    private Integer cachedPromptTokens;
+    private Long promptEvalMs;
     private boolean success;
     private String errorMessage;
     private LocalDateTime timestamp;
@@ -39,6 +48,14 @@ public class PerformanceMetrics {
         this.id = id;
     }
 
+    public String getProviderId() {
+        return providerId;
+    }
+
+    public void setProviderId(String providerId) {
+        this.providerId = providerId;
+    }
+
     public String getModelId() {
         return modelId;
     }
@@ -71,6 +88,70 @@ public class PerformanceMetrics {
         this.tokensUsed = tokensUsed;
     }
 
+    public int getPromptTokens() {
+        return promptTokens;
+    }
+
+    public void setPromptTokens(int promptTokens) {
+        this.promptTokens = promptTokens;
+    }
+
+    public int getCompletionTokens() {
+        return completionTokens;
+    }
+
+    public void setCompletionTokens(int completionTokens) {
+        this.completionTokens = completionTokens;
+    }
+
+    public Double getTokensPerSecond() {
+        return tokensPerSecond;
+    }
+
+    public void setTokensPerSecond(Double tokensPerSecond) {
+        this.tokensPerSecond = tokensPerSecond;
+    }
+
+    public Long getTimeToFirstTokenMs() {
+        return timeToFirstTokenMs;
+    }
+
+    public void setTimeToFirstTokenMs(Long timeToFirstTokenMs) {
+        this.timeToFirstTokenMs = timeToFirstTokenMs;
+    }
+
+    public long getQueueWaitMs() {
+        return queueWaitMs;
+    }
+
+    public void setQueueWaitMs(long queueWaitMs) {
+        this.queueWaitMs = queueWaitMs;
+    }
+
+    public String getPromptCacheKey() {
+        return promptCacheKey;
+    }
+
+    public void setPromptCacheKey(String promptCacheKey) {
+        this.promptCacheKey = promptCacheKey;
+    }
+
+    public Integer getCachedPromptTokens() {
+        return cachedPromptTokens;
+    }
+
+    public void setCachedPromptTokens(Integer cachedPromptTokens) {
+        this.cachedPromptTokens = cachedPromptTokens;
+    }
+
+    public Long getPromptEvalMs() {
+        return promptEvalMs;
+    }
+
+    public void setPromptEvalMs(Long promptEvalMs) {
+        this.promptEvalMs = promptEvalMs;
+    }
+
     public boolean isSuccess() {
         return success;
     }
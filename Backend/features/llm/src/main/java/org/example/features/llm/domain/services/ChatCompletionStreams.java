@@ -0,0 +1,171 @@
+package org.example.features.llm.domain.services;
+
+import org.example.features.llm.domain.dto.ChatCompletionChunk;
+import org.example.features.llm.domain.dto.ChatCompletionResponse;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Consumer;
+
+/**
+ * Adapters between the blocking-style {@link LLMService#chatCompletion} contract and its
+ * streaming counterpart.
+ */
+public final class ChatCompletionStreams {
+
+    private ChatCompletionStreams() {
+    }
+
+    /**
+     * Publishes a finished response as a single terminal chunk. Used by providers that cannot
+     * stream, so callers can always consume {@link LLMService#streamChatCompletion}.
+     */
+    public static Flow.Publisher<ChatCompletionChunk> fromResponse(CompletableFuture<ChatCompletionResponse> response) {
+        return subscriber -> {
+            SubmissionPublisher<ChatCompletionChunk> publisher = new SubmissionPublisher<>();
+            publisher.subscribe(subscriber);
+            response.whenComplete((result, error) -> {
+                if (error != null) {
+                    publisher.closeExceptionally(error);
+                } else {
+                    publisher.submit(ChatCompletionChunk.of(result));
+                    publisher.close();
+                }
+            });
+        };
+    }
+
+    /**
+     * Consumes a chunk stream, invoking {@code onChunk} for every chunk as it arrives, and
+     * completes with the assembled response once the stream ends.
+     */
+    public static CompletableFuture<ChatCompletionResponse> collect(
+        Flow.Publisher<ChatCompletionChunk> publisher,
+        Consumer<ChatCompletionChunk> onChunk
+    ) {
+        Collector collector = new Collector(onChunk == null ? chunk -> { } : onChunk);
+        publisher.subscribe(collector);
+        return collector.result;
+    }
+
+    /**
+     * Passes chunks through unchanged and hands the assembled response to {@code onComplete}
+     * once the stream finishes successfully.
+     */
+    public static Flow.Publisher<ChatCompletionChunk> tap(
+        Flow.Publisher<ChatCompletionChunk> publisher,
+        Consumer<ChatCompletionResponse> onComplete
+    ) {
+        return subscriber -> publisher.subscribe(new Flow.Subscriber<>() {
+            private final Assembly assembly = new Assembly();
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriber.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(ChatCompletionChunk chunk) {
+                assembly.add(chunk);
+                subscriber.onNext(chunk);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                try {
+                    onComplete.accept(assembly.toResponse());
+                } catch (RuntimeException ignored) {
+                    // observers must never break the stream itself
+                }
+                subscriber.onComplete();
+            }
+        });
+    }
+
+    private static final class Collector implements Flow.Subscriber<ChatCompletionChunk> {
+
+        private final Consumer<ChatCompletionChunk> onChunk;
+        private final CompletableFuture<ChatCompletionResponse> result = new CompletableFuture<>();
+        private final Assembly assembly = new Assembly();
+
+        private Collector(Consumer<ChatCompletionChunk> onChunk) {
+            this.onChunk = onChunk;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ChatCompletionChunk chunk) {
+            assembly.add(chunk);
+            try {
+                onChunk.accept(chunk);
+            } catch (RuntimeException ignored) {
+                // progress listeners must never break the completion itself
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(assembly.toResponse());
+        }
+    }
+
+    private static final class Assembly {
+
+        private final StringBuilder content = new StringBuilder();
+        private String id;
+        private String model;
+        private String finishReason;
+        private ChatCompletionResponse.Usage usage;
+
+        void add(ChatCompletionChunk chunk) {
+            if (chunk.hasText()) {
+                content.append(chunk.delta());
+            }
+            if (chunk.id() != null) {
+                id = chunk.id();
+            }
+            if (chunk.model() != null) {
+                model = chunk.model();
+            }
+            if (chunk.finishReason() != null) {
+                finishReason = chunk.finishReason();
+            }
+            if (chunk.usage() != null) {
+                usage = chunk.usage();
+            }
+        }
+
+        ChatCompletionResponse toResponse() {
+            return new ChatCompletionResponse(
+                id != null ? id : UUID.randomUUID().toString(),
+                "chat.completion",
+                Instant.now().getEpochSecond(),
+                model,
+                List.of(new ChatCompletionResponse.Choice(
+                    0,
+                    new ChatCompletionResponse.Message("assistant", content.toString()),
+                    finishReason != null ? finishReason : "stop"
+                )),
+                usage
+            );
+        }
+    }
+}
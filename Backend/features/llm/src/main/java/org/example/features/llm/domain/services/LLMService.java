@@ -1,9 +1,13 @@
 package org.example.features.llm.domain.services;
 
+import org.example.features.llm.domain.dto.ChatCompletionChunk;
 import org.example.features.llm.domain.dto.ChatCompletionRequest;
 import org.example.features.llm.domain.dto.ChatCompletionResponse;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Predicate;
 
 /**
  * Domain service for LLM operations
@@ -23,6 +27,63 @@ public interface LLMService {
      */
     CompletableFuture<ChatCompletionResponse> chatCompletion(ChatCompletionRequest request);
 
+    /**
+     * Perform a chat completion, publishing token deltas as they are generated.
+     * Each subscription issues its own request. Providers without streaming support
+     * publish the whole response as a single terminal chunk.
+     * @param request The chat completion request
+     * @return A publisher of incremental chunks
+     */
+    default Flow.Publisher<ChatCompletionChunk> streamChatCompletion(ChatCompletionRequest request) {
+        return subscriber -> ChatCompletionStreams.fromResponse(chatCompletion(request)).subscribe(subscriber);
+    }
+
+    /**
+     * Whether {@link #hedgedChatCompletion} would race providers for this request.
+     * @param request The chat completion request
+     * @return true if a second provider may be asked when the first is slow
+     */
+    default boolean isHedged(ChatCompletionRequest request) {
+        return false;
+    }
+
+    /**
+     * Perform a chat completion that may be sent to a second provider when the first one is
+     * slow. The first response {@code accept} approves wins and the other call is cancelled;
+     * if no response is approved, the first one that arrived is returned. Without hedging
+     * this is a plain {@link #chatCompletion}.
+     * @param request The chat completion request
+     * @param accept Decides whether a response is usable
+     * @return A future containing the winning response
+     */
+    default CompletableFuture<ChatCompletionResponse> hedgedChatCompletion(
+        ChatCompletionRequest request,
+        Predicate<ChatCompletionResponse> accept
+    ) {
+        return chatCompletion(request);
+    }
+
+    /**
+     * Perform many independent chat completions, e.g. one per endpoint of a bulk job. The
+     * responses are in request order; implementations may answer several requests with one
+     * provider call. Without batching support the requests are sent concurrently.
+     * @param requests The chat completion requests
+     * @return A future containing one response per request; it fails if any request fails
+     */
+    default CompletableFuture<List<ChatCompletionResponse>> chatCompletionBatch(List<ChatCompletionRequest> requests) {
+        List<CompletableFuture<ChatCompletionResponse>> calls = requests.stream().map(this::chatCompletion).toList();
+        return CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> calls.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Token estimate and context window of the model requests are currently sent to.
+     * @return The estimator for the active provider's model
+     */
+    default TokenEstimator getTokenEstimator() {
+        return TokenEstimator.DEFAULT;
+    }
+
     /**
      * Get the service provider name
      * @return The provider name
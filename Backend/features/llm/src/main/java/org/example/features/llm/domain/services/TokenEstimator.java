@@ -0,0 +1,95 @@
+package org.example.features.llm.domain.services;
+
+import java.util.Locale;
+
+/**
+ * Cheap, tokenizer-free token count estimate for a model family, together with the context
+ * window the estimate is checked against. Word pieces are charged by the family's average
+ * characters per token, non-Latin text at twice the rate and each punctuation character as
+ * one token. Good enough for budgeting prompts; not a substitute for the real tokenizer.
+ */
+public final class TokenEstimator {
+
+    public static final TokenEstimator DEFAULT = new TokenEstimator("generic", 3.6, 8_192);
+
+    private final String family;
+    private final double charsPerToken;
+    private final int contextWindowTokens;
+
+    public TokenEstimator(String family, double charsPerToken, int contextWindowTokens) {
+        this.family = family;
+        this.charsPerToken = charsPerToken;
+        this.contextWindowTokens = contextWindowTokens;
+    }
+
+    /**
+     * @param contextWindowOverride configured context size, or {@code null} for the family default
+     */
+    public static TokenEstimator forModel(String model, boolean local, Integer contextWindowOverride) {
+        String name = model == null ? "" : model.toLowerCase(Locale.ROOT);
+        TokenEstimator base;
+        if (name.contains("gpt-4o") || name.contains("gpt-4.1") || name.matches(".*\\bo[134]\\b.*")) {
+            base = new TokenEstimator("o200k", 4.2, 128_000);
+        } else if (name.contains("gpt")) {
+            base = new TokenEstimator("cl100k", 4.0, name.contains("3.5") ? 16_385 : 128_000);
+        } else if (name.contains("claude")) {
+            base = new TokenEstimator("claude", 3.8, 200_000);
+        } else if (name.contains("llama3") || name.contains("llama-3") || name.contains("llama 3")) {
+            base = new TokenEstimator("llama3", 3.9, 8_192);
+        } else if (name.contains("qwen")) {
+            base = new TokenEstimator("qwen", 3.9, 32_768);
+        } else if (name.contains("llama") || name.contains("mistral") || name.contains("mixtral")) {
+            base = new TokenEstimator("sentencepiece-32k", 3.2, name.contains("mistral") ? 32_768 : 4_096);
+        } else {
+            base = DEFAULT;
+        }
+        if (contextWindowOverride != null && contextWindowOverride > 0) {
+            return new TokenEstimator(base.family, base.charsPerToken, contextWindowOverride);
+        }
+        // Ollama loads models with a small num_ctx unless told otherwise
+        return local ? new TokenEstimator(base.family, base.charsPerToken, Math.min(base.contextWindowTokens, 4_096)) : base;
+    }
+
+    public int estimate(CharSequence text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        double tokens = 0;
+        int asciiRun = 0;
+        int otherRun = 0;
+        for (int index = 0; index < text.length(); index++) {
+            char current = text.charAt(index);
+            if (Character.isLetterOrDigit(current)) {
+                if (current < 128) {
+                    asciiRun++;
+                } else {
+                    otherRun++;
+                }
+                continue;
+            }
+            tokens += runTokens(asciiRun, otherRun);
+            asciiRun = 0;
+            otherRun = 0;
+            if (!Character.isWhitespace(current)) {
+                tokens += 1;
+            }
+        }
+        tokens += runTokens(asciiRun, otherRun);
+        return (int) Math.ceil(tokens);
+    }
+
+    private double runTokens(int asciiRun, int otherRun) {
+        if (asciiRun + otherRun == 0) {
+            return 0;
+        }
+        return Math.max(1, Math.ceil(asciiRun / charsPerToken + otherRun / (charsPerToken / 2)));
+    }
+
+    public String family() {
+        return family;
+    }
+
+    public int contextWindowTokens() {
+        return contextWindowTokens;
+    }
+}
@@ -41,6 +41,7 @@ public class LlmProviderConfigurationProperties {
         private String model;
         private boolean enabled = true;
         private Map<String, Object> metadata;
+        private MockSettings mock;
 
         public String getId() {
             return id;
@@ -105,5 +106,128 @@ public class LlmProviderConfigurationProperties {
         public void setMetadata(Map<String, Object> metadata) {
             this.metadata = metadata;
         }
+
+        public MockSettings getMock() {
+            return mock;
+        }
+
+        public void setMock(MockSettings mock) {
+            this.mock = mock;
+        }
+    }
+
+    /**
+     * Behaviour of a {@code mode: mock} provider. Scripted {@code responses} are returned in
+     * turn; without them the {@code template} is rendered, see {@code MockLlmProvider}.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class MockSettings {
+        private List<String> responses = new ArrayList<>();
+        private String template;
+        private LatencySettings latency = new LatencySettings();
+        private double tokensPerSecond = 40;
+        private double errorRate;
+        private int errorStatus = 503;
+        private Long seed;
+        private int maxSteps = 5;
+
+        public List<String> getResponses() {
+            return responses;
+        }
+
+        public void setResponses(List<String> responses) {
+            this.responses = responses;
+        }
+
+        public String getTemplate() {
+            return template;
+        }
+
+        public void setTemplate(String template) {
+            this.template = template;
+        }
+
+        public LatencySettings getLatency() {
+            return latency;
+        }
+
+        public void setLatency(LatencySettings latency) {
+            this.latency = latency;
+        }
+
+        public double getTokensPerSecond() {
+            return tokensPerSecond;
+        }
+
+        public void setTokensPerSecond(double tokensPerSecond) {
+            this.tokensPerSecond = tokensPerSecond;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public void setErrorRate(double errorRate) {
+            this.errorRate = errorRate;
+        }
+
+        public int getErrorStatus() {
+            return errorStatus;
+        }
+
+        public void setErrorStatus(int errorStatus) {
+            this.errorStatus = errorStatus;
+        }
+
+        public Long getSeed() {
+            return seed;
+        }
+
+        public void setSeed(Long seed) {
+            this.seed = seed;
+        }
+
+        public int getMaxSteps() {
+            return maxSteps;
+        }
+
+        public void setMaxSteps(int maxSteps) {
+            this.maxSteps = maxSteps;
+        }
+    }
+
+    /**
+     * Time to first token. {@code distribution} is one of fixed, uniform (mean &plusmn; stddev),
+     * normal or lognormal (with the given mean and standard deviation).
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class LatencySettings {
+        private String distribution = "fixed";
+        private long meanMs = 200;
+        private long stddevMs;
+
+        public String getDistribution() {
+            return distribution;
+        }
+
+        public void setDistribution(String distribution) {
+            this.distribution = distribution;
+        }
+
+        public long getMeanMs() {
+            return meanMs;
+        }
+
+        public void setMeanMs(long meanMs) {
+            this.meanMs = meanMs;
+        }
+
+        public long getStddevMs() {
+            return stddevMs;
+        }
+
+        public void setStddevMs(long stddevMs) {
+            this.stddevMs = stddevMs;
+        }
     }
 }
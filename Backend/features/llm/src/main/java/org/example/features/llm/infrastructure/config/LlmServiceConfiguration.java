@@ -0,0 +1,42 @@
+package org.example.features.llm.infrastructure.config;
+
+import org.example.features.llm.domain.services.LLMService;
+import org.example.features.llm.infrastructure.services.BatchingLlmService;
+import org.example.features.llm.infrastructure.services.CachingLlmService;
+import org.example.features.llm.infrastructure.services.CoalescingLlmService;
+import org.example.features.llm.infrastructure.services.HttpLlmService;
+import org.example.features.llm.infrastructure.services.LlmResponseCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Assembles the {@link LLMService} seen by the rest of the application: the HTTP provider
+ * client behind single-flight coalescing, behind batch packing, behind the response cache. A
+ * cache miss therefore still collapses onto a concurrent identical call, and a batch only
+ * packs the requests the cache could not answer.
+ */
+@Configuration
+public class LlmServiceConfiguration {
+
+    @Bean
+    @Primary
+    public LLMService llmService(BatchingLlmService batchingLlmService, LlmResponseCache responseCache) {
+        return new CachingLlmService(batchingLlmService, responseCache);
+    }
+
+    @Bean
+    public BatchingLlmService batchingLlmService(
+        CoalescingLlmService coalescingLlmService,
+        @Value("${llm.batch.max-questions:8}") int maxQuestions,
+        @Value("${llm.batch.max-prompt-tokens:6000}") int maxPromptTokens
+    ) {
+        return new BatchingLlmService(coalescingLlmService, maxQuestions, maxPromptTokens);
+    }
+
+    @Bean
+    public CoalescingLlmService coalescingLlmService(HttpLlmService httpLlmService) {
+        return new CoalescingLlmService(httpLlmService);
+    }
+}
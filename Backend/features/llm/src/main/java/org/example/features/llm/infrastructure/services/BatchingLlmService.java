@@ -0,0 +1,286 @@
+package org.example.features.llm.infrastructure.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.features.llm.domain.dto.ChatCompletionRequest;
+import org.example.features.llm.domain.dto.ChatCompletionResponse;
+import org.example.features.llm.domain.dto.LlmAnalyticsSnapshot;
+import org.example.features.llm.domain.services.LLMService;
+import org.example.features.llm.domain.services.TokenEstimator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Answers a batch of small single-turn requests with as few provider calls as possible.
+ * Requests that share model, system prompt and sampling settings are packed into one
+ * multi-question prompt (bounded by question count and prompt tokens), so the system prompt
+ * is paid once per pack instead of once per request; the model answers with a JSON object
+ * keyed by question id, which is split back into one response per request. A request whose
+ * answer is missing or unreadable is retried on its own.
+ *
+ * <p>The configured providers (Ollama and OpenAI-compatible chat endpoints) have no
+ * synchronous batch API, so packing is the only batching done here.
+ */
+public class BatchingLlmService extends DelegatingLlmService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingLlmService.class);
+    private static final String BATCH_INSTRUCTIONS = """
+        You will receive several independent questions, each introduced by a line "### Question <id>".
+        Answer every question on its own, exactly as you would if it had been asked alone, following all \
+        instructions above for each answer. Respond with JSON only, no prose and no code fences:
+        {"answers": [{"id": "<id>", "content": <the complete answer>}]}
+        If an answer is itself JSON, put it in "content" as a JSON value; otherwise use a string.""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int maxQuestions;
+    private final int maxPromptTokens;
+    private final LongAdder packedCalls = new LongAdder();
+    private final LongAdder packedRequests = new LongAdder();
+    private final LongAdder unpackedRetries = new LongAdder();
+
+    public BatchingLlmService(LLMService delegate, int maxQuestions, int maxPromptTokens) {
+        super(delegate);
+        this.maxQuestions = Math.max(1, maxQuestions);
+        this.maxPromptTokens = Math.max(1, maxPromptTokens);
+    }
+
+    @Override
+    public CompletableFuture<List<ChatCompletionResponse>> chatCompletionBatch(List<ChatCompletionRequest> requests) {
+        List<CompletableFuture<ChatCompletionResponse>> responses = new ArrayList<>(requests.size());
+        for (int index = 0; index < requests.size(); index++) {
+            responses.add(null);
+        }
+        for (List<Integer> pack : pack(requests)) {
+            if (pack.size() == 1) {
+                int index = pack.getFirst();
+                responses.set(index, delegate.chatCompletion(requests.get(index)));
+                continue;
+            }
+            List<CompletableFuture<ChatCompletionResponse>> answers = sendPack(requests, pack);
+            for (int position = 0; position < pack.size(); position++) {
+                responses.set(pack.get(position), answers.get(position));
+            }
+        }
+        return CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> responses.stream().map(CompletableFuture::join).toList());
+    }
+
+    /** Provider calls that carried more than one request. */
+    public long packedCallCount() {
+        return packedCalls.sum();
+    }
+
+    /** Requests answered through a packed call. */
+    public long packedRequestCount() {
+        return packedRequests.sum();
+    }
+
+    /** Requests sent again on their own because the packed answer did not contain them. */
+    public long unpackedRetryCount() {
+        return unpackedRetries.sum();
+    }
+
+    public LlmAnalyticsSnapshot.BatchSnapshot snapshot() {
+        return new LlmAnalyticsSnapshot.BatchSnapshot(packedCalls.sum(), packedRequests.sum(), unpackedRetries.sum());
+    }
+
+    /**
+     * Groups request indexes into packs. Multi-turn requests, requests with stop sequences and
+     * requests with a response schema are never packed, since the combined prompt would change
+     * their meaning.
+     */
+    private List<List<Integer>> pack(List<ChatCompletionRequest> requests) {
+        TokenEstimator estimator = getTokenEstimator();
+        int budget = Math.min(maxPromptTokens, Math.max(1, estimator.contextWindowTokens() / 2));
+        Map<String, List<List<Integer>>> groups = new LinkedHashMap<>();
+        Map<List<Integer>, Integer> packTokens = new IdentityHashMap<>();
+        List<List<Integer>> packs = new ArrayList<>();
+        for (int index = 0; index < requests.size(); index++) {
+            ChatCompletionRequest request = requests.get(index);
+            String key = packKey(request);
+            if (key == null || maxQuestions == 1) {
+                packs.add(List.of(index));
+                continue;
+            }
+            int tokens = estimator.estimate(question(request));
+            List<List<Integer>> open = groups.computeIfAbsent(key, ignored -> new ArrayList<>());
+            List<Integer> current = open.isEmpty() ? null : open.getLast();
+            if (current == null || current.size() >= maxQuestions || packTokens.get(current) + tokens > budget) {
+                current = new ArrayList<>();
+                open.add(current);
+                packs.add(current);
+                packTokens.put(current, estimator.estimate(systemPrompt(request)) + estimator.estimate(BATCH_INSTRUCTIONS));
+            }
+            current.add(index);
+            packTokens.merge(current, tokens, Integer::sum);
+        }
+        return packs;
+    }
+
+    private List<CompletableFuture<ChatCompletionResponse>> sendPack(List<ChatCompletionRequest> requests, List<Integer> pack) {
+        List<ChatCompletionRequest> members = pack.stream().map(requests::get).toList();
+        List<CompletableFuture<ChatCompletionResponse>> answers = new ArrayList<>();
+        members.forEach(ignored -> answers.add(new CompletableFuture<>()));
+        packedCalls.increment();
+        delegate.chatCompletion(packedRequest(members)).whenComplete((response, error) -> {
+            Map<String, String> contents = error == null ? split(response) : Map.of();
+            if (error != null) {
+                LOGGER.warn("Packed call for {} requests failed, sending them one by one: {}", members.size(), error.getMessage());
+            }
+            for (int position = 0; position < members.size(); position++) {
+                String content = contents.get(questionId(position));
+                CompletableFuture<ChatCompletionResponse> answer = answers.get(position);
+                if (content != null) {
+                    packedRequests.increment();
+                    answer.complete(unpacked(response, position, members.size(), content));
+                } else {
+                    unpackedRetries.increment();
+                    delegate.chatCompletion(members.get(position)).whenComplete((single, singleError) -> {
+                        if (singleError != null) {
+                            answer.completeExceptionally(singleError);
+                        } else {
+                            answer.complete(single);
+                        }
+                    });
+                }
+            }
+        });
+        return answers;
+    }
+
+    private ChatCompletionRequest packedRequest(List<ChatCompletionRequest> members) {
+        ChatCompletionRequest first = members.getFirst();
+        StringBuilder questions = new StringBuilder();
+        Integer maxTokens = 0;
+        Instant deadline = null;
+        for (int position = 0; position < members.size(); position++) {
+            ChatCompletionRequest member = members.get(position);
+            if (position > 0) {
+                questions.append("\n\n");
+            }
+            questions.append("### Question ").append(questionId(position)).append('\n').append(question(member));
+            maxTokens = maxTokens == null || member.getMaxTokens() == null ? null : maxTokens + member.getMaxTokens();
+            if (member.getDeadline() != null && (deadline == null || member.getDeadline().isBefore(deadline))) {
+                deadline = member.getDeadline();
+            }
+        }
+        String system = systemPrompt(first);
+        ChatCompletionRequest packed = new ChatCompletionRequest(first.getModel(), List.of(
+            new ChatCompletionRequest.Message("system", system.isEmpty() ? BATCH_INSTRUCTIONS : system + "\n\n" + BATCH_INSTRUCTIONS),
+            new ChatCompletionRequest.Message("user", questions.toString())
+        ));
+        packed.setTemperature(first.getTemperature());
+        packed.setTopP(first.getTopP());
+        packed.setFrequencyPenalty(first.getFrequencyPenalty());
+        packed.setPresencePenalty(first.getPresencePenalty());
+        packed.setMaxTokens(maxTokens);
+        packed.setUser(first.getUser());
+        packed.setCacheBypass(first.isCacheBypass());
+        packed.setPriority(first.getPriority());
+        packed.setDeadline(deadline);
+        packed.setSpreadAcrossProviders(first.isSpreadAcrossProviders());
+        return packed;
+    }
+
+    /** Answer contents by question id; empty when the response is not the expected JSON. */
+    private Map<String, String> split(ChatCompletionResponse response) {
+        String content = response == null || response.getChoices() == null || response.getChoices().isEmpty()
+            || response.getChoices().getFirst().getMessage() == null
+            ? null
+            : response.getChoices().getFirst().getMessage().getContent();
+        if (content == null) {
+            return Map.of();
+        }
+        int start = content.indexOf('{');
+        int end = content.lastIndexOf('}');
+        if (start < 0 || end <= start) {
+            return Map.of();
+        }
+        try {
+            JsonNode answers = objectMapper.readTree(content.substring(start, end + 1)).path("answers");
+            Map<String, String> contents = new HashMap<>();
+            for (JsonNode answer : answers) {
+                JsonNode value = answer.get("content");
+                if (answer.hasNonNull("id") && value != null && !value.isNull()) {
+                    contents.put(answer.get("id").asText(), value.isTextual() ? value.asText() : value.toString());
+                }
+            }
+            return contents;
+        } catch (Exception ex) {
+            LOGGER.debug("Packed response is not valid JSON: {}", ex.getMessage());
+            return Map.of();
+        }
+    }
+
+    /** Usage of the packed call is shared out evenly; the sums match the real call. */
+    private static ChatCompletionResponse unpacked(ChatCompletionResponse packed, int position, int size, String content) {
+        ChatCompletionResponse.Usage usage = null;
+        if (packed.getUsage() != null) {
+            int prompt = share(packed.getUsage().getPromptTokens(), position, size);
+            int completion = share(packed.getUsage().getCompletionTokens(), position, size);
+            usage = new ChatCompletionResponse.Usage(prompt, completion, prompt + completion);
+        }
+        return new ChatCompletionResponse(
+            packed.getId() + "-" + questionId(position),
+            packed.getObject(),
+            packed.getCreated(),
+            packed.getModel(),
+            List.of(new ChatCompletionResponse.Choice(0, new ChatCompletionResponse.Message("assistant", content), "stop")),
+            usage
+        );
+    }
+
+    private static int share(Integer total, int position, int size) {
+        int value = total == null ? 0 : total;
+        return value / size + (position < value % size ? 1 : 0);
+    }
+
+    /** Requests with the same key can share a prompt; {@code null} means the request is sent alone. */
+    private static String packKey(ChatCompletionRequest request) {
+        if (request == null || request.getMessages() == null || request.getMessages().isEmpty()
+            || (request.getStop() != null && !request.getStop().isEmpty()) || request.getResponseSchema() != null) {
+            return null;
+        }
+        List<ChatCompletionRequest.Message> messages = request.getMessages();
+        boolean withSystem = messages.size() == 2 && "system".equals(messages.getFirst().getRole());
+        if (!(messages.size() == 1 || withSystem) || !"user".equals(messages.getLast().getRole())) {
+            return null;
+        }
+        return String.join("\u0000",
+            Objects.toString(request.getModel(), ""),
+            systemPrompt(request),
+            Objects.toString(request.getTemperature(), ""),
+            Objects.toString(request.getTopP(), ""),
+            Objects.toString(request.getFrequencyPenalty(), ""),
+            Objects.toString(request.getPresencePenalty(), ""),
+            Objects.toString(request.getUser(), ""),
+            Objects.toString(request.getPriority(), ""),
+            Boolean.toString(request.isCacheBypass()),
+            Boolean.toString(request.isSpreadAcrossProviders())
+        );
+    }
+
+    private static String systemPrompt(ChatCompletionRequest request) {
+        ChatCompletionRequest.Message first = request.getMessages().getFirst();
+        return request.getMessages().size() > 1 ? Objects.toString(first.getContent(), "") : "";
+    }
+
+    private static String question(ChatCompletionRequest request) {
+        return Objects.toString(request.getMessages().getLast().getContent(), "");
+    }
+
+    private static String questionId(int position) {
+        return "q" + (position + 1);
+    }
+}
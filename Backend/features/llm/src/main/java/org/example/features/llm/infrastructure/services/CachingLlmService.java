@@ -0,0 +1,126 @@
+package org.example.features.llm.infrastructure.services;
+
+import org.example.features.llm.domain.dto.ChatCompletionChunk;
+import org.example.features.llm.domain.dto.ChatCompletionRequest;
+import org.example.features.llm.domain.dto.ChatCompletionResponse;
+import org.example.features.llm.domain.services.ChatCompletionStreams;
+import org.example.features.llm.domain.services.LLMService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Serves repeated chat completions from {@link LlmResponseCache}.
+ */
+public class CachingLlmService extends DelegatingLlmService {
+
+    private final LlmResponseCache cache;
+
+    public CachingLlmService(LLMService delegate, LlmResponseCache cache) {
+        super(delegate);
+        this.cache = cache;
+    }
+
+    @Override
+    public CompletableFuture<ChatCompletionResponse> chatCompletion(ChatCompletionRequest request) {
+        return cached(request, () -> delegate.chatCompletion(request));
+    }
+
+    @Override
+    public CompletableFuture<ChatCompletionResponse> hedgedChatCompletion(
+        ChatCompletionRequest request,
+        Predicate<ChatCompletionResponse> accept
+    ) {
+        return cached(request, () -> delegate.hedgedChatCompletion(request, accept));
+    }
+
+    /** Only the requests without a cached response are passed on, as one smaller batch. */
+    @Override
+    public CompletableFuture<List<ChatCompletionResponse>> chatCompletionBatch(List<ChatCompletionRequest> requests) {
+        List<ChatCompletionResponse> responses = new ArrayList<>(requests.size());
+        List<Integer> missIndexes = new ArrayList<>();
+        List<ChatCompletionRequest> misses = new ArrayList<>();
+        List<String> missKeys = new ArrayList<>();
+        for (ChatCompletionRequest request : requests) {
+            String key = usesCache(request) ? cache.keyFor(request) : null;
+            Optional<ChatCompletionResponse> cached = key == null ? Optional.empty() : cache.get(key);
+            responses.add(cached.orElse(null));
+            if (cached.isEmpty()) {
+                missIndexes.add(responses.size() - 1);
+                misses.add(request);
+                missKeys.add(key);
+            }
+        }
+        if (misses.isEmpty()) {
+            return CompletableFuture.completedFuture(responses);
+        }
+        long start = System.nanoTime();
+        return delegate.chatCompletionBatch(misses).thenApply(answered -> {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            for (int index = 0; index < answered.size(); index++) {
+                responses.set(missIndexes.get(index), answered.get(index));
+                if (missKeys.get(index) != null) {
+                    cache.put(missKeys.get(index), answered.get(index), elapsedMillis);
+                }
+            }
+            return responses;
+        });
+    }
+
+    private CompletableFuture<ChatCompletionResponse> cached(
+        ChatCompletionRequest request,
+        Supplier<CompletableFuture<ChatCompletionResponse>> call
+    ) {
+        if (!usesCache(request)) {
+            return call.get();
+        }
+        String key = cache.keyFor(request);
+        Optional<ChatCompletionResponse> cached = cache.get(key);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        long start = System.nanoTime();
+        return call.get().whenComplete((response, error) -> {
+            if (error == null) {
+                cache.put(key, response, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        });
+    }
+
+    @Override
+    public Flow.Publisher<ChatCompletionChunk> streamChatCompletion(ChatCompletionRequest request) {
+        if (!usesCache(request)) {
+            return delegate.streamChatCompletion(request);
+        }
+        return subscriber -> {
+            String key = cache.keyFor(request);
+            Optional<ChatCompletionResponse> cached = cache.get(key);
+            if (cached.isPresent()) {
+                ChatCompletionStreams.fromResponse(CompletableFuture.completedFuture(cached.get())).subscribe(subscriber);
+                return;
+            }
+            long start = System.nanoTime();
+            ChatCompletionStreams.tap(
+                delegate.streamChatCompletion(request),
+                response -> cache.put(key, response, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+            ).subscribe(subscriber);
+        };
+    }
+
+    private boolean usesCache(ChatCompletionRequest request) {
+        if (request == null || !cache.isEnabled()) {
+            return false;
+        }
+        if (request.isCacheBypass()) {
+            cache.recordBypass();
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.features.llm.infrastructure.services;
+
+import org.example.features.llm.domain.dto.ChatCompletionRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Identifies chat completion requests that must produce the same answer: a SHA-256 over the
+ * model, sampling parameters and whitespace-normalised messages. The provider is left out on
+ * purpose: the router decides per call which provider serves a request, so the provider known
+ * before the call says nothing about who produced the answer.
+ */
+final class ChatCompletionFingerprint {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private ChatCompletionFingerprint() {
+    }
+
+    static String of(ChatCompletionRequest request) {
+        StringBuilder canonical = new StringBuilder(256)
+            .append(normalize(request.getModel()).toLowerCase(Locale.ROOT)).append('\u0000')
+            .append(request.getTemperature()).append('\u0000')
+            .append(request.getMaxTokens()).append('\u0000')
+            .append(request.getTopP()).append('\u0000')
+            .append(request.getStop()).append('\u0000')
+            .append(request.getResponseSchema()).append('\u0000');
+        if (request.getMessages() != null) {
+            for (ChatCompletionRequest.Message message : request.getMessages()) {
+                if (message == null) {
+                    continue;
+                }
+                canonical.append(normalize(message.getRole()).toLowerCase(Locale.ROOT)).append('\u0001')
+                    .append(normalize(message.getContent())).append('\u0000');
+            }
+        }
+        return sha256(canonical.toString());
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : WHITESPACE.matcher(value.trim()).replaceAll(" ");
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
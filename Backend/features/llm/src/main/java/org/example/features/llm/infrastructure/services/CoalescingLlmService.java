@@ -0,0 +1,179 @@
+package org.example.features.llm.infrastructure.services;
+
+import org.example.features.llm.domain.dto.ChatCompletionChunk;
+import org.example.features.llm.domain.dto.ChatCompletionRequest;
+import org.example.features.llm.domain.dto.ChatCompletionResponse;
+import org.example.features.llm.domain.services.LLMService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for chat completions: while a request is in flight, identical requests
+ * (same {@link ChatCompletionFingerprint}) attach to it instead of reaching the provider.
+ * Nothing is retained once the call finishes; that is the cache's job.
+ */
+public class CoalescingLlmService extends DelegatingLlmService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoalescingLlmService.class);
+
+    private final ConcurrentMap<String, CompletableFuture<ChatCompletionResponse>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SharedStream> inFlightStreams = new ConcurrentHashMap<>();
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder followers = new LongAdder();
+
+    public CoalescingLlmService(LLMService delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public CompletableFuture<ChatCompletionResponse> chatCompletion(ChatCompletionRequest request) {
+        if (request == null) {
+            return delegate.chatCompletion(null);
+        }
+        return coalesce(request, () -> delegate.chatCompletion(request));
+    }
+
+    /** Followers of a hedged leader receive the response the leader's predicate accepted. */
+    @Override
+    public CompletableFuture<ChatCompletionResponse> hedgedChatCompletion(
+        ChatCompletionRequest request,
+        Predicate<ChatCompletionResponse> accept
+    ) {
+        if (request == null) {
+            return delegate.hedgedChatCompletion(null, accept);
+        }
+        return coalesce(request, () -> delegate.hedgedChatCompletion(request, accept));
+    }
+
+    private CompletableFuture<ChatCompletionResponse> coalesce(
+        ChatCompletionRequest request,
+        Supplier<CompletableFuture<ChatCompletionResponse>> call
+    ) {
+        String key = ChatCompletionFingerprint.of(request);
+        CompletableFuture<ChatCompletionResponse> shared = new CompletableFuture<>();
+        CompletableFuture<ChatCompletionResponse> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            followers.increment();
+            LOGGER.debug("Coalesced chat completion {} onto an in-flight request", key);
+            // copies keep one caller's cancellation from failing the others
+            return existing.copy();
+        }
+        leaders.increment();
+        try {
+            call.get().whenComplete((response, error) -> {
+                inFlight.remove(key, shared);
+                if (error != null) {
+                    shared.completeExceptionally(error);
+                } else {
+                    shared.complete(response);
+                }
+            });
+        } catch (RuntimeException ex) {
+            inFlight.remove(key, shared);
+            shared.completeExceptionally(ex);
+        }
+        return shared.copy();
+    }
+
+    @Override
+    public Flow.Publisher<ChatCompletionChunk> streamChatCompletion(ChatCompletionRequest request) {
+        if (request == null) {
+            return delegate.streamChatCompletion(null);
+        }
+        return subscriber -> {
+            String key = ChatCompletionFingerprint.of(request);
+            SharedStream created = new SharedStream(key);
+            SharedStream stream = inFlightStreams.putIfAbsent(key, created);
+            if (stream == null) {
+                leaders.increment();
+                created.attach(subscriber);
+                delegate.streamChatCompletion(request).subscribe(created);
+            } else {
+                followers.increment();
+                stream.attach(subscriber);
+            }
+        };
+    }
+
+    public long leaderCount() {
+        return leaders.sum();
+    }
+
+    public long coalescedCount() {
+        return followers.sum();
+    }
+
+    /**
+     * Fans one upstream stream out to every attached subscriber. Late subscribers first
+     * receive the chunks published so far, so each of them sees the complete completion.
+     */
+    private final class SharedStream implements Flow.Subscriber<ChatCompletionChunk> {
+
+        private final String key;
+        private final List<ChatCompletionChunk> history = new ArrayList<>();
+        private final List<SubmissionPublisher<ChatCompletionChunk>> outputs = new ArrayList<>();
+        private boolean completed;
+        private Throwable failure;
+
+        private SharedStream(String key) {
+            this.key = key;
+        }
+
+        synchronized void attach(Flow.Subscriber<? super ChatCompletionChunk> subscriber) {
+            SubmissionPublisher<ChatCompletionChunk> output = new SubmissionPublisher<>();
+            output.subscribe(subscriber);
+            history.forEach(output::submit);
+            if (failure != null) {
+                output.closeExceptionally(failure);
+            } else if (completed) {
+                output.close();
+            } else {
+                outputs.add(output);
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public synchronized void onNext(ChatCompletionChunk chunk) {
+            history.add(chunk);
+            for (SubmissionPublisher<ChatCompletionChunk> output : outputs) {
+                output.submit(chunk);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            inFlightStreams.remove(key, this);
+            synchronized (this) {
+                failure = throwable;
+                outputs.forEach(output -> output.closeExceptionally(throwable));
+                outputs.clear();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            inFlightStreams.remove(key, this);
+            synchronized (this) {
+                completed = true;
+                outputs.forEach(SubmissionPublisher::close);
+                outputs.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.features.llm.infrastructure.services;
+
+import org.example.features.llm.domain.dto.ChatCompletionChunk;
+import org.example.features.llm.domain.dto.ChatCompletionRequest;
+import org.example.features.llm.domain.dto.ChatCompletionResponse;
+import org.example.features.llm.domain.services.LLMService;
+import org.example.features.llm.domain.services.TokenEstimator;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Predicate;
+
+/**
+ * Base class for {@link LLMService} decorators; forwards everything to the wrapped service.
+ */
+public abstract class DelegatingLlmService implements LLMService {
+
+    protected final LLMService delegate;
+
+    protected DelegatingLlmService(LLMService delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    @Override
+    public CompletableFuture<ChatCompletionResponse> chatCompletion(ChatCompletionRequest request) {
+        return delegate.chatCompletion(request);
+    }
+
+    @Override
+    public Flow.Publisher<ChatCompletionChunk> streamChatCompletion(ChatCompletionRequest request) {
+        return delegate.streamChatCompletion(request);
+    }
+
+    @Override
+    public boolean isHedged(ChatCompletionRequest request) {
+        return delegate.isHedged(request);
+    }
+
+    @Override
+    public CompletableFuture<ChatCompletionResponse> hedgedChatCompletion(
+        ChatCompletionRequest request,
+        Predicate<ChatCompletionResponse> accept
+    ) {
+        return delegate.hedgedChatCompletion(request, accept);
+    }
+
+    @Override
+    public CompletableFuture<List<ChatCompletionResponse>> chatCompletionBatch(List<ChatCompletionRequest> requests) {
+        return delegate.chatCompletionBatch(requests);
+    }
+
+    @Override
+    public TokenEstimator getTokenEstimator() {
+        return delegate.getTokenEstimator();
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    @Override
+    public String getStatus() {
+        return delegate.getStatus();
+    }
+
+    @Override
+    public String[] getSupportedModels() {
+        return delegate.getSupportedModels();
+    }
+}
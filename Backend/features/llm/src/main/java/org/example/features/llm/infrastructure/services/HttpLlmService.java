@@ -1,94 +1,416 @@
 package org.example.features.llm.infrastructure.services;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.example.features.llm.domain.dto.ChatCompletionChunk;
 import org.example.features.llm.domain.dto.ChatCompletionRequest;
 import org.example.features.llm.domain.dto.ChatCompletionResponse;
+import org.example.features.llm.domain.entities.PerformanceMetrics;
 import org.example.features.llm.domain.services.LLMService;
+import org.example.features.llm.domain.services.TokenEstimator;
+import org.example.features.llmproviders.LlmProviderClients;
+import org.example.features.llmproviders.ProviderRequest;
+import org.example.features.llmproviders.ProviderResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
 
 /**
  * HTTP-based implementation that can talk to local Ollama or OpenRouter style providers.
+ * {@code mode: mock} providers are answered in-process by {@link MockLlmProvider}.
  */
 @Service
 public class HttpLlmService implements LLMService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpLlmService.class);
+    private static final String SSE_DATA_PREFIX = "data:";
+    private static final String SSE_DONE = "[DONE]";
+    private static final String LOGICAL_MODEL_PREFIX = "analysis-";
+    private static final int DEFAULT_COMPLETION_ESTIMATE = 512;
 
     private final LlmProviderRegistry registry;
-    private final HttpClient httpClient;
+    private final LlmProviderRouter router;
+    private final LlmRequestScheduler scheduler;
+    private final LlmCallTelemetry telemetry;
+    private final LlmHedgingPolicy hedgingPolicy;
+    private final MockLlmProvider mockProvider;
+    private final OllamaModelLifecycle modelLifecycle;
+    private final LlmSpendGovernor spendGovernor;
+    private final LlmProviderClients providerClients;
     private final ObjectMapper objectMapper;
     private final Duration requestTimeout;
 
     public HttpLlmService(
         LlmProviderRegistry registry,
+        LlmProviderRouter router,
+        LlmRequestScheduler scheduler,
+        LlmCallTelemetry telemetry,
+        LlmHedgingPolicy hedgingPolicy,
+        MockLlmProvider mockProvider,
+        OllamaModelLifecycle modelLifecycle,
+        LlmSpendGovernor spendGovernor,
+        LlmProviderClients providerClients,
         @Value("${llm.service.timeout-seconds:190}") long timeoutSeconds
     ) {
         this.registry = registry;
+        this.router = router;
+        this.scheduler = scheduler;
+        this.telemetry = telemetry;
+        this.hedgingPolicy = hedgingPolicy;
+        this.mockProvider = mockProvider;
+        this.modelLifecycle = modelLifecycle;
+        this.spendGovernor = spendGovernor;
         this.requestTimeout = Duration.ofSeconds(Math.max(5, timeoutSeconds));
-        this.httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(5))
-            .build();
+        this.providerClients = providerClients;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.findAndRegisterModules();
     }
 
+    /** Opens the connection pools of all enabled providers so the first call skips DNS, TCP and TLS setup. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpConnections() {
+        registry.getEnabledProviders().stream()
+            .filter(descriptor -> !descriptor.isMock() && StringUtils.hasText(descriptor.baseUrl()))
+            .forEach(descriptor -> providerClients.warmUp(descriptor.id(), descriptor.baseUrl()));
+    }
+
     @Override
     public boolean isAvailable() {
-        return registry.getActiveProvider()
-            .filter(LlmProviderRegistry.ProviderDescriptor::enabled)
-            .isPresent();
+        return router.hasHealthyProvider();
     }
 
+    /**
+     * Sends the request to the provider chosen by {@link LlmProviderRouter}; on a retryable
+     * failure the next candidate is tried.
+     */
     @Override
     public CompletableFuture<ChatCompletionResponse> chatCompletion(ChatCompletionRequest request) {
-        Objects.requireNonNull(request, "Chat completion request cannot be null");
-        if (request.getMessages() == null || request.getMessages().isEmpty()) {
-            return CompletableFuture.failedFuture(
-                new IllegalArgumentException("Chat completion request must include at least one message")
-            );
+        List<LlmProviderRegistry.ProviderDescriptor> candidates;
+        try {
+            validate(request);
+            candidates = router.route(request.isSpreadAcrossProviders());
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
         }
+        return attempt(request, candidates, 0, null);
+    }
 
-        LlmProviderRegistry.ProviderDescriptor descriptor = registry.getActiveProvider()
-            .orElseThrow(() -> new IllegalStateException("No active LLM provider configured"));
+    /** Only when the router would offer a second provider to race against. */
+    @Override
+    public boolean isHedged(ChatCompletionRequest request) {
+        return request != null && hedgingPolicy.appliesTo(request.getPriority()) && router.candidateCount() > 1;
+    }
 
-        if (!descriptor.enabled()) {
-            return CompletableFuture.failedFuture(
-                new IllegalStateException("Active LLM provider is disabled")
-            );
+    /**
+     * Sends the request to the routed provider and, if it has not produced an accepted
+     * response within its hedge delay, to the next candidate as well.
+     */
+    @Override
+    public CompletableFuture<ChatCompletionResponse> hedgedChatCompletion(
+        ChatCompletionRequest request,
+        Predicate<ChatCompletionResponse> accept
+    ) {
+        List<LlmProviderRegistry.ProviderDescriptor> candidates;
+        try {
+            validate(request);
+            candidates = router.route(request.isSpreadAcrossProviders());
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
         }
+        if (!isHedged(request) || candidates.size() < 2) {
+            return attempt(request, candidates, 0, null);
+        }
+        LlmProviderRegistry.ProviderDescriptor backup = candidates.get(1);
+        List<LlmProviderRegistry.ProviderDescriptor> primaryChain = new ArrayList<>(candidates);
+        primaryChain.remove(backup);
+        HedgedCall call = new HedgedCall(request, accept, List.of(primaryChain, List.of(backup)));
+        long delay = hedgingPolicy.delayMillis(candidates.get(0).id());
+        call.launchNext();
+        CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(call::launchNext);
+        return call.result;
+    }
 
-        String effectiveModel = resolveModel(request.getModel(), descriptor.model());
-        boolean isLocal = "local".equalsIgnoreCase(descriptor.mode());
+    /**
+     * @param abandon completed when the caller no longer needs the result; cancels the call
+     *                wherever it is, or {@code null}
+     */
+    private CompletableFuture<ChatCompletionResponse> attempt(
+        ChatCompletionRequest request,
+        List<LlmProviderRegistry.ProviderDescriptor> candidates,
+        int index,
+        CompletableFuture<Void> abandon
+    ) {
+        LlmProviderRegistry.ProviderDescriptor descriptor = candidates.get(index);
+        String effectiveModel = resolveModel(request.getModel(), descriptor, index == 0);
 
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Dispatching chat completion to {} ({}) with model {}",
                 descriptor.id(), descriptor.mode(), effectiveModel);
         }
 
-        return isLocal
-            ? invokeOllama(descriptor, request, effectiveModel)
-            : invokeOpenAiCompatible(descriptor, request, effectiveModel);
+        CompletableFuture<Admission> admissionFuture = acquire(descriptor, request);
+        cancelOn(abandon, admissionFuture);
+        CompletableFuture<ChatCompletionResponse> call = admissionFuture.thenCompose(admission -> {
+            LlmProviderRouter.Lease lease = router.begin(descriptor.id());
+            long sentNanos = System.nanoTime();
+            CompletableFuture<ChatCompletionResponse> sent;
+            try {
+                if (descriptor.isMock()) {
+                    sent = mockProvider.complete(descriptor, request, effectiveModel);
+                    cancelOn(abandon, sent);
+                } else {
+                    sent = descriptor.isLocal()
+                        ? invokeOllama(descriptor, request, effectiveModel, abandon)
+                        : invokeOpenAiCompatible(descriptor, request, effectiveModel, abandon);
+                }
+            } catch (RuntimeException ex) {
+                sent = CompletableFuture.failedFuture(ex);
+            }
+            return sent.whenComplete((response, error) -> {
+                admission.release(response != null ? response.getUsage() : null);
+                if (error != null && unwrap(error) instanceof CancellationException) {
+                    // a hedge loser: neither the provider's health nor its latency is known
+                    lease.abandoned();
+                    return;
+                }
+                if (error == null) {
+                    lease.succeeded();
+                } else {
+                    lease.failed(unwrap(error));
+                }
+                recordCall(descriptor, effectiveModel, "chat", request, admission.permit(), sentNanos, null,
+                    response != null ? response.getUsage() : null, error != null ? unwrap(error) : null);
+            });
+        });
+        return call.handle((response, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(response);
+            }
+            Throwable cause = unwrap(error);
+            if (index + 1 < candidates.size() && isRetryable(cause)) {
+                router.recordFailover(descriptor.id(), candidates.get(index + 1).id(), cause);
+                return attempt(request, candidates, index + 1, abandon);
+            }
+            return CompletableFuture.<ChatCompletionResponse>failedFuture(cause);
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Streams Ollama NDJSON ({@code /api/chat}) or OpenAI-style server-sent events
+     * ({@code /chat/completions}). Lines are parsed as they arrive, so the first chunk is
+     * published as soon as the provider emits its first token. Failover is only possible
+     * until the first chunk has been published.
+     */
+    @Override
+    public Flow.Publisher<ChatCompletionChunk> streamChatCompletion(ChatCompletionRequest request) {
+        return subscriber -> {
+            SubmissionPublisher<ChatCompletionChunk> publisher = new SubmissionPublisher<>();
+            publisher.subscribe(subscriber);
+            try {
+                validate(request);
+                streamAttempt(request, router.route(request.isSpreadAcrossProviders()), 0, publisher);
+            } catch (RuntimeException ex) {
+                publisher.closeExceptionally(ex);
+            }
+        };
+    }
+
+    private void streamAttempt(
+        ChatCompletionRequest request,
+        List<LlmProviderRegistry.ProviderDescriptor> candidates,
+        int index,
+        SubmissionPublisher<ChatCompletionChunk> publisher
+    ) {
+        LlmProviderRegistry.ProviderDescriptor descriptor = candidates.get(index);
+        String effectiveModel = resolveModel(request.getModel(), descriptor, index == 0);
+        LOGGER.debug("Streaming chat completion from {} ({}) with model {}",
+            descriptor.id(), descriptor.mode(), effectiveModel);
+        ProviderRequest providerRequest = descriptor.isMock()
+            ? null
+            : descriptor.isLocal()
+                ? ollamaRequest(descriptor, buildOllamaPayload(descriptor, request, effectiveModel, true), "application/x-ndjson")
+                : openAiRequest(descriptor, buildOpenAiPayload(request, effectiveModel, true), "text/event-stream");
+        acquire(descriptor, request).whenComplete((admission, rejected) -> {
+            if (rejected != null) {
+                streamFailed(request, candidates, index, publisher, unwrap(rejected), false);
+                return;
+            }
+            // the mock emits OpenAI-style event lines, so both paths share the line parser
+            StreamLineHandler lines = new StreamLineHandler(publisher, !descriptor.isLocal(), effectiveModel);
+            LlmProviderRouter.Lease lease = router.begin(descriptor.id());
+            long sentNanos = System.nanoTime();
+            CompletableFuture<Throwable> exchange = descriptor.isMock()
+                ? mockProvider.stream(descriptor, request, effectiveModel, lines)
+                    .handle((ignored, error) -> error != null ? unwrap(error) : lines.failure)
+                : providerClients.clientFor(descriptor.id(), descriptor.baseUrl()).stream(providerRequest, lines)
+                    .handle((response, error) -> error != null
+                        ? unwrap(error)
+                        : response.isSuccess() ? lines.failure : failure(descriptor, response));
+            exchange.thenAccept(failure -> {
+                admission.release(lines.usage);
+                recordCall(descriptor, effectiveModel, "stream", request, admission.permit(), sentNanos,
+                    lines.firstTokenNanos != 0 ? lines.firstTokenNanos : null, lines.usage, failure);
+                if (failure == null) {
+                    lease.succeeded();
+                    publisher.close();
+                    return;
+                }
+                lease.failed(failure);
+                streamFailed(request, candidates, index, publisher, failure, lines.published);
+            });
+        });
+    }
+
+    private void streamFailed(
+        ChatCompletionRequest request,
+        List<LlmProviderRegistry.ProviderDescriptor> candidates,
+        int index,
+        SubmissionPublisher<ChatCompletionChunk> publisher,
+        Throwable failure,
+        boolean published
+    ) {
+        if (!published && index + 1 < candidates.size() && isRetryable(failure)) {
+            router.recordFailover(candidates.get(index).id(), candidates.get(index + 1).id(), failure);
+            try {
+                streamAttempt(request, candidates, index + 1, publisher);
+            } catch (RuntimeException ex) {
+                publisher.closeExceptionally(ex);
+            }
+        } else {
+            publisher.closeExceptionally(failure);
+        }
+    }
+
+    private void recordCall(
+        LlmProviderRegistry.ProviderDescriptor descriptor,
+        String model,
+        String operation,
+        ChatCompletionRequest request,
+        LlmRequestScheduler.Permit permit,
+        long sentNanos,
+        Long firstTokenNanos,
+        ChatCompletionResponse.Usage usage,
+        Throwable failure
+    ) {
+        long endNanos = System.nanoTime();
+        PerformanceMetrics metrics = new PerformanceMetrics(
+            UUID.randomUUID().toString(),
+            model,
+            operation,
+            TimeUnit.NANOSECONDS.toMillis(endNanos - sentNanos),
+            usage != null ? usage.getTotalTokens() : 0,
+            failure == null
+        );
+        metrics.setProviderId(descriptor.id());
+        metrics.setQueueWaitMs(permit.queueWaitMillis());
+        metrics.setPromptCacheKey(request.getPromptCacheKey());
+        if (firstTokenNanos != null) {
+            metrics.setTimeToFirstTokenMs(TimeUnit.NANOSECONDS.toMillis(firstTokenNanos - sentNanos));
+        }
+        if (usage != null) {
+            metrics.setPromptTokens(usage.getPromptTokens());
+            metrics.setCompletionTokens(usage.getCompletionTokens());
+            metrics.setCachedPromptTokens(usage.getCachedPromptTokens());
+            metrics.setPromptEvalMs(usage.getPromptEvalMs());
+            // generation speed: a streamed call starts generating at its first token
+            long generationNanos = endNanos - (firstTokenNanos != null ? firstTokenNanos : sentNanos);
+            if (usage.getCompletionTokens() > 0 && generationNanos > 0) {
+                metrics.setTokensPerSecond(usage.getCompletionTokens() * 1_000_000_000d / generationNanos);
+            }
+        }
+        if (failure != null) {
+            metrics.setErrorMessage(failure.getMessage());
+            if (failure instanceof LlmProviderException providerException && providerException.getStatusCode() == 429) {
+                spendGovernor.throttled(descriptor.id());
+            }
+        }
+        telemetry.record(metrics);
+    }
+
+    /**
+     * Waits until the call fits the provider's spend budget, then for a slot on the provider.
+     * Requests without an explicit deadline get the request timeout, so a call that would time
+     * out anyway is dropped while still queued.
+     */
+    private CompletableFuture<Admission> acquire(
+        LlmProviderRegistry.ProviderDescriptor descriptor,
+        ChatCompletionRequest request
+    ) {
+        Instant deadline = request.getDeadline() != null ? request.getDeadline() : Instant.now().plus(requestTimeout);
+        return spendGovernor.admit(descriptor, request.getPriority(), deadline, estimateTokens(descriptor, request))
+            .thenCompose(grant -> scheduler
+                .acquire(descriptor, request.getPriority(), deadline, expectedServiceMillis(descriptor))
+                .handle((permit, error) -> {
+                    if (error != null) {
+                        grant.settle(null);
+                        throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                    }
+                    return new Admission(permit, grant);
+                }));
+    }
+
+    /**
+     * The router's latency average, capped at half the request timeout: a few calls that ran
+     * into the timeout must not make every queued call look hopeless, and the average only
+     * moves again once calls are sent.
+     */
+    private long expectedServiceMillis(LlmProviderRegistry.ProviderDescriptor descriptor) {
+        return Math.min(router.expectedLatencyMillis(descriptor.id()), requestTimeout.toMillis() / 2);
+    }
+
+    /** Prompt tokens plus the completion limit, the most the call can cost. */
+    private static int estimateTokens(LlmProviderRegistry.ProviderDescriptor descriptor, ChatCompletionRequest request) {
+        TokenEstimator estimator = TokenEstimator.forModel(descriptor.model(), descriptor.isLocal(), descriptor.contextWindow());
+        int tokens = request.getMaxTokens() != null ? request.getMaxTokens() : DEFAULT_COMPLETION_ESTIMATE;
+        if (request.getMessages() != null) {
+            for (ChatCompletionRequest.Message message : request.getMessages()) {
+                tokens += message != null ? estimator.estimate(message.getContent()) : 0;
+            }
+        }
+        return tokens;
+    }
+
+    /** A scheduler slot and the spend reserved for one call. */
+    private record Admission(LlmRequestScheduler.Permit permit, LlmSpendGovernor.Grant grant) {
+        void release(ChatCompletionResponse.Usage usage) {
+            permit.release();
+            grant.settle(usage != null ? usage.getTotalTokens() : null);
+        }
+    }
+
+    @Override
+    public TokenEstimator getTokenEstimator() {
+        return registry.getActiveProvider()
+            .map(descriptor -> TokenEstimator.forModel(descriptor.model(), descriptor.isLocal(), descriptor.contextWindow()))
+            .orElse(TokenEstimator.DEFAULT);
     }
 
     @Override
@@ -105,36 +427,27 @@ public class HttpLlmService implements LLMService {
 
     @Override
     public String[] getSupportedModels() {
-        return registry.getActiveProvider()
-            .map(descriptor -> new String[] { descriptor.model() })
-            .orElseGet(() -> new String[0]);
+        return registry.getEnabledProviders().stream()
+            .map(LlmProviderRegistry.ProviderDescriptor::model)
+            .filter(StringUtils::hasText)
+            .distinct()
+            .toArray(String[]::new);
     }
 
     private CompletableFuture<ChatCompletionResponse> invokeOpenAiCompatible(
         LlmProviderRegistry.ProviderDescriptor descriptor,
         ChatCompletionRequest request,
-        String model
+        String model,
+        CompletableFuture<Void> abandon
     ) {
-        String url = normalizeBase(descriptor.baseUrl()) + "/chat/completions";
-        ObjectNode payload = buildOpenAiPayload(request, model);
-
-        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
-            .timeout(requestTimeout)
-            .header("Content-Type", "application/json")
-            .header("Accept", "application/json");
-
-        String apiKey = resolveApiKey(descriptor.apiKey());
-        if (StringUtils.hasText(apiKey)) {
-            builder.header("Authorization", "Bearer " + apiKey);
-        }
+        ProviderRequest providerRequest = openAiRequest(descriptor, buildOpenAiPayload(request, model, false), "application/json");
 
-        HttpRequest httpRequest = builder
-            .POST(HttpRequest.BodyPublishers.ofString(payload.toString(), StandardCharsets.UTF_8))
-            .build();
-
-        return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+        CompletableFuture<ProviderResponse> exchange =
+            providerClients.clientFor(descriptor.id(), descriptor.baseUrl()).send(providerRequest);
+        cancelOn(abandon, exchange);
+        return exchange
             .thenApply(response -> {
-                ensureSuccess(response);
+                ensureSuccess(descriptor, response);
                 return parseOpenAiResponse(response.body(), model);
             });
     }
@@ -142,25 +455,36 @@ public class HttpLlmService implements LLMService {
     private CompletableFuture<ChatCompletionResponse> invokeOllama(
         LlmProviderRegistry.ProviderDescriptor descriptor,
         ChatCompletionRequest request,
-        String model
+        String model,
+        CompletableFuture<Void> abandon
     ) {
-        String url = normalizeBase(descriptor.baseUrl()) + "/api/chat";
-        ObjectNode payload = buildOllamaPayload(request, model);
-
-        HttpRequest httpRequest = HttpRequest.newBuilder(URI.create(url))
-            .timeout(requestTimeout)
-            .header("Content-Type", "application/json")
-            .POST(HttpRequest.BodyPublishers.ofString(payload.toString(), StandardCharsets.UTF_8))
-            .build();
+        ProviderRequest providerRequest = ollamaRequest(descriptor, buildOllamaPayload(descriptor, request, model, false), "application/json");
 
-        return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+        CompletableFuture<ProviderResponse> exchange =
+            providerClients.clientFor(descriptor.id(), descriptor.baseUrl()).send(providerRequest);
+        cancelOn(abandon, exchange);
+        return exchange
             .thenApply(response -> {
-                ensureSuccess(response);
+                ensureSuccess(descriptor, response);
                 return parseOllamaResponse(response.body(), model);
             });
     }
 
-    private ObjectNode buildOpenAiPayload(ChatCompletionRequest request, String model) {
+    private ProviderRequest openAiRequest(LlmProviderRegistry.ProviderDescriptor descriptor, ObjectNode payload, String accept) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Accept", accept);
+        String apiKey = resolveApiKey(descriptor.apiKey());
+        if (StringUtils.hasText(apiKey)) {
+            headers.put("Authorization", "Bearer " + apiKey);
+        }
+        return new ProviderRequest("/chat/completions", headers, payload.toString(), requestTimeout);
+    }
+
+    private ProviderRequest ollamaRequest(LlmProviderRegistry.ProviderDescriptor descriptor, ObjectNode payload, String accept) {
+        return new ProviderRequest("/api/chat", Map.of("Accept", accept), payload.toString(), requestTimeout);
+    }
+
+    private ObjectNode buildOpenAiPayload(ChatCompletionRequest request, String model, boolean stream) {
         ObjectNode node = objectMapper.createObjectNode();
         node.put("model", model);
         node.set("messages", toMessageArray(request.getMessages()));
@@ -186,15 +510,32 @@ public class HttpLlmService implements LLMService {
         if (StringUtils.hasText(request.getUser())) {
             node.put("user", request.getUser());
         }
-        node.put("stream", false);
+        if (StringUtils.hasText(request.getPromptCacheKey())) {
+            node.put("prompt_cache_key", request.getPromptCacheKey());
+        }
+        if (request.getResponseSchema() != null) {
+            ObjectNode schema = node.putObject("response_format").put("type", "json_schema").putObject("json_schema");
+            schema.put("name", StringUtils.hasText(request.getResponseSchemaName()) ? request.getResponseSchemaName() : "response");
+            schema.set("schema", objectMapper.valueToTree(request.getResponseSchema()));
+        }
+        node.put("stream", stream);
+        if (stream) {
+            // usage is otherwise omitted from streamed responses
+            node.putObject("stream_options").put("include_usage", true);
+        }
         return node;
     }
 
-    private ObjectNode buildOllamaPayload(ChatCompletionRequest request, String model) {
+    private ObjectNode buildOllamaPayload(
+        LlmProviderRegistry.ProviderDescriptor descriptor,
+        ChatCompletionRequest request,
+        String model,
+        boolean stream
+    ) {
         ObjectNode node = objectMapper.createObjectNode();
         node.put("model", model);
         node.set("messages", toMessageArray(request.getMessages()));
-        node.put("stream", false);
+        node.put("stream", stream);
 
         ObjectNode options = objectMapper.createObjectNode();
         if (request.getTemperature() != null) {
@@ -204,7 +545,11 @@ public class HttpLlmService implements LLMService {
             options.put("top_p", request.getTopP());
         }
         if (request.getMaxTokens() != null) {
-            options.put("num_ctx", request.getMaxTokens());
+            options.put("num_predict", request.getMaxTokens());
+        }
+        // num_ctx changes reload the model and drop its prompt cache, so it only ever follows the provider config
+        if (descriptor.contextWindow() != null && descriptor.contextWindow() > 0) {
+            options.put("num_ctx", descriptor.contextWindow());
         }
         if (!options.isEmpty()) {
             node.set("options", options);
@@ -212,7 +557,10 @@ public class HttpLlmService implements LLMService {
         if (request.getStop() != null && !request.getStop().isEmpty()) {
             node.set("stop", objectMapper.valueToTree(request.getStop()));
         }
-        node.put("keep_alive", "5m");
+        if (request.getResponseSchema() != null) {
+            node.set("format", objectMapper.valueToTree(request.getResponseSchema()));
+        }
+        node.put("keep_alive", modelLifecycle.keepAliveFor(descriptor, model));
         return node;
     }
 
@@ -264,6 +612,10 @@ public class HttpLlmService implements LLMService {
                     usageNode.path("completion_tokens").asInt(0),
                     usageNode.path("total_tokens").asInt(0)
                 );
+                JsonNode cached = usageNode.path("prompt_tokens_details").path("cached_tokens");
+                if (cached.isNumber()) {
+                    usage.setCachedPromptTokens(cached.asInt());
+                }
                 response.setUsage(usage);
             }
             return response;
@@ -301,6 +653,9 @@ public class HttpLlmService implements LLMService {
                 completionTokens,
                 promptTokens + completionTokens
             );
+            if (root.path("prompt_eval_duration").isNumber()) {
+                usage.setPromptEvalMs(TimeUnit.NANOSECONDS.toMillis(root.path("prompt_eval_duration").asLong()));
+            }
             response.setUsage(usage);
             return response;
         } catch (IOException e) {
@@ -308,34 +663,135 @@ public class HttpLlmService implements LLMService {
         }
     }
 
-    private void ensureSuccess(HttpResponse<?> response) {
-        int status = response.statusCode();
-        if (status >= 200 && status < 300) {
-            return;
+    /**
+     * Parses one streamed line without building a tree: only the handful of fields a delta
+     * needs are picked out of the token stream. Returns {@code null} for keep-alives, SSE
+     * comments and chunks that carry nothing new.
+     */
+    ChatCompletionChunk parseStreamLine(String line, boolean openAi, String defaultModel) throws IOException {
+        if (line == null || line.isBlank()) {
+            return null;
         }
-        String bodyPreview;
-        if (response.body() instanceof String str) {
-            bodyPreview = truncate(str, 512);
-        } else {
-            bodyPreview = "<no-body>";
+        String json = line.trim();
+        if (openAi) {
+            if (!json.startsWith(SSE_DATA_PREFIX)) {
+                return null;
+            }
+            json = json.substring(SSE_DATA_PREFIX.length()).trim();
+            if (SSE_DONE.equals(json)) {
+                return new ChatCompletionChunk(null, null, "", null, null, true);
+            }
+        }
+
+        String id = null;
+        String model = defaultModel;
+        StringBuilder delta = new StringBuilder();
+        String finishReason = null;
+        boolean done = false;
+        Integer promptTokens = null;
+        Integer completionTokens = null;
+        Integer totalTokens = null;
+        Integer cachedTokens = null;
+        Long promptEvalNanos = null;
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (!token.isScalarValue() || token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (parser.getParsingContext().pathAsPointer().toString()) {
+                    case "/id" -> id = parser.getText();
+                    case "/model" -> model = parser.getText();
+                    case "/choices/0/delta/content", "/message/content" -> delta.append(parser.getText());
+                    case "/choices/0/finish_reason", "/done_reason" -> finishReason = parser.getText();
+                    case "/done" -> done = parser.getBooleanValue();
+                    case "/usage/prompt_tokens", "/prompt_eval_count" -> promptTokens = parser.getIntValue();
+                    case "/usage/completion_tokens", "/eval_count" -> completionTokens = parser.getIntValue();
+                    case "/usage/total_tokens" -> totalTokens = parser.getIntValue();
+                    case "/usage/prompt_tokens_details/cached_tokens" -> cachedTokens = parser.getIntValue();
+                    case "/prompt_eval_duration" -> promptEvalNanos = parser.getLongValue();
+                    case "/error", "/error/message" -> throw new IllegalStateException("LLM stream failed: " + parser.getText());
+                    default -> {
+                        // field not needed for a delta
+                    }
+                }
+            }
+        }
+
+        ChatCompletionResponse.Usage usage = null;
+        if (promptTokens != null || completionTokens != null) {
+            int prompt = promptTokens != null ? promptTokens : 0;
+            int completion = completionTokens != null ? completionTokens : 0;
+            usage = new ChatCompletionResponse.Usage(prompt, completion, totalTokens != null ? totalTokens : prompt + completion);
+            usage.setCachedPromptTokens(cachedTokens);
+            if (promptEvalNanos != null) {
+                usage.setPromptEvalMs(TimeUnit.NANOSECONDS.toMillis(promptEvalNanos));
+            }
+        }
+        if (done && finishReason == null) {
+            finishReason = "stop";
         }
-        throw new IllegalStateException("LLM call failed with HTTP " + status + ": " + bodyPreview);
+        if (delta.isEmpty() && finishReason == null && usage == null && !done) {
+            return null;
+        }
+        return new ChatCompletionChunk(id, model, delta.toString(), finishReason, usage, done);
     }
 
-    private String resolveModel(String requested, String fallback) {
-        if (!StringUtils.hasText(requested) || "analysis-planner".equalsIgnoreCase(requested)) {
-            return fallback;
+    private void ensureSuccess(LlmProviderRegistry.ProviderDescriptor descriptor, ProviderResponse response) {
+        if (!response.isSuccess()) {
+            throw failure(descriptor, response);
+        }
+    }
+
+    private LlmProviderException failure(LlmProviderRegistry.ProviderDescriptor descriptor, ProviderResponse response) {
+        String bodyPreview = response.body() != null ? truncate(response.body(), 512) : "<no-body>";
+        return new LlmProviderException(
+            descriptor.id(),
+            response.statusCode(),
+            "LLM call failed with HTTP " + response.statusCode() + ": " + bodyPreview
+        );
+    }
+
+    private void validate(ChatCompletionRequest request) {
+        Objects.requireNonNull(request, "Chat completion request cannot be null");
+        if (request.getMessages() == null || request.getMessages().isEmpty()) {
+            throw new IllegalArgumentException("Chat completion request must include at least one message");
         }
-        return requested;
     }
 
-    private String normalizeBase(String baseUrl) {
-        if (!StringUtils.hasText(baseUrl)) {
-            return "";
+    private static boolean isRetryable(Throwable failure) {
+        if (failure instanceof LlmProviderException providerException) {
+            return providerException.isRetryable();
         }
-        return baseUrl.endsWith("/")
-            ? baseUrl.substring(0, baseUrl.length() - 1)
-            : baseUrl;
+        return !(failure instanceof IllegalArgumentException) && !(failure instanceof CancellationException);
+    }
+
+    /** Cancelling a future returned by the provider client aborts the exchange. */
+    private static void cancelOn(CompletableFuture<Void> abandon, CompletableFuture<?> future) {
+        if (abandon != null) {
+            abandon.thenRun(() -> future.cancel(true));
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException) && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    /**
+     * Logical {@code analysis-*} names select the provider's configured model. An explicit
+     * model name is provider specific, so it is only honoured by the first candidate.
+     */
+    private String resolveModel(String requested, LlmProviderRegistry.ProviderDescriptor descriptor, boolean primary) {
+        if (!StringUtils.hasText(requested)
+            || requested.regionMatches(true, 0, LOGICAL_MODEL_PREFIX, 0, LOGICAL_MODEL_PREFIX.length())
+            || !primary) {
+            return descriptor.model();
+        }
+        return requested;
     }
 
     private String resolveApiKey(String raw) {
@@ -367,4 +823,148 @@ public class HttpLlmService implements LLMService {
         }
         return value.substring(0, max) + "...";
     }
+
+    /**
+     * One hedged completion: arms are launched in order, the first launched right away and the
+     * next one when the hedge delay expires or an earlier arm settles without an accepted
+     * response. The first accepted response completes {@link #result} and abandons the rest.
+     */
+    private final class HedgedCall {
+
+        private final ChatCompletionRequest request;
+        private final Predicate<ChatCompletionResponse> accept;
+        private final List<List<LlmProviderRegistry.ProviderDescriptor>> arms;
+        private final List<CompletableFuture<Void>> abandons = new ArrayList<>();
+        private final CompletableFuture<ChatCompletionResponse> result = new CompletableFuture<>();
+        private int launched;
+        private int settled;
+        private ChatCompletionResponse firstUnaccepted;
+        private Throwable firstFailure;
+
+        private HedgedCall(
+            ChatCompletionRequest request,
+            Predicate<ChatCompletionResponse> accept,
+            List<List<LlmProviderRegistry.ProviderDescriptor>> arms
+        ) {
+            this.request = request;
+            this.accept = accept;
+            this.arms = arms;
+            // also covers the caller cancelling the hedged call itself
+            result.whenComplete((response, error) -> abandonAll());
+        }
+
+        void launchNext() {
+            CompletableFuture<Void> abandon = new CompletableFuture<>();
+            List<LlmProviderRegistry.ProviderDescriptor> chain;
+            synchronized (this) {
+                if (result.isDone() || launched == arms.size()) {
+                    return;
+                }
+                chain = arms.get(launched++);
+                abandons.add(abandon);
+            }
+            if (chain != arms.get(0)) {
+                LOGGER.debug("Hedging chat completion with {}", chain.get(0).id());
+            }
+            CompletableFuture<ChatCompletionResponse> arm;
+            try {
+                arm = attempt(request, chain, 0, abandon);
+            } catch (RuntimeException ex) {
+                arm = CompletableFuture.failedFuture(ex);
+            }
+            arm.whenComplete(this::settle);
+        }
+
+        private void settle(ChatCompletionResponse response, Throwable error) {
+            if (error == null && isAccepted(response)) {
+                result.complete(response);
+                return;
+            }
+            boolean launchNext;
+            boolean exhausted;
+            ChatCompletionResponse fallback;
+            Throwable failure;
+            synchronized (this) {
+                settled++;
+                if (error == null && firstUnaccepted == null) {
+                    firstUnaccepted = response;
+                } else if (error != null && firstFailure == null) {
+                    firstFailure = unwrap(error);
+                }
+                launchNext = launched < arms.size();
+                exhausted = !launchNext && settled == launched;
+                fallback = firstUnaccepted;
+                failure = firstFailure;
+            }
+            if (launchNext) {
+                launchNext();
+            } else if (exhausted && fallback != null) {
+                result.complete(fallback);
+            } else if (exhausted) {
+                result.completeExceptionally(failure);
+            }
+        }
+
+        private boolean isAccepted(ChatCompletionResponse response) {
+            try {
+                return accept == null || accept.test(response);
+            } catch (RuntimeException ex) {
+                LOGGER.debug("Hedged response rejected: {}", ex.getMessage());
+                return false;
+            }
+        }
+
+        private void abandonAll() {
+            List<CompletableFuture<Void>> pending;
+            synchronized (this) {
+                pending = List.copyOf(abandons);
+            }
+            pending.forEach(abandon -> abandon.complete(null));
+        }
+    }
+
+    /**
+     * Bridges response lines into the chunk publisher. {@link SubmissionPublisher#submit}
+     * blocks while the downstream buffer is full, which pushes back on the HTTP body.
+     */
+    private final class StreamLineHandler implements Consumer<String> {
+
+        private final SubmissionPublisher<ChatCompletionChunk> publisher;
+        private final boolean openAi;
+        private final String model;
+        private volatile boolean published;
+        private volatile Throwable failure;
+        private volatile long firstTokenNanos;
+        private volatile ChatCompletionResponse.Usage usage;
+
+        private StreamLineHandler(SubmissionPublisher<ChatCompletionChunk> publisher, boolean openAi, String model) {
+            this.publisher = publisher;
+            this.openAi = openAi;
+            this.model = model;
+        }
+
+        @Override
+        public void accept(String line) {
+            if (failure != null || publisher.isClosed()) {
+                return;
+            }
+            try {
+                ChatCompletionChunk chunk = parseStreamLine(line, openAi, model);
+                if (chunk != null) {
+                    if (firstTokenNanos == 0 && chunk.hasText()) {
+                        firstTokenNanos = System.nanoTime();
+                    }
+                    if (chunk.usage() != null) {
+                        usage = chunk.usage();
+                    }
+                    published = true;
+                    publisher.submit(chunk);
+                }
+            } catch (IOException | RuntimeException ex) {
+                // remaining lines are drained and ignored; the exchange then completes normally
+                LOGGER.warn("Aborting LLM stream: {}", ex.getMessage());
+                failure = ex;
+            }
+        }
+    }
 }
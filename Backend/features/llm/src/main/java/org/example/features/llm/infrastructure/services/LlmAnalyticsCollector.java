@@ -0,0 +1,51 @@
+package org.example.features.llm.infrastructure.services;
+
+import org.example.features.llm.domain.dto.LlmAnalyticsSnapshot;
+import org.springframework.stereotype.Component;
+
+/**
+ * Combines provider state with the statistics of the LLM call pipeline.
+ */
+@Component
+public class LlmAnalyticsCollector {
+
+    private final LlmProviderRegistry registry;
+    private final LlmResponseCache responseCache;
+    private final LlmProviderRouter router;
+    private final LlmRequestScheduler scheduler;
+    private final LlmCallTelemetry telemetry;
+    private final OllamaModelLifecycle modelLifecycle;
+    private final LlmSpendGovernor spendGovernor;
+    private final BatchingLlmService batchingLlmService;
+
+    public LlmAnalyticsCollector(
+        LlmProviderRegistry registry,
+        LlmResponseCache responseCache,
+        LlmProviderRouter router,
+        LlmRequestScheduler scheduler,
+        LlmCallTelemetry telemetry,
+        OllamaModelLifecycle modelLifecycle,
+        LlmSpendGovernor spendGovernor,
+        BatchingLlmService batchingLlmService
+    ) {
+        this.registry = registry;
+        this.responseCache = responseCache;
+        this.router = router;
+        this.scheduler = scheduler;
+        this.telemetry = telemetry;
+        this.modelLifecycle = modelLifecycle;
+        this.spendGovernor = spendGovernor;
+        this.batchingLlmService = batchingLlmService;
+    }
+
+    public LlmAnalyticsSnapshot snapshot() {
+        return registry.snapshot()
+            .withCache(responseCache.snapshot())
+            .withRouting(router.snapshot())
+            .withScheduler(scheduler.snapshot())
+            .withTelemetry(telemetry.snapshot())
+            .withModels(modelLifecycle.snapshot())
+            .withBudgets(spendGovernor.snapshot())
+            .withBatching(batchingLlmService.snapshot());
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.features.llm.infrastructure.services;
+
+import org.example.features.llm.domain.dto.LlmAnalyticsSnapshot;
+import org.example.features.llm.domain.entities.PerformanceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the most recent {@link PerformanceMetrics} of every provider call in a fixed-size
+ * ring. Writers claim a slot with a single atomic increment and never block each other or
+ * readers; percentiles are computed on read over the calls inside the rolling window.
+ */
+@Component
+public class LlmCallTelemetry {
+
+    private final AtomicReferenceArray<PerformanceMetrics> ring;
+    private final AtomicLong written = new AtomicLong();
+    private final Duration window;
+    private final Clock clock;
+
+    @Autowired
+    public LlmCallTelemetry(
+        @Value("${llm.telemetry.capacity:2048}") int capacity,
+        @Value("${llm.telemetry.window-seconds:900}") long windowSeconds
+    ) {
+        this(capacity, Duration.ofSeconds(Math.max(1, windowSeconds)), Clock.systemDefaultZone());
+    }
+
+    LlmCallTelemetry(int capacity, Duration window, Clock clock) {
+        this.ring = new AtomicReferenceArray<>(Math.max(16, capacity));
+        this.window = window;
+        this.clock = clock;
+    }
+
+    public void record(PerformanceMetrics metrics) {
+        if (metrics.getTimestamp() == null) {
+            metrics.setTimestamp(LocalDateTime.now(clock));
+        }
+        long slot = written.getAndIncrement();
+        ring.set((int) (slot % ring.length()), metrics);
+    }
+
+    /** Most recent calls first. */
+    public List<PerformanceMetrics> recent(int limit) {
+        List<PerformanceMetrics> calls = inWindow();
+        calls.sort(Comparator.comparing(PerformanceMetrics::getTimestamp).reversed());
+        return calls.subList(0, Math.min(Math.max(0, limit), calls.size()));
+    }
+
+    public LlmAnalyticsSnapshot.TelemetrySnapshot snapshot() {
+        List<PerformanceMetrics> calls = inWindow();
+        Map<String, List<PerformanceMetrics>> byProvider = new TreeMap<>();
+        for (PerformanceMetrics call : calls) {
+            String provider = call.getProviderId() != null ? call.getProviderId() : "unknown";
+            byProvider.computeIfAbsent(provider, ignored -> new ArrayList<>()).add(call);
+        }
+        Map<String, LlmAnalyticsSnapshot.CallStats> providers = new LinkedHashMap<>();
+        byProvider.forEach((provider, providerCalls) -> providers.put(provider, aggregate(providerCalls)));
+        return new LlmAnalyticsSnapshot.TelemetrySnapshot(written.get(), calls.size(), window.toSeconds(), providers, prefixes(calls));
+    }
+
+    /**
+     * Latency percentile of the provider's successful calls inside the window, e.g. 0.95 for
+     * p95, or empty while the provider has no successful call.
+     */
+    public OptionalLong latencyPercentileMillis(String providerId, double percentile) {
+        long[] latencies = inWindow().stream()
+            .filter(call -> call.isSuccess() && providerId.equals(call.getProviderId()))
+            .mapToLong(PerformanceMetrics::getResponseTimeMs)
+            .sorted()
+            .toArray();
+        return latencies.length == 0 ? OptionalLong.empty() : OptionalLong.of(rank(latencies, percentile));
+    }
+
+    private List<PerformanceMetrics> inWindow() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(window);
+        List<PerformanceMetrics> calls = new ArrayList<>(ring.length());
+        for (int index = 0; index < ring.length(); index++) {
+            PerformanceMetrics call = ring.get(index);
+            if (call != null && call.getTimestamp().isAfter(cutoff)) {
+                calls.add(call);
+            }
+        }
+        return calls;
+    }
+
+    private static LlmAnalyticsSnapshot.CallStats aggregate(List<PerformanceMetrics> calls) {
+        int failures = 0;
+        long promptTokens = 0;
+        long completionTokens = 0;
+        double tokensPerSecondSum = 0;
+        int tokensPerSecondSamples = 0;
+        long[] latencies = new long[calls.size()];
+        long[] queueWaits = new long[calls.size()];
+        long[] firstTokens = new long[calls.size()];
+        int firstTokenSamples = 0;
+        for (int index = 0; index < calls.size(); index++) {
+            PerformanceMetrics call = calls.get(index);
+            latencies[index] = call.getResponseTimeMs();
+            queueWaits[index] = call.getQueueWaitMs();
+            if (call.getTimeToFirstTokenMs() != null) {
+                firstTokens[firstTokenSamples++] = call.getTimeToFirstTokenMs();
+            }
+            if (!call.isSuccess()) {
+                failures++;
+                continue;
+            }
+            promptTokens += call.getPromptTokens();
+            completionTokens += call.getCompletionTokens();
+            if (call.getTokensPerSecond() != null) {
+                tokensPerSecondSum += call.getTokensPerSecond();
+                tokensPerSecondSamples++;
+            }
+        }
+        return new LlmAnalyticsSnapshot.CallStats(
+            calls.size(),
+            failures,
+            calls.isEmpty() ? 0 : (double) failures / calls.size(),
+            percentiles(latencies),
+            percentiles(Arrays.copyOf(firstTokens, firstTokenSamples)),
+            percentiles(queueWaits),
+            tokensPerSecondSamples == 0 ? null : tokensPerSecondSum / tokensPerSecondSamples,
+            promptTokens,
+            completionTokens
+        );
+    }
+
+    private static Map<String, LlmAnalyticsSnapshot.PromptPrefixStats> prefixes(List<PerformanceMetrics> calls) {
+        Map<String, List<PerformanceMetrics>> byKey = new TreeMap<>();
+        for (PerformanceMetrics call : calls) {
+            if (call.isSuccess() && call.getPromptCacheKey() != null) {
+                byKey.computeIfAbsent(call.getPromptCacheKey(), ignored -> new ArrayList<>()).add(call);
+            }
+        }
+        Map<String, LlmAnalyticsSnapshot.PromptPrefixStats> prefixes = new LinkedHashMap<>();
+        byKey.forEach((key, keyCalls) -> {
+            keyCalls.sort(Comparator.comparing(PerformanceMetrics::getTimestamp));
+            long promptTokens = 0;
+            long cachedTokens = 0;
+            long repeatEvalSum = 0;
+            int repeatEvalSamples = 0;
+            for (PerformanceMetrics call : keyCalls) {
+                promptTokens += call.getPromptTokens();
+                cachedTokens += call.getCachedPromptTokens() != null ? call.getCachedPromptTokens() : 0;
+                if (call != keyCalls.getFirst() && call.getPromptEvalMs() != null) {
+                    repeatEvalSum += call.getPromptEvalMs();
+                    repeatEvalSamples++;
+                }
+            }
+            Long first = keyCalls.getFirst().getPromptEvalMs();
+            Double repeat = repeatEvalSamples == 0 ? null : (double) repeatEvalSum / repeatEvalSamples;
+            Double reduction = first == null || first == 0 || repeat == null ? null : 1 - repeat / first;
+            prefixes.put(key, new LlmAnalyticsSnapshot.PromptPrefixStats(
+                keyCalls.size(), promptTokens, cachedTokens, first, repeat, reduction));
+        });
+        return prefixes;
+    }
+
+    private static LlmAnalyticsSnapshot.Percentiles percentiles(long[] samples) {
+        if (samples.length == 0) {
+            return null;
+        }
+        Arrays.sort(samples);
+        return new LlmAnalyticsSnapshot.Percentiles(
+            rank(samples, 0.50),
+            rank(samples, 0.90),
+            rank(samples, 0.95),
+            rank(samples, 0.99),
+            samples[samples.length - 1]
+        );
+    }
+
+    /** Nearest-rank percentile of sorted samples. */
+    private static long rank(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.min(sorted.length - 1, Math.max(0, index))];
+    }
+}
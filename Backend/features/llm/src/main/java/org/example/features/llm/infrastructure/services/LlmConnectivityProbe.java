@@ -1,15 +1,16 @@
 package org.example.features.llm.infrastructure.services;
 
+import org.example.features.llmproviders.LlmProviderClient;
+import org.example.features.llmproviders.LlmProviderClients;
+import org.example.features.llmproviders.ProviderRequest;
+import org.example.features.llmproviders.ProviderResponse;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Component
 public class LlmConnectivityProbe {
@@ -22,44 +23,58 @@ public class LlmConnectivityProbe {
         String message
     ) {}
 
-    private final HttpClient httpClient = HttpClient.newBuilder()
-        .version(HttpClient.Version.HTTP_1_1)
-        .connectTimeout(Duration.ofSeconds(5))
-        .build();
+    private final LlmProviderClients providerClients;
+
+    public LlmConnectivityProbe(LlmProviderClients providerClients) {
+        this.providerClients = providerClients;
+    }
 
     public ProbeResult probe(LlmProviderRegistry.ProviderDescriptor descriptor) {
-        URI uri = URI.create(buildProbeEndpoint(descriptor));
-        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
-            .timeout(Duration.ofSeconds(5))
-            .GET();
+        return probeAsync(descriptor).join();
+    }
 
-        if (descriptor.requiresApiKey()) {
-            builder.header("Authorization", "Bearer " + descriptor.apiKey().trim());
+    /** Never completes exceptionally; a failed probe is an unsuccessful result. */
+    public CompletableFuture<ProbeResult> probeAsync(LlmProviderRegistry.ProviderDescriptor descriptor) {
+        if (descriptor.isMock()) {
+            return CompletableFuture.completedFuture(
+                new ProbeResult(true, 200, 0, "mock://" + descriptor.id(), "In-process mock provider"));
         }
+        String path = probePath(descriptor);
+        Map<String, String> headers = descriptor.requiresApiKey()
+            ? Map.of("Authorization", "Bearer " + descriptor.apiKey().trim())
+            : Map.of();
 
         Instant start = Instant.now();
+        LlmProviderClient client;
+        CompletableFuture<ProviderResponse> sent;
         try {
-            HttpResponse<Void> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.discarding());
-            long latency = Duration.between(start, Instant.now()).toMillis();
-            boolean success = response.statusCode() >= 200 && response.statusCode() < 300;
-            String message = success ? "OK" : ("HTTP " + response.statusCode());
-            return new ProbeResult(success, response.statusCode(), latency, uri.toString(), message);
-        } catch (IOException | InterruptedException e) {
-            long latency = Duration.between(start, Instant.now()).toMillis();
-            return new ProbeResult(false, 0, latency, uri.toString(), e.getMessage());
+            // the provider's shared pool, so a passing probe also leaves a warm connection behind
+            client = providerClients.clientFor(descriptor.id(), descriptor.baseUrl());
+            sent = client.send(ProviderRequest.get(path, headers, Duration.ofSeconds(5)));
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(new ProbeResult(false, 0, 0, descriptor.baseUrl(), e.getMessage()));
         }
+        String endpoint = client.baseUrl() + path;
+        return sent
+            .handle((response, error) -> {
+                long latency = Duration.between(start, Instant.now()).toMillis();
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    return new ProbeResult(false, 0, latency, endpoint,
+                        cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+                }
+                boolean success = response.isSuccess();
+                String message = success ? "OK" : ("HTTP " + response.statusCode());
+                return new ProbeResult(success, response.statusCode(), latency, endpoint, message);
+            });
     }
 
-    private String buildProbeEndpoint(LlmProviderRegistry.ProviderDescriptor descriptor) {
-        String base = descriptor.baseUrl().endsWith("/")
-            ? descriptor.baseUrl().substring(0, descriptor.baseUrl().length() - 1)
-            : descriptor.baseUrl();
-
+    private String probePath(LlmProviderRegistry.ProviderDescriptor descriptor) {
         if ("local".equalsIgnoreCase(descriptor.mode())) {
             // Ollama exposes /api/tags for listing available models
-            return base + "/api/tags";
+            return "/api/tags";
         }
         // Remote providers typically expose /models
-        return base + "/models";
+        return "/models";
     }
 }
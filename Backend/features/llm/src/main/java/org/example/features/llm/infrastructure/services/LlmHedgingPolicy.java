@@ -0,0 +1,71 @@
+package org.example.features.llm.infrastructure.services;
+
+import org.example.features.llm.domain.dto.LlmRequestPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Decides which call classes (request priorities) are hedged and how long the first provider
+ * gets before a second one is asked. The delay is the first provider's latency percentile
+ * from {@link LlmCallTelemetry}, so duplicate work is only done for the slowest calls.
+ */
+@Component
+public class LlmHedgingPolicy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LlmHedgingPolicy.class);
+
+    private final LlmCallTelemetry telemetry;
+    private final Set<LlmRequestPriority> hedgedPriorities;
+    private final double delayPercentile;
+    private final long minDelayMillis;
+    private final long defaultDelayMillis;
+
+    public LlmHedgingPolicy(
+        LlmCallTelemetry telemetry,
+        @Value("${llm.hedging.priorities:}") String priorities,
+        @Value("${llm.hedging.delay-percentile:95}") double delayPercentile,
+        @Value("${llm.hedging.min-delay-ms:250}") long minDelayMillis,
+        @Value("${llm.hedging.default-delay-ms:3000}") long defaultDelayMillis
+    ) {
+        this.telemetry = telemetry;
+        this.hedgedPriorities = parse(priorities);
+        this.delayPercentile = Math.min(100, Math.max(1, delayPercentile)) / 100d;
+        this.minDelayMillis = Math.max(0, minDelayMillis);
+        this.defaultDelayMillis = Math.max(this.minDelayMillis, defaultDelayMillis);
+    }
+
+    public boolean appliesTo(LlmRequestPriority priority) {
+        return priority != null && hedgedPriorities.contains(priority);
+    }
+
+    /** Falls back to the configured default while the provider has no successful call. */
+    public long delayMillis(String providerId) {
+        long observed = telemetry.latencyPercentileMillis(providerId, delayPercentile).orElse(defaultDelayMillis);
+        return Math.max(minDelayMillis, observed);
+    }
+
+    private static Set<LlmRequestPriority> parse(String priorities) {
+        Set<LlmRequestPriority> parsed = EnumSet.noneOf(LlmRequestPriority.class);
+        if (priorities == null) {
+            return parsed;
+        }
+        Arrays.stream(priorities.split(","))
+            .map(String::trim)
+            .filter(value -> !value.isEmpty())
+            .forEach(value -> {
+                try {
+                    parsed.add(LlmRequestPriority.valueOf(value.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException ex) {
+                    LOGGER.warn("Unknown LLM priority '{}' in llm.hedging.priorities, ignoring it", value);
+                }
+            });
+        return parsed;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.features.llm.infrastructure.services;
+
+/**
+ * A provider answered with an error status. Server-side, throttling and authentication
+ * errors are specific to that provider and worth retrying on another one; other client
+ * errors would fail everywhere.
+ */
+public class LlmProviderException extends IllegalStateException {
+
+    private final String providerId;
+    private final int statusCode;
+
+    public LlmProviderException(String providerId, int statusCode, String message) {
+        super(message);
+        this.providerId = providerId;
+        this.statusCode = statusCode;
+    }
+
+    public String getProviderId() {
+        return providerId;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isRetryable() {
+        return statusCode >= 500 || statusCode == 408 || statusCode == 429 || statusCode == 401 || statusCode == 403;
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.features.llm.infrastructure.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probes every enabled provider in the background and keeps the latest result, so a dead
+ * provider is known before a call is sent to it. The router leaves providers out whose last
+ * {@code failure-threshold} probes failed, and a call fails immediately when no provider is
+ * left, instead of waiting for a connect or read timeout. A provider that has not been
+ * probed yet counts as healthy.
+ */
+@Component
+public class LlmProviderHealthMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LlmProviderHealthMonitor.class);
+
+    public record ProviderHealth(
+        boolean healthy,
+        int consecutiveFailures,
+        long checkedAtMillis,
+        LlmConnectivityProbe.ProbeResult lastProbe
+    ) {}
+
+    private final LlmProviderRegistry registry;
+    private final LlmConnectivityProbe probe;
+    private final long intervalMillis;
+    private final int failureThreshold;
+    private final Map<String, ProviderHealth> health = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "llm-health-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LlmProviderHealthMonitor(
+        LlmProviderRegistry registry,
+        LlmConnectivityProbe probe,
+        @Value("${llm.health.interval-seconds:15}") long intervalSeconds,
+        @Value("${llm.health.failure-threshold:2}") int failureThreshold
+    ) {
+        this.registry = registry;
+        this.probe = probe;
+        this.intervalMillis = TimeUnit.SECONDS.toMillis(Math.max(0, intervalSeconds));
+        this.failureThreshold = Math.max(1, failureThreshold);
+        if (intervalMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::refreshAll, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isHealthy(String providerId) {
+        ProviderHealth current = health.get(providerId);
+        return current == null || current.healthy();
+    }
+
+    public Optional<ProviderHealth> health(String providerId) {
+        return Optional.ofNullable(health.get(providerId));
+    }
+
+    /**
+     * The cached probe result while it is younger than the probe interval, otherwise a fresh
+     * probe.
+     */
+    public CompletableFuture<LlmConnectivityProbe.ProbeResult> check(LlmProviderRegistry.ProviderDescriptor descriptor) {
+        ProviderHealth current = health.get(descriptor.id());
+        if (current != null && System.currentTimeMillis() - current.checkedAtMillis() < Math.max(1, intervalMillis)) {
+            return CompletableFuture.completedFuture(current.lastProbe());
+        }
+        return refresh(descriptor);
+    }
+
+    public CompletableFuture<LlmConnectivityProbe.ProbeResult> refresh(LlmProviderRegistry.ProviderDescriptor descriptor) {
+        return probe.probeAsync(descriptor).whenComplete((result, error) -> {
+            if (result != null) {
+                record(descriptor.id(), result);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    void refreshAll() {
+        List<LlmProviderRegistry.ProviderDescriptor> providers = registry.getEnabledProviders();
+        try {
+            CompletableFuture.allOf(providers.stream().map(this::refresh).toArray(CompletableFuture[]::new))
+                .get(Math.max(intervalMillis, 10_000), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            LOGGER.debug("LLM health probe round did not finish: {}", ex.getMessage());
+        }
+    }
+
+    private void record(String providerId, LlmConnectivityProbe.ProbeResult result) {
+        health.compute(providerId, (id, previous) -> {
+            int failures = result.success() ? 0 : (previous == null ? 0 : previous.consecutiveFailures()) + 1;
+            boolean healthy = failures < failureThreshold;
+            boolean wasHealthy = previous == null || previous.healthy();
+            if (wasHealthy && !healthy) {
+                LOGGER.warn("LLM provider {} is unhealthy after {} failed probes: {}", id, failures, result.message());
+            } else if (!wasHealthy && healthy) {
+                LOGGER.info("LLM provider {} is healthy again ({} ms)", id, result.latencyMs());
+            }
+            return new ProviderHealth(healthy, failures, System.currentTimeMillis(), result);
+        });
+    }
+}
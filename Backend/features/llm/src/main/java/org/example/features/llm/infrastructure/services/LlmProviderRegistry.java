@@ -11,9 +11,12 @@ import org.springframework.util.StringUtils;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -24,10 +27,12 @@ public class LlmProviderRegistry {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LlmProviderRegistry.class);
 
+    /** Active provider together with its switch bookkeeping, replaced atomically as a unit. */
+    private record Selection(String providerId, long switchCount, Instant lastSwitchAt) {}
+
     private final Map<String, ProviderDescriptor> providers;
-    private final AtomicLong switchCount = new AtomicLong(0);
-    private volatile String activeProviderId;
-    private volatile Instant lastSwitchAt = Instant.now();
+    private final AtomicReference<Selection> selection;
+    private final List<Consumer<ProviderDescriptor>> switchListeners = new CopyOnWriteArrayList<>();
 
     public LlmProviderRegistry(LlmProviderConfigLoader loader) {
         LlmProviderConfigurationProperties configuration = loader.loadConfiguration();
@@ -40,8 +45,10 @@ public class LlmProviderRegistry {
                 LinkedHashMap::new
             )));
 
-        this.activeProviderId = resolveInitialProvider(configuration.getActiveProvider());
-        LOGGER.info("LLM provider registry initialized. Active provider: {}", this.activeProviderId);
+        this.selection = new AtomicReference<>(
+            new Selection(resolveInitialProvider(configuration.getActiveProvider()), 0, Instant.now())
+        );
+        LOGGER.info("LLM provider registry initialized. Active provider: {}", selection.get().providerId());
     }
 
     private String resolveInitialProvider(String preferred) {
@@ -53,21 +60,48 @@ public class LlmProviderRegistry {
             .orElseThrow(() -> new IllegalStateException("No LLM providers configured"));
     }
 
-    public synchronized boolean switchTo(String providerId) {
+    /**
+     * Lock-free: requests already dispatched keep their provider, new requests see the
+     * switch immediately.
+     */
+    public boolean switchTo(String providerId) {
         if (!providers.containsKey(providerId)) {
             return false;
         }
-        if (!providerId.equals(activeProviderId)) {
-            activeProviderId = providerId;
-            switchCount.incrementAndGet();
-            lastSwitchAt = Instant.now();
+        Selection previous = selection.getAndUpdate(current -> providerId.equals(current.providerId())
+            ? current
+            : new Selection(providerId, current.switchCount() + 1, Instant.now()));
+        if (!providerId.equals(previous.providerId())) {
             LOGGER.info("Active LLM provider switched to {}", providerId);
+            ProviderDescriptor active = providers.get(providerId);
+            switchListeners.forEach(listener -> {
+                try {
+                    listener.accept(active);
+                } catch (RuntimeException ex) {
+                    LOGGER.warn("Provider switch listener failed: {}", ex.getMessage());
+                }
+            });
         }
         return true;
     }
 
+    /** Called with the new active provider after every effective switch, on the switching thread. */
+    public void addSwitchListener(Consumer<ProviderDescriptor> listener) {
+        switchListeners.add(listener);
+    }
+
     public Optional<ProviderDescriptor> getActiveProvider() {
-        return Optional.ofNullable(providers.get(activeProviderId));
+        return Optional.ofNullable(providers.get(selection.get().providerId()));
+    }
+
+    public Optional<ProviderDescriptor> getProvider(String providerId) {
+        return Optional.ofNullable(providers.get(providerId));
+    }
+
+    public List<ProviderDescriptor> getEnabledProviders() {
+        return providers.values().stream()
+            .filter(ProviderDescriptor::enabled)
+            .toList();
     }
 
     public LlmAnalyticsSnapshot snapshot() {
@@ -85,11 +119,12 @@ public class LlmProviderRegistry {
                 )
             ));
 
+        Selection current = selection.get();
         return new LlmAnalyticsSnapshot(
-            activeProviderId,
+            current.providerId(),
             providerSnapshots,
-            switchCount.get(),
-            lastSwitchAt
+            current.switchCount(),
+            current.lastSwitchAt()
         );
     }
 
@@ -100,7 +135,12 @@ public class LlmProviderRegistry {
         String baseUrl,
         String apiKey,
         String model,
-        boolean enabled
+        boolean enabled,
+        int weight,
+        Integer maxConcurrency,
+        Integer contextWindow,
+        LlmProviderConfigurationProperties.MockSettings mock,
+        SpendLimits limits
     ) {
         ProviderDescriptor(LlmProviderConfigurationProperties.ProviderEntry entry) {
             this(
@@ -110,12 +150,63 @@ public class LlmProviderRegistry {
                 entry.getBaseUrl(),
                 entry.getApiKey(),
                 entry.getModel(),
-                entry.isEnabled()
+                entry.isEnabled(),
+                weightOf(entry),
+                positiveInt(entry, "maxConcurrency"),
+                positiveInt(entry, "contextWindow"),
+                "mock".equalsIgnoreCase(entry.getMode()) && entry.getMock() == null
+                    ? new LlmProviderConfigurationProperties.MockSettings()
+                    : entry.getMock(),
+                new SpendLimits(
+                    positiveInt(entry, "tokensPerMinute"),
+                    positiveInt(entry, "requestsPerMinute"),
+                    positiveInt(entry, "dailyTokenBudget")
+                )
             );
         }
 
+        public boolean isLocal() {
+            return "local".equalsIgnoreCase(mode);
+        }
+
+        /** Answered in-process by {@link MockLlmProvider}; no network involved. */
+        public boolean isMock() {
+            return "mock".equalsIgnoreCase(mode);
+        }
+
+        private static int weightOf(LlmProviderConfigurationProperties.ProviderEntry entry) {
+            Integer weight = positiveInt(entry, "weight");
+            return weight != null ? weight : 1;
+        }
+
+        private static Integer positiveInt(LlmProviderConfigurationProperties.ProviderEntry entry, String key) {
+            Object value = entry.getMetadata() == null ? null : entry.getMetadata().get(key);
+            if (value instanceof Number number) {
+                return Math.max(1, number.intValue());
+            }
+            if (value != null) {
+                try {
+                    return Math.max(1, Integer.parseInt(value.toString().trim()));
+                } catch (NumberFormatException ex) {
+                    LOGGER.warn("Ignoring invalid {} '{}' for LLM provider {}", key, value, entry.getId());
+                }
+            }
+            return null;
+        }
+
         public boolean requiresApiKey() {
             return StringUtils.hasText(apiKey);
         }
     }
+
+    /**
+     * Rate and spend limits from the provider's {@code tokensPerMinute}, {@code requestsPerMinute}
+     * and {@code dailyTokenBudget} metadata; {@code null} means unlimited.
+     */
+    public record SpendLimits(Integer tokensPerMinute, Integer requestsPerMinute, Integer dailyTokenBudget) {
+
+        public boolean isUnlimited() {
+            return tokensPerMinute == null && requestsPerMinute == null && dailyTokenBudget == null;
+        }
+    }
 }
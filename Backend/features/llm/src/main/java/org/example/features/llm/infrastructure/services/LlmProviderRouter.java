@@ -0,0 +1,329 @@
+package org.example.features.llm.infrastructure.services;
+
+import org.example.features.llm.domain.dto.LlmAnalyticsSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chooses which enabled provider serves a call and in which order the others are tried if
+ * it fails. Providers that fail repeatedly are ejected for a cool-down period. Per-provider
+ * counters are atomics; only a weighted round robin pick takes a short lock, because it has
+ * to move the counters of every candidate together.
+ */
+@Component
+public class LlmProviderRouter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LlmProviderRouter.class);
+    private static final double EWMA_ALPHA = 0.3;
+
+    public enum Strategy {
+        /** The provider selected in the registry; the others only serve as failover. */
+        ACTIVE,
+        /** Smooth weighted round robin over the {@code weight} metadata of each provider. */
+        WEIGHTED_ROUND_ROBIN,
+        /** Fewest requests in flight relative to weight. */
+        LEAST_OUTSTANDING,
+        /** Lowest EWMA latency, penalised by requests in flight. */
+        EWMA_LATENCY;
+
+        public static Strategy fromConfig(String value) {
+            try {
+                return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Unknown LLM routing strategy '{}', using ACTIVE", value);
+                return ACTIVE;
+            }
+        }
+    }
+
+    private final LlmProviderRegistry registry;
+    private final Strategy strategy;
+    private final boolean failoverEnabled;
+    private final int failureThreshold;
+    private final Duration ejectionTime;
+    private final LlmProviderHealthMonitor healthMonitor;
+    private final Map<String, ProviderStats> stats = new ConcurrentHashMap<>();
+    private final Object roundRobinLock = new Object();
+    private final LongAdder failovers = new LongAdder();
+
+    public LlmProviderRouter(
+        LlmProviderRegistry registry,
+        String strategy,
+        boolean failoverEnabled,
+        int failureThreshold,
+        long ejectionSeconds
+    ) {
+        this(registry, strategy, failoverEnabled, failureThreshold, ejectionSeconds, null);
+    }
+
+    /**
+     * @param healthMonitor background probe results; providers it reports unhealthy are not
+     *                      routed to. May be {@code null}.
+     */
+    @Autowired
+    public LlmProviderRouter(
+        LlmProviderRegistry registry,
+        @Value("${llm.routing.strategy:active}") String strategy,
+        @Value("${llm.routing.failover-enabled:true}") boolean failoverEnabled,
+        @Value("${llm.routing.failure-threshold:3}") int failureThreshold,
+        @Value("${llm.routing.ejection-seconds:30}") long ejectionSeconds,
+        LlmProviderHealthMonitor healthMonitor
+    ) {
+        this.registry = registry;
+        this.healthMonitor = healthMonitor;
+        this.strategy = Strategy.fromConfig(strategy);
+        this.failoverEnabled = failoverEnabled;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.ejectionTime = Duration.ofSeconds(Math.max(1, ejectionSeconds));
+    }
+
+    public Strategy strategy() {
+        return strategy;
+    }
+
+    /**
+     * Providers to try for one call, best first. Ejected providers are only used when every
+     * enabled provider is ejected; providers failing their health probes are never used.
+     * @throws IllegalStateException if no enabled provider passes its health probes
+     */
+    public List<LlmProviderRegistry.ProviderDescriptor> route() {
+        return route(false);
+    }
+
+    /**
+     * @param spread pick the primary by weighted round robin regardless of the strategy, for
+     *               batches of requests that are sent at the same time
+     */
+    public List<LlmProviderRegistry.ProviderDescriptor> route(boolean spread) {
+        List<LlmProviderRegistry.ProviderDescriptor> enabled = registry.getEnabledProviders();
+        if (enabled.isEmpty()) {
+            throw new IllegalStateException("No enabled LLM provider configured");
+        }
+        if (healthMonitor != null) {
+            enabled = enabled.stream().filter(descriptor -> healthMonitor.isHealthy(descriptor.id())).toList();
+            if (enabled.isEmpty()) {
+                throw new IllegalStateException("No LLM provider is passing its health probes");
+            }
+        }
+        Instant now = Instant.now();
+        List<LlmProviderRegistry.ProviderDescriptor> healthy = new ArrayList<>();
+        List<LlmProviderRegistry.ProviderDescriptor> ejected = new ArrayList<>();
+        for (LlmProviderRegistry.ProviderDescriptor descriptor : enabled) {
+            (statsFor(descriptor.id()).isEjected(now) ? ejected : healthy).add(descriptor);
+        }
+        if (healthy.isEmpty()) {
+            healthy = ejected;
+            ejected = List.of();
+        }
+
+        LlmProviderRegistry.ProviderDescriptor primary = spread && healthy.size() > 1
+            ? weightedRoundRobin(healthy)
+            : selectPrimary(healthy);
+        List<LlmProviderRegistry.ProviderDescriptor> ordered = new ArrayList<>(enabled.size());
+        ordered.add(primary);
+        if (failoverEnabled) {
+            healthy.stream()
+                .filter(descriptor -> descriptor != primary)
+                .sorted(Comparator.comparingDouble(this::latencyScore))
+                .forEach(ordered::add);
+            ordered.addAll(ejected);
+        }
+        return ordered;
+    }
+
+    /** Whether a call could be routed right now, going by configuration and health probes. */
+    public boolean hasHealthyProvider() {
+        return registry.getEnabledProviders().stream()
+            .anyMatch(descriptor -> healthMonitor == null || healthMonitor.isHealthy(descriptor.id()));
+    }
+
+    /**
+     * How many providers {@link #route(boolean)} would return right now, worked out without
+     * picking a primary so no round robin counter moves.
+     */
+    public int candidateCount() {
+        long routable = registry.getEnabledProviders().stream()
+            .filter(descriptor -> healthMonitor == null || healthMonitor.isHealthy(descriptor.id()))
+            .count();
+        return (int) (failoverEnabled ? routable : Math.min(routable, 1));
+    }
+
+    public Lease begin(String providerId) {
+        ProviderStats providerStats = statsFor(providerId);
+        providerStats.outstanding.incrementAndGet();
+        return new Lease(providerStats, System.nanoTime());
+    }
+
+    /** Smoothed latency of recent calls, or 0 while the provider has no history. */
+    public long expectedLatencyMillis(String providerId) {
+        return Math.round(statsFor(providerId).ewmaMs().orElse(0.0));
+    }
+
+    public void recordFailover(String fromProvider, String toProvider, Throwable cause) {
+        failovers.increment();
+        LOGGER.warn("LLM provider {} failed ({}); failing over to {}", fromProvider, cause.getMessage(), toProvider);
+    }
+
+    public LlmAnalyticsSnapshot.RoutingSnapshot snapshot() {
+        Instant now = Instant.now();
+        Map<String, LlmAnalyticsSnapshot.ProviderRouteStats> providers = new LinkedHashMap<>();
+        for (LlmProviderRegistry.ProviderDescriptor descriptor : registry.getEnabledProviders()) {
+            ProviderStats providerStats = statsFor(descriptor.id());
+            Optional<LlmProviderHealthMonitor.ProviderHealth> health = healthMonitor == null
+                ? Optional.empty()
+                : healthMonitor.health(descriptor.id());
+            providers.put(descriptor.id(), new LlmAnalyticsSnapshot.ProviderRouteStats(
+                descriptor.weight(),
+                providerStats.outstanding.get(),
+                providerStats.ewmaMs().orElse(null),
+                providerStats.successes.sum(),
+                providerStats.failures.sum(),
+                providerStats.consecutiveFailures.get(),
+                providerStats.isEjected(now) ? Instant.ofEpochMilli(providerStats.ejectedUntilMillis.get()) : null,
+                health.map(LlmProviderHealthMonitor.ProviderHealth::healthy).orElse(null),
+                health.map(current -> current.lastProbe().latencyMs()).orElse(null),
+                health.map(current -> current.lastProbe().message()).orElse(null)
+            ));
+        }
+        return new LlmAnalyticsSnapshot.RoutingSnapshot(strategy.name(), failoverEnabled, failovers.sum(), providers);
+    }
+
+    private LlmProviderRegistry.ProviderDescriptor selectPrimary(List<LlmProviderRegistry.ProviderDescriptor> candidates) {
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        return switch (strategy) {
+            case ACTIVE -> registry.getActiveProvider()
+                .filter(candidates::contains)
+                .orElseGet(() -> candidates.stream().min(Comparator.comparingDouble(this::latencyScore)).orElseThrow());
+            case WEIGHTED_ROUND_ROBIN -> weightedRoundRobin(candidates);
+            case LEAST_OUTSTANDING -> candidates.stream()
+                .min(Comparator.comparingDouble((LlmProviderRegistry.ProviderDescriptor descriptor) ->
+                        (double) statsFor(descriptor.id()).outstanding.get() / descriptor.weight())
+                    .thenComparingDouble(this::latencyScore))
+                .orElseThrow();
+            case EWMA_LATENCY -> candidates.stream().min(Comparator.comparingDouble(this::latencyScore)).orElseThrow();
+        };
+    }
+
+    /**
+     * Nginx-style smooth weighted round robin: every pick adds each weight to its running
+     * counter, takes the highest and subtracts the weight total from it. The lock only guards
+     * these counters, so concurrent picks never see a half-applied round.
+     */
+    private LlmProviderRegistry.ProviderDescriptor weightedRoundRobin(List<LlmProviderRegistry.ProviderDescriptor> candidates) {
+        synchronized (roundRobinLock) {
+            int total = 0;
+            LlmProviderRegistry.ProviderDescriptor best = null;
+            long bestCurrent = Long.MIN_VALUE;
+            for (LlmProviderRegistry.ProviderDescriptor descriptor : candidates) {
+                ProviderStats providerStats = statsFor(descriptor.id());
+                total += descriptor.weight();
+                long current = providerStats.roundRobinCurrent.addAndGet(descriptor.weight());
+                if (current > bestCurrent) {
+                    bestCurrent = current;
+                    best = descriptor;
+                }
+            }
+            statsFor(best.id()).roundRobinCurrent.addAndGet(-total);
+            return best;
+        }
+    }
+
+    /** Untried providers score zero so they get sampled. */
+    private double latencyScore(LlmProviderRegistry.ProviderDescriptor descriptor) {
+        ProviderStats providerStats = statsFor(descriptor.id());
+        double ewma = providerStats.ewmaMs().orElse(0.0);
+        return ewma * (providerStats.outstanding.get() + 1) / descriptor.weight();
+    }
+
+    private ProviderStats statsFor(String providerId) {
+        return stats.computeIfAbsent(providerId, ignored -> new ProviderStats());
+    }
+
+    /**
+     * One call against one provider. Exactly one of {@link #succeeded()},
+     * {@link #failed(Throwable)} or {@link #abandoned()} must be called.
+     */
+    public final class Lease {
+        private final ProviderStats providerStats;
+        private final long startNanos;
+
+        private Lease(ProviderStats providerStats, long startNanos) {
+            this.providerStats = providerStats;
+            this.startNanos = startNanos;
+        }
+
+        public long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+
+        public void succeeded() {
+            providerStats.outstanding.decrementAndGet();
+            providerStats.successes.increment();
+            providerStats.consecutiveFailures.set(0);
+            providerStats.observeLatency(elapsedMillis());
+        }
+
+        /** The caller cancelled the call; it says nothing about the provider's health. */
+        public void abandoned() {
+            providerStats.outstanding.decrementAndGet();
+        }
+
+        public void failed(Throwable cause) {
+            providerStats.outstanding.decrementAndGet();
+            providerStats.failures.increment();
+            // a failure after a long wait says as much about latency as a success does
+            providerStats.observeLatency(elapsedMillis());
+            if (providerStats.consecutiveFailures.incrementAndGet() >= failureThreshold) {
+                providerStats.ejectedUntilMillis.set(System.currentTimeMillis() + ejectionTime.toMillis());
+                providerStats.consecutiveFailures.set(0);
+            }
+        }
+    }
+
+    private static final class ProviderStats {
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicLong ejectedUntilMillis = new AtomicLong();
+        private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToLongBits(-1));
+        private final AtomicLong roundRobinCurrent = new AtomicLong();
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        boolean isEjected(Instant now) {
+            return ejectedUntilMillis.get() > now.toEpochMilli();
+        }
+
+        Optional<Double> ewmaMs() {
+            double value = Double.longBitsToDouble(ewmaBits.get());
+            return value < 0 ? Optional.empty() : Optional.of(value);
+        }
+
+        void observeLatency(long millis) {
+            ewmaBits.getAndUpdate(bits -> {
+                double previous = Double.longBitsToDouble(bits);
+                double next = previous < 0 ? millis : previous + EWMA_ALPHA * (millis - previous);
+                return Double.doubleToLongBits(next);
+            });
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.features.llm.infrastructure.services;
+
+/**
+ * The scheduler refused to send a request to a provider.
+ */
+public class LlmRequestRejectedException extends IllegalStateException {
+
+    public enum Reason {
+        QUEUE_FULL,
+        DEADLINE,
+        BUDGET
+    }
+
+    private final String providerId;
+    private final Reason reason;
+
+    public LlmRequestRejectedException(String providerId, Reason reason, String message) {
+        super(message);
+        this.providerId = providerId;
+        this.reason = reason;
+    }
+
+    public String getProviderId() {
+        return providerId;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,283 @@
+package org.example.features.llm.infrastructure.services;
+
+import jakarta.annotation.PreDestroy;
+import org.example.features.llm.domain.dto.LlmAnalyticsSnapshot;
+import org.example.features.llm.domain.dto.LlmRequestPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control in front of each LLM provider. At most {@code maxConcurrency} calls run
+ * per provider (a local GPU serves one or two generations at a time); the rest wait in a
+ * priority queue. Waiters that can no longer finish before their deadline, given the
+ * provider's observed latency, are dropped without ever being sent; a call that finds a free
+ * slot is always sent.
+ */
+@Component
+public class LlmRequestScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LlmRequestScheduler.class);
+    private static final double WAIT_EWMA_ALPHA = 0.2;
+    private static final long SWEEP_INTERVAL_MILLIS = 500;
+
+    private final int defaultMaxConcurrency;
+    private final int localMaxConcurrency;
+    private final int maxQueueLength;
+    private final Map<String, ProviderQueue> queues = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "llm-request-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LlmRequestScheduler(
+        @Value("${llm.scheduler.default-max-concurrency:4}") int defaultMaxConcurrency,
+        @Value("${llm.scheduler.local-max-concurrency:1}") int localMaxConcurrency,
+        @Value("${llm.scheduler.max-queue-length:256}") int maxQueueLength
+    ) {
+        this.defaultMaxConcurrency = Math.max(1, defaultMaxConcurrency);
+        this.localMaxConcurrency = Math.max(1, localMaxConcurrency);
+        this.maxQueueLength = Math.max(0, maxQueueLength);
+        sweeper.scheduleWithFixedDelay(this::sweepExpired, SWEEP_INTERVAL_MILLIS, SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Waits for a slot on the provider.
+     * @param expectedServiceMillis how long a call is expected to take once sent; used to drop
+     *                              waiters early instead of at the deadline itself
+     */
+    public CompletableFuture<Permit> acquire(
+        LlmProviderRegistry.ProviderDescriptor descriptor,
+        LlmRequestPriority priority,
+        Instant deadline,
+        long expectedServiceMillis
+    ) {
+        return queueFor(descriptor).acquire(
+            priority != null ? priority : LlmRequestPriority.NORMAL,
+            deadline,
+            Math.max(0, expectedServiceMillis)
+        );
+    }
+
+    public LlmAnalyticsSnapshot.SchedulerSnapshot snapshot() {
+        Map<String, LlmAnalyticsSnapshot.ProviderQueueStats> providers = new LinkedHashMap<>();
+        queues.values().stream()
+            .sorted(Comparator.comparing(queue -> queue.providerId))
+            .forEach(queue -> providers.put(queue.providerId, queue.stats()));
+        return new LlmAnalyticsSnapshot.SchedulerSnapshot(providers);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    private ProviderQueue queueFor(LlmProviderRegistry.ProviderDescriptor descriptor) {
+        return queues.computeIfAbsent(descriptor.id(), id -> new ProviderQueue(id, concurrencyFor(descriptor)));
+    }
+
+    private int concurrencyFor(LlmProviderRegistry.ProviderDescriptor descriptor) {
+        if (descriptor.maxConcurrency() != null) {
+            return Math.max(1, descriptor.maxConcurrency());
+        }
+        return descriptor.isLocal() ? localMaxConcurrency : defaultMaxConcurrency;
+    }
+
+    private void sweepExpired() {
+        try {
+            queues.values().forEach(ProviderQueue::dropExpired);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("LLM queue sweep failed: {}", ex.getMessage());
+        }
+    }
+
+    /** A slot on one provider; release it exactly once when the call has finished. */
+    public static final class Permit {
+        private final ProviderQueue queue;
+        private final long queueWaitMillis;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(ProviderQueue queue, long queueWaitMillis) {
+            this.queue = queue;
+            this.queueWaitMillis = queueWaitMillis;
+        }
+
+        public long queueWaitMillis() {
+            return queueWaitMillis;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                queue.release();
+            }
+        }
+    }
+
+    private record Waiter(
+        LlmRequestPriority priority,
+        long sequence,
+        long enqueuedNanos,
+        Instant deadline,
+        long expectedServiceMillis,
+        CompletableFuture<Permit> future
+    ) {
+        boolean cannotFinishBy(Instant now) {
+            return deadline != null && now.plusMillis(expectedServiceMillis).isAfter(deadline);
+        }
+    }
+
+    private final class ProviderQueue {
+        private final String providerId;
+        private final int maxConcurrency;
+        private final PriorityQueue<Waiter> waiting = new PriorityQueue<>(
+            Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence)
+        );
+        private int active;
+        private long dispatched;
+        private long dropped;
+        private long rejected;
+        private double ewmaWaitMillis;
+        private long maxWaitMillis;
+
+        private ProviderQueue(String providerId, int maxConcurrency) {
+            this.providerId = providerId;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        CompletableFuture<Permit> acquire(LlmRequestPriority priority, Instant deadline, long expectedServiceMillis) {
+            Waiter waiter = new Waiter(priority, sequence.incrementAndGet(), System.nanoTime(), deadline,
+                expectedServiceMillis, new CompletableFuture<>());
+            List<Runnable> completions = new ArrayList<>(1);
+            synchronized (this) {
+                if (active < maxConcurrency && waiting.isEmpty()) {
+                    // the latency estimate only decides whether waiting is worthwhile; a free slot is always taken
+                    completions.add(grant(waiter));
+                } else if (waiter.cannotFinishBy(Instant.now())) {
+                    dropped++;
+                    completions.add(() -> waiter.future().completeExceptionally(deadlineExceeded(waiter)));
+                } else if (waiting.size() >= maxQueueLength) {
+                    rejected++;
+                    completions.add(() -> waiter.future().completeExceptionally(new LlmRequestRejectedException(
+                        providerId,
+                        LlmRequestRejectedException.Reason.QUEUE_FULL,
+                        "LLM queue for " + providerId + " is full (" + waiting.size() + " waiting)"
+                    )));
+                } else {
+                    waiting.add(waiter);
+                }
+            }
+            completions.forEach(Runnable::run);
+            return waiter.future();
+        }
+
+        void release() {
+            List<Runnable> completions;
+            synchronized (this) {
+                active--;
+                completions = drain(Instant.now());
+            }
+            completions.forEach(Runnable::run);
+        }
+
+        void dropExpired() {
+            List<Runnable> completions = new ArrayList<>();
+            synchronized (this) {
+                Instant now = Instant.now();
+                waiting.removeIf(waiter -> {
+                    if (waiter.future().isDone()) {
+                        return true;
+                    }
+                    if (waiter.cannotFinishBy(now)) {
+                        dropped++;
+                        completions.add(() -> waiter.future().completeExceptionally(deadlineExceeded(waiter)));
+                        return true;
+                    }
+                    return false;
+                });
+            }
+            completions.forEach(Runnable::run);
+        }
+
+        /** Futures are completed outside the lock so callers' continuations never run under it. */
+        private List<Runnable> drain(Instant now) {
+            List<Runnable> completions = new ArrayList<>();
+            while (active < maxConcurrency && !waiting.isEmpty()) {
+                Waiter waiter = waiting.poll();
+                if (waiter.future().isDone()) {
+                    continue;
+                }
+                if (waiter.cannotFinishBy(now)) {
+                    dropped++;
+                    completions.add(() -> waiter.future().completeExceptionally(deadlineExceeded(waiter)));
+                    continue;
+                }
+                completions.add(grant(waiter));
+            }
+            return completions;
+        }
+
+        private Runnable grant(Waiter waiter) {
+            active++;
+            dispatched++;
+            long waitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waiter.enqueuedNanos());
+            ewmaWaitMillis = dispatched == 1 ? waitMillis : ewmaWaitMillis + WAIT_EWMA_ALPHA * (waitMillis - ewmaWaitMillis);
+            maxWaitMillis = Math.max(maxWaitMillis, waitMillis);
+            Permit permit = new Permit(this, waitMillis);
+            return () -> {
+                if (!waiter.future().complete(permit)) {
+                    // the caller gave up while the permit was being handed over
+                    permit.release();
+                }
+            };
+        }
+
+        private LlmRequestRejectedException deadlineExceeded(Waiter waiter) {
+            return new LlmRequestRejectedException(
+                providerId,
+                LlmRequestRejectedException.Reason.DEADLINE,
+                "LLM request for " + providerId + " dropped: it cannot complete before its deadline " + waiter.deadline()
+            );
+        }
+
+        synchronized LlmAnalyticsSnapshot.ProviderQueueStats stats() {
+            Map<LlmRequestPriority, Integer> byPriority = new EnumMap<>(LlmRequestPriority.class);
+            long now = System.nanoTime();
+            long oldestWait = 0;
+            for (Waiter waiter : waiting) {
+                byPriority.merge(waiter.priority(), 1, Integer::sum);
+                oldestWait = Math.max(oldestWait, TimeUnit.NANOSECONDS.toMillis(now - waiter.enqueuedNanos()));
+            }
+            return new LlmAnalyticsSnapshot.ProviderQueueStats(
+                maxConcurrency,
+                active,
+                waiting.size(),
+                byPriority,
+                oldestWait,
+                ewmaWaitMillis,
+                maxWaitMillis,
+                dispatched,
+                dropped,
+                rejected
+            );
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package org.example.features.llm.infrastructure.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.features.llm.domain.dto.ChatCompletionRequest;
+import org.example.features.llm.domain.dto.ChatCompletionResponse;
+import org.example.features.llm.domain.dto.LlmAnalyticsSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Exact-match cache for chat completions keyed by {@link ChatCompletionFingerprint}. Entries
+ * live in a size-weighted LRU and, when a directory is configured, in a JSON-per-entry disk
+ * tier that survives restarts. The fingerprint leaves the provider out, so every entry records
+ * the provider and model that were active when it was stored and is only served while they
+ * still are: a switch or a restart with another provider turns old entries into misses.
+ */
+@Component
+public class LlmResponseCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LlmResponseCache.class);
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+    private static final String DISK_SUFFIX = ".json";
+
+    record DiskEntry(long createdAtEpochMs, long expiresAtEpochMs, long latencyMs, String provider, ChatCompletionResponse response) {}
+
+    private record Entry(ChatCompletionResponse response, long weight, Instant expiresAt, long latencyMs, String provider) {}
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final long maxWeightBytes;
+    private final Path diskDirectory;
+    private final int diskMaxEntries;
+    private final Clock clock;
+    private final Supplier<String> activeProvider;
+    private final ObjectMapper objectMapper;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long weightBytes;
+    /** Entries in the disk tier, counted once at startup and then kept up to date. */
+    private final AtomicInteger diskEntries = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder latencySavedMs = new LongAdder();
+
+    @Autowired
+    public LlmResponseCache(
+        LlmProviderRegistry providerRegistry,
+        @Value("${llm.cache.enabled:true}") boolean enabled,
+        @Value("${llm.cache.ttl-seconds:21600}") long ttlSeconds,
+        @Value("${llm.cache.max-weight-bytes:33554432}") long maxWeightBytes,
+        @Value("${llm.cache.disk-dir:}") String diskDirectory,
+        @Value("${llm.cache.disk-max-entries:2000}") int diskMaxEntries
+    ) {
+        this(enabled, Duration.ofSeconds(Math.max(1, ttlSeconds)), maxWeightBytes,
+            StringUtils.hasText(diskDirectory) ? Path.of(diskDirectory.trim()) : null, diskMaxEntries, Clock.systemUTC(),
+            () -> providerRegistry.getActiveProvider().map(provider -> provider.id() + '/' + provider.model()).orElse(""));
+    }
+
+    LlmResponseCache(boolean enabled, Duration ttl, long maxWeightBytes, Path diskDirectory, int diskMaxEntries, Clock clock) {
+        this(enabled, ttl, maxWeightBytes, diskDirectory, diskMaxEntries, clock, () -> "");
+    }
+
+    LlmResponseCache(
+        boolean enabled,
+        Duration ttl,
+        long maxWeightBytes,
+        Path diskDirectory,
+        int diskMaxEntries,
+        Clock clock,
+        Supplier<String> activeProvider
+    ) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.maxWeightBytes = Math.max(0, maxWeightBytes);
+        this.diskMaxEntries = Math.max(1, diskMaxEntries);
+        this.clock = clock;
+        this.activeProvider = activeProvider;
+        this.objectMapper = new ObjectMapper();
+        this.diskDirectory = prepareDiskDirectory(diskDirectory);
+        if (this.diskDirectory != null) {
+            try {
+                diskEntries.set(diskFiles().size());
+            } catch (IOException ex) {
+                LOGGER.debug("Cannot count LLM cache files in {}: {}", this.diskDirectory, ex.getMessage());
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String keyFor(ChatCompletionRequest request) {
+        return ChatCompletionFingerprint.of(request);
+    }
+
+    public Optional<ChatCompletionResponse> get(String key) {
+        Instant now = clock.instant();
+        String provider = activeProvider.get();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && isStale(entry, now, provider)) {
+                remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null && diskDirectory != null) {
+            entry = readDisk(key, now, provider);
+            if (entry != null) {
+                diskHits.increment();
+                storeInMemory(key, entry);
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        latencySavedMs.add(entry.latencyMs());
+        return Optional.of(entry.response());
+    }
+
+    public void put(String key, ChatCompletionResponse response, long latencyMs) {
+        if (!isCacheable(response)) {
+            return;
+        }
+        Instant now = clock.instant();
+        Entry entry = new Entry(response, weigh(response), now.plus(ttl), Math.max(0, latencyMs), activeProvider.get());
+        storeInMemory(key, entry);
+        if (diskDirectory != null) {
+            writeDisk(key, new DiskEntry(
+                now.toEpochMilli(), entry.expiresAt().toEpochMilli(), entry.latencyMs(), entry.provider(), response));
+        }
+    }
+
+    public void recordBypass() {
+        bypasses.increment();
+    }
+
+    public LlmAnalyticsSnapshot.CacheSnapshot snapshot() {
+        int size;
+        long weight;
+        synchronized (entries) {
+            size = entries.size();
+            weight = weightBytes;
+        }
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        return new LlmAnalyticsSnapshot.CacheSnapshot(
+            enabled,
+            diskDirectory != null,
+            size,
+            weight,
+            maxWeightBytes,
+            hitCount,
+            diskHits.sum(),
+            misses.sum(),
+            bypasses.sum(),
+            evictions.sum(),
+            lookups == 0 ? 0.0 : (double) hitCount / lookups,
+            latencySavedMs.sum()
+        );
+    }
+
+    private void storeInMemory(String key, Entry entry) {
+        // a single entry may not take more than a quarter of the budget
+        if (entry.weight() > maxWeightBytes / 4) {
+            return;
+        }
+        synchronized (entries) {
+            remove(key);
+            entries.put(key, entry);
+            weightBytes += entry.weight();
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (weightBytes > maxWeightBytes && eldest.hasNext()) {
+                weightBytes -= eldest.next().getValue().weight();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            weightBytes -= removed.weight();
+        }
+    }
+
+    private static boolean isStale(Entry entry, Instant now, String provider) {
+        return entry.expiresAt().isBefore(now) || !provider.equals(entry.provider());
+    }
+
+    private Entry readDisk(String key, Instant now, String provider) {
+        Path file = diskDirectory.resolve(key + DISK_SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            DiskEntry stored = objectMapper.readValue(file.toFile(), DiskEntry.class);
+            Instant expiresAt = Instant.ofEpochMilli(stored.expiresAtEpochMs());
+            Entry entry = stored.response() == null
+                ? null
+                : new Entry(stored.response(), weigh(stored.response()), expiresAt, stored.latencyMs(), stored.provider());
+            if (entry == null || isStale(entry, now, provider)) {
+                if (Files.deleteIfExists(file)) {
+                    diskEntries.decrementAndGet();
+                }
+                return null;
+            }
+            return entry;
+        } catch (IOException ex) {
+            LOGGER.debug("Ignoring unreadable LLM cache file {}: {}", file, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void writeDisk(String key, DiskEntry entry) {
+        Path target = diskDirectory.resolve(key + DISK_SUFFIX);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(diskDirectory, key, ".tmp");
+            objectMapper.writeValue(temp.toFile(), entry);
+            boolean added = !Files.exists(target);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (added && diskEntries.incrementAndGet() > diskMaxEntries) {
+                pruneDisk();
+            }
+        } catch (IOException ex) {
+            LOGGER.warn("Failed to persist LLM cache entry {}: {}", key, ex.getMessage());
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Deletes the oldest files down to 90% of the limit, so the directory is listed once per
+     * tenth of the limit worth of new entries rather than on every write.
+     */
+    private synchronized void pruneDisk() throws IOException {
+        List<Path> files = diskFiles();
+        int keep = Math.max(1, diskMaxEntries - diskMaxEntries / 10);
+        if (files.size() > keep) {
+            List<Path> oldestFirst = files.stream()
+                .sorted(Comparator.comparing(path -> path.toFile().lastModified()))
+                .toList();
+            for (Path path : oldestFirst.subList(0, files.size() - keep)) {
+                Files.deleteIfExists(path);
+            }
+        }
+        diskEntries.set(Math.min(files.size(), keep));
+    }
+
+    private List<Path> diskFiles() throws IOException {
+        try (Stream<Path> listing = Files.list(diskDirectory)) {
+            return listing.filter(path -> path.getFileName().toString().endsWith(DISK_SUFFIX)).toList();
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // best effort
+        }
+    }
+
+    private Path prepareDiskDirectory(Path directory) {
+        if (directory == null) {
+            return null;
+        }
+        try {
+            Files.createDirectories(directory);
+            return directory;
+        } catch (IOException ex) {
+            LOGGER.warn("LLM cache disk tier disabled, cannot create {}: {}", directory, ex.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isCacheable(ChatCompletionResponse response) {
+        return response != null
+            && response.getChoices() != null
+            && !response.getChoices().isEmpty()
+            && response.getChoices().get(0).getMessage() != null
+            && StringUtils.hasText(response.getChoices().get(0).getMessage().getContent());
+    }
+
+    private static long weigh(ChatCompletionResponse response) {
+        long chars = 0;
+        if (response.getChoices() != null) {
+            for (ChatCompletionResponse.Choice choice : response.getChoices()) {
+                if (choice.getMessage() != null && choice.getMessage().getContent() != null) {
+                    chars += choice.getMessage().getContent().length();
+                }
+            }
+        }
+        return ENTRY_OVERHEAD_BYTES + chars * 2;
+    }
+}
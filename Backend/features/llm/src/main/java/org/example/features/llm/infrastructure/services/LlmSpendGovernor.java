@@ -0,0 +1,321 @@
+package org.example.features.llm.infrastructure.services;
+
+import jakarta.annotation.PreDestroy;
+import org.example.features.llm.domain.dto.LlmAnalyticsSnapshot;
+import org.example.features.llm.domain.dto.LlmRequestPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps calls to a provider inside its configured {@link LlmProviderRegistry.SpendLimits}:
+ * token buckets for tokens and requests per minute, plus a daily token budget that resets at
+ * midnight UTC. A call reserves its estimated tokens before it is queued and settles them
+ * with the reported usage afterwards. Calls that do not fit yet wait in priority order
+ * instead of running into HTTP 429; batch and background calls additionally leave
+ * {@code low-priority-reserve} of every budget to interactive work. Only an interactive or
+ * normal call that the rest of today's budget cannot cover is rejected straight away, so it
+ * can fail over to another provider.
+ */
+@Component
+public class LlmSpendGovernor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LlmSpendGovernor.class);
+    private static final long MINUTE_MILLIS = 60_000;
+    private static final long DAY_MILLIS = 86_400_000;
+    private static final long SWEEP_INTERVAL_MILLIS = 250;
+
+    private final double lowPriorityReserve;
+    private final LongSupplier clock;
+    private final Map<String, ProviderBudget> budgets = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "llm-spend-governor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public LlmSpendGovernor(@Value("${llm.governor.low-priority-reserve:0.2}") double lowPriorityReserve) {
+        this(lowPriorityReserve, System::currentTimeMillis);
+        sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_MILLIS, SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    LlmSpendGovernor(double lowPriorityReserve, LongSupplier clock) {
+        this.lowPriorityReserve = Math.min(0.9, Math.max(0, lowPriorityReserve));
+        this.clock = clock;
+    }
+
+    /**
+     * Completes once the call fits the provider's budgets, or exceptionally with
+     * {@link LlmRequestRejectedException} when it cannot before its deadline.
+     */
+    public CompletableFuture<Grant> admit(
+        LlmProviderRegistry.ProviderDescriptor descriptor,
+        LlmRequestPriority priority,
+        Instant deadline,
+        int estimatedTokens
+    ) {
+        LlmProviderRegistry.SpendLimits limits = descriptor.limits();
+        if (limits == null || limits.isUnlimited()) {
+            return CompletableFuture.completedFuture(Grant.UNMETERED);
+        }
+        ProviderBudget budget = budgets.computeIfAbsent(descriptor.id(), id -> new ProviderBudget(id, limits));
+        return budget.admit(priority != null ? priority : LlmRequestPriority.NORMAL, deadline, Math.max(1, estimatedTokens));
+    }
+
+    /** The provider answered HTTP 429: its real limit is tighter than the configured one, so the buckets start over empty. */
+    public void throttled(String providerId) {
+        ProviderBudget budget = budgets.get(providerId);
+        if (budget != null) {
+            budget.drainBuckets();
+        }
+    }
+
+    public LlmAnalyticsSnapshot.BudgetSnapshot snapshot() {
+        Map<String, LlmAnalyticsSnapshot.ProviderBudgetStats> providers = new LinkedHashMap<>();
+        budgets.values().stream()
+            .sorted(Comparator.comparing(budget -> budget.providerId))
+            .forEach(budget -> providers.put(budget.providerId, budget.stats()));
+        return new LlmAnalyticsSnapshot.BudgetSnapshot(providers);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    void sweep() {
+        try {
+            budgets.values().forEach(ProviderBudget::retry);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("LLM budget sweep failed: {}", ex.getMessage());
+        }
+    }
+
+    /** Tokens reserved for one call; settle it exactly once when the call has finished. */
+    public static final class Grant {
+        static final Grant UNMETERED = new Grant(null, 0);
+
+        private final ProviderBudget budget;
+        private final int reservedTokens;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Grant(ProviderBudget budget, int reservedTokens) {
+            this.budget = budget;
+            this.reservedTokens = reservedTokens;
+        }
+
+        /**
+         * @param usedTokens tokens the provider reported, or {@code null} when the call failed
+         *                   without usage; the reservation is then given back
+         */
+        public void settle(Integer usedTokens) {
+            if (budget != null && settled.compareAndSet(false, true)) {
+                budget.settle(reservedTokens, usedTokens != null ? usedTokens : 0);
+            }
+        }
+    }
+
+    private record Pending(
+        LlmRequestPriority priority,
+        long sequence,
+        Instant deadline,
+        int tokens,
+        CompletableFuture<Grant> future
+    ) {}
+
+    private final class ProviderBudget {
+        private final String providerId;
+        private final LlmProviderRegistry.SpendLimits limits;
+        private final PriorityQueue<Pending> pending = new PriorityQueue<>(
+            Comparator.comparing(Pending::priority).thenComparingLong(Pending::sequence)
+        );
+        private double tokens;
+        private double requests;
+        private long refilledAt;
+        private long day;
+        private long usedToday;
+        private long reservedToday;
+        private long deferredTotal;
+        private long rejected;
+
+        private ProviderBudget(String providerId, LlmProviderRegistry.SpendLimits limits) {
+            this.providerId = providerId;
+            this.limits = limits;
+            this.tokens = limits.tokensPerMinute() != null ? limits.tokensPerMinute() : 0;
+            this.requests = limits.requestsPerMinute() != null ? limits.requestsPerMinute() : 0;
+            this.refilledAt = clock.getAsLong();
+            this.day = refilledAt / DAY_MILLIS;
+        }
+
+        CompletableFuture<Grant> admit(LlmRequestPriority priority, Instant deadline, int estimatedTokens) {
+            Pending call = new Pending(priority, sequence.incrementAndGet(), deadline, estimatedTokens, new CompletableFuture<>());
+            List<Runnable> completions = new ArrayList<>(1);
+            synchronized (this) {
+                refill();
+                if ((pending.isEmpty() || pending.peek().priority().compareTo(priority) > 0) && fits(call)) {
+                    completions.add(take(call));
+                } else if (!isLowPriority(priority) && exceedsDailyBudget(call.tokens(), 0)) {
+                    rejected++;
+                    completions.add(() -> call.future().completeExceptionally(new LlmRequestRejectedException(
+                        providerId,
+                        LlmRequestRejectedException.Reason.BUDGET,
+                        "Daily token budget of " + providerId + " is spent (" + usedToday + " of " + limits.dailyTokenBudget() + ")"
+                    )));
+                } else {
+                    deferredTotal++;
+                    pending.add(call);
+                }
+            }
+            completions.forEach(Runnable::run);
+            return call.future();
+        }
+
+        void settle(int reservedTokens, int usedTokens) {
+            List<Runnable> completions;
+            synchronized (this) {
+                refill();
+                reservedToday = Math.max(0, reservedToday - reservedTokens);
+                usedToday += usedTokens;
+                if (limits.tokensPerMinute() != null) {
+                    // the estimate was charged up front; the bucket may go into debt for an underestimate
+                    tokens = Math.max(-limits.tokensPerMinute(), Math.min(limits.tokensPerMinute(), tokens + reservedTokens - usedTokens));
+                }
+                completions = drain();
+            }
+            completions.forEach(Runnable::run);
+        }
+
+        void retry() {
+            List<Runnable> completions;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                refill();
+                completions = drain();
+            }
+            completions.forEach(Runnable::run);
+        }
+
+        synchronized void drainBuckets() {
+            tokens = Math.min(tokens, 0);
+            requests = Math.min(requests, 0);
+        }
+
+        /** Grants in priority order and stops at the first call that does not fit, so larger urgent calls are not starved. */
+        private List<Runnable> drain() {
+            List<Runnable> completions = new ArrayList<>();
+            Instant now = Instant.ofEpochMilli(clock.getAsLong());
+            pending.removeIf(call -> {
+                if (call.future().isDone()) {
+                    return true;
+                }
+                if (call.deadline() != null && now.isAfter(call.deadline())) {
+                    rejected++;
+                    completions.add(() -> call.future().completeExceptionally(new LlmRequestRejectedException(
+                        providerId,
+                        LlmRequestRejectedException.Reason.DEADLINE,
+                        "LLM request for " + providerId + " was still waiting for budget at its deadline " + call.deadline()
+                    )));
+                    return true;
+                }
+                return false;
+            });
+            while (!pending.isEmpty() && fits(pending.peek())) {
+                completions.add(take(pending.poll()));
+            }
+            return completions;
+        }
+
+        private boolean fits(Pending call) {
+            double floor = isLowPriority(call.priority()) ? lowPriorityReserve : 0;
+            Integer tokensPerMinute = limits.tokensPerMinute();
+            Integer requestsPerMinute = limits.requestsPerMinute();
+            // a call larger than the whole bucket goes once the bucket is full
+            boolean tokensFit = tokensPerMinute == null
+                || tokens - Math.min(call.tokens(), tokensPerMinute * (1 - floor)) >= Math.floor(tokensPerMinute * floor);
+            boolean requestsFit = requestsPerMinute == null
+                || requests - 1 >= Math.floor(requestsPerMinute * floor);
+            return tokensFit && requestsFit && !exceedsDailyBudget(call.tokens(), floor);
+        }
+
+        private boolean exceedsDailyBudget(int callTokens, double floor) {
+            Integer daily = limits.dailyTokenBudget();
+            return daily != null && usedToday + reservedToday + callTokens > daily * (1 - floor);
+        }
+
+        private Runnable take(Pending call) {
+            if (limits.tokensPerMinute() != null) {
+                tokens -= call.tokens();
+            }
+            if (limits.requestsPerMinute() != null) {
+                requests -= 1;
+            }
+            reservedToday += call.tokens();
+            Grant grant = new Grant(this, call.tokens());
+            return () -> {
+                if (!call.future().complete(grant)) {
+                    // the caller gave up while the grant was being handed over
+                    grant.settle(null);
+                }
+            };
+        }
+
+        private void refill() {
+            long now = clock.getAsLong();
+            long elapsed = Math.max(0, now - refilledAt);
+            refilledAt = now;
+            if (limits.tokensPerMinute() != null) {
+                tokens = Math.min(limits.tokensPerMinute(), tokens + (double) limits.tokensPerMinute() * elapsed / MINUTE_MILLIS);
+            }
+            if (limits.requestsPerMinute() != null) {
+                requests = Math.min(limits.requestsPerMinute(), requests + (double) limits.requestsPerMinute() * elapsed / MINUTE_MILLIS);
+            }
+            if (now / DAY_MILLIS != day) {
+                day = now / DAY_MILLIS;
+                usedToday = 0;
+            }
+        }
+
+        synchronized LlmAnalyticsSnapshot.ProviderBudgetStats stats() {
+            refill();
+            Integer daily = limits.dailyTokenBudget();
+            return new LlmAnalyticsSnapshot.ProviderBudgetStats(
+                limits.tokensPerMinute(),
+                (long) Math.floor(tokens),
+                limits.requestsPerMinute(),
+                (long) Math.floor(requests),
+                daily,
+                usedToday,
+                daily != null ? Math.max(0, daily - usedToday - reservedToday) : null,
+                pending.size(),
+                deferredTotal,
+                rejected
+            );
+        }
+    }
+
+    private static boolean isLowPriority(LlmRequestPriority priority) {
+        return priority.compareTo(LlmRequestPriority.BATCH) >= 0;
+    }
+}
@@ -0,0 +1,302 @@
+package org.example.features.llm.infrastructure.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import org.example.features.llm.domain.dto.ChatCompletionRequest;
+import org.example.features.llm.domain.dto.ChatCompletionResponse;
+import org.example.features.llm.domain.services.TokenEstimator;
+import org.example.features.llm.infrastructure.config.LlmProviderConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for a model server behind {@code mode: mock} providers, so tests and
+ * benchmarks of the whole planning pipeline run offline. A call waits for a sampled time to
+ * first token, then "generates" the completion at the configured token rate; a share of the
+ * calls fails with the configured HTTP status. With a {@code seed} the sequence of latencies,
+ * failures and scripted responses is reproducible.
+ *
+ * <p>Templates may use {@code {{model}}}, {@code {{sequence}}}, {@code {{operationCount}}} and
+ * {@code {{httpRequests}}}, a JSON array with one step per {@code - METHOD /path} operation
+ * line of the prompt.
+ */
+@Component
+public class MockLlmProvider {
+
+    private static final Pattern OPERATION =
+        Pattern.compile("(?m)^\\s*-\\s*(GET|POST|PUT|PATCH|DELETE|HEAD|OPTIONS)\\s+(/\\S*)");
+    private static final int MAX_STREAM_CHUNKS = 64;
+    private static final String DEFAULT_TEMPLATE = "{\"plan\":\"1. Exercise {{operationCount}} operations "
+        + "(mock plan {{sequence}})\",\"summary\":\"Offline plan from {{model}}\",\"httpRequests\":{{httpRequests}}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, ProviderState> states = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "llm-mock-provider");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CompletableFuture<ChatCompletionResponse> complete(
+        LlmProviderRegistry.ProviderDescriptor descriptor,
+        ChatCompletionRequest request,
+        String model
+    ) {
+        Call call = prepare(descriptor, request, model);
+        CompletableFuture<ChatCompletionResponse> result = new CompletableFuture<>();
+        ScheduledFuture<?> task = timer.schedule(() -> {
+            if (call.failure() != null) {
+                result.completeExceptionally(call.failure());
+            } else {
+                result.complete(call.response());
+            }
+        }, call.firstTokenMillis() + (call.failure() != null ? 0 : call.generationMillis()), TimeUnit.MILLISECONDS);
+        // a cancelled caller frees the timer slot
+        result.whenComplete((response, error) -> task.cancel(false));
+        return result;
+    }
+
+    /**
+     * Emits the completion as OpenAI-style server-sent event lines, content first, then the
+     * usage and {@code [DONE]}. The future completes after the last line, or exceptionally for
+     * an injected failure; cancelling it stops the stream.
+     */
+    public CompletableFuture<Void> stream(
+        LlmProviderRegistry.ProviderDescriptor descriptor,
+        ChatCompletionRequest request,
+        String model,
+        Consumer<String> lines
+    ) {
+        Call call = prepare(descriptor, request, model);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (call.failure() != null) {
+            timer.schedule(() -> done.completeExceptionally(call.failure()), call.firstTokenMillis(), TimeUnit.MILLISECONDS);
+            return done;
+        }
+        List<String> events = streamEvents(call);
+        long interval = events.size() <= 1 ? 0 : call.generationMillis() / (events.size() - 1);
+        emit(events, 0, interval, lines, done, call.firstTokenMillis());
+        return done;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private void emit(List<String> events, int index, long interval, Consumer<String> lines, CompletableFuture<Void> done, long delay) {
+        timer.schedule(() -> {
+            if (done.isDone()) {
+                return;
+            }
+            try {
+                lines.accept(events.get(index));
+            } catch (RuntimeException ex) {
+                done.completeExceptionally(ex);
+                return;
+            }
+            if (index + 1 == events.size()) {
+                done.complete(null);
+            } else {
+                emit(events, index + 1, interval, lines, done, interval);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private Call prepare(LlmProviderRegistry.ProviderDescriptor descriptor, ChatCompletionRequest request, String model) {
+        LlmProviderConfigurationProperties.MockSettings settings = descriptor.mock() != null
+            ? descriptor.mock()
+            : new LlmProviderConfigurationProperties.MockSettings();
+        ProviderState state = states.computeIfAbsent(descriptor.id(), ignored -> new ProviderState(settings.getSeed()));
+        long sequence = state.sequence.incrementAndGet();
+        String prompt = promptOf(request);
+
+        long firstTokenMillis;
+        boolean fail;
+        synchronized (state.random) {
+            firstTokenMillis = sampleLatency(settings.getLatency(), state.random);
+            fail = settings.getErrorRate() > 0 && state.random.nextDouble() < settings.getErrorRate();
+        }
+        if (fail) {
+            LlmProviderException failure = new LlmProviderException(
+                descriptor.id(),
+                settings.getErrorStatus(),
+                "Injected mock failure (HTTP " + settings.getErrorStatus() + ")"
+            );
+            return new Call(model, "", 0, 0, firstTokenMillis, 0, failure);
+        }
+
+        String content = content(settings, prompt, model, sequence);
+        TokenEstimator estimator = TokenEstimator.forModel(model, false, null);
+        int promptTokens = estimator.estimate(prompt);
+        int completionTokens = Math.max(1, estimator.estimate(content));
+        long generationMillis = settings.getTokensPerSecond() <= 0
+            ? 0
+            : Math.round(completionTokens * 1000d / settings.getTokensPerSecond());
+        return new Call(model, content, promptTokens, completionTokens, firstTokenMillis, generationMillis, null);
+    }
+
+    private String content(
+        LlmProviderConfigurationProperties.MockSettings settings,
+        String prompt,
+        String model,
+        long sequence
+    ) {
+        List<String> responses = settings.getResponses();
+        if (responses != null && !responses.isEmpty()) {
+            return responses.get((int) ((sequence - 1) % responses.size()));
+        }
+        String template = StringUtils.hasText(settings.getTemplate()) ? settings.getTemplate() : DEFAULT_TEMPLATE;
+        List<String[]> operations = operations(prompt, Math.max(1, settings.getMaxSteps()));
+        return template
+            .replace("{{model}}", String.valueOf(model))
+            .replace("{{sequence}}", Long.toString(sequence))
+            .replace("{{operationCount}}", Integer.toString(operations.size()))
+            .replace("{{httpRequests}}", httpRequests(operations));
+    }
+
+    private static List<String[]> operations(String prompt, int limit) {
+        List<String[]> operations = new ArrayList<>();
+        Matcher matcher = OPERATION.matcher(prompt);
+        while (matcher.find() && operations.size() < limit) {
+            operations.add(new String[] {matcher.group(1), matcher.group(2)});
+        }
+        if (operations.isEmpty()) {
+            operations.add(new String[] {"GET", "/health"});
+        }
+        return operations;
+    }
+
+    private String httpRequests(List<String[]> operations) {
+        ArrayNode steps = objectMapper.createArrayNode();
+        for (String[] operation : operations) {
+            ObjectNode step = steps.addObject();
+            step.put("name", operation[0] + " " + operation[1]);
+            step.put("method", operation[0]);
+            step.put("url", operation[1]);
+            step.putObject("headers").put("Accept", "application/json");
+            step.put("description", "Generated by the mock LLM provider");
+        }
+        return steps.toString();
+    }
+
+    /** Content split into at most {@link #MAX_STREAM_CHUNKS} deltas, then usage and {@code [DONE]}. */
+    private List<String> streamEvents(Call call) {
+        String id = "mock-" + UUID.randomUUID();
+        String content = call.content();
+        int chunks = Math.max(1, Math.min(MAX_STREAM_CHUNKS, call.completionTokens()));
+        int size = Math.max(1, (content.length() + chunks - 1) / chunks);
+        List<String> events = new ArrayList<>();
+        for (int start = 0; start < content.length(); start += size) {
+            boolean last = start + size >= content.length();
+            ObjectNode event = objectMapper.createObjectNode().put("id", id).put("model", call.model());
+            ObjectNode choice = event.putArray("choices").addObject().put("index", 0);
+            choice.putObject("delta").put("content", content.substring(start, Math.min(content.length(), start + size)));
+            if (last) {
+                choice.put("finish_reason", "stop");
+            } else {
+                choice.putNull("finish_reason");
+            }
+            events.add("data: " + event);
+        }
+        ObjectNode usage = objectMapper.createObjectNode().put("id", id);
+        usage.putArray("choices");
+        usage.putObject("usage")
+            .put("prompt_tokens", call.promptTokens())
+            .put("completion_tokens", call.completionTokens())
+            .put("total_tokens", call.promptTokens() + call.completionTokens());
+        events.add("data: " + usage);
+        events.add("data: [DONE]");
+        return events;
+    }
+
+    private static String promptOf(ChatCompletionRequest request) {
+        StringBuilder prompt = new StringBuilder();
+        if (request.getMessages() != null) {
+            for (ChatCompletionRequest.Message message : request.getMessages()) {
+                if (message != null && message.getContent() != null) {
+                    prompt.append(message.getContent()).append('\n');
+                }
+            }
+        }
+        return prompt.toString();
+    }
+
+    static long sampleLatency(LlmProviderConfigurationProperties.LatencySettings latency, Random random) {
+        if (latency == null) {
+            return 0;
+        }
+        double mean = Math.max(0, latency.getMeanMs());
+        double stddev = Math.max(0, latency.getStddevMs());
+        String distribution = latency.getDistribution() == null ? "fixed" : latency.getDistribution().toLowerCase(Locale.ROOT);
+        double sample = switch (distribution) {
+            case "uniform" -> mean - stddev + 2 * stddev * random.nextDouble();
+            case "normal" -> mean + stddev * random.nextGaussian();
+            case "lognormal" -> {
+                if (mean == 0) {
+                    yield 0;
+                }
+                // parameters of the underlying normal that give the configured mean and deviation
+                double sigma = Math.sqrt(Math.log(1 + (stddev * stddev) / (mean * mean)));
+                double mu = Math.log(mean) - sigma * sigma / 2;
+                yield Math.exp(mu + sigma * random.nextGaussian());
+            }
+            default -> mean;
+        };
+        return Math.max(0, Math.round(sample));
+    }
+
+    private record Call(
+        String model,
+        String content,
+        int promptTokens,
+        int completionTokens,
+        long firstTokenMillis,
+        long generationMillis,
+        LlmProviderException failure
+    ) {
+        ChatCompletionResponse response() {
+            ChatCompletionResponse response = new ChatCompletionResponse();
+            response.setId("mock-" + UUID.randomUUID());
+            response.setObject("chat.completion");
+            response.setCreated(Instant.now().getEpochSecond());
+            response.setModel(model);
+            response.setChoices(List.of(new ChatCompletionResponse.Choice(
+                0,
+                new ChatCompletionResponse.Message("assistant", content),
+                "stop"
+            )));
+            response.setUsage(new ChatCompletionResponse.Usage(promptTokens, completionTokens, promptTokens + completionTokens));
+            return response;
+        }
+    }
+
+    private static final class ProviderState {
+        private final Random random;
+        private final AtomicLong sequence = new AtomicLong();
+
+        private ProviderState(Long seed) {
+            this.random = seed != null ? new Random(seed) : new Random();
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package org.example.features.llm.infrastructure.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.example.features.llm.domain.dto.LlmAnalyticsSnapshot;
+import org.example.features.llmproviders.LlmProviderClients;
+import org.example.features.llmproviders.ProviderRequest;
+import org.example.features.llmproviders.ProviderResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the models of local (Ollama) providers resident so planner calls do not pay the
+ * model load time. Models are loaded ahead of the first call at startup and whenever a local
+ * provider becomes active; every call then asks Ollama to keep the model for a
+ * {@code keep_alive} derived from the recent gaps between calls to it, long enough to bridge
+ * nine out of ten of them. A poller compares the expected state with {@code /api/ps} and
+ * reloads a model Ollama dropped while traffic is still expected.
+ *
+ * <p>A call is counted as a cold start when the model was not known to be resident when it
+ * was sent.
+ */
+@Component
+public class OllamaModelLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OllamaModelLifecycle.class);
+    private static final int ARRIVALS = 32;
+    private static final int MIN_GAPS_FOR_FORECAST = 3;
+
+    public enum LoadState { UNKNOWN, LOADING, LOADED, UNLOADED }
+
+    private final LlmProviderRegistry registry;
+    private final boolean warmUpOnStartup;
+    private final long minKeepAliveSeconds;
+    private final long maxKeepAliveSeconds;
+    private final LongSupplier clock;
+    private final LlmProviderClients providerClients;
+    private final Map<String, ModelState> models = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ollama-model-lifecycle");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public OllamaModelLifecycle(
+        LlmProviderRegistry registry,
+        LlmProviderClients providerClients,
+        @Value("${llm.ollama.warm-up-on-startup:true}") boolean warmUpOnStartup,
+        @Value("${llm.ollama.min-keep-alive-seconds:300}") long minKeepAliveSeconds,
+        @Value("${llm.ollama.max-keep-alive-seconds:3600}") long maxKeepAliveSeconds,
+        @Value("${llm.ollama.poll-seconds:60}") long pollSeconds
+    ) {
+        this(registry, providerClients, warmUpOnStartup, minKeepAliveSeconds, maxKeepAliveSeconds, pollSeconds, System::currentTimeMillis);
+    }
+
+    OllamaModelLifecycle(
+        LlmProviderRegistry registry,
+        LlmProviderClients providerClients,
+        boolean warmUpOnStartup,
+        long minKeepAliveSeconds,
+        long maxKeepAliveSeconds,
+        long pollSeconds,
+        LongSupplier clock
+    ) {
+        this.registry = registry;
+        this.providerClients = providerClients;
+        this.warmUpOnStartup = warmUpOnStartup;
+        this.minKeepAliveSeconds = Math.max(0, minKeepAliveSeconds);
+        this.maxKeepAliveSeconds = Math.max(this.minKeepAliveSeconds, maxKeepAliveSeconds);
+        this.clock = clock;
+        registry.addSwitchListener(provider -> {
+            if (provider != null && provider.isLocal() && provider.enabled()) {
+                warmUp(provider, provider.model());
+            }
+        });
+        if (pollSeconds > 0) {
+            poller.scheduleWithFixedDelay(this::poll, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (!warmUpOnStartup) {
+            return;
+        }
+        registry.getActiveProvider()
+            .filter(provider -> provider.isLocal() && provider.enabled())
+            .ifPresent(provider -> warmUp(provider, provider.model()));
+    }
+
+    /**
+     * Loads the model without generating anything (an empty {@code /api/generate} call). The
+     * future completes with {@code false} if the server could not load it.
+     */
+    public CompletableFuture<Boolean> warmUp(LlmProviderRegistry.ProviderDescriptor provider, String model) {
+        if (!provider.isLocal() || !StringUtils.hasText(model)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        ModelState state = state(provider, model);
+        long keepAlive = state.keepAliveSeconds(minKeepAliveSeconds, maxKeepAliveSeconds);
+        state.loading();
+        long started = System.nanoTime();
+        String payload = objectMapper.createObjectNode()
+            .put("model", model)
+            .put("keep_alive", keepAlive + "s")
+            .toString();
+        LOGGER.info("Warming up model {} on {}", model, provider.id());
+        return send(provider, new ProviderRequest("/api/generate", Map.of(), payload, Duration.ofMinutes(5)))
+            .handle((response, error) -> {
+                boolean loaded = error == null && response.isSuccess();
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                if (loaded) {
+                    state.warmedUp(clock.getAsLong(), keepAlive, elapsedMillis);
+                    LOGGER.info("Model {} on {} is resident after {} ms", model, provider.id(), elapsedMillis);
+                } else {
+                    state.unloaded();
+                    LOGGER.warn("Warm-up of model {} on {} failed: {}", model, provider.id(),
+                        error != null ? error.getMessage() : "HTTP " + response.statusCode());
+                }
+                return loaded;
+            });
+    }
+
+    /**
+     * Records a call about to be sent and returns the {@code keep_alive} to send with it.
+     */
+    public String keepAliveFor(LlmProviderRegistry.ProviderDescriptor provider, String model) {
+        long keepAlive = state(provider, model).called(clock.getAsLong(), minKeepAliveSeconds, maxKeepAliveSeconds);
+        return keepAlive + "s";
+    }
+
+    public LlmAnalyticsSnapshot.ModelLifecycleSnapshot snapshot() {
+        long now = clock.getAsLong();
+        Map<String, LlmAnalyticsSnapshot.ModelLoadStats> stats = models.entrySet().stream()
+            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> entry.getValue().stats(now)));
+        return new LlmAnalyticsSnapshot.ModelLifecycleSnapshot(stats);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+    }
+
+    /** Reconciles the expected state of every tracked model with the server's {@code /api/ps}. */
+    void poll() {
+        for (LlmProviderRegistry.ProviderDescriptor provider : registry.getEnabledProviders()) {
+            if (!provider.isLocal()) {
+                continue;
+            }
+            try {
+                ProviderResponse response = send(provider, ProviderRequest.get("/api/ps", Map.of(), Duration.ofSeconds(5))).get();
+                if (!response.isSuccess()) {
+                    continue;
+                }
+                Set<String> resident = new HashSet<>();
+                for (JsonNode entry : objectMapper.readTree(response.body()).path("models")) {
+                    resident.add(entry.path("name").asText());
+                    resident.add(entry.path("model").asText());
+                }
+                reconcile(provider, resident);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                LOGGER.debug("Could not read loaded models from {}: {}", provider.id(), ex.getMessage());
+            }
+        }
+    }
+
+    void reconcile(LlmProviderRegistry.ProviderDescriptor provider, Set<String> resident) {
+        long now = clock.getAsLong();
+        models.forEach((key, state) -> {
+            if (!state.providerId.equals(provider.id())) {
+                return;
+            }
+            boolean loaded = resident.contains(state.model) || resident.contains(state.model + ":latest");
+            if (loaded) {
+                state.confirmLoaded();
+            } else if (state.unexpectedlyUnloaded(now)) {
+                LOGGER.info("Model {} on {} was unloaded while traffic is still expected, reloading it", state.model, provider.id());
+                warmUp(provider, state.model);
+            }
+        });
+    }
+
+    private ModelState state(LlmProviderRegistry.ProviderDescriptor provider, String model) {
+        return models.computeIfAbsent(provider.id() + "/" + model, ignored -> new ModelState(provider.id(), model));
+    }
+
+    /** Goes through the provider's shared connection pool, the same one its chat calls use. */
+    private CompletableFuture<ProviderResponse> send(LlmProviderRegistry.ProviderDescriptor provider, ProviderRequest request) {
+        try {
+            return providerClients.clientFor(provider.id(), provider.baseUrl()).send(request);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private static final class ModelState {
+        private final String providerId;
+        private final String model;
+        private final long[] arrivals = new long[ARRIVALS];
+        private int arrivalCount;
+        private LoadState state = LoadState.UNKNOWN;
+        private long expiresAt;
+        private long keepAliveSeconds;
+        private long calls;
+        private long coldStarts;
+        private long warmUps;
+        private Long lastLoadMillis;
+
+        private ModelState(String providerId, String model) {
+            this.providerId = providerId;
+            this.model = model;
+        }
+
+        synchronized long called(long now, long min, long max) {
+            calls++;
+            if (state != LoadState.LOADED || now >= expiresAt) {
+                coldStarts++;
+            }
+            arrivals[arrivalCount % ARRIVALS] = now;
+            arrivalCount++;
+            keepAliveSeconds = keepAliveSeconds(min, max);
+            state = LoadState.LOADED;
+            expiresAt = now + keepAliveSeconds * 1000;
+            return keepAliveSeconds;
+        }
+
+        /** Long enough to bridge 90% of the recent gaps between calls, within the bounds. */
+        synchronized long keepAliveSeconds(long min, long max) {
+            int count = Math.min(arrivalCount, ARRIVALS);
+            if (count - 1 < MIN_GAPS_FOR_FORECAST) {
+                return min;
+            }
+            long[] ordered = new long[count];
+            for (int index = 0; index < count; index++) {
+                ordered[index] = arrivals[(arrivalCount - count + index) % ARRIVALS];
+            }
+            long[] gaps = new long[count - 1];
+            for (int index = 1; index < count; index++) {
+                gaps[index - 1] = ordered[index] - ordered[index - 1];
+            }
+            Arrays.sort(gaps);
+            long p90 = gaps[(int) Math.ceil(0.9 * gaps.length) - 1];
+            long seconds = (long) Math.ceil(p90 * 1.5 / 1000d);
+            return Math.max(min, Math.min(max, seconds));
+        }
+
+        synchronized void loading() {
+            if (state != LoadState.LOADED) {
+                state = LoadState.LOADING;
+            }
+        }
+
+        synchronized void warmedUp(long now, long keepAlive, long elapsedMillis) {
+            warmUps++;
+            lastLoadMillis = elapsedMillis;
+            state = LoadState.LOADED;
+            keepAliveSeconds = keepAlive;
+            expiresAt = Math.max(expiresAt, now + keepAlive * 1000);
+        }
+
+        synchronized void unloaded() {
+            state = LoadState.UNLOADED;
+        }
+
+        synchronized void confirmLoaded() {
+            if (state != LoadState.LOADING) {
+                state = LoadState.LOADED;
+            }
+        }
+
+        /** Marks the model unloaded; true if its keep-alive had not run out yet. */
+        synchronized boolean unexpectedlyUnloaded(long now) {
+            if (state == LoadState.LOADING) {
+                return false;
+            }
+            boolean expected = state == LoadState.LOADED && now < expiresAt;
+            state = LoadState.UNLOADED;
+            return expected;
+        }
+
+        synchronized LlmAnalyticsSnapshot.ModelLoadStats stats(long now) {
+            LoadState current = state == LoadState.LOADED && now >= expiresAt ? LoadState.UNLOADED : state;
+            return new LlmAnalyticsSnapshot.ModelLoadStats(
+                providerId,
+                model,
+                current.name(),
+                keepAliveSeconds,
+                current == LoadState.LOADED ? Math.max(0, (expiresAt - now) / 1000) : null,
+                calls,
+                coldStarts,
+                warmUps,
+                lastLoadMillis
+            );
+        }
+    }
+}
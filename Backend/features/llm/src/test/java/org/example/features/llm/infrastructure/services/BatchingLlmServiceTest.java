@@ -0,0 +1,120 @@
+package org.example.features.llm.infrastructure.services;
+
+import org.example.features.llm.domain.dto.ChatCompletionRequest;
+import org.example.features.llm.domain.dto.ChatCompletionResponse;
+import org.example.features.llm.domain.services.LLMService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingLlmServiceTest {
+
+    private static final Pattern QUESTION = Pattern.compile("### Question (q\\d+)\\n(.*)");
+
+    @Test
+    void packsRequestsWithTheSamePromptAndSplitsTheAnswers() throws Exception {
+        AnsweringLlmService backend = new AnsweringLlmService();
+        BatchingLlmService service = new BatchingLlmService(backend, 3, 6000);
+
+        List<ChatCompletionRequest> requests = new ArrayList<>();
+        for (int index = 1; index <= 5; index++) {
+            requests.add(request("Advise inputs", "GET /endpoint/" + index));
+        }
+        requests.add(request("Another role", "GET /other"));
+
+        List<ChatCompletionResponse> responses = service.chatCompletionBatch(requests).get(5, TimeUnit.SECONDS);
+
+        assertEquals(6, responses.size());
+        for (int index = 1; index <= 5; index++) {
+            assertEquals("{\"echo\":\"GET /endpoint/" + index + "\"}", content(responses.get(index - 1)));
+        }
+        assertEquals("single: GET /other", content(responses.get(5)));
+        assertEquals(List.of(3, 2, 1), backend.questionsPerCall, "Five packable requests need two calls, the odd one out its own");
+        assertEquals(30, responses.subList(0, 3).stream().mapToInt(response -> response.getUsage().getPromptTokens()).sum());
+    }
+
+    @Test
+    void retriesQuestionsTheModelLeftOutOnTheirOwn() throws Exception {
+        AnsweringLlmService backend = new AnsweringLlmService();
+        backend.skip = "GET /b";
+        BatchingLlmService service = new BatchingLlmService(backend, 8, 6000);
+
+        List<ChatCompletionResponse> responses = service.chatCompletionBatch(List.of(
+            request("Advise inputs", "GET /a"),
+            request("Advise inputs", "GET /b")
+        )).get(5, TimeUnit.SECONDS);
+
+        assertEquals("{\"echo\":\"GET /a\"}", content(responses.get(0)));
+        assertEquals("single: GET /b", content(responses.get(1)));
+        assertEquals(1, service.packedCallCount());
+        assertEquals(1, service.unpackedRetryCount());
+    }
+
+    private static ChatCompletionRequest request(String system, String question) {
+        ChatCompletionRequest request = new ChatCompletionRequest();
+        request.setModel("analysis-inputs");
+        request.setMessages(List.of(
+            new ChatCompletionRequest.Message("system", system),
+            new ChatCompletionRequest.Message("user", question)
+        ));
+        return request;
+    }
+
+    private static String content(ChatCompletionResponse response) {
+        return response.getChoices().get(0).getMessage().getContent();
+    }
+
+    /** Echoes every packed question back as a JSON answer; single requests get a plain reply. */
+    private static final class AnsweringLlmService implements LLMService {
+        private final List<Integer> questionsPerCall = Collections.synchronizedList(new ArrayList<>());
+        private String skip;
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<ChatCompletionResponse> chatCompletion(ChatCompletionRequest request) {
+            String prompt = request.getMessages().get(request.getMessages().size() - 1).getContent();
+            Matcher matcher = QUESTION.matcher(prompt);
+            List<String> answers = new ArrayList<>();
+            while (matcher.find()) {
+                if (!matcher.group(2).equals(skip)) {
+                    answers.add("{\"id\":\"" + matcher.group(1) + "\",\"content\":{\"echo\":\"" + matcher.group(2) + "\"}}");
+                }
+            }
+            int questions = Math.max(1, (int) QUESTION.matcher(prompt).results().count());
+            questionsPerCall.add(questions);
+            String content = answers.isEmpty() ? "single: " + prompt : "```json\n{\"answers\":[" + String.join(",", answers) + "]}\n```";
+            return CompletableFuture.completedFuture(new ChatCompletionResponse(
+                "id", "chat.completion", 0L, "model",
+                List.of(new ChatCompletionResponse.Choice(0, new ChatCompletionResponse.Message("assistant", content), "stop")),
+                new ChatCompletionResponse.Usage(10 * questions, 5 * questions, 15 * questions)
+            ));
+        }
+
+        @Override
+        public String getProviderName() {
+            return "answering";
+        }
+
+        @Override
+        public String getStatus() {
+            return "ready";
+        }
+
+        @Override
+        public String[] getSupportedModels() {
+            return new String[0];
+        }
+    }
+}
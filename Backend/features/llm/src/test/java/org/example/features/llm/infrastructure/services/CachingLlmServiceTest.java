@@ -0,0 +1,162 @@
+package org.example.features.llm.infrastructure.services;
+
+import org.example.features.llm.domain.dto.ChatCompletionRequest;
+import org.example.features.llm.domain.dto.ChatCompletionResponse;
+import org.example.features.llm.domain.dto.LlmAnalyticsSnapshot;
+import org.example.features.llm.domain.services.LLMService;
+import org.example.features.llm.infrastructure.config.LlmProviderConfigLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingLlmServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void repeatedPromptIsServedFromCacheUnlessBypassed() {
+        CountingLlmService backend = new CountingLlmService();
+        LlmResponseCache cache = new LlmResponseCache(true, Duration.ofMinutes(5), 1 << 20, null, 10, Clock.systemUTC());
+        LLMService service = new CachingLlmService(backend, cache);
+
+        service.chatCompletion(request("Describe   the\nprocess")).join();
+        ChatCompletionResponse cached = service.chatCompletion(request("Describe the process")).join();
+        assertEquals(1, backend.calls.get(), "Whitespace differences map to the same key");
+        assertEquals("answer-1", cached.getChoices().get(0).getMessage().getContent());
+
+        ChatCompletionRequest bypass = request("Describe the process");
+        bypass.setCacheBypass(true);
+        service.chatCompletion(bypass).join();
+        assertEquals(2, backend.calls.get());
+
+        LlmAnalyticsSnapshot.CacheSnapshot stats = cache.snapshot();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.bypasses());
+        assertEquals(0.5, stats.hitRatio());
+    }
+
+    @Test
+    void diskTierSurvivesANewCacheInstanceAndLruEvictsByWeight() {
+        CountingLlmService backend = new CountingLlmService();
+        LlmResponseCache first = new LlmResponseCache(true, Duration.ofMinutes(5), 1 << 20, tempDir, 10, Clock.systemUTC());
+        new CachingLlmService(backend, first).chatCompletion(request("persist me")).join();
+
+        LlmResponseCache restarted = new LlmResponseCache(true, Duration.ofMinutes(5), 1 << 20, tempDir, 10, Clock.systemUTC());
+        ChatCompletionResponse response = new CachingLlmService(backend, restarted).chatCompletion(request("persist me")).join();
+        assertEquals("answer-1", response.getChoices().get(0).getMessage().getContent());
+        assertEquals(1, restarted.snapshot().diskHits());
+
+        // each entry weighs 256 + 2 * 8 bytes, so only four fit into 1100 bytes
+        LlmResponseCache small = new LlmResponseCache(true, Duration.ofMinutes(5), 1100, null, 10, Clock.systemUTC());
+        for (int index = 0; index < 5; index++) {
+            small.put("key-" + index, backend.chatCompletion(request("p" + index)).join(), 10);
+        }
+        assertTrue(small.get("key-0").isEmpty());
+        assertTrue(small.get("key-4").isPresent());
+        assertEquals(1, small.snapshot().evictions());
+    }
+
+    @Test
+    void diskTierIsPrunedOnceItOutgrowsItsLimit() throws Exception {
+        CountingLlmService backend = new CountingLlmService();
+        Path directory = Files.createDirectories(tempDir.resolve("bounded"));
+        LlmResponseCache cache = new LlmResponseCache(true, Duration.ofMinutes(5), 1 << 20, directory, 10, Clock.systemUTC());
+
+        for (int index = 0; index < 25; index++) {
+            cache.put("key-" + index, backend.chatCompletion(request("p" + index)).join(), 10);
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.filter(file -> file.toString().endsWith(".json")).count() <= 10);
+        }
+    }
+
+    @Test
+    void switchingAwayFromTheMockProviderMissesInBothTiers() throws Exception {
+        Path config = tempDir.resolve("providers.yml");
+        Files.writeString(config, """
+            activeProvider: mock
+            providers:
+              - id: mock
+                mode: mock
+                model: mock-planner
+              - id: ollama
+                mode: local
+                baseUrl: http://ollama.invalid
+                model: llama3
+            """);
+        LlmProviderRegistry registry =
+            new LlmProviderRegistry(new LlmProviderConfigLoader(new DefaultResourceLoader(), config.toUri().toString()));
+        String diskDirectory = tempDir.resolve("cache").toString();
+        CountingLlmService backend = new CountingLlmService();
+        LLMService service = new CachingLlmService(backend, new LlmResponseCache(registry, true, 300, 1 << 20, diskDirectory, 10));
+
+        service.chatCompletion(request("plan the process")).join();
+        service.chatCompletion(request("plan the process")).join();
+        assertEquals(1, backend.calls.get());
+
+        assertTrue(registry.switchTo("ollama"));
+        ChatCompletionResponse afterSwitch = service.chatCompletion(request("plan the process")).join();
+        assertEquals("answer-2", afterSwitch.getChoices().get(0).getMessage().getContent());
+
+        LlmResponseCache restarted = new LlmResponseCache(registry, true, 300, 1 << 20, diskDirectory, 10);
+        assertTrue(restarted.get(restarted.keyFor(request("plan the process"))).isPresent(), "Written while ollama was active");
+        assertTrue(registry.switchTo("mock"));
+        assertTrue(restarted.get(restarted.keyFor(request("plan the process"))).isEmpty());
+    }
+
+    private static ChatCompletionRequest request(String prompt) {
+        ChatCompletionRequest request = new ChatCompletionRequest();
+        request.setModel("analysis-planner");
+        request.setTemperature(0.2d);
+        request.setMessages(List.of(new ChatCompletionRequest.Message("user", prompt)));
+        return request;
+    }
+
+    private static final class CountingLlmService implements LLMService {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<ChatCompletionResponse> chatCompletion(ChatCompletionRequest request) {
+            String content = "answer-" + calls.incrementAndGet();
+            return CompletableFuture.completedFuture(new ChatCompletionResponse(
+                "id", "chat.completion", 0L, "model",
+                List.of(new ChatCompletionResponse.Choice(0, new ChatCompletionResponse.Message("assistant", content), "stop")),
+                new ChatCompletionResponse.Usage(1, 1, 2)
+            ));
+        }
+
+        @Override
+        public String getProviderName() {
+            return "counting";
+        }
+
+        @Override
+        public String getStatus() {
+            return "ready";
+        }
+
+        @Override
+        public String[] getSupportedModels() {
+            return new String[0];
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.features.llm.infrastructure.services;
+
+import org.example.features.llm.domain.dto.ChatCompletionChunk;
+import org.example.features.llm.domain.dto.ChatCompletionRequest;
+import org.example.features.llm.domain.dto.ChatCompletionResponse;
+import org.example.features.llm.domain.services.ChatCompletionStreams;
+import org.example.features.llm.domain.services.LLMService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingLlmServiceTest {
+
+    @Test
+    void concurrentIdenticalRequestsShareOneProviderCall() throws Exception {
+        GatedLlmService backend = new GatedLlmService();
+        CoalescingLlmService service = new CoalescingLlmService(backend);
+
+        CompletableFuture<ChatCompletionResponse> first = service.chatCompletion(request("inputs"));
+        CompletableFuture<ChatCompletionResponse> second = service.chatCompletion(request("inputs"));
+        CompletableFuture<ChatCompletionResponse> other = service.chatCompletion(request("planner"));
+        second.cancel(true);
+        backend.gate.complete(null);
+
+        assertEquals("inputs", first.get(5, TimeUnit.SECONDS).getChoices().get(0).getMessage().getContent());
+        assertEquals("planner", other.get(5, TimeUnit.SECONDS).getChoices().get(0).getMessage().getContent());
+        assertEquals(2, backend.calls.get(), "A cancelled follower must not cancel the shared call");
+        assertEquals(1, service.coalescedCount());
+
+        service.chatCompletion(request("inputs")).get(5, TimeUnit.SECONDS);
+        assertEquals(3, backend.calls.get(), "Finished calls are not reused");
+    }
+
+    @Test
+    void lateStreamSubscriberReceivesReplayedChunks() throws Exception {
+        GatedLlmService backend = new GatedLlmService();
+        CoalescingLlmService service = new CoalescingLlmService(backend);
+
+        CompletableFuture<ChatCompletionResponse> leader =
+            ChatCompletionStreams.collect(service.streamChatCompletion(request("plan")), null);
+        backend.streamStarted.get(5, TimeUnit.SECONDS);
+        backend.upstream.submit(new ChatCompletionChunk("s", "m", "Hel", null, null, false));
+        CompletableFuture<ChatCompletionResponse> follower =
+            ChatCompletionStreams.collect(service.streamChatCompletion(request("plan")), null);
+        backend.upstream.submit(new ChatCompletionChunk("s", "m", "lo", "stop", null, true));
+        backend.upstream.close();
+
+        assertEquals("Hello", leader.get(5, TimeUnit.SECONDS).getChoices().get(0).getMessage().getContent());
+        assertEquals("Hello", follower.get(5, TimeUnit.SECONDS).getChoices().get(0).getMessage().getContent());
+        assertEquals(1, backend.streams.get());
+    }
+
+    private static ChatCompletionRequest request(String prompt) {
+        ChatCompletionRequest request = new ChatCompletionRequest();
+        request.setModel("analysis-inputs");
+        request.setMessages(List.of(new ChatCompletionRequest.Message("user", prompt)));
+        return request;
+    }
+
+    private static final class GatedLlmService implements LLMService {
+        private final CompletableFuture<Void> gate = new CompletableFuture<>();
+        private final CompletableFuture<Void> streamStarted = new CompletableFuture<>();
+        private final SubmissionPublisher<ChatCompletionChunk> upstream = new SubmissionPublisher<>();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger streams = new AtomicInteger();
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<ChatCompletionResponse> chatCompletion(ChatCompletionRequest request) {
+            calls.incrementAndGet();
+            String prompt = request.getMessages().get(0).getContent();
+            return gate.thenApply(ignored -> new ChatCompletionResponse(
+                "id", "chat.completion", 0L, "model",
+                List.of(new ChatCompletionResponse.Choice(0, new ChatCompletionResponse.Message("assistant", prompt), "stop")),
+                null
+            ));
+        }
+
+        @Override
+        public Flow.Publisher<ChatCompletionChunk> streamChatCompletion(ChatCompletionRequest request) {
+            return subscriber -> {
+                streams.incrementAndGet();
+                upstream.subscribe(subscriber);
+                streamStarted.complete(null);
+            };
+        }
+
+        @Override
+        public String getProviderName() {
+            return "gated";
+        }
+
+        @Override
+        public String getStatus() {
+            return "ready";
+        }
+
+        @Override
+        public String[] getSupportedModels() {
+            return new String[0];
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package org.example.features.llm.infrastructure.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.features.llm.domain.dto.ChatCompletionChunk;
+import org.example.features.llm.domain.dto.ChatCompletionRequest;
+import org.example.features.llm.domain.dto.ChatCompletionResponse;
+import org.example.features.llm.domain.dto.LlmRequestPriority;
+import org.example.features.llm.domain.entities.PerformanceMetrics;
+import org.example.features.llm.domain.services.ChatCompletionStreams;
+import org.example.features.llm.infrastructure.config.LlmProviderConfigLoader;
+import org.example.features.llmproviders.LlmProviderClients;
+import org.example.features.llmproviders.ProviderClientSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpLlmServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private LlmProviderRegistry registry;
+    private HttpLlmService service;
+    private LlmCallTelemetry telemetry;
+    private final LlmProviderClients providerClients = new LlmProviderClients(ProviderClientSettings.defaults());
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/chat", exchange -> stream(exchange, "application/x-ndjson", List.of(
+            "{\"model\":\"llama\",\"message\":{\"role\":\"assistant\",\"content\":\"{\\\"plan\\\"\"},\"done\":false}\n",
+            "{\"model\":\"llama\",\"message\":{\"role\":\"assistant\",\"content\":\":\\\"ok\\\"}\"},\"done\":false}\n",
+            "{\"model\":\"llama\",\"message\":{\"role\":\"assistant\",\"content\":\"\"},\"done\":true,"
+                + "\"done_reason\":\"stop\",\"prompt_eval_count\":12,\"prompt_eval_duration\":45000000,\"eval_count\":4}\n"
+        )));
+        server.createContext("/v1/chat/completions", exchange -> stream(exchange, "text/event-stream", List.of(
+            ": keep-alive\n\n",
+            "data: {\"id\":\"c1\",\"choices\":[{\"index\":0,\"delta\":{\"role\":\"assistant\",\"content\":\"\"}}]}\n\n",
+            "data: {\"id\":\"c1\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\"Hel\"},\"finish_reason\":null}]}\n\n",
+            "data: {\"id\":\"c1\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\"lo\"},\"finish_reason\":\"stop\"}]}\n\n",
+            "data: {\"id\":\"c1\",\"choices\":[],\"usage\":{\"prompt_tokens\":7,\"completion_tokens\":2,\"total_tokens\":9,"
+                + "\"prompt_tokens_details\":{\"cached_tokens\":5}}}\n\n",
+            "data: [DONE]\n\n"
+        )));
+        server.createContext("/down/chat/completions", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        Path config = tempDir.resolve("llm-providers.yml");
+        Files.writeString(config, """
+            activeProvider: ollama
+            providers:
+              - id: ollama
+                displayName: Ollama
+                mode: local
+                baseUrl: %s
+                model: llama
+              - id: openai
+                displayName: OpenAI compatible
+                mode: remote
+                baseUrl: %s/v1
+                model: gpt
+              - id: down
+                displayName: Unavailable
+                mode: remote
+                baseUrl: %s/down
+                model: broken
+            """.formatted(base, base, base));
+        registry = new LlmProviderRegistry(new LlmProviderConfigLoader(new DefaultResourceLoader(), config.toUri().toString()));
+        telemetry = new LlmCallTelemetry(64, 900);
+        service = new HttpLlmService(
+            registry,
+            new LlmProviderRouter(registry, "active", true, 2, 60),
+            new LlmRequestScheduler(4, 1, 16),
+            telemetry,
+            new LlmHedgingPolicy(telemetry, "", 95, 250, 3000),
+            new MockLlmProvider(),
+            new OllamaModelLifecycle(registry, providerClients, false, 300, 3600, 0),
+            new LlmSpendGovernor(0.2),
+            providerClients,
+            10
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        providerClients.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void streamsOllamaNdjsonDeltas() throws Exception {
+        List<ChatCompletionChunk> chunks = new CopyOnWriteArrayList<>();
+
+        ChatCompletionResponse response = ChatCompletionStreams
+            .collect(service.streamChatCompletion(request()), chunks::add)
+            .get(5, TimeUnit.SECONDS);
+
+        assertEquals("{\"plan\":\"ok\"}", response.getChoices().get(0).getMessage().getContent());
+        assertEquals(3, chunks.size());
+        assertEquals("{\"plan\"", chunks.get(0).delta());
+        assertTrue(chunks.get(2).done());
+        assertEquals(16, response.getUsage().getTotalTokens());
+        assertEquals(45L, response.getUsage().getPromptEvalMs());
+
+        PerformanceMetrics call = telemetry.recent(1).get(0);
+        assertEquals("ollama", call.getProviderId());
+        assertEquals("stream", call.getOperation());
+        assertTrue(call.isSuccess());
+        assertEquals(16, call.getTokensUsed());
+        assertNotNull(call.getTimeToFirstTokenMs());
+        assertEquals(1, telemetry.snapshot().providers().get("ollama").calls());
+    }
+
+    @Test
+    void streamsOpenAiServerSentEvents() throws Exception {
+        registry.switchTo("openai");
+        List<ChatCompletionChunk> chunks = new CopyOnWriteArrayList<>();
+
+        ChatCompletionResponse response = ChatCompletionStreams
+            .collect(service.streamChatCompletion(request()), chunks::add)
+            .get(5, TimeUnit.SECONDS);
+
+        assertEquals("Hello", response.getChoices().get(0).getMessage().getContent());
+        assertEquals("stop", response.getChoices().get(0).getFinishReason());
+        assertEquals(9, response.getUsage().getTotalTokens());
+        assertEquals(5, response.getUsage().getCachedPromptTokens());
+        assertEquals("c1", response.getId());
+        assertEquals("Hel", chunks.get(0).delta(), "Role-only and comment lines are not published");
+    }
+
+    @Test
+    void failsOverWhenTheActiveProviderIsUnavailable() throws Exception {
+        registry.switchTo("down");
+        LlmProviderRouter router = new LlmProviderRouter(registry, "active", true, 2, 60);
+        HttpLlmService failingOver = new HttpLlmService(
+            registry, router, new LlmRequestScheduler(4, 1, 16), telemetry, new LlmHedgingPolicy(telemetry, "", 95, 250, 3000),
+            new MockLlmProvider(), new OllamaModelLifecycle(registry, providerClients, false, 300, 3600, 0), new LlmSpendGovernor(0.2), providerClients, 10);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            ChatCompletionResponse response = ChatCompletionStreams
+                .collect(failingOver.streamChatCompletion(request()), null)
+                .get(5, TimeUnit.SECONDS);
+            assertFalse(response.getChoices().get(0).getMessage().getContent().isEmpty());
+        }
+
+        assertEquals(2, router.snapshot().failovers());
+        assertNotNull(router.snapshot().providers().get("down").ejectedUntil(), "Two failures eject the provider");
+        assertNotEquals("down", router.route().get(0).id(), "Ejected active provider is skipped");
+        assertEquals(1.0, telemetry.snapshot().providers().get("down").errorRate());
+    }
+
+    @Test
+    void hedgedCallTakesTheFirstAcceptedResponseAndCancelsTheSlowProvider() throws Exception {
+        server.createContext("/slow/chat/completions", exchange -> {
+            try {
+                Thread.sleep(1_500);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            json(exchange, "{\"plan\":\"slow\"}");
+        });
+        server.createContext("/prose/chat/completions", exchange -> json(exchange, "Sure, here is a plan"));
+        server.createContext("/fast/chat/completions", exchange -> json(exchange, "{\"plan\":\"fast\"}"));
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        Path config = tempDir.resolve("hedged-providers.yml");
+        Files.writeString(config, """
+            activeProvider: slow
+            providers:
+              - id: slow
+                displayName: Slow
+                mode: remote
+                baseUrl: %s/slow
+                model: slow
+              - id: fast
+                displayName: Fast
+                mode: remote
+                baseUrl: %s/fast
+                model: fast
+            """.formatted(base, base));
+        LlmProviderRegistry hedgedRegistry =
+            new LlmProviderRegistry(new LlmProviderConfigLoader(new DefaultResourceLoader(), config.toUri().toString()));
+        LlmProviderRouter hedgedRouter = new LlmProviderRouter(hedgedRegistry, "active", true, 2, 60);
+        HttpLlmService hedged = new HttpLlmService(
+            hedgedRegistry,
+            hedgedRouter,
+            new LlmRequestScheduler(4, 1, 16),
+            telemetry,
+            new LlmHedgingPolicy(telemetry, "interactive", 95, 50, 100),
+            new MockLlmProvider(),
+            new OllamaModelLifecycle(hedgedRegistry, providerClients, false, 300, 3600, 0),
+            new LlmSpendGovernor(0.2),
+            providerClients,
+            10
+        );
+        ChatCompletionRequest interactive = request();
+        interactive.setPriority(LlmRequestPriority.INTERACTIVE);
+        assertTrue(hedged.isHedged(interactive));
+        assertFalse(hedged.isHedged(request()), "Only configured priorities are hedged");
+        HttpLlmService withoutFailover = new HttpLlmService(
+            hedgedRegistry,
+            new LlmProviderRouter(hedgedRegistry, "active", false, 2, 60),
+            new LlmRequestScheduler(4, 1, 16),
+            telemetry,
+            new LlmHedgingPolicy(telemetry, "interactive", 95, 50, 100),
+            new MockLlmProvider(),
+            new OllamaModelLifecycle(hedgedRegistry, providerClients, false, 300, 3600, 0),
+            new LlmSpendGovernor(0.2),
+            providerClients,
+            10
+        );
+        assertFalse(withoutFailover.isHedged(interactive), "Without failover the router offers no second provider");
+
+        long start = System.nanoTime();
+        ChatCompletionResponse response = hedged
+            .hedgedChatCompletion(interactive, candidate -> candidate.getChoices().get(0).getMessage().getContent().startsWith("{"))
+            .get(5, TimeUnit.SECONDS);
+
+        assertEquals("{\"plan\":\"fast\"}", response.getChoices().get(0).getMessage().getContent());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_200, "The hedge answers before the slow provider");
+        long abortDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (hedgedRouter.snapshot().providers().get("slow").outstanding() > 0 && System.nanoTime() < abortDeadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, hedgedRouter.snapshot().providers().get("slow").outstanding(), "The losing exchange is aborted");
+        assertNull(telemetry.snapshot().providers().get("slow"), "A cancelled loser is not recorded as a failure");
+
+        Files.writeString(config, Files.readString(config).replace("/fast", "/prose"));
+        LlmProviderRegistry proseRegistry =
+            new LlmProviderRegistry(new LlmProviderConfigLoader(new DefaultResourceLoader(), config.toUri().toString()));
+        HttpLlmService noWinner = new HttpLlmService(
+            proseRegistry,
+            new LlmProviderRouter(proseRegistry, "active", true, 2, 60),
+            new LlmRequestScheduler(4, 1, 16),
+            telemetry,
+            new LlmHedgingPolicy(telemetry, "interactive", 95, 50, 100),
+            new MockLlmProvider(),
+            new OllamaModelLifecycle(proseRegistry, providerClients, false, 300, 3600, 0),
+            new LlmSpendGovernor(0.2),
+            providerClients,
+            10
+        );
+        ChatCompletionResponse slowAccepted = noWinner
+            .hedgedChatCompletion(interactive, candidate -> candidate.getChoices().get(0).getMessage().getContent().startsWith("{"))
+            .get(5, TimeUnit.SECONDS);
+        assertEquals("{\"plan\":\"slow\"}", slowAccepted.getChoices().get(0).getMessage().getContent(),
+            "A fast but unusable response does not win the race");
+    }
+
+    @Test
+    void mockProvidersStreamTemplatedPlansAndInjectFailures() throws Exception {
+        Path config = tempDir.resolve("mock-providers.yml");
+        Files.writeString(config, """
+            activeProvider: flaky
+            providers:
+              - id: flaky
+                displayName: Always failing mock
+                mode: mock
+                model: mock-flaky
+                mock:
+                  errorRate: 1.0
+                  errorStatus: 503
+              - id: mock
+                displayName: Mock
+                mode: mock
+                model: mock-planner
+                mock:
+                  seed: 7
+                  tokensPerSecond: 2000
+                  latency:
+                    distribution: lognormal
+                    meanMs: 20
+                    stddevMs: 5
+            """);
+        LlmProviderRegistry mockRegistry =
+            new LlmProviderRegistry(new LlmProviderConfigLoader(new DefaultResourceLoader(), config.toUri().toString()));
+        HttpLlmService mocked = new HttpLlmService(
+            mockRegistry,
+            new LlmProviderRouter(mockRegistry, "active", true, 5, 60),
+            new LlmRequestScheduler(4, 1, 16),
+            telemetry,
+            new LlmHedgingPolicy(telemetry, "", 95, 250, 3000),
+            new MockLlmProvider(),
+            new OllamaModelLifecycle(mockRegistry, providerClients, false, 300, 3600, 0),
+            new LlmSpendGovernor(0.2),
+            providerClients,
+            10
+        );
+        ChatCompletionRequest request = new ChatCompletionRequest();
+        request.setModel("analysis-planner");
+        request.setMessages(List.of(new ChatCompletionRequest.Message("user", "Operations:\n- GET /orders\n- POST /orders\n")));
+        List<ChatCompletionChunk> chunks = new CopyOnWriteArrayList<>();
+
+        ChatCompletionResponse streamed = ChatCompletionStreams
+            .collect(mocked.streamChatCompletion(request), chunks::add)
+            .get(5, TimeUnit.SECONDS);
+
+        JsonNode plan = new ObjectMapper().readTree(streamed.getChoices().get(0).getMessage().getContent());
+        assertEquals(2, plan.path("httpRequests").size());
+        assertEquals("POST", plan.path("httpRequests").get(1).path("method").asText());
+        assertTrue(chunks.size() > 2, "The mock streams the plan in deltas");
+        assertTrue(streamed.getUsage().getCompletionTokens() > 0);
+        assertEquals(1.0, telemetry.snapshot().providers().get("flaky").errorRate(), "Injected failures fail over");
+        assertNotNull(telemetry.recent(1).get(0).getTimeToFirstTokenMs());
+
+        ChatCompletionResponse completed = mocked.chatCompletion(request).get(5, TimeUnit.SECONDS);
+        assertTrue(completed.getChoices().get(0).getMessage().getContent().contains("mock plan 2"));
+    }
+
+    private static ChatCompletionRequest request() {
+        ChatCompletionRequest request = new ChatCompletionRequest();
+        request.setModel("analysis-planner");
+        request.setMessages(List.of(new ChatCompletionRequest.Message("user", "plan")));
+        return request;
+    }
+
+    private static void json(HttpExchange exchange, String content) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        String body = "{\"id\":\"h1\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":"
+            + new ObjectMapper().writeValueAsString(content) + "},\"finish_reason\":\"stop\"}]}";
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static void stream(HttpExchange exchange, String contentType, List<String> parts) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream output = exchange.getResponseBody()) {
+            for (String part : parts) {
+                output.write(part.getBytes(StandardCharsets.UTF_8));
+                output.flush();
+            }
+        }
+    }
+}
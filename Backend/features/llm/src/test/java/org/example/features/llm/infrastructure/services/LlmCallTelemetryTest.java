@@ -0,0 +1,74 @@
+package org.example.features.llm.infrastructure.services;
+
+import org.example.features.llm.domain.dto.LlmAnalyticsSnapshot;
+import org.example.features.llm.domain.entities.PerformanceMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LlmCallTelemetryTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-01-01T12:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void ringKeepsTheNewestCallsAndReportsRollingPercentiles() {
+        LlmCallTelemetry telemetry = new LlmCallTelemetry(16, Duration.ofMinutes(5), clock);
+        telemetry.record(call("a", 10_000, true, LocalDateTime.now(clock).minusMinutes(10)));
+        for (int latency = 1; latency <= 20; latency++) {
+            telemetry.record(call("a", latency * 10L, latency % 10 != 0, null));
+        }
+
+        LlmAnalyticsSnapshot.TelemetrySnapshot snapshot = telemetry.snapshot();
+        LlmAnalyticsSnapshot.CallStats stats = snapshot.providers().get("a");
+
+        assertEquals(21, snapshot.recordedCalls());
+        assertEquals(16, stats.calls(), "Only the newest 16 calls fit in the ring");
+        assertEquals(120, stats.latencyMs().p50());
+        assertEquals(200, stats.latencyMs().p95());
+        assertEquals(2, stats.failures());
+        assertEquals(0.125, stats.errorRate());
+        assertEquals(100.0, stats.avgTokensPerSecond());
+        assertNull(stats.timeToFirstTokenMs());
+        assertEquals(200, telemetry.recent(1).get(0).getResponseTimeMs());
+    }
+
+    @Test
+    void comparesPromptEvaluationOfRepeatedPrefixesWithTheFirstCall() {
+        LlmCallTelemetry telemetry = new LlmCallTelemetry(16, Duration.ofMinutes(5), clock);
+        long[] evalMs = {800, 120, 80};
+        for (int index = 0; index < evalMs.length; index++) {
+            PerformanceMetrics metrics = call("ollama", 1000, true, LocalDateTime.now(clock).minusSeconds(10 - index));
+            metrics.setPromptCacheKey("planner-p1");
+            metrics.setPromptTokens(1500);
+            metrics.setPromptEvalMs(evalMs[index]);
+            metrics.setCachedPromptTokens(index == 0 ? null : 1400);
+            telemetry.record(metrics);
+        }
+        telemetry.record(call("ollama", 1000, true, null));
+
+        LlmAnalyticsSnapshot.PromptPrefixStats prefix = telemetry.snapshot().promptPrefixes().get("planner-p1");
+
+        assertEquals(1, telemetry.snapshot().promptPrefixes().size(), "Calls without a cache key are not grouped");
+        assertEquals(3, prefix.calls());
+        assertEquals(4500, prefix.promptTokens());
+        assertEquals(2800, prefix.cachedPromptTokens());
+        assertEquals(800, prefix.firstPromptEvalMs());
+        assertEquals(100.0, prefix.repeatPromptEvalMs());
+        assertEquals(0.875, prefix.promptEvalReduction());
+    }
+
+    private PerformanceMetrics call(String provider, long latencyMs, boolean success, LocalDateTime at) {
+        PerformanceMetrics metrics = new PerformanceMetrics("id", "m", "chat", latencyMs, 30, success);
+        metrics.setProviderId(provider);
+        metrics.setCompletionTokens(20);
+        metrics.setTokensPerSecond(100.0);
+        metrics.setTimestamp(at != null ? at : LocalDateTime.now(clock).plusNanos(latencyMs));
+        return metrics;
+    }
+}
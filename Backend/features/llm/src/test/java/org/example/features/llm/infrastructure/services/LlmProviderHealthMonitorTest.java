@@ -0,0 +1,94 @@
+package org.example.features.llm.infrastructure.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.features.llm.infrastructure.config.LlmProviderConfigLoader;
+import org.example.features.llmproviders.LlmProviderClients;
+import org.example.features.llmproviders.ProviderClientSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LlmProviderHealthMonitorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final LlmProviderClients providerClients = new LlmProviderClients(ProviderClientSettings.defaults());
+    private HttpServer server;
+
+    @AfterEach
+    void tearDown() {
+        providerClients.shutdown();
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void routesAroundProvidersFailingTheirProbesAndFailsFastWhenNoneAreLeft() throws Exception {
+        AtomicInteger secondaryStatus = new AtomicInteger(200);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/a/models", exchange -> respond(exchange, 503));
+        server.createContext("/b/models", exchange -> respond(exchange, secondaryStatus.get()));
+        server.start();
+        int port = server.getAddress().getPort();
+        Path config = tempDir.resolve("providers.yml");
+        Files.writeString(config, """
+            activeProvider: a
+            providers:
+              - id: a
+                mode: remote
+                baseUrl: http://127.0.0.1:%1$d/a
+                model: m
+              - id: b
+                mode: remote
+                baseUrl: http://127.0.0.1:%1$d/b
+                model: m
+            """.formatted(port));
+        LlmProviderRegistry registry =
+            new LlmProviderRegistry(new LlmProviderConfigLoader(new DefaultResourceLoader(), config.toUri().toString()));
+        LlmProviderHealthMonitor monitor = new LlmProviderHealthMonitor(registry, new LlmConnectivityProbe(providerClients), 0, 2);
+        LlmProviderRouter router = new LlmProviderRouter(registry, "active", true, 3, 30, monitor);
+
+        monitor.refreshAll();
+        assertEquals("a", router.route().get(0).id(), "One failed probe is below the threshold");
+
+        monitor.refreshAll();
+        assertFalse(monitor.isHealthy("a"));
+        assertEquals(2, monitor.health("a").orElseThrow().consecutiveFailures());
+        assertEquals(1, router.route().size());
+        assertEquals("b", router.route().get(0).id(), "The primary is skipped after two failed probes");
+        assertTrue(router.hasHealthyProvider());
+
+        secondaryStatus.set(500);
+        monitor.refreshAll();
+        monitor.refreshAll();
+        assertFalse(router.hasHealthyProvider());
+        assertThrows(IllegalStateException.class, router::route);
+
+        secondaryStatus.set(200);
+        assertTrue(monitor.refresh(registry.getProvider("b").orElseThrow()).join().success());
+        assertTrue(monitor.isHealthy("b"), "A single successful probe restores the provider");
+        assertEquals("b", router.route().get(0).id());
+        monitor.shutdown();
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        exchange.sendResponseHeaders(status, -1);
+        try (OutputStream ignored = exchange.getResponseBody()) {
+            // no body
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.features.llm.infrastructure.services;
+
+import org.example.features.llm.infrastructure.config.LlmProviderConfigLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LlmProviderRouterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void weightedRoundRobinFollowsWeightsAndLeastOutstandingAvoidsBusyProviders() throws Exception {
+        LlmProviderRegistry registry = registry();
+        LlmProviderRouter weighted = new LlmProviderRouter(registry, "weighted-round-robin", true, 3, 30);
+        Map<String, Integer> picks = new HashMap<>();
+        for (int index = 0; index < 8; index++) {
+            picks.merge(weighted.route().get(0).id(), 1, Integer::sum);
+        }
+        assertEquals(6, picks.get("a"));
+        assertEquals(2, picks.get("b"));
+
+        LlmProviderRouter leastOutstanding = new LlmProviderRouter(registry, "least_outstanding", true, 3, 30);
+        leastOutstanding.begin("a");
+        leastOutstanding.begin("a");
+        leastOutstanding.begin("a");
+        leastOutstanding.begin("a");
+        assertEquals("b", leastOutstanding.route().get(0).id(), "4 in flight at weight 3 outweighs 0 at weight 1");
+    }
+
+    @Test
+    void switchingIsLockFreeAndCounted() throws Exception {
+        LlmProviderRegistry registry = registry();
+        assertTrue(registry.switchTo("b"));
+        assertTrue(registry.switchTo("b"));
+        assertFalse(registry.switchTo("missing"));
+        assertEquals("b", registry.snapshot().activeProviderId());
+        assertEquals(1, registry.snapshot().switchCount());
+
+        LlmProviderRouter active = new LlmProviderRouter(registry, "active", false, 3, 30);
+        assertEquals(1, active.route().size(), "Without failover only the primary is returned");
+        assertEquals("b", active.route().get(0).id());
+    }
+
+    private LlmProviderRegistry registry() throws Exception {
+        Path config = tempDir.resolve("providers.yml");
+        Files.writeString(config, """
+            activeProvider: a
+            providers:
+              - id: a
+                mode: remote
+                baseUrl: http://a.invalid
+                model: m
+                metadata:
+                  weight: 3
+              - id: b
+                mode: remote
+                baseUrl: http://b.invalid
+                model: m
+              - id: off
+                mode: remote
+                baseUrl: http://off.invalid
+                enabled: false
+            """);
+        return new LlmProviderRegistry(new LlmProviderConfigLoader(new DefaultResourceLoader(), config.toUri().toString()));
+    }
+}
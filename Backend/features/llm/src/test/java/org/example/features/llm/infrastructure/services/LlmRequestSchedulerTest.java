@@ -0,0 +1,101 @@
+package org.example.features.llm.infrastructure.services;
+
+import org.example.features.llm.domain.dto.LlmAnalyticsSnapshot;
+import org.example.features.llm.domain.dto.LlmRequestPriority;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LlmRequestSchedulerTest {
+
+    private static final LlmProviderRegistry.ProviderDescriptor GPU =
+        new LlmProviderRegistry.ProviderDescriptor("gpu", "GPU", "local", "http://gpu.invalid", null, "m", true, 1, null, null, null, null);
+
+    @Test
+    void interactiveRequestsOvertakeQueuedBatchWork() {
+        LlmRequestScheduler scheduler = new LlmRequestScheduler(4, 1, 16);
+        LlmRequestScheduler.Permit running = scheduler.acquire(GPU, LlmRequestPriority.BATCH, null, 0).join();
+        List<String> order = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<Void>> waiting = new ArrayList<>();
+        waiting.add(track(scheduler.acquire(GPU, LlmRequestPriority.BACKGROUND, null, 0), "background", order));
+        waiting.add(track(scheduler.acquire(GPU, LlmRequestPriority.BATCH, null, 0), "batch", order));
+        waiting.add(track(scheduler.acquire(GPU, LlmRequestPriority.INTERACTIVE, null, 0), "interactive", order));
+
+        LlmAnalyticsSnapshot.ProviderQueueStats stats = scheduler.snapshot().providers().get("gpu");
+        assertEquals(1, stats.maxConcurrency(), "Local providers default to the local concurrency limit");
+        assertEquals(1, stats.active());
+        assertEquals(3, stats.queueDepth());
+
+        running.release();
+        running.release();
+        CompletableFuture.allOf(waiting.toArray(CompletableFuture[]::new)).join();
+
+        assertEquals(List.of("interactive", "batch", "background"), order);
+        assertEquals(0, scheduler.snapshot().providers().get("gpu").active(), "Releasing twice must not free two slots");
+        scheduler.shutdown();
+    }
+
+    @Test
+    void queuedRequestsThatWouldMissTheirDeadlineAreDroppedAndFullQueuesReject() {
+        LlmRequestScheduler scheduler = new LlmRequestScheduler(4, 1, 1);
+        LlmRequestScheduler.Permit running = scheduler.acquire(GPU, LlmRequestPriority.NORMAL, null, 0).join();
+        CompletableFuture<LlmRequestScheduler.Permit> tight =
+            scheduler.acquire(GPU, LlmRequestPriority.NORMAL, Instant.now().plusMillis(200), 150);
+        CompletableFuture<LlmRequestScheduler.Permit> overflow = scheduler.acquire(GPU, LlmRequestPriority.NORMAL, null, 0);
+
+        CompletionException rejected = assertThrows(CompletionException.class, overflow::join);
+        assertEquals(LlmRequestRejectedException.Reason.QUEUE_FULL,
+            ((LlmRequestRejectedException) rejected.getCause()).getReason());
+
+        CompletionException dropped = assertThrows(CompletionException.class, tight::join);
+        assertEquals(LlmRequestRejectedException.Reason.DEADLINE,
+            ((LlmRequestRejectedException) dropped.getCause()).getReason());
+        running.release();
+
+        LlmAnalyticsSnapshot.ProviderQueueStats stats = scheduler.snapshot().providers().get("gpu");
+        assertEquals(1, stats.droppedPastDeadline());
+        assertEquals(1, stats.rejectedQueueFull());
+        assertEquals(1, stats.dispatched(), "The dropped request was never sent");
+        scheduler.shutdown();
+    }
+
+    @Test
+    void aCallThatTimedOutDoesNotLockTheProviderOut() {
+        LlmRequestScheduler scheduler = new LlmRequestScheduler(4, 1, 4);
+        long timeoutMillis = 190_000;
+        // the first call ran into the request timeout, so the latency average now equals it
+        LlmRequestScheduler.Permit timedOut = scheduler.acquire(
+            GPU, LlmRequestPriority.NORMAL, Instant.now().plusMillis(timeoutMillis), 0).join();
+        timedOut.release();
+
+        CompletableFuture<LlmRequestScheduler.Permit> next = scheduler.acquire(
+            GPU, LlmRequestPriority.NORMAL, Instant.now().plusMillis(timeoutMillis), timeoutMillis);
+        assertTrue(next.isDone() && !next.isCompletedExceptionally(), "A free slot is taken whatever the latency estimate");
+
+        CompletableFuture<LlmRequestScheduler.Permit> queued = scheduler.acquire(
+            GPU, LlmRequestPriority.NORMAL, Instant.now().plusMillis(timeoutMillis), timeoutMillis / 2);
+        assertFalse(queued.isDone(), "With the estimate capped below the timeout a queued call still waits");
+        next.join().release();
+        queued.join().release();
+        assertEquals(0, scheduler.snapshot().providers().get("gpu").droppedPastDeadline());
+        scheduler.shutdown();
+    }
+
+    private static CompletableFuture<Void> track(
+        CompletableFuture<LlmRequestScheduler.Permit> future,
+        String name,
+        List<String> order
+    ) {
+        return future.thenAccept(permit -> {
+            order.add(name);
+            permit.release();
+        });
+    }
+}
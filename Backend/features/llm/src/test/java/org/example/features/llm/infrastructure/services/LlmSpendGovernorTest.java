@@ -0,0 +1,73 @@
+package org.example.features.llm.infrastructure.services;
+
+import org.example.features.llm.domain.dto.LlmAnalyticsSnapshot;
+import org.example.features.llm.domain.dto.LlmRequestPriority;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LlmSpendGovernorTest {
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+
+    @Test
+    void defersCallsUntilTheBucketsRefillAndKeepsAReserveForInteractiveWork() {
+        LlmSpendGovernor governor = new LlmSpendGovernor(0.2, now::get);
+        LlmProviderRegistry.ProviderDescriptor remote = provider(new LlmProviderRegistry.SpendLimits(1000, 3, null));
+
+        LlmSpendGovernor.Grant first = governor.admit(remote, LlmRequestPriority.INTERACTIVE, null, 700).join();
+        CompletableFuture<LlmSpendGovernor.Grant> batch = governor.admit(remote, LlmRequestPriority.BATCH, null, 150);
+        assertFalse(batch.isDone(), "300 tokens left, 200 of them reserved for interactive calls");
+
+        CompletableFuture<LlmSpendGovernor.Grant> interactive = governor.admit(remote, LlmRequestPriority.INTERACTIVE, null, 250);
+        assertTrue(interactive.isDone(), "Interactive calls may use the reserve and do not queue behind batch work");
+
+        first.settle(400);
+        assertTrue(batch.isDone(), "The unused part of the estimate went back into the bucket");
+
+        CompletableFuture<LlmSpendGovernor.Grant> late = governor.admit(remote, LlmRequestPriority.NORMAL, null, 10);
+        assertFalse(late.isDone(), "Three requests per minute are used up");
+        now.addAndGet(20_000);
+        governor.sweep();
+        assertTrue(late.isDone());
+
+        LlmAnalyticsSnapshot.ProviderBudgetStats stats = governor.snapshot().providers().get("remote");
+        assertEquals(2, stats.deferredTotal());
+        assertEquals(0, stats.deferred());
+        assertEquals(0, stats.requestsAvailable());
+    }
+
+    @Test
+    void rejectsUrgentCallsPastTheDailyBudgetAndDropsDeferredCallsAtTheirDeadline() {
+        LlmSpendGovernor governor = new LlmSpendGovernor(0.2, now::get);
+        LlmProviderRegistry.ProviderDescriptor remote = provider(new LlmProviderRegistry.SpendLimits(null, null, 1000));
+
+        governor.admit(remote, LlmRequestPriority.INTERACTIVE, null, 600).join().settle(900);
+        CompletionException rejected = assertThrows(CompletionException.class,
+            () -> governor.admit(remote, LlmRequestPriority.INTERACTIVE, null, 200).join());
+        assertEquals(LlmRequestRejectedException.Reason.BUDGET, ((LlmRequestRejectedException) rejected.getCause()).getReason());
+
+        CompletableFuture<LlmSpendGovernor.Grant> background = governor.admit(
+            remote, LlmRequestPriority.BACKGROUND, Instant.ofEpochMilli(now.get() + 1_000), 50);
+        assertFalse(background.isDone(), "Low-priority work waits instead of failing");
+        now.addAndGet(2_000);
+        governor.sweep();
+        CompletionException dropped = assertThrows(CompletionException.class, background::join);
+        assertEquals(LlmRequestRejectedException.Reason.DEADLINE, ((LlmRequestRejectedException) dropped.getCause()).getReason());
+
+        assertEquals(100L, governor.snapshot().providers().get("remote").dailyTokensRemaining());
+        now.addAndGet(86_400_000L);
+        assertEquals(1000L, governor.snapshot().providers().get("remote").dailyTokensRemaining(), "The budget resets every day");
+        assertTrue(governor.admit(provider(null), LlmRequestPriority.BATCH, null, 1_000_000).isDone(), "No limits, no metering");
+    }
+
+    private static LlmProviderRegistry.ProviderDescriptor provider(LlmProviderRegistry.SpendLimits limits) {
+        return new LlmProviderRegistry.ProviderDescriptor(
+            "remote", "Remote", "remote", "http://remote.invalid", "key", "m", true, 1, null, null, null, limits);
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.features.llm.infrastructure.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.features.llm.domain.dto.LlmAnalyticsSnapshot;
+import org.example.features.llm.infrastructure.config.LlmProviderConfigLoader;
+import org.example.features.llmproviders.LlmProviderClients;
+import org.example.features.llmproviders.ProviderClientSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaModelLifecycleTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final LlmProviderClients providerClients = new LlmProviderClients(ProviderClientSettings.defaults());
+    private HttpServer server;
+
+    @AfterEach
+    void tearDown() {
+        providerClients.shutdown();
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void warmsUpStretchesKeepAliveToTheTrafficAndCountsColdStarts() throws Exception {
+        List<String> generateBodies = new CopyOnWriteArrayList<>();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/generate", exchange -> {
+            generateBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            respond(exchange, "{\"model\":\"llama\",\"done\":true}");
+        });
+        server.createContext("/api/ps", exchange -> respond(exchange, "{\"models\":[]}"));
+        server.start();
+        Path config = tempDir.resolve("llm-providers.yml");
+        Files.writeString(config, """
+            activeProvider: ollama
+            providers:
+              - id: ollama
+                mode: local
+                baseUrl: http://127.0.0.1:%d
+                model: llama
+            """.formatted(server.getAddress().getPort()));
+        LlmProviderRegistry registry =
+            new LlmProviderRegistry(new LlmProviderConfigLoader(new DefaultResourceLoader(), config.toUri().toString()));
+        AtomicLong now = new AtomicLong(1_000_000);
+        OllamaModelLifecycle lifecycle = new OllamaModelLifecycle(registry, providerClients, true, 300, 3600, 0, now::get);
+        LlmProviderRegistry.ProviderDescriptor ollama = registry.getActiveProvider().orElseThrow();
+
+        assertTrue(lifecycle.warmUp(ollama, "llama").get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("{\"model\":\"llama\",\"keep_alive\":\"300s\"}"), generateBodies);
+
+        assertEquals("300s", lifecycle.keepAliveFor(ollama, "llama"), "Warmed up, so the first call is warm");
+        for (int call = 0; call < 3; call++) {
+            now.addAndGet(600_000);
+            lifecycle.keepAliveFor(ollama, "llama");
+        }
+        now.addAndGet(600_000);
+        assertEquals("900s", lifecycle.keepAliveFor(ollama, "llama"), "Calls ten minutes apart keep the model for 15 minutes");
+
+        LlmAnalyticsSnapshot.ModelLoadStats stats = lifecycle.snapshot().models().get("ollama/llama");
+        assertEquals("LOADED", stats.state());
+        assertEquals(5, stats.calls());
+        assertEquals(3, stats.coldStarts(), "Three calls arrived after the five minute keep-alive had run out");
+        assertEquals(1, stats.warmUps());
+
+        now.addAndGet(60_000);
+        lifecycle.poll();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (generateBodies.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, generateBodies.size(), "A model dropped before its keep-alive ran out is loaded again");
+        assertEquals("{\"model\":\"llama\",\"keep_alive\":\"900s\"}", generateBodies.get(1));
+        lifecycle.shutdown();
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
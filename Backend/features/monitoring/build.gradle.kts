@@ -17,6 +17,7 @@ repositories {
 dependencies {
     implementation(project(":shared"))
     implementation(project(":features:llm"))
+    implementation(project(":features:analysis_processes"))
     implementation(libs.spring.boot.starter)
     implementation(libs.spring.boot.starter.web)
     implementation(libs.spring.boot.starter.validation)
@@ -0,0 +1,21 @@
+package org.example.features.monitoring.monitoring.application.dto;
+
+import java.time.Instant;
+
+public record HttpHostStatusResponse(
+    String host,
+    String circuit,
+    boolean throttled,
+    int concurrencyLimit,
+    int inFlight,
+    int queued,
+    int consecutiveFailures,
+    long successes,
+    long throttledResponses,
+    long failures,
+    long rejected,
+    double averageLatencyMs,
+    Integer lastStatus,
+    Instant retryAfterUntil,
+    Instant openUntil
+) {}
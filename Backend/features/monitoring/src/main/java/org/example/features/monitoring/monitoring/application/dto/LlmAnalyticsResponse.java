@@ -12,7 +12,11 @@ public record LlmAnalyticsResponse(
     String activeProviderMode,
     long switches,
     Instant lastSwitchAt,
-    List<LlmProviderResponse> providers
+    List<LlmProviderResponse> providers,
+    LlmCacheResponse cache,
+    String routingStrategy,
+    long failovers,
+    LlmBatchResponse batching
 ) {
 
     public record LlmProviderResponse(
@@ -22,6 +26,72 @@ public record LlmAnalyticsResponse(
         String baseUrl,
         boolean available,
         boolean requiresApiKey,
-        boolean active
+        boolean active,
+        Integer outstandingRequests,
+        Double ewmaLatencyMs,
+        boolean ejected,
+        Boolean healthy,
+        Long probeLatencyMs,
+        Integer maxConcurrency,
+        Integer queueDepth,
+        Double avgQueueWaitMs,
+        Long droppedPastDeadline,
+        LlmCallStatsResponse calls,
+        LlmModelLoadResponse modelLoad,
+        LlmBudgetResponse budget
+    ) {}
+
+    /** Remaining spend of a provider with configured limits. */
+    public record LlmBudgetResponse(
+        Integer tokensPerMinute,
+        long tokensAvailable,
+        Integer requestsPerMinute,
+        long requestsAvailable,
+        Integer dailyTokenBudget,
+        Long dailyTokensRemaining,
+        int deferred,
+        long rejected
+    ) {}
+
+    /** Residency of a local provider's configured model. */
+    public record LlmModelLoadResponse(
+        String state,
+        long keepAliveSeconds,
+        Long residentForSeconds,
+        long coldStarts,
+        long warmUps,
+        Long lastLoadMs
+    ) {}
+
+    public record LlmCallStatsResponse(
+        int calls,
+        double errorRate,
+        Long p50LatencyMs,
+        Long p95LatencyMs,
+        Long p99LatencyMs,
+        Long p50TimeToFirstTokenMs,
+        Long p95TimeToFirstTokenMs,
+        Long p95QueueWaitMs,
+        Double avgTokensPerSecond,
+        long promptTokens,
+        long completionTokens
+    ) {}
+
+    public record LlmCacheResponse(
+        boolean enabled,
+        boolean diskEnabled,
+        int entries,
+        long weightBytes,
+        long hits,
+        long misses,
+        long bypasses,
+        double hitRatio,
+        long latencySavedMs
+    ) {}
+
+    public record LlmBatchResponse(
+        long packedCalls,
+        long packedRequests,
+        long unpackedRetries
     ) {}
 }
@@ -18,7 +18,14 @@ public class LlmAnalyticsMapper {
         LlmAnalyticsSnapshot.ProviderSnapshot activeSnapshot =
             providerSnapshotMap.get(snapshot.activeProviderId());
 
-        providerSnapshotMap.forEach((id, provider) ->
+        LlmAnalyticsSnapshot.RoutingSnapshot routing = snapshot.routing();
+        LlmAnalyticsSnapshot.SchedulerSnapshot scheduler = snapshot.scheduler();
+        LlmAnalyticsSnapshot.TelemetrySnapshot telemetry = snapshot.telemetry();
+        LlmAnalyticsSnapshot.ModelLifecycleSnapshot models = snapshot.models();
+        LlmAnalyticsSnapshot.BudgetSnapshot budgets = snapshot.budgets();
+        providerSnapshotMap.forEach((id, provider) -> {
+            LlmAnalyticsSnapshot.ProviderRouteStats route = routing != null ? routing.providers().get(id) : null;
+            LlmAnalyticsSnapshot.ProviderQueueStats queue = scheduler != null ? scheduler.providers().get(id) : null;
             providers.add(new LlmAnalyticsResponse.LlmProviderResponse(
                 provider.id(),
                 provider.displayName(),
@@ -26,9 +33,21 @@ public class LlmAnalyticsMapper {
                 provider.baseUrl(),
                 provider.enabled(),
                 provider.requiresApiKey(),
-                id.equals(snapshot.activeProviderId())
-            ))
-        );
+                id.equals(snapshot.activeProviderId()),
+                route != null ? route.outstanding() : null,
+                route != null ? route.ewmaLatencyMs() : null,
+                route != null && route.ejectedUntil() != null,
+                route != null ? route.healthy() : null,
+                route != null ? route.probeLatencyMs() : null,
+                queue != null ? queue.maxConcurrency() : null,
+                queue != null ? queue.queueDepth() : null,
+                queue != null ? queue.avgWaitMs() : null,
+                queue != null ? queue.droppedPastDeadline() : null,
+                mapCalls(telemetry != null ? telemetry.providers().get(id) : null),
+                mapModelLoad(models != null ? models.models().get(id + "/" + provider.model()) : null),
+                mapBudget(budgets != null ? budgets.providers().get(id) : null)
+            ));
+        });
 
         return new LlmAnalyticsResponse(
             snapshot.activeProviderId(),
@@ -36,7 +55,91 @@ public class LlmAnalyticsMapper {
             activeSnapshot != null ? activeSnapshot.mode() : null,
             snapshot.switchCount(),
             snapshot.lastSwitchAt(),
-            providers
+            providers,
+            mapCache(snapshot.cache()),
+            routing != null ? routing.strategy() : null,
+            routing != null ? routing.failovers() : 0,
+            mapBatching(snapshot.batching())
+        );
+    }
+
+    private LlmAnalyticsResponse.LlmCallStatsResponse mapCalls(LlmAnalyticsSnapshot.CallStats calls) {
+        if (calls == null) {
+            return null;
+        }
+        LlmAnalyticsSnapshot.Percentiles latency = calls.latencyMs();
+        LlmAnalyticsSnapshot.Percentiles firstToken = calls.timeToFirstTokenMs();
+        LlmAnalyticsSnapshot.Percentiles queueWait = calls.queueWaitMs();
+        return new LlmAnalyticsResponse.LlmCallStatsResponse(
+            calls.calls(),
+            calls.errorRate(),
+            latency != null ? latency.p50() : null,
+            latency != null ? latency.p95() : null,
+            latency != null ? latency.p99() : null,
+            firstToken != null ? firstToken.p50() : null,
+            firstToken != null ? firstToken.p95() : null,
+            queueWait != null ? queueWait.p95() : null,
+            calls.avgTokensPerSecond(),
+            calls.promptTokens(),
+            calls.completionTokens()
+        );
+    }
+
+    private LlmAnalyticsResponse.LlmModelLoadResponse mapModelLoad(LlmAnalyticsSnapshot.ModelLoadStats model) {
+        if (model == null) {
+            return null;
+        }
+        return new LlmAnalyticsResponse.LlmModelLoadResponse(
+            model.state(),
+            model.keepAliveSeconds(),
+            model.residentForSeconds(),
+            model.coldStarts(),
+            model.warmUps(),
+            model.lastLoadMs()
+        );
+    }
+
+    private LlmAnalyticsResponse.LlmBudgetResponse mapBudget(LlmAnalyticsSnapshot.ProviderBudgetStats budget) {
+        if (budget == null) {
+            return null;
+        }
+        return new LlmAnalyticsResponse.LlmBudgetResponse(
+            budget.tokensPerMinute(),
+            budget.tokensAvailable(),
+            budget.requestsPerMinute(),
+            budget.requestsAvailable(),
+            budget.dailyTokenBudget(),
+            budget.dailyTokensRemaining(),
+            budget.deferred(),
+            budget.rejected()
+        );
+    }
+
+    private LlmAnalyticsResponse.LlmBatchResponse mapBatching(LlmAnalyticsSnapshot.BatchSnapshot batching) {
+        if (batching == null) {
+            return null;
+        }
+        return new LlmAnalyticsResponse.LlmBatchResponse(
+            batching.packedCalls(),
+            batching.packedRequests(),
+            batching.unpackedRetries()
+        );
+    }
+
+    private LlmAnalyticsResponse.LlmCacheResponse mapCache(LlmAnalyticsSnapshot.CacheSnapshot cache) {
+        if (cache == null) {
+            return null;
+        }
+        return new LlmAnalyticsResponse.LlmCacheResponse(
+            cache.enabled(),
+            cache.diskEnabled(),
+            cache.entries(),
+            cache.weightBytes(),
+            cache.hits(),
+            cache.misses(),
+            cache.bypasses(),
+            cache.hitRatio(),
+            cache.latencySavedMs()
         );
     }
 }
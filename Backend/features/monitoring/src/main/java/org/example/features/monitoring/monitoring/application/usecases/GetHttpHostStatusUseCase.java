@@ -0,0 +1,10 @@
+package org.example.features.monitoring.monitoring.application.usecases;
+
+import org.example.features.monitoring.monitoring.application.dto.HttpHostStatusResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface GetHttpHostStatusUseCase {
+    CompletableFuture<List<HttpHostStatusResponse>> execute();
+}
@@ -1,6 +1,6 @@
 package org.example.features.monitoring.monitoring.application.usecases.impl;
 
-import org.example.features.llm.infrastructure.services.LlmConnectivityProbe;
+import org.example.features.llm.infrastructure.services.LlmProviderHealthMonitor;
 import org.example.features.llm.infrastructure.services.LlmProviderRegistry;
 import org.example.features.monitoring.monitoring.application.dto.LlmConnectivityResponse;
 import org.example.features.monitoring.monitoring.application.usecases.CheckLlmConnectivityUseCase;
@@ -12,22 +12,21 @@ import java.util.concurrent.CompletableFuture;
 public class CheckLlmConnectivityUseCaseImpl implements CheckLlmConnectivityUseCase {
 
     private final LlmProviderRegistry registry;
-    private final LlmConnectivityProbe probe;
+    private final LlmProviderHealthMonitor healthMonitor;
 
     public CheckLlmConnectivityUseCaseImpl(
         LlmProviderRegistry registry,
-        LlmConnectivityProbe probe
+        LlmProviderHealthMonitor healthMonitor
     ) {
         this.registry = registry;
-        this.probe = probe;
+        this.healthMonitor = healthMonitor;
     }
 
     @Override
     public CompletableFuture<LlmConnectivityResponse> execute() {
         return registry.getActiveProvider()
-            .map(provider -> {
-                LlmConnectivityProbe.ProbeResult result = probe.probe(provider);
-                return new LlmConnectivityResponse(
+            .map(provider -> healthMonitor.check(provider)
+                .thenApply(result -> new LlmConnectivityResponse(
                     provider.id(),
                     provider.displayName(),
                     result.success(),
@@ -35,9 +34,7 @@ public class CheckLlmConnectivityUseCaseImpl implements CheckLlmConnectivityUseC
                     result.latencyMs(),
                     result.endpoint(),
                     result.message()
-                );
-            })
-            .map(CompletableFuture::completedFuture)
+                )))
             .orElseGet(() -> {
                 CompletableFuture<LlmConnectivityResponse> failed = new CompletableFuture<>();
                 failed.completeExceptionally(new IllegalStateException("No active LLM provider configured"));
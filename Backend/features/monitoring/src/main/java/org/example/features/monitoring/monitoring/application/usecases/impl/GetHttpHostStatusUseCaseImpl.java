@@ -0,0 +1,45 @@
+package org.example.features.monitoring.monitoring.application.usecases.impl;
+
+import org.example.features.analysis_processes.application.services.HostThrottleRegistry;
+import org.example.features.monitoring.monitoring.application.dto.HttpHostStatusResponse;
+import org.example.features.monitoring.monitoring.application.usecases.GetHttpHostStatusUseCase;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class GetHttpHostStatusUseCaseImpl implements GetHttpHostStatusUseCase {
+
+    private final HostThrottleRegistry hostThrottle;
+
+    public GetHttpHostStatusUseCaseImpl(HostThrottleRegistry hostThrottle) {
+        this.hostThrottle = hostThrottle;
+    }
+
+    @Override
+    public CompletableFuture<List<HttpHostStatusResponse>> execute() {
+        Instant now = Instant.now();
+        return CompletableFuture.completedFuture(hostThrottle.snapshot().stream()
+            .map(status -> new HttpHostStatusResponse(
+                status.host(),
+                status.circuit().name(),
+                status.circuit() != HostThrottleRegistry.CircuitState.CLOSED
+                    || (status.retryAfterUntil() != null && status.retryAfterUntil().isAfter(now)),
+                status.concurrencyLimit(),
+                status.inFlight(),
+                status.queued(),
+                status.consecutiveFailures(),
+                status.successes(),
+                status.throttled(),
+                status.failures(),
+                status.rejected(),
+                status.ewmaLatencyMs(),
+                status.lastStatus(),
+                status.retryAfterUntil(),
+                status.openUntil()
+            ))
+            .toList());
+    }
+}
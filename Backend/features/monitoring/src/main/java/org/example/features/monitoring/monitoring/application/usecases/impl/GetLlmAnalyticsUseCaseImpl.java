@@ -1,6 +1,6 @@
 package org.example.features.monitoring.monitoring.application.usecases.impl;
 
-import org.example.features.llm.infrastructure.services.LlmProviderRegistry;
+import org.example.features.llm.infrastructure.services.LlmAnalyticsCollector;
 import org.example.features.monitoring.monitoring.application.dto.LlmAnalyticsResponse;
 import org.example.features.monitoring.monitoring.application.mappers.LlmAnalyticsMapper;
 import org.example.features.monitoring.monitoring.application.usecases.GetLlmAnalyticsUseCase;
@@ -11,16 +11,16 @@ import java.util.concurrent.CompletableFuture;
 @Service
 public class GetLlmAnalyticsUseCaseImpl implements GetLlmAnalyticsUseCase {
 
-    private final LlmProviderRegistry registry;
+    private final LlmAnalyticsCollector analyticsCollector;
     private final LlmAnalyticsMapper mapper;
 
-    public GetLlmAnalyticsUseCaseImpl(LlmProviderRegistry registry, LlmAnalyticsMapper mapper) {
-        this.registry = registry;
+    public GetLlmAnalyticsUseCaseImpl(LlmAnalyticsCollector analyticsCollector, LlmAnalyticsMapper mapper) {
+        this.analyticsCollector = analyticsCollector;
         this.mapper = mapper;
     }
 
     @Override
     public CompletableFuture<LlmAnalyticsResponse> execute() {
-        return CompletableFuture.completedFuture(mapper.map(registry.snapshot()));
+        return CompletableFuture.completedFuture(mapper.map(analyticsCollector.snapshot()));
     }
 }
@@ -1,5 +1,6 @@
 package org.example.features.monitoring.monitoring.application.usecases.impl;
 
+import org.example.features.llm.infrastructure.services.LlmAnalyticsCollector;
 import org.example.features.llm.infrastructure.services.LlmProviderRegistry;
 import org.example.features.monitoring.monitoring.application.dto.LlmAnalyticsResponse;
 import org.example.features.monitoring.monitoring.application.mappers.LlmAnalyticsMapper;
@@ -12,10 +13,16 @@ import java.util.concurrent.CompletableFuture;
 public class SwitchLlmProviderUseCaseImpl implements SwitchLlmProviderUseCase {
 
     private final LlmProviderRegistry registry;
+    private final LlmAnalyticsCollector analyticsCollector;
     private final LlmAnalyticsMapper mapper;
 
-    public SwitchLlmProviderUseCaseImpl(LlmProviderRegistry registry, LlmAnalyticsMapper mapper) {
+    public SwitchLlmProviderUseCaseImpl(
+        LlmProviderRegistry registry,
+        LlmAnalyticsCollector analyticsCollector,
+        LlmAnalyticsMapper mapper
+    ) {
         this.registry = registry;
+        this.analyticsCollector = analyticsCollector;
         this.mapper = mapper;
     }
 
@@ -27,6 +34,6 @@ public class SwitchLlmProviderUseCaseImpl implements SwitchLlmProviderUseCase {
                 new IllegalArgumentException("Unknown LLM provider: " + providerId));
             return failedFuture;
         }
-        return CompletableFuture.completedFuture(mapper.map(registry.snapshot()));
+        return CompletableFuture.completedFuture(mapper.map(analyticsCollector.snapshot()));
     }
 }
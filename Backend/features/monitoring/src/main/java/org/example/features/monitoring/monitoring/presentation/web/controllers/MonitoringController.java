@@ -1,11 +1,13 @@
 package org.example.features.monitoring.monitoring.presentation.web.controllers;
 
 import org.example.features.monitoring.monitoring.application.dto.AlertResponse;
+import org.example.features.monitoring.monitoring.application.dto.HttpHostStatusResponse;
 import org.example.features.monitoring.monitoring.application.dto.LlmAnalyticsResponse;
 import org.example.features.monitoring.monitoring.application.dto.LlmConnectivityResponse;
 import org.example.features.monitoring.monitoring.application.dto.MetricResponse;
 import org.example.features.monitoring.monitoring.application.dto.SystemHealthResponse;
 import org.example.features.monitoring.monitoring.application.usecases.GetAlertsUseCase;
+import org.example.features.monitoring.monitoring.application.usecases.GetHttpHostStatusUseCase;
 import org.example.features.monitoring.monitoring.application.usecases.GetLlmAnalyticsUseCase;
 import org.example.features.monitoring.monitoring.application.usecases.GetMetricsUseCase;
 import org.example.features.monitoring.monitoring.application.usecases.GetSystemHealthUseCase;
@@ -43,19 +45,22 @@ public class MonitoringController {
     private final GetLlmAnalyticsUseCase getLlmAnalyticsUseCase;
     private final SwitchLlmProviderUseCase switchLlmProviderUseCase;
     private final CheckLlmConnectivityUseCase checkLlmConnectivityUseCase;
+    private final GetHttpHostStatusUseCase getHttpHostStatusUseCase;
 
     public MonitoringController(GetSystemHealthUseCase getSystemHealthUseCase,
                                 GetMetricsUseCase getMetricsUseCase,
                                 GetAlertsUseCase getAlertsUseCase,
                                 GetLlmAnalyticsUseCase getLlmAnalyticsUseCase,
                                 SwitchLlmProviderUseCase switchLlmProviderUseCase,
-                                CheckLlmConnectivityUseCase checkLlmConnectivityUseCase) {
+                                CheckLlmConnectivityUseCase checkLlmConnectivityUseCase,
+                                GetHttpHostStatusUseCase getHttpHostStatusUseCase) {
         this.getSystemHealthUseCase = getSystemHealthUseCase;
         this.getMetricsUseCase = getMetricsUseCase;
         this.getAlertsUseCase = getAlertsUseCase;
         this.getLlmAnalyticsUseCase = getLlmAnalyticsUseCase;
         this.switchLlmProviderUseCase = switchLlmProviderUseCase;
         this.checkLlmConnectivityUseCase = checkLlmConnectivityUseCase;
+        this.getHttpHostStatusUseCase = getHttpHostStatusUseCase;
     }
 
     @GetMapping("/health")
@@ -134,6 +139,12 @@ public class MonitoringController {
             });
     }
 
+    @GetMapping("/http/hosts")
+    public CompletableFuture<ResponseEntity<ApiResponse<List<HttpHostStatusResponse>>>> getHttpHostStatus() {
+        return getHttpHostStatusUseCase.execute()
+            .thenApply(responses -> ResponseEntity.ok(ApiResponse.success(responses)));
+    }
+
     private SystemHealthResponse mapToSystemHealthResponse(SystemHealth health) {
         return new SystemHealthResponse(
             health.getId(),